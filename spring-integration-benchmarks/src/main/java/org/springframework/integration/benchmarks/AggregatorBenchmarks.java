@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.integration.aggregator.AggregatingMessageHandler;
+import org.springframework.integration.aggregator.DefaultAggregatingMessageGroupProcessor;
+import org.springframework.integration.channel.FixedSubscriberChannel;
+import org.springframework.integration.store.SimpleMessageStore;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * Aggregator throughput with the default sequence-size release strategy and an
+ * in-memory {@link SimpleMessageStore}; one operation is the complete
+ * correlation of a group, so multiply by {@code groupSize} for messages/s.
+ *
+ * @since 5.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AggregatorBenchmarks {
+
+	@Param({ "10", "100", "1000" })
+	public int groupSize;
+
+	private final List<Message<?>> group = new ArrayList<>();
+
+	private volatile Message<?> lastReply;
+
+	private AnnotationConfigApplicationContext context;
+
+	private AggregatingMessageHandler aggregator;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(IntegrationInfrastructureConfiguration.class);
+		this.aggregator = new AggregatingMessageHandler(new DefaultAggregatingMessageGroupProcessor(),
+				new SimpleMessageStore());
+		this.aggregator.setOutputChannel(new FixedSubscriberChannel(m -> this.lastReply = m));
+		this.aggregator.setExpireGroupsUponCompletion(true);
+		this.aggregator.setBeanFactory(this.context);
+		this.aggregator.afterPropertiesSet();
+		for (int i = 1; i <= this.groupSize; i++) {
+			this.group.add(MessageBuilder.withPayload(i)
+					.setCorrelationId("group")
+					.setSequenceNumber(i)
+					.setSequenceSize(this.groupSize)
+					.build());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public Message<?> aggregateGroup() {
+		for (Message<?> message : this.group) {
+			this.aggregator.handleMessage(message);
+		}
+		return this.lastReply;
+	}
+
+}
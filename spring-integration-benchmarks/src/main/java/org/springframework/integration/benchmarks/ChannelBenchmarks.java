@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.channel.FixedSubscriberChannel;
+import org.springframework.integration.channel.FluxMessageChannel;
+import org.springframework.integration.channel.PriorityChannel;
+import org.springframework.integration.channel.PublishSubscribeChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Send/receive throughput of the standard channel types; the subscribable
+ * channels also exercise the {@code UnicastingDispatcher} (single and
+ * round-robin subscribers) and the {@code BroadcastingDispatcher}.
+ *
+ * @since 5.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ChannelBenchmarks {
+
+	private final Message<String> message = MessageBuilder.withPayload("foo").setHeader("bar", "baz").build();
+
+	private final BlockingQueue<Message<?>> replies = new ArrayBlockingQueue<>(1);
+
+	private volatile Message<?> lastReceived;
+
+	private DirectChannel directChannel;
+
+	private DirectChannel roundRobinChannel;
+
+	private FixedSubscriberChannel fixedSubscriberChannel;
+
+	private PublishSubscribeChannel publishSubscribeChannel;
+
+	private ExecutorChannel executorChannel;
+
+	private ExecutorService executor;
+
+	private QueueChannel queueChannel;
+
+	private PriorityChannel priorityChannel;
+
+	private FluxMessageChannel fluxMessageChannel;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		MessageHandler handler = m -> this.lastReceived = m;
+
+		this.directChannel = new DirectChannel();
+		this.directChannel.setBeanName("direct");
+		this.directChannel.subscribe(handler);
+		this.directChannel.afterPropertiesSet();
+
+		this.roundRobinChannel = new DirectChannel();
+		this.roundRobinChannel.setBeanName("roundRobin");
+		this.roundRobinChannel.subscribe(handler);
+		this.roundRobinChannel.subscribe(m -> this.lastReceived = m);
+		this.roundRobinChannel.afterPropertiesSet();
+
+		this.fixedSubscriberChannel = new FixedSubscriberChannel(handler);
+
+		this.publishSubscribeChannel = new PublishSubscribeChannel();
+		this.publishSubscribeChannel.setBeanName("pubSub");
+		this.publishSubscribeChannel.subscribe(handler);
+		this.publishSubscribeChannel.subscribe(m -> this.lastReceived = m);
+		this.publishSubscribeChannel.afterPropertiesSet();
+
+		this.executor = Executors.newSingleThreadExecutor();
+		this.executorChannel = new ExecutorChannel(this.executor);
+		this.executorChannel.setBeanName("executor");
+		this.executorChannel.subscribe(this.replies::offer);
+		this.executorChannel.afterPropertiesSet();
+
+		this.queueChannel = new QueueChannel();
+		this.queueChannel.setBeanName("queue");
+		this.queueChannel.afterPropertiesSet();
+
+		this.priorityChannel = new PriorityChannel();
+		this.priorityChannel.setBeanName("priority");
+		this.priorityChannel.afterPropertiesSet();
+
+		this.fluxMessageChannel = new FluxMessageChannel();
+		this.fluxMessageChannel.setBeanName("flux");
+		this.fluxMessageChannel.afterPropertiesSet();
+		Flux.from(this.fluxMessageChannel).subscribe(m -> this.lastReceived = m);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Benchmark
+	public boolean directChannel() {
+		return this.directChannel.send(this.message);
+	}
+
+	@Benchmark
+	public boolean directChannelRoundRobin() {
+		return this.roundRobinChannel.send(this.message);
+	}
+
+	@Benchmark
+	public boolean fixedSubscriberChannel() {
+		return this.fixedSubscriberChannel.send(this.message);
+	}
+
+	@Benchmark
+	public boolean publishSubscribeChannel() {
+		return this.publishSubscribeChannel.send(this.message);
+	}
+
+	@Benchmark
+	public Message<?> executorChannelRoundTrip() throws InterruptedException {
+		this.executorChannel.send(this.message);
+		return this.replies.take();
+	}
+
+	@Benchmark
+	public Message<?> queueChannelSendReceive() {
+		this.queueChannel.send(this.message);
+		return this.queueChannel.receive(0);
+	}
+
+	@Benchmark
+	public Message<?> priorityChannelSendReceive() {
+		this.priorityChannel.send(this.message);
+		return this.priorityChannel.receive(0);
+	}
+
+	@Benchmark
+	public void fluxMessageChannel(Blackhole blackhole) {
+		blackhole.consume(this.fluxMessageChannel.send(this.message));
+		blackhole.consume(this.lastReceived);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
+
+/**
+ * Overhead of the {@code AbstractMessageChannel.send()} decorations: channel
+ * interceptors, message history tracking and counts/statistics, measured over
+ * a chain of {@link DirectChannel} hops.
+ *
+ * @since 5.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ChannelInterceptorBenchmarks {
+
+	private static final int HOPS = 8;
+
+	@Param({ "0", "1", "4" })
+	public int interceptors;
+
+	@Param({ "false", "true" })
+	public boolean history;
+
+	@Param({ "none", "counts", "stats" })
+	public String metrics;
+
+	private final Message<String> message = MessageBuilder.withPayload("foo").build();
+
+	private volatile Message<?> lastReceived;
+
+	private DirectChannel input;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		MessageChannel next = null;
+		for (int i = HOPS - 1; i >= 0; i--) {
+			DirectChannel channel = new DirectChannel();
+			channel.setBeanName("hop" + i);
+			channel.setShouldTrack(this.history);
+			if ("counts".equals(this.metrics)) {
+				channel.setCountsEnabled(true);
+			}
+			else if ("stats".equals(this.metrics)) {
+				channel.setStatsEnabled(true);
+			}
+			for (int j = 0; j < this.interceptors; j++) {
+				channel.addInterceptor(new ChannelInterceptorAdapter() {
+
+				});
+			}
+			if (next == null) {
+				channel.subscribe(m -> this.lastReceived = m);
+			}
+			else {
+				MessageChannel downstream = next;
+				channel.subscribe(downstream::send);
+			}
+			channel.afterPropertiesSet();
+			next = channel;
+		}
+		this.input = (DirectChannel) next;
+	}
+
+	@Benchmark
+	public boolean sendThroughHops() {
+		return this.input.send(this.message);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.channel.FixedSubscriberChannel;
+import org.springframework.integration.handler.ExpressionEvaluatingMessageProcessor;
+import org.springframework.integration.handler.GenericHandler;
+import org.springframework.integration.handler.LambdaMessageProcessor;
+import org.springframework.integration.handler.MessageProcessor;
+import org.springframework.integration.handler.ServiceActivatingHandler;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+
+/**
+ * Compares the invocation cost of the same service logic expressed as an
+ * interpreted SpEL expression, a compiled SpEL expression, a lambda
+ * ({@link LambdaMessageProcessor}) and a POJO method resolved by
+ * {@code MessagingMethodInvokerHelper}.
+ *
+ * @since 5.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HandlerInvocationBenchmarks {
+
+	private final Message<String> message = MessageBuilder.withPayload("foo").build();
+
+	private volatile Message<?> lastReply;
+
+	private AnnotationConfigApplicationContext context;
+
+	private ServiceActivatingHandler spelHandler;
+
+	private ServiceActivatingHandler compiledSpelHandler;
+
+	private ServiceActivatingHandler lambdaHandler;
+
+	private ServiceActivatingHandler methodHandler;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(IntegrationInfrastructureConfiguration.class);
+		MessageChannel outputChannel = new FixedSubscriberChannel(m -> this.lastReply = m);
+
+		this.spelHandler = handler(new ExpressionEvaluatingMessageProcessor<>("payload.toUpperCase()"),
+				outputChannel);
+
+		SpelExpressionParser compilingParser =
+				new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null));
+		this.compiledSpelHandler =
+				handler(new ExpressionEvaluatingMessageProcessor<>(
+						compilingParser.parseExpression("payload.toUpperCase()")), outputChannel);
+
+		GenericHandler<String> lambda = (payload, headers) -> payload.toUpperCase();
+		this.lambdaHandler = handler(new LambdaMessageProcessor(lambda, String.class), outputChannel);
+
+		this.methodHandler = new ServiceActivatingHandler(new UpperCaseService(), "upperCase");
+		initialize(this.methodHandler, outputChannel);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public Message<?> spel() {
+		this.spelHandler.handleMessage(this.message);
+		return this.lastReply;
+	}
+
+	@Benchmark
+	public Message<?> compiledSpel() {
+		this.compiledSpelHandler.handleMessage(this.message);
+		return this.lastReply;
+	}
+
+	@Benchmark
+	public Message<?> lambda() {
+		this.lambdaHandler.handleMessage(this.message);
+		return this.lastReply;
+	}
+
+	@Benchmark
+	public Message<?> methodInvoking() {
+		this.methodHandler.handleMessage(this.message);
+		return this.lastReply;
+	}
+
+	private ServiceActivatingHandler handler(MessageProcessor<?> processor, MessageChannel outputChannel) {
+		ServiceActivatingHandler handler = new ServiceActivatingHandler(processor);
+		initialize(handler, outputChannel);
+		return handler;
+	}
+
+	private void initialize(ServiceActivatingHandler handler, MessageChannel outputChannel) {
+		handler.setOutputChannel(outputChannel);
+		handler.setBeanFactory(this.context);
+		handler.afterPropertiesSet();
+	}
+
+	public static class UpperCaseService {
+
+		public String upperCase(String payload) {
+			return payload.toUpperCase();
+		}
+
+	}
+
+}
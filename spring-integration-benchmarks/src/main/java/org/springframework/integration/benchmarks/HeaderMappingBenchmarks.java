@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.integration.mapping.AbstractHeaderMapper;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * Cost of mapping {@link org.springframework.messaging.MessageHeaders} to and from
+ * a protocol-specific representation through {@link AbstractHeaderMapper}, and of
+ * rebuilding a message with copied headers.
+ *
+ * @since 5.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class HeaderMappingBenchmarks {
+
+	@Param({ "4", "16", "64" })
+	public int headerCount;
+
+	@Param({ "*", "header*", "header1;header2;header3" })
+	public String patterns;
+
+	private final MapHeaderMapper mapper = new MapHeaderMapper();
+
+	private Message<String> message;
+
+	private Map<String, Object> source;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		MessageBuilder<String> builder = MessageBuilder.withPayload("foo");
+		this.source = new HashMap<>();
+		for (int i = 0; i < this.headerCount; i++) {
+			builder.setHeader("header" + i, "value" + i);
+			this.source.put("header" + i, "value" + i);
+		}
+		this.message = builder.build();
+		String[] headerNames = Arrays.stream(this.patterns.split(";"))
+				.map(String::trim)
+				.toArray(String[]::new);
+		this.mapper.setRequestHeaderNames(headerNames);
+	}
+
+	@Benchmark
+	public Map<String, Object> fromHeaders() {
+		Map<String, Object> target = new HashMap<>();
+		this.mapper.fromHeadersToRequest(this.message.getHeaders(), target);
+		return target;
+	}
+
+	@Benchmark
+	public Map<String, Object> toHeaders() {
+		return this.mapper.toHeadersFromRequest(this.source);
+	}
+
+	@Benchmark
+	public Message<String> copyHeaders() {
+		return MessageBuilder.withPayload("bar")
+				.copyHeaders(this.message.getHeaders())
+				.build();
+	}
+
+	/**
+	 * A mapper to/from a plain {@link Map}, isolating the matching and copying
+	 * work done by {@link AbstractHeaderMapper} from any protocol specifics.
+	 */
+	private static final class MapHeaderMapper extends AbstractHeaderMapper<Map<String, Object>> {
+
+		MapHeaderMapper() {
+			super("std_", Collections.emptyList(), Collections.emptyList());
+		}
+
+		@Override
+		protected Map<String, Object> extractStandardHeaders(Map<String, Object> source) {
+			return Collections.emptyMap();
+		}
+
+		@Override
+		protected Map<String, Object> extractUserDefinedHeaders(Map<String, Object> source) {
+			return source;
+		}
+
+		@Override
+		protected void populateStandardHeaders(Map<String, Object> headers, Map<String, Object> target) {
+		}
+
+		@Override
+		protected void populateUserDefinedHeader(String headerName, Object headerValue, Map<String, Object> target) {
+			target.put(headerName, headerValue);
+		}
+
+	}
+
+}
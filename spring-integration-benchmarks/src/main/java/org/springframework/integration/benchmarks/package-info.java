@@ -0,0 +1,7 @@
+/**
+ * Provides JMH benchmarks for the hot paths of the core channels, dispatchers
+ * and handlers. Run them with {@code ./gradlew :spring-integration-benchmarks:jmh};
+ * the results (ops/s and, via the GC profiler, allocation rate) are written to
+ * {@code build/reports/jmh/results.json}.
+ */
+package org.springframework.integration.benchmarks;
@@ -54,6 +54,7 @@ import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.locks.DefaultLockRegistry;
 import org.springframework.integration.support.locks.LockRegistry;
+import org.springframework.integration.util.HashedTimerWheel;
 import org.springframework.integration.util.UUIDConverter;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
@@ -94,6 +95,8 @@ import org.springframework.util.CollectionUtils;
 public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageProducingHandler
 		implements DiscardingMessageHandler, DisposableBean, ApplicationEventPublisherAware, Lifecycle {
 
+	private static final int EXPIRY_WHEEL_SIZE = 512;
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Comparator<Message<?>> sequenceNumberComparator = new MessageSequenceComparator();
@@ -140,6 +143,12 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 	private volatile boolean expireGroupsUponTimeout = true;
 
+	private volatile long groupTimeoutResolution;
+
+	private volatile HashedTimerWheel<UUID> expiryWheel;
+
+	private volatile ScheduledFuture<?> expiryWheelFuture;
+
 	private volatile boolean running;
 
 	public AbstractCorrelatingMessageHandler(MessageGroupProcessor processor, MessageGroupStore store,
@@ -327,6 +336,21 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		this.expireGroupsUponTimeout = expireGroupsUponTimeout;
 	}
 
+	/**
+	 * Set the resolution, in milliseconds, at which group timeouts (and the delayed
+	 * removal of empty groups) are tracked. When greater than zero, pending timeouts
+	 * are held in a {@link HashedTimerWheel} that is advanced by a single periodic task
+	 * with this period, instead of scheduling (and cancelling on every arriving message)
+	 * one task per group in the {@link TaskScheduler}. A group then times out up to this
+	 * many milliseconds after its timeout. Default 0 - one scheduled task per group.
+	 * @param groupTimeoutResolution the resolution in milliseconds.
+	 * @since 5.0.1
+	 */
+	public void setGroupTimeoutResolution(long groupTimeoutResolution) {
+		Assert.isTrue(groupTimeoutResolution >= 0, "'groupTimeoutResolution' must not be negative");
+		this.groupTimeoutResolution = groupTimeoutResolution;
+	}
+
 	@Override
 	public String getComponentType() {
 		return "aggregator";
@@ -415,13 +439,10 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 
 		lock.lockInterruptibly();
 		try {
-			ScheduledFuture<?> scheduledFuture = this.expireGroupScheduledFutures.remove(groupIdUuid);
-			if (scheduledFuture != null) {
-				boolean canceled = scheduledFuture.cancel(true);
-				if (canceled && this.logger.isDebugEnabled()) {
-					this.logger.debug("Cancel 'ScheduledFuture' for MessageGroup with Correlation Key [ "
-							+ correlationKey + "].");
-				}
+			boolean canceled = cancelScheduledExpiry(groupIdUuid, true);
+			if (canceled && this.logger.isDebugEnabled()) {
+				this.logger.debug("Cancel 'ScheduledFuture' for MessageGroup with Correlation Key [ "
+						+ correlationKey + "].");
 			}
 			MessageGroup messageGroup = this.messageStore.getMessageGroup(correlationKey);
 			if (this.sequenceAware) {
@@ -468,48 +489,46 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 	private void removeEmptyGroupAfterTimeout(MessageGroup messageGroup, long timeout) {
 		Object groupId = messageGroup.getGroupId();
 		UUID groupUuid = UUIDConverter.getUUID(groupId);
-		ScheduledFuture<?> scheduledFuture = getTaskScheduler()
-				.schedule(() -> {
-					Lock lock = this.lockRegistry.obtain(groupUuid.toString());
+		scheduleExpiry(groupUuid, () -> {
+			Lock lock = this.lockRegistry.obtain(groupUuid.toString());
 
-					try {
-						lock.lockInterruptibly();
-						try {
-							this.expireGroupScheduledFutures.remove(groupUuid);
-							/*
-							 * Obtain a fresh state for group from the MessageStore,
-							 * since it could be changed while we have waited for lock.
-							 */
-							MessageGroup groupNow = this.messageStore.getMessageGroup(groupUuid);
-							boolean removeGroup = groupNow.size() == 0 &&
-									groupNow.getLastModified()
-											<= (System.currentTimeMillis() - this.minimumTimeoutForEmptyGroups);
-							if (removeGroup) {
-								if (this.logger.isDebugEnabled()) {
-									this.logger.debug("Removing empty group: " + groupUuid);
-								}
-								remove(messageGroup);
-							}
-						}
-						finally {
-							lock.unlock();
-						}
-					}
-					catch (InterruptedException e) {
-						Thread.currentThread().interrupt();
+			try {
+				lock.lockInterruptibly();
+				try {
+					this.expireGroupScheduledFutures.remove(groupUuid);
+					/*
+					 * Obtain a fresh state for group from the MessageStore,
+					 * since it could be changed while we have waited for lock.
+					 */
+					MessageGroup groupNow = this.messageStore.getMessageGroup(groupUuid);
+					boolean removeGroup = groupNow.size() == 0 &&
+							groupNow.getLastModified()
+									<= (System.currentTimeMillis() - this.minimumTimeoutForEmptyGroups);
+					if (removeGroup) {
 						if (this.logger.isDebugEnabled()) {
-							this.logger.debug("Thread was interrupted while trying to obtain lock."
-									+ "Rescheduling empty MessageGroup [ " + groupId + "] for removal.");
+							this.logger.debug("Removing empty group: " + groupUuid);
 						}
-						removeEmptyGroupAfterTimeout(messageGroup, timeout);
+						remove(messageGroup);
 					}
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Thread was interrupted while trying to obtain lock."
+							+ "Rescheduling empty MessageGroup [ " + groupId + "] for removal.");
+				}
+				removeEmptyGroupAfterTimeout(messageGroup, timeout);
+			}
 
-				}, new Date(System.currentTimeMillis() + timeout));
+		}, timeout);
 
 		if (this.logger.isDebugEnabled()) {
 			this.logger.debug("Schedule empty MessageGroup [ " + groupId + "] for removal.");
 		}
-		this.expireGroupScheduledFutures.put(groupUuid, scheduledFuture);
 	}
 
 	private void scheduleGroupToForceComplete(MessageGroup messageGroup) {
@@ -521,24 +540,22 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		if (groupTimeout != null && groupTimeout >= 0) {
 			if (groupTimeout > 0) {
 				final Object groupId = messageGroup.getGroupId();
-				ScheduledFuture<?> scheduledFuture = getTaskScheduler()
-						.schedule(() -> {
-							try {
-								processForceRelease(groupId);
-							}
-							catch (MessageDeliveryException e) {
-								if (AbstractCorrelatingMessageHandler.this.logger.isWarnEnabled()) {
-									AbstractCorrelatingMessageHandler.this.logger.warn("The MessageGroup ["
-											+ groupId + "] is rescheduled by the reason of:", e);
-								}
-								scheduleGroupToForceComplete(groupId);
-							}
-						}, new Date(System.currentTimeMillis() + groupTimeout));
+				scheduleExpiry(UUIDConverter.getUUID(groupId), () -> {
+					try {
+						processForceRelease(groupId);
+					}
+					catch (MessageDeliveryException e) {
+						if (AbstractCorrelatingMessageHandler.this.logger.isWarnEnabled()) {
+							AbstractCorrelatingMessageHandler.this.logger.warn("The MessageGroup ["
+									+ groupId + "] is rescheduled by the reason of:", e);
+						}
+						scheduleGroupToForceComplete(groupId);
+					}
+				}, groupTimeout);
 
 				if (this.logger.isDebugEnabled()) {
 					this.logger.debug("Schedule MessageGroup [ " + messageGroup + "] to 'forceComplete'.");
 				}
-				this.expireGroupScheduledFutures.put(UUIDConverter.getUUID(groupId), scheduledFuture);
 			}
 			else {
 				this.forceReleaseProcessor.processMessageGroup(messageGroup);
@@ -551,6 +568,46 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		scheduleGroupToForceComplete(messageGroup);
 	}
 
+	private void scheduleExpiry(UUID groupUuid, Runnable task, long timeout) {
+		if (this.groupTimeoutResolution > 0) {
+			startExpiryWheelIfNecessary();
+			this.expiryWheel.schedule(groupUuid, System.currentTimeMillis() + timeout, task);
+		}
+		else {
+			ScheduledFuture<?> scheduledFuture =
+					getTaskScheduler().schedule(task, new Date(System.currentTimeMillis() + timeout));
+			this.expireGroupScheduledFutures.put(groupUuid, scheduledFuture);
+		}
+	}
+
+	private boolean cancelScheduledExpiry(UUID groupUuid, boolean mayInterruptIfRunning) {
+		HashedTimerWheel<UUID> wheel = this.expiryWheel;
+		if (wheel != null && wheel.cancel(groupUuid)) {
+			return true;
+		}
+		ScheduledFuture<?> scheduledFuture = this.expireGroupScheduledFutures.remove(groupUuid);
+		return scheduledFuture != null && scheduledFuture.cancel(mayInterruptIfRunning);
+	}
+
+	private synchronized void startExpiryWheelIfNecessary() {
+		if (this.expiryWheel == null) {
+			this.expiryWheel = new HashedTimerWheel<>(this.groupTimeoutResolution, EXPIRY_WHEEL_SIZE);
+			this.expiryWheelFuture =
+					getTaskScheduler().scheduleAtFixedRate(this::processExpiredGroups, this.groupTimeoutResolution);
+		}
+	}
+
+	private void processExpiredGroups() {
+		for (Runnable task : this.expiryWheel.expire(System.currentTimeMillis())) {
+			try {
+				task.run();
+			}
+			catch (RuntimeException e) {
+				this.logger.error("Failed to process a MessageGroup timeout", e);
+			}
+		}
+	}
+
 	private void processForceRelease(Object groupId) {
 		MessageGroup messageGroup = this.messageStore.getMessageGroup(groupId);
 		this.forceReleaseProcessor.processMessageGroup(messageGroup);
@@ -587,13 +644,9 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		try {
 			lock.lockInterruptibly();
 			try {
-				ScheduledFuture<?> scheduledFuture =
-						this.expireGroupScheduledFutures.remove(UUIDConverter.getUUID(correlationKey));
-				if (scheduledFuture != null) {
-					boolean canceled = scheduledFuture.cancel(false);
-					if (canceled && this.logger.isDebugEnabled()) {
-						this.logger.debug("Cancel 'forceComplete' scheduling for MessageGroup [ " + group + "].");
-					}
+				boolean canceled = cancelScheduledExpiry(UUIDConverter.getUUID(correlationKey), false);
+				if (canceled && this.logger.isDebugEnabled()) {
+					this.logger.debug("Cancel 'forceComplete' scheduling for MessageGroup [ " + group + "].");
 				}
 				MessageGroup groupNow = group;
 				/*
@@ -761,6 +814,10 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageP
 		for (ScheduledFuture<?> future : this.expireGroupScheduledFutures.values()) {
 			future.cancel(true);
 		}
+		if (this.expiryWheelFuture != null) {
+			this.expiryWheelFuture.cancel(true);
+			this.expiryWheel.clear();
+		}
 	}
 
 	@Override
@@ -24,10 +24,14 @@ import java.util.List;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.SequenceIndexedMessageGroup;
 import org.springframework.messaging.Message;
 
 /**
  * This class implements all the strategy interfaces needed for a default resequencer.
+ * <p>
+ * For a {@link SequenceIndexedMessageGroup}, the contiguous run of sequences is read
+ * from the group's index instead of sorting the group's messages.
  *
  * @author Iwein Fuld
  * @author Dave Syer
@@ -38,7 +42,14 @@ public class ResequencingMessageGroupProcessor implements MessageGroupProcessor
 
 	private final Comparator<Message<?>> comparator = new MessageSequenceComparator();
 
+	@Override
 	public Object processMessageGroup(MessageGroup group) {
+		if (group instanceof SequenceIndexedMessageGroup
+				&& !((SequenceIndexedMessageGroup) group).hasUnindexedMessages()) {
+			SequenceIndexedMessageGroup indexedGroup = (SequenceIndexedMessageGroup) group;
+			int lowestSequenceNumber = indexedGroup.getLowestSequenceNumber();
+			return lowestSequenceNumber > 0 ? indexedGroup.getContiguousSequence(lowestSequenceNumber) : null;
+		}
 		Collection<Message<?>> messages = group.getMessages();
 
 		if (messages.size() > 0) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,12 +25,16 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.SequenceIndexedMessageGroup;
 import org.springframework.messaging.Message;
 
 /**
  * An implementation of {@link ReleaseStrategy} that simply compares the current size of
  * the message list to the expected 'sequenceSize'. Supports release of partial sequences.
  * Correlating message handlers prevent the addition of duplicate sequences to the group.
+ * <p>
+ * When releasing partial sequences of a {@link SequenceIndexedMessageGroup}, the lowest
+ * sequence number is taken from the group's index rather than by scanning its messages.
  *
  * @author Mark Fisher
  * @author Marius Bogoevici
@@ -86,10 +90,16 @@ public class SequenceSizeReleaseStrategy implements ReleaseStrategy {
 			if (logger.isTraceEnabled()) {
 				logger.trace("Considering partial release of group [" + messageGroup + "]");
 			}
-			Collection<Message<?>> messages = messageGroup.getMessages();
-			Message<?> minMessage = Collections.min(messages, this.comparator);
-
-			int nextSequenceNumber = new IntegrationMessageHeaderAccessor(minMessage).getSequenceNumber();
+			int nextSequenceNumber;
+			if (messageGroup instanceof SequenceIndexedMessageGroup
+					&& !((SequenceIndexedMessageGroup) messageGroup).hasUnindexedMessages()) {
+				nextSequenceNumber = ((SequenceIndexedMessageGroup) messageGroup).getLowestSequenceNumber();
+			}
+			else {
+				Collection<Message<?>> messages = messageGroup.getMessages();
+				Message<?> minMessage = Collections.min(messages, this.comparator);
+				nextSequenceNumber = new IntegrationMessageHeaderAccessor(minMessage).getSequenceNumber();
+			}
 			int lastReleasedMessageSequence = messageGroup.getLastReleasedMessageSequenceNumber();
 
 			if (nextSequenceNumber - lastReleasedMessageSequence == 1) {
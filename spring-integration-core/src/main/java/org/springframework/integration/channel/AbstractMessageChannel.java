@@ -16,7 +16,6 @@
 
 package org.springframework.integration.channel;
 
-import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
@@ -35,6 +34,7 @@ import org.springframework.integration.support.management.AbstractMessageChannel
 import org.springframework.integration.support.management.ConfigurableMetricsAware;
 import org.springframework.integration.support.management.DefaultMessageChannelMetrics;
 import org.springframework.integration.support.management.IntegrationManagedResource;
+import org.springframework.integration.support.management.LatencyPercentiles;
 import org.springframework.integration.support.management.MessageChannelMetrics;
 import org.springframework.integration.support.management.MetricsContext;
 import org.springframework.integration.support.management.Statistics;
@@ -84,6 +84,13 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 	private volatile boolean loggingEnabled = true;
 
+	/**
+	 * True when neither message history, payload type conversion nor metrics
+	 * are configured; together with an empty interceptor list this allows
+	 * {@link #send(Message, long)} to go straight to {@link #doSend(Message, long)}.
+	 */
+	private volatile boolean fastSendEnabled = true;
+
 	private volatile AbstractMessageChannelMetrics channelMetrics = new DefaultMessageChannelMetrics();
 
 	public AbstractMessageChannel() {
@@ -98,6 +105,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	@Override
 	public void setShouldTrack(boolean shouldTrack) {
 		this.shouldTrack = shouldTrack;
+		updateFastSendEnabled();
 	}
 
 	@Override
@@ -108,6 +116,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			this.statsEnabled = false;
 			this.managementOverrides.statsConfigured = true;
 		}
+		updateFastSendEnabled();
 	}
 
 	@Override
@@ -124,6 +133,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		this.statsEnabled = statsEnabled;
 		this.channelMetrics.setFullStatsEnabled(statsEnabled);
 		this.managementOverrides.statsConfigured = true;
+		updateFastSendEnabled();
 	}
 
 	@Override
@@ -169,6 +179,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	public void setDatatypes(Class<?>... datatypes) {
 		this.datatypes = (datatypes != null && datatypes.length > 0)
 				? datatypes : new Class<?>[0];
+		updateFastSendEnabled();
 	}
 
 	/**
@@ -321,6 +332,11 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		return this.channelMetrics.getSendDuration();
 	}
 
+	@Override
+	public LatencyPercentiles getSendDurationPercentiles() {
+		return this.channelMetrics.getSendDurationPercentiles();
+	}
+
 	@Override
 	public Statistics getSendRate() {
 		return this.channelMetrics.getSendRate();
@@ -354,6 +370,11 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 
 		this.fullChannelName = null;
+		updateFastSendEnabled();
+	}
+
+	private void updateFastSendEnabled() {
+		this.fastSendEnabled = !this.shouldTrack && !this.countsEnabled && this.datatypes.length == 0;
 	}
 
 	/**
@@ -406,11 +427,20 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 	public boolean send(Message<?> message, long timeout) {
 		Assert.notNull(message, "message must not be null");
 		Assert.notNull(message.getPayload(), "message payload must not be null");
+		if (this.fastSendEnabled && this.interceptors.getSize() == 0
+				&& !(this.loggingEnabled && logger.isDebugEnabled())) {
+			try {
+				return doSend(message, timeout);
+			}
+			catch (Exception e) {
+				throw wrapSendException(message, e);
+			}
+		}
 		if (this.shouldTrack) {
 			message = MessageHistory.write(message, this, this.getMessageBuilderFactory());
 		}
 
-		Deque<ChannelInterceptor> interceptorStack = null;
+		ChannelInterceptor[] interceptorStack = null;
 		boolean sent = false;
 		boolean metricsProcessed = false;
 		MetricsContext metrics = null;
@@ -426,11 +456,12 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 				logger.debug("preSend on channel '" + this + "', message: " + message);
 			}
 			if (interceptors.getSize() > 0) {
-				interceptorStack = new ArrayDeque<ChannelInterceptor>();
-				message = interceptors.preSend(message, this, interceptorStack);
+				ChannelInterceptor[] snapshot = interceptors.toArray();
+				message = interceptors.preSend(message, this, snapshot);
 				if (message == null) {
 					return false;
 				}
+				interceptorStack = snapshot;
 			}
 			if (countsEnabled) {
 				metrics = channelMetrics.beforeSend();
@@ -445,7 +476,7 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 				logger.debug("postSend (sent=" + sent + ") on channel '" + this + "', message: " + message);
 			}
 			if (interceptorStack != null) {
-				interceptors.postSend(message, this, sent);
+				interceptors.postSend(message, this, sent, interceptorStack);
 				interceptors.afterSendCompletion(message, this, sent, null, interceptorStack);
 			}
 			return sent;
@@ -457,12 +488,16 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (interceptorStack != null) {
 				interceptors.afterSendCompletion(message, this, sent, e, interceptorStack);
 			}
-			if (e instanceof MessagingException) {
-				throw (MessagingException) e;
-			}
-			throw new MessageDeliveryException(message,
-					"failed to send Message to channel '" + this.getComponentName() + "'", e);
+			throw wrapSendException(message, e);
+		}
+	}
+
+	private MessagingException wrapSendException(Message<?> message, Exception e) {
+		if (e instanceof MessagingException) {
+			return (MessagingException) e;
 		}
+		return new MessageDeliveryException(message,
+				"failed to send Message to channel '" + this.getComponentName() + "'", e);
 	}
 
 	private Message<?> convertPayloadIfNecessary(Message<?> message) {
@@ -520,6 +555,8 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 		private volatile int size;
 
+		private volatile ChannelInterceptor[] interceptorArray = new ChannelInterceptor[0];
+
 		public ChannelInterceptorList(Log logger) {
 			this.logger = logger;
 		}
@@ -528,7 +565,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			synchronized (this.interceptors) {
 				this.interceptors.clear();
 				this.size = interceptors.size();
-				return this.interceptors.addAll(interceptors);
+				boolean added = this.interceptors.addAll(interceptors);
+				refreshArray();
+				return added;
 			}
 		}
 
@@ -536,14 +575,118 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			return this.size;
 		}
 
+		/**
+		 * Return a snapshot of the interceptors; the array is rebuilt only when the
+		 * list is modified, so it can be used as an allocation-free interceptor stack
+		 * with {@link #preSend(Message, MessageChannel, ChannelInterceptor[])}.
+		 * The caller must not modify the returned array.
+		 * @return the interceptors array.
+		 * @since 5.0.1
+		 */
+		public ChannelInterceptor[] toArray() {
+			return this.interceptorArray;
+		}
+
 		public boolean add(ChannelInterceptor interceptor) {
-			this.size++;
-			return this.interceptors.add(interceptor);
+			synchronized (this.interceptors) {
+				this.size++;
+				boolean added = this.interceptors.add(interceptor);
+				refreshArray();
+				return added;
+			}
 		}
 
 		public void add(int index, ChannelInterceptor interceptor) {
-			this.size++;
-			this.interceptors.add(index, interceptor);
+			synchronized (this.interceptors) {
+				this.size++;
+				this.interceptors.add(index, interceptor);
+				refreshArray();
+			}
+		}
+
+		private void refreshArray() {
+			this.interceptorArray = this.interceptors.toArray(new ChannelInterceptor[0]);
+		}
+
+		/**
+		 * Invoke {@link ChannelInterceptor#preSend(Message, MessageChannel)} on each of the
+		 * provided interceptors (usually obtained from {@link #toArray()}). If an interceptor
+		 * returns {@code null} or throws an exception, the
+		 * {@link ChannelInterceptor#afterSendCompletion afterSendCompletion()} callbacks of the
+		 * interceptors already invoked are triggered here; otherwise the whole array becomes
+		 * the stack for the subsequent {@link #afterSendCompletion(Message, MessageChannel,
+		 * boolean, Exception, ChannelInterceptor[])}.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param interceptors the interceptors to invoke.
+		 * @return the (possibly modified) message, or null if the send should not proceed.
+		 * @since 5.0.1
+		 */
+		public Message<?> preSend(Message<?> message, MessageChannel channel, ChannelInterceptor[] interceptors) {
+			Message<?> original = message;
+			for (int i = 0; i < interceptors.length; i++) {
+				ChannelInterceptor interceptor = interceptors[i];
+				try {
+					message = interceptor.preSend(message, channel);
+				}
+				catch (RuntimeException e) {
+					afterSendCompletion(original, channel, false, e, interceptors, i);
+					throw e;
+				}
+				if (message == null) {
+					if (this.logger.isDebugEnabled()) {
+						this.logger.debug(interceptor.getClass().getSimpleName()
+								+ " returned null from preSend, i.e. precluding the send.");
+					}
+					afterSendCompletion(null, channel, false, null, interceptors, i);
+					return null;
+				}
+			}
+			return message;
+		}
+
+		/**
+		 * Invoke {@link ChannelInterceptor#postSend(Message, MessageChannel, boolean)} on
+		 * each of the provided interceptors.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param sent the send result.
+		 * @param interceptors the interceptors to invoke.
+		 * @since 5.0.1
+		 */
+		public void postSend(Message<?> message, MessageChannel channel, boolean sent,
+				ChannelInterceptor[] interceptors) {
+			for (ChannelInterceptor interceptor : interceptors) {
+				interceptor.postSend(message, channel, sent);
+			}
+		}
+
+		/**
+		 * Invoke {@link ChannelInterceptor#afterSendCompletion} on each of the provided
+		 * interceptors in reverse order.
+		 * @param message the message.
+		 * @param channel the channel.
+		 * @param sent the send result.
+		 * @param ex the exception, if any.
+		 * @param interceptorStack the interceptors whose {@code preSend} completed.
+		 * @since 5.0.1
+		 */
+		public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex,
+				ChannelInterceptor[] interceptorStack) {
+			afterSendCompletion(message, channel, sent, ex, interceptorStack, interceptorStack.length);
+		}
+
+		private void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex,
+				ChannelInterceptor[] interceptorStack, int stackSize) {
+			for (int i = stackSize - 1; i >= 0; i--) {
+				ChannelInterceptor interceptor = interceptorStack[i];
+				try {
+					interceptor.afterSendCompletion(message, channel, sent, ex);
+				}
+				catch (Exception ex2) {
+					this.logger.error("Exception from afterSendCompletion in " + interceptor, ex2);
+				}
+			}
 		}
 
 		public Message<?> preSend(Message<?> message, MessageChannel channel,
@@ -629,21 +772,27 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		}
 
 		public boolean remove(ChannelInterceptor interceptor) {
-			if (this.interceptors.remove(interceptor)) {
-				this.size--;
-				return true;
-			}
-			else {
-				return false;
+			synchronized (this.interceptors) {
+				if (this.interceptors.remove(interceptor)) {
+					this.size--;
+					refreshArray();
+					return true;
+				}
+				else {
+					return false;
+				}
 			}
 		}
 
 		public ChannelInterceptor remove(int index) {
-			ChannelInterceptor removed = this.interceptors.remove(index);
-			if (removed != null) {
-				this.size--;
+			synchronized (this.interceptors) {
+				ChannelInterceptor removed = this.interceptors.remove(index);
+				if (removed != null) {
+					this.size--;
+					refreshArray();
+				}
+				return removed;
 			}
-			return removed;
 		}
 
 	}
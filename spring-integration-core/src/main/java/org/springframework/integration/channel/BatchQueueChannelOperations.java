@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.channel;
+
+import java.util.List;
+
+import org.springframework.messaging.Message;
+
+/**
+ * Operations available on a queuing channel that can receive several
+ * {@link Message Messages} in one operation.
+ *
+ * @since 5.0.1
+ *
+ */
+public interface BatchQueueChannelOperations extends QueueChannelOperations {
+
+	/**
+	 * Receive up to {@code maxMessages} {@link Message Messages} from this channel,
+	 * waiting up to {@code timeout} for the first one; the remaining messages are
+	 * those immediately available, drained from the queue in one operation.
+	 * A negative timeout blocks until a message is available or the thread is
+	 * interrupted.
+	 *
+	 * @param maxMessages The maximum number of messages to return.
+	 * @param timeout The timeout in milliseconds for the first message.
+	 * @return The messages; an empty list if no message was available in time.
+	 */
+	List<Message<?>> receive(int maxMessages, long timeout);
+
+}
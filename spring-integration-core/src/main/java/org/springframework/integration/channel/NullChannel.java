@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import org.springframework.integration.support.management.AbstractMessageChannel
 import org.springframework.integration.support.management.ConfigurableMetricsAware;
 import org.springframework.integration.support.management.DefaultMessageChannelMetrics;
 import org.springframework.integration.support.management.IntegrationManagedResource;
+import org.springframework.integration.support.management.LatencyPercentiles;
 import org.springframework.integration.support.management.MessageChannelMetrics;
 import org.springframework.integration.support.management.Statistics;
 import org.springframework.messaging.Message;
@@ -194,6 +195,11 @@ public class NullChannel implements PollableChannel, MessageChannelMetrics,
 		return this.channelMetrics.getSendDuration();
 	}
 
+	@Override
+	public LatencyPercentiles getSendDurationPercentiles() {
+		return this.channelMetrics.getSendDurationPercentiles();
+	}
+
 	@Override
 	public Statistics getSendRate() {
 		return this.channelMetrics.getSendRate();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.channel;
 
 import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -140,6 +141,21 @@ public class PriorityChannel extends QueueChannel {
 		return message;
 	}
 
+	@Override
+	protected int doDrain(List<Message<?>> messages, int maxMessages) {
+		int first = messages.size();
+		int drained = super.doDrain(messages, maxMessages);
+		if (drained > 0) {
+			if (!this.useMessageStore) {
+				for (int i = first; i < messages.size(); i++) {
+					messages.set(i, ((MessageWrapper) messages.get(i)).getRootMessage());
+				}
+			}
+			this.upperBound.release(drained);
+		}
+		return drained;
+	}
+
 	private static final class SequenceFallbackComparator implements Comparator<Message<?>> {
 
 		private final Comparator<Message<?>> targetComparator;
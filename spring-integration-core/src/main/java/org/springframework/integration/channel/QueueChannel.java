@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.channel;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
@@ -41,7 +42,7 @@ import org.springframework.util.Assert;
  * @author Gary Russell
  * @author Artem Bilan
  */
-public class QueueChannel extends AbstractPollableChannel implements QueueChannelOperations,
+public class QueueChannel extends AbstractPollableChannel implements BatchQueueChannelOperations,
 		QueueChannelManagement {
 
 	private final Queue<Message<?>> queue;
@@ -145,6 +146,74 @@ public class QueueChannel extends AbstractPollableChannel implements QueueChanne
 		}
 	}
 
+	/**
+	 * Receive up to {@code maxMessages} messages. The first message is received as
+	 * for {@link #receive(long)}; the rest are drained from the queue in one
+	 * operation (one lock acquisition for the standard {@link BlockingQueue}s), unless
+	 * the channel has interceptors, in which case they are received one at a time so
+	 * that the interceptors see each message.
+	 * @param maxMessages The maximum number of messages to return.
+	 * @param timeout The timeout in milliseconds for the first message.
+	 * @return The messages; an empty list if no message was available in time.
+	 * @since 5.0.1
+	 */
+	@Override
+	public List<Message<?>> receive(int maxMessages, long timeout) {
+		Assert.isTrue(maxMessages > 0, "'maxMessages' must be greater than 0");
+		Message<?> first = receive(timeout);
+		if (first == null) {
+			return Collections.emptyList();
+		}
+		List<Message<?>> messages = new ArrayList<Message<?>>(Math.min(maxMessages, 64));
+		messages.add(first);
+		if (maxMessages > 1) {
+			if (getInterceptors().getSize() > 0) {
+				while (messages.size() < maxMessages) {
+					Message<?> message = receive(0);
+					if (message == null) {
+						break;
+					}
+					messages.add(message);
+				}
+			}
+			else {
+				int drained = doDrain(messages, maxMessages - 1);
+				if (isCountsEnabled()) {
+					for (int i = 0; i < drained; i++) {
+						getMetrics().afterReceive();
+					}
+				}
+				if (drained > 0 && isLoggingEnabled() && logger.isDebugEnabled()) {
+					logger.debug("postReceive on channel '" + this + "', drained " + drained + " more message(s)");
+				}
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * Remove up to {@code maxMessages} immediately available messages from the queue.
+	 * @param messages The list to add the messages to.
+	 * @param maxMessages The maximum number of messages to remove.
+	 * @return The number of messages added to the list.
+	 * @since 5.0.1
+	 */
+	protected int doDrain(List<Message<?>> messages, int maxMessages) {
+		if (this.queue instanceof BlockingQueue) {
+			return ((BlockingQueue<Message<?>>) this.queue).drainTo(messages, maxMessages);
+		}
+		int count = 0;
+		while (count < maxMessages) {
+			Message<?> message = this.queue.poll();
+			if (message == null) {
+				break;
+			}
+			messages.add(message);
+			count++;
+		}
+		return count;
+	}
+
 	@Override
 	public List<Message<?>> clear() {
 		List<Message<?>> clearedMessages = new ArrayList<Message<?>>();
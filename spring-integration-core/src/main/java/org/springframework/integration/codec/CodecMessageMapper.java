@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.codec;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.integration.codec.kryo.MessageCodec;
+import org.springframework.integration.mapping.BytesMessageMapper;
+import org.springframework.integration.util.PatternMatchUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link BytesMessageMapper} that delegates to a {@link Codec} to encode the whole
+ * message, headers included, to a {@code byte[]} - by default a {@link MessageCodec},
+ * which uses a pool of Kryo instances. Can be used, for example, in a
+ * {@code TcpMessageMapper} to propagate headers between applications over TCP,
+ * without the cost of rendering them as JSON.
+ * <p>
+ * By default, all headers except {@code replyChannel} and {@code errorChannel} are
+ * encoded - these are usually local channel objects that are meaningless (or cannot be
+ * serialized) in another application; you can provide simple patterns to specify a
+ * subset of headers. Patterns can be negated with {@code !}; the first matching pattern
+ * wins. The {@code id} and {@code timestamp} headers are always regenerated when the
+ * message is decoded; headers supplied to {@link #toMessage(byte[], Map)} are only added
+ * if the decoded message doesn't have them.
+ *
+ * @since 5.0.1
+ *
+ */
+public class CodecMessageMapper implements BytesMessageMapper {
+
+	private static final String[] DEFAULT_HEADER_PATTERNS = {
+			"!" + MessageHeaders.REPLY_CHANNEL,
+			"!" + MessageHeaders.ERROR_CHANNEL,
+			"*"
+	};
+
+	private final Codec codec;
+
+	private final String[] headerPatterns;
+
+	private final String[] lowerCaseHeaderPatterns;
+
+	private final boolean allHeaders;
+
+	private boolean caseSensitive;
+
+	/**
+	 * Construct an instance that encodes all headers except {@code replyChannel} and
+	 * {@code errorChannel}, using a {@link MessageCodec}.
+	 */
+	public CodecMessageMapper() {
+		this(DEFAULT_HEADER_PATTERNS);
+	}
+
+	/**
+	 * Construct an instance that encodes headers matching the supplied patterns, using a
+	 * {@link MessageCodec}.
+	 * @param headerPatterns the patterns.
+	 * @see PatternMatchUtils#smartMatch(String, String...)
+	 */
+	public CodecMessageMapper(String... headerPatterns) {
+		this(new MessageCodec(), headerPatterns);
+	}
+
+	/**
+	 * Construct an instance that encodes all headers except {@code replyChannel} and
+	 * {@code errorChannel}, using the supplied codec.
+	 * @param codec the codec.
+	 */
+	public CodecMessageMapper(Codec codec) {
+		this(codec, DEFAULT_HEADER_PATTERNS);
+	}
+
+	/**
+	 * Construct an instance that encodes headers matching the supplied patterns, using
+	 * the supplied codec; the codec must be able to encode and decode a
+	 * {@link GenericMessage}.
+	 * @param codec the codec.
+	 * @param headerPatterns the patterns.
+	 */
+	public CodecMessageMapper(Codec codec, String... headerPatterns) {
+		Assert.notNull(codec, "'codec' cannot be null");
+		Assert.notEmpty(headerPatterns, "'headerPatterns' cannot be empty");
+		this.codec = codec;
+		this.headerPatterns = Arrays.copyOf(headerPatterns, headerPatterns.length);
+		this.lowerCaseHeaderPatterns = new String[headerPatterns.length];
+		for (int i = 0; i < headerPatterns.length; i++) {
+			this.lowerCaseHeaderPatterns[i] = headerPatterns[i].toLowerCase();
+		}
+		this.allHeaders = headerPatterns.length == 1 && headerPatterns[0].equals("*");
+	}
+
+	/**
+	 * Set to true to make the header name pattern match case sensitive.
+	 * Default false.
+	 * @param caseSensitive true to make case sensitive.
+	 */
+	public void setCaseSensitive(boolean caseSensitive) {
+		this.caseSensitive = caseSensitive;
+	}
+
+	public Collection<String> getHeaderPatterns() {
+		return Collections.unmodifiableList(Arrays.asList(this.headerPatterns));
+	}
+
+	@Override
+	public byte[] fromMessage(Message<?> message) throws Exception {
+		Message<?> messageToEncode = message;
+		if (!this.allHeaders) {
+			Map<String, Object> headers = new HashMap<>();
+			message.getHeaders().forEach((name, value) -> {
+				if (matches(name)) {
+					headers.put(name, value);
+				}
+			});
+			messageToEncode = new GenericMessage<>(message.getPayload(), headers);
+		}
+		else if (!GenericMessage.class.equals(message.getClass())) {
+			// the codec encodes the fields of the message class, so always send a GenericMessage
+			messageToEncode = new GenericMessage<>(message.getPayload(), message.getHeaders());
+		}
+		return this.codec.encode(messageToEncode);
+	}
+
+	private boolean matches(String name) {
+		Boolean match = this.caseSensitive
+				? PatternMatchUtils.smartMatch(name, this.headerPatterns)
+				: PatternMatchUtils.smartMatch(name.toLowerCase(), this.lowerCaseHeaderPatterns);
+		return Boolean.TRUE.equals(match);
+	}
+
+	@Override
+	public Message<?> toMessage(byte[] bytes, @Nullable Map<String, Object> headers) throws Exception {
+		Message<?> decoded = this.codec.decode(bytes, GenericMessage.class);
+		if (headers == null) {
+			return decoded;
+		}
+		Map<String, Object> headersToCopy = new HashMap<>(decoded.getHeaders());
+		headers.forEach(headersToCopy::putIfAbsent);
+		return new GenericMessage<>(decoded.getPayload(), headersToCopy);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2016 the original author or authors.
+ * Copyright 2015-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,6 @@
 
 package org.springframework.integration.codec.kryo;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -92,12 +91,15 @@ public abstract class AbstractKryoCodec implements Codec {
 	}
 
 	@Override
-	public byte[] encode(Object object) throws IOException {
-		ByteArrayOutputStream bos = new ByteArrayOutputStream();
-		encode(object, bos);
-		byte[] bytes = bos.toByteArray();
-		bos.close();
-		return bytes;
+	public byte[] encode(final Object object) throws IOException {
+		Assert.notNull(object, "cannot encode a null object");
+		// encode straight into a growable buffer, rather than copying through a stream
+		final Output output = new Output(4096, -1);
+		this.pool.run(kryo -> {
+			doEncode(kryo, object, output);
+			return Void.class;
+		});
+		return output.toBytes();
 	}
 
 	/**
@@ -35,6 +35,7 @@ import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.integration.channel.BatchQueueChannelOperations;
 import org.springframework.integration.channel.FixedSubscriberChannel;
 import org.springframework.integration.context.IntegrationObjectSupport;
 import org.springframework.integration.endpoint.AbstractEndpoint;
@@ -295,6 +296,9 @@ public class ConsumerEndpointFactoryBean
 				pollingConsumer.setErrorHandler(this.pollerMetadata.getErrorHandler());
 
 				pollingConsumer.setReceiveTimeout(this.pollerMetadata.getReceiveTimeout());
+				if (this.pollerMetadata.getBatchSize() > 1 && channel instanceof BatchQueueChannelOperations) {
+					pollingConsumer.setBatchSize(this.pollerMetadata.getBatchSize());
+				}
 				pollingConsumer.setTransactionSynchronizationFactory(
 						this.pollerMetadata.getTransactionSynchronizationFactory());
 				pollingConsumer.setBeanClassLoader(this.beanClassLoader);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2015 the original author or authors.
+ * Copyright 2014-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -90,6 +90,27 @@ public @interface EnableIntegrationManagement {
 	 */
 	String defaultStatsEnabled() default "false";
 
+	/**
+	 * A list of simple patterns for component names for which send/handle duration
+	 * percentiles (p50, p90, p99, p99.9) over a rolling window will be maintained, in
+	 * addition to statistics. Percentiles are only recorded while statistics are
+	 * enabled for the component. If a pattern starts with `!`, percentiles are disabled
+	 * for matches. For components that match multiple patterns, the first pattern wins.
+	 * Defaults to no components. Overrides {@link #defaultPercentilesEnabled()} for
+	 * matching bean names.
+	 * @return the patterns.
+	 * @since 5.0.1
+	 */
+	String[] percentilesEnabled() default { };
+
+	/**
+	 * The default setting for enabling percentiles when a bean name is not matched by
+	 * {@link #percentilesEnabled() percentilesEnabled}.
+	 * @return the value; false by default.
+	 * @since 5.0.1
+	 */
+	String defaultPercentilesEnabled() default "false";
+
 	/**
 	 * Use to disable all logging in the main message flow in framework components. When 'false', such logging will be
 	 * skipped, regardless of logging level. When 'true', the logging is controlled as normal by the logging
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 the original author or authors.
+ * Copyright 2015-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -70,6 +70,7 @@ public class IntegrationManagementConfiguration implements ImportAware, Environm
 		IntegrationManagementConfigurer configurer = new IntegrationManagementConfigurer();
 		setupCountsEnabledNamePatterns(configurer);
 		setupStatsEnabledNamePatterns(configurer);
+		setupPercentilesEnabledNamePatterns(configurer);
 		configurer.setDefaultLoggingEnabled(
 				Boolean.parseBoolean(this.environment.resolvePlaceholders(
 						(String) this.attributes.get("defaultLoggingEnabled"))));
@@ -79,6 +80,9 @@ public class IntegrationManagementConfiguration implements ImportAware, Environm
 		configurer.setDefaultStatsEnabled(
 				Boolean.parseBoolean(this.environment.resolvePlaceholders(
 						(String) this.attributes.get("defaultStatsEnabled"))));
+		configurer.setDefaultPercentilesEnabled(
+				Boolean.parseBoolean(this.environment.resolvePlaceholders(
+						(String) this.attributes.get("defaultPercentilesEnabled"))));
 		configurer.setMetricsFactoryBeanName((String) this.attributes.get("metricsFactory"));
 		return configurer;
 	}
@@ -103,4 +107,14 @@ public class IntegrationManagementConfiguration implements ImportAware, Environm
 		configurer.setEnabledStatsPatterns(patterns.toArray(new String[patterns.size()]));
 	}
 
+	private void setupPercentilesEnabledNamePatterns(IntegrationManagementConfigurer configurer) {
+		List<String> patterns = new ArrayList<String>();
+		String[] percentilesEnabled = this.attributes.getStringArray("percentilesEnabled");
+		for (String managedComponent : percentilesEnabled) {
+			String pattern = this.environment.resolvePlaceholders(managedComponent);
+			patterns.addAll(Arrays.asList(StringUtils.commaDelimitedListToStringArray(pattern)));
+		}
+		configurer.setEnabledPercentilesPatterns(patterns.toArray(new String[patterns.size()]));
+	}
+
 }
@@ -51,6 +51,9 @@ public class IntegrationManagementParser extends AbstractBeanDefinitionParser {
 				"enabledCountsPatterns");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "stats-enabled-patterns",
 				"enabledStatsPatterns");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "default-percentiles-enabled");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "percentiles-enabled-patterns",
+				"enabledPercentilesPatterns");
 		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, "metrics-factory");
 		return builder.getBeanDefinition();
 	}
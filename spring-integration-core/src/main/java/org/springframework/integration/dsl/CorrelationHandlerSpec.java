@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 the original author or authors.
+ * Copyright 2016-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -104,6 +104,17 @@ public abstract class CorrelationHandlerSpec<S extends CorrelationHandlerSpec<S,
 		return _this();
 	}
 
+	/**
+	 * @param groupTimeoutResolution the resolution of group timeouts in milliseconds.
+	 * @return the handler spec.
+	 * @since 5.0.1
+	 * @see AbstractCorrelatingMessageHandler#setGroupTimeoutResolution(long)
+	 */
+	public S groupTimeoutResolution(long groupTimeoutResolution) {
+		this.handler.setGroupTimeoutResolution(groupTimeoutResolution);
+		return _this();
+	}
+
 	/**
 	 * @param groupTimeoutExpression the group timeout expression string.
 	 * @return the handler spec.
@@ -120,6 +120,18 @@ public final class PollerSpec extends IntegrationComponentSpec<PollerSpec, Polle
 		return this;
 	}
 
+	/**
+	 * @param batchSize the maximum number of messages a polling consumer receives from
+	 * a queue channel in one operation and handles within one poll.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see PollerMetadata#setBatchSize
+	 */
+	public PollerSpec batchSize(int batchSize) {
+		this.target.setBatchSize(batchSize);
+		return this;
+	}
+
 	/**
 	 * Specify a timeout in milliseconds to wait for a message in the
 	 * {@link org.springframework.messaging.MessageChannel}.
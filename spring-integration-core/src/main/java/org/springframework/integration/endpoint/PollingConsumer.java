@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,13 +17,16 @@
 package org.springframework.integration.endpoint;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 
 import org.springframework.context.Lifecycle;
+import org.springframework.integration.channel.BatchQueueChannelOperations;
 import org.springframework.integration.channel.ExecutorChannelInterceptorAware;
 import org.springframework.integration.core.MessageProducer;
+import org.springframework.integration.handler.BatchMessageHandler;
 import org.springframework.integration.router.MessageRouter;
 import org.springframework.integration.transaction.IntegrationResourceHolder;
 import org.springframework.messaging.Message;
@@ -34,6 +37,7 @@ import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
@@ -56,6 +60,8 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	private volatile long receiveTimeout = 1000;
 
+	private volatile int batchSize = 1;
+
 	public PollingConsumer(PollableChannel inputChannel, MessageHandler handler) {
 		Assert.notNull(inputChannel, "inputChannel must not be null");
 		Assert.notNull(handler, "handler must not be null");
@@ -74,6 +80,28 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * Set the maximum number of messages to receive from the input channel in one
+	 * poll (default 1). When greater than one, the input channel must implement
+	 * {@link BatchQueueChannelOperations}; up to this number of messages is drained from the
+	 * queue at once and handled within the same poll, so the poller's advice chain
+	 * (e.g. a transaction) is applied once per batch rather than once per message.
+	 * A {@link BatchMessageHandler} receives the whole batch in one invocation (unless
+	 * the channel has {@link ExecutorChannelInterceptor}s); other handlers are invoked
+	 * for each message. If a message cannot be handled, the remaining messages in the
+	 * batch are not handled and the exception's failed message has a payload containing
+	 * the failed message and those that follow it, so that they can be recovered by an
+	 * error flow.
+	 * @param batchSize the batch size.
+	 * @since 5.0.1
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+		Assert.isTrue(batchSize == 1 || this.inputChannel instanceof BatchQueueChannelOperations,
+				"A 'batchSize' greater than 1 requires an input channel that implements BatchQueueChannelOperations");
+		this.batchSize = batchSize;
+	}
+
 	@Override
 	public MessageChannel getInputChannel() {
 		return this.inputChannel;
@@ -115,11 +143,52 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	@Override
 	protected void handleMessage(Message<?> message) {
+		if (message instanceof MessageBatch) {
+			handleBatch(((MessageBatch) message).getPayload());
+		}
+		else {
+			doHandleMessage(message);
+		}
+	}
+
+	private void handleBatch(List<Message<?>> messages) {
+		if (this.handler instanceof BatchMessageHandler && !hasExecutorInterceptors()) {
+			try {
+				((BatchMessageHandler) this.handler).handleMessages(messages);
+			}
+			catch (MessagingException ex) {
+				throw ex;
+			}
+			catch (RuntimeException ex) {
+				throw new MessageDeliveryException(new MessageBatch(messages),
+						"Failed to handle batch of " + messages.size() + " messages to " + this + " in " + this.handler,
+						ex);
+			}
+			return;
+		}
+		for (int i = 0; i < messages.size(); i++) {
+			try {
+				doHandleMessage(messages.get(i));
+			}
+			catch (RuntimeException ex) {
+				List<Message<?>> unhandled = new ArrayList<Message<?>>(messages.subList(i, messages.size()));
+				throw new MessageDeliveryException(new MessageBatch(unhandled),
+						"Failed to handle message " + (i + 1) + " of a batch of " + messages.size() + " to " + this
+								+ " in " + this.handler, ex);
+			}
+		}
+	}
+
+	private boolean hasExecutorInterceptors() {
+		return this.channelInterceptors != null
+				&& ((ExecutorChannelInterceptorAware) this.inputChannel).hasExecutorInterceptors();
+	}
+
+	private void doHandleMessage(Message<?> message) {
 		Message<?> theMessage = message;
 		Deque<ExecutorChannelInterceptor> interceptorStack = null;
 		try {
-			if (this.channelInterceptors != null
-					&& ((ExecutorChannelInterceptorAware) this.inputChannel).hasExecutorInterceptors()) {
+			if (hasExecutorInterceptors()) {
 				interceptorStack = new ArrayDeque<ExecutorChannelInterceptor>();
 				theMessage = applyBeforeHandle(theMessage, interceptorStack);
 				if (theMessage == null) {
@@ -188,6 +257,11 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 
 	@Override
 	protected Message<?> receiveMessage() {
+		if (this.batchSize > 1) {
+			List<Message<?>> messages =
+					((BatchQueueChannelOperations) this.inputChannel).receive(this.batchSize, this.receiveTimeout);
+			return messages.isEmpty() ? null : new MessageBatch(messages);
+		}
 		return (this.receiveTimeout >= 0)
 				? this.inputChannel.receive(this.receiveTimeout)
 				: this.inputChannel.receive();
@@ -203,4 +277,18 @@ public class PollingConsumer extends AbstractPollingEndpoint implements Integrat
 		return IntegrationResourceHolder.INPUT_CHANNEL;
 	}
 
+	/**
+	 * The carrier for a batch between {@link #receiveMessage()} and
+	 * {@link #handleMessage(Message)}; also the failed message of batch exceptions.
+	 */
+	private static final class MessageBatch extends GenericMessage<List<Message<?>>> {
+
+		private static final long serialVersionUID = 1L;
+
+		MessageBatch(List<Message<?>> messages) {
+			super(messages);
+		}
+
+	}
+
 }
@@ -26,6 +26,7 @@ import org.springframework.integration.support.management.AbstractMessageHandler
 import org.springframework.integration.support.management.ConfigurableMetricsAware;
 import org.springframework.integration.support.management.DefaultMessageHandlerMetrics;
 import org.springframework.integration.support.management.IntegrationManagedResource;
+import org.springframework.integration.support.management.LatencyPercentiles;
 import org.springframework.integration.support.management.MessageHandlerMetrics;
 import org.springframework.integration.support.management.MetricsContext;
 import org.springframework.integration.support.management.Statistics;
@@ -237,6 +238,11 @@ public abstract class AbstractMessageHandler extends IntegrationObjectSupport im
 		return this.handlerMetrics.getDuration();
 	}
 
+	@Override
+	public LatencyPercentiles getDurationPercentiles() {
+		return this.handlerMetrics.getDurationPercentiles();
+	}
+
 	@Override
 	public void setStatsEnabled(boolean statsEnabled) {
 		if (statsEnabled) {
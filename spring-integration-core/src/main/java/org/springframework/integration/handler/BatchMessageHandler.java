@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.handler;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+
+/**
+ * A {@link MessageHandler} that can handle a batch of messages in one invocation;
+ * a {@link org.springframework.integration.endpoint.PollingConsumer} with a
+ * {@code batchSize} greater than one passes each batch received from its
+ * input channel to {@link #handleMessages(List)}.
+ *
+ * @since 5.0.1
+ *
+ */
+@FunctionalInterface
+public interface BatchMessageHandler extends MessageHandler {
+
+	/**
+	 * Handle the messages.
+	 * @param messages the messages, in the order they were received.
+	 * @throws MessagingException if the batch cannot be handled.
+	 */
+	void handleMessages(List<Message<?>> messages) throws MessagingException;
+
+	/**
+	 * Handle a single message as a batch of one.
+	 * @param message the message.
+	 * @throws MessagingException if the message cannot be handled.
+	 */
+	@Override
+	default void handleMessage(Message<?> message) throws MessagingException {
+		handleMessages(Collections.singletonList(message));
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,11 @@
 
 package org.springframework.integration.metadata;
 
-
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 /**
  * Supports atomic updates to values in the store.
@@ -47,4 +51,50 @@ public interface ConcurrentMetadataStore extends MetadataStore {
 	 */
 	boolean replace(String key, String oldValue, String newValue);
 
+	/**
+	 * Atomically insert each of the keys into the store, if absent; each key is
+	 * inserted atomically, but the entries are not inserted as a single atomic
+	 * operation. The default implementation invokes
+	 * {@link #putIfAbsent(String, String)} for each entry; implementations backed by a
+	 * remote store should override it to reduce the number of round trips.
+	 *
+	 * @param entries The keys and values to insert.
+	 * @return the current values of the keys that were already present; the keys that
+	 * were inserted are not included.
+	 * @since 5.0.1
+	 */
+	default Map<String, String> putIfAbsent(Map<String, String> entries) {
+		Map<String, String> existing = new HashMap<>();
+		for (Entry<String, String> entry : entries.entrySet()) {
+			String oldValue = putIfAbsent(entry.getKey(), entry.getValue());
+			if (oldValue != null) {
+				existing.put(entry.getKey(), oldValue);
+			}
+		}
+		return existing;
+	}
+
+	/**
+	 * Atomically replace the value of each key in the new values map, if the current
+	 * value matches its value in the old values map; each key is replaced atomically,
+	 * but the keys are not replaced as a single atomic operation. The default
+	 * implementation invokes {@link #replace(String, String, String)} for each key;
+	 * implementations backed by a remote store should override it to reduce the number
+	 * of round trips.
+	 *
+	 * @param oldValues The expected current values.
+	 * @param newValues The new values; must have the same keys as the old values.
+	 * @return the keys that were replaced.
+	 * @since 5.0.1
+	 */
+	default Set<String> replace(Map<String, String> oldValues, Map<String, String> newValues) {
+		Set<String> replaced = new HashSet<>();
+		for (Entry<String, String> entry : oldValues.entrySet()) {
+			if (replace(entry.getKey(), entry.getValue(), newValues.get(entry.getKey()))) {
+				replaced.add(entry.getKey());
+			}
+		}
+		return replaced;
+	}
+
 }
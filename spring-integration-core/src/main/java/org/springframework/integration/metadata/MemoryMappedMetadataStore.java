@@ -0,0 +1,693 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.metadata;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ConcurrentMetadataStore} backed by a memory-mapped, append-only log file.
+ * Each update appends a small record (the 64-bit hash of the key, and the value), so
+ * updates never rewrite the file, and {@link #flush()} only forces the mapped pages
+ * to disk. The keys are not stored: the index from key hash to record is kept in an
+ * open-addressing table outside of the heap (12 bytes per slot), and values are read
+ * from the mapped log, so the heap footprint does not grow with the number of entries.
+ * <p>
+ * On startup, the log is scanned to rebuild the index; a record which was only
+ * partially written (after a crash) ends the scan, and is discarded. When the log
+ * contains more superseded than live records, and is larger than the
+ * {@link #setCompactionThreshold(int) compactionThreshold}, it is compacted by copying
+ * the live records to a new file, which then replaces the log.
+ * <p>
+ * The number of entries can be bounded with {@link #setMaxEntries(int) maxEntries}:
+ * when a new key would exceed it, the least recently written entry is evicted, so the
+ * index, and the log (once compacted), stop growing. Without a bound, the index and the
+ * log grow with the number of entries, and the log cannot exceed 2GB.
+ * <p>
+ * Since only the hash of a key is stored, two keys with the same 64-bit hash are
+ * considered equal; with millions of keys, the probability is negligible.
+ * <p>
+ * The index is private to the instance, so the log file cannot be shared: while it is
+ * open, the store holds an exclusive lock on a {@code .lock} file next to the log, and
+ * another store (in this or another process) fails to open the same log.
+ * <p>
+ * By default, the log file is
+ * {@code 'java.io.tmpdir' +  "/spring-integration/metadata-store.log"}, but the
+ * directory and filename are settable.
+ *
+ * @author agent
+ *
+ * @since 5.0.1
+ */
+public class MemoryMappedMetadataStore implements ConcurrentMetadataStore, InitializingBean, DisposableBean,
+		Closeable, Flushable {
+
+	private static final long MAGIC = 0x5349_4D4D_4453_0001L;
+
+	private static final int FILE_HEADER_LENGTH = 8;
+
+	private static final byte PUT = 1;
+
+	private static final byte REMOVE = 2;
+
+	private static final int RECORD_HEADER_LENGTH = 1 + 8 + 4;
+
+	private static final int CHECKSUM_LENGTH = 4;
+
+	private static final int SLOT_LENGTH = 8 + 4;
+
+	private static final int INITIAL_SLOTS = 1024;
+
+	private static final byte[] NO_VALUE = new byte[0];
+
+	private final Log logger = LogFactory.getLog(getClass());
+
+	private final Object monitor = new Object();
+
+	private String baseDirectory = System.getProperty("java.io.tmpdir") + "/spring-integration/";
+
+	private String fileName = "metadata-store.log";
+
+	private int initialLogSize = 1024 * 1024;
+
+	private int compactionThreshold = 1024 * 1024;
+
+	private int maxEntries = Integer.MAX_VALUE;
+
+	private File file;
+
+	private FileChannel channel;
+
+	private FileChannel lockChannel;
+
+	private FileLock lock;
+
+	private MappedByteBuffer log;
+
+	private int position;
+
+	private long liveBytes;
+
+	private ByteBuffer index;
+
+	private int slots;
+
+	private int size;
+
+	private int evictionPosition;
+
+	/**
+	 * Set the location for the log file. Defaults to
+	 * {@code 'java.io.tmpdir' +  "/spring-integration/"}.
+	 * @param baseDirectory the directory.
+	 */
+	public void setBaseDirectory(String baseDirectory) {
+		Assert.hasText(baseDirectory, "'baseDirectory' must be non-empty");
+		this.baseDirectory = baseDirectory;
+	}
+
+	/**
+	 * Set the name of the log file in {@link #setBaseDirectory(String)}.
+	 * Defaults to {@code metadata-store.log}.
+	 * @param fileName the log file name.
+	 */
+	public void setFileName(String fileName) {
+		Assert.hasText(fileName, "'fileName' must be non-empty");
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Set the size (in bytes) initially mapped for a new log; the mapping is doubled
+	 * whenever it is full. Default 1MB.
+	 * @param initialLogSize the initial size.
+	 */
+	public void setInitialLogSize(int initialLogSize) {
+		Assert.isTrue(initialLogSize > FILE_HEADER_LENGTH, "'initialLogSize' is too small");
+		this.initialLogSize = initialLogSize;
+	}
+
+	/**
+	 * Set the log size (in bytes) below which the log is never compacted. Default 1MB.
+	 * @param compactionThreshold the threshold.
+	 */
+	public void setCompactionThreshold(int compactionThreshold) {
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	/**
+	 * Set the maximum number of entries; when a new key would exceed it, the least
+	 * recently written entry is removed. Default unbounded.
+	 * @param maxEntries the maximum number of entries.
+	 */
+	public void setMaxEntries(int maxEntries) {
+		Assert.isTrue(maxEntries > 0, "'maxEntries' must be greater than 0");
+		this.maxEntries = maxEntries;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		File baseDir = new File(this.baseDirectory);
+		baseDir.mkdirs();
+		this.file = new File(baseDir, this.fileName);
+		synchronized (this.monitor) {
+			try {
+				open();
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Failed to open metadata-store file '"
+						+ this.file.getAbsolutePath() + "'", e);
+			}
+		}
+	}
+
+	@Override
+	public void put(String key, String value) {
+		Assert.notNull(key, "'key' cannot be null");
+		Assert.notNull(value, "'value' cannot be null");
+		synchronized (this.monitor) {
+			doPut(hash(key), value);
+		}
+	}
+
+	@Override
+	public String get(String key) {
+		Assert.notNull(key, "'key' cannot be null");
+		synchronized (this.monitor) {
+			int offset = lookup(hash(key));
+			return offset < 0 ? null : readValue(offset);
+		}
+	}
+
+	@Override
+	public String remove(String key) {
+		Assert.notNull(key, "'key' cannot be null");
+		synchronized (this.monitor) {
+			long hash = hash(key);
+			int offset = lookup(hash);
+			if (offset < 0) {
+				return null;
+			}
+			String value = readValue(offset);
+			int length = recordLength(offset);
+			append(REMOVE, hash, NO_VALUE);
+			this.liveBytes -= length;
+			indexRemove(hash);
+			compactIfNeeded();
+			return value;
+		}
+	}
+
+	@Override
+	public String putIfAbsent(String key, String value) {
+		Assert.notNull(key, "'key' cannot be null");
+		Assert.notNull(value, "'value' cannot be null");
+		synchronized (this.monitor) {
+			long hash = hash(key);
+			int offset = lookup(hash);
+			if (offset >= 0) {
+				return readValue(offset);
+			}
+			doPut(hash, value);
+			return null;
+		}
+	}
+
+	@Override
+	public boolean replace(String key, String oldValue, String newValue) {
+		Assert.notNull(key, "'key' cannot be null");
+		Assert.notNull(oldValue, "'oldValue' cannot be null");
+		Assert.notNull(newValue, "'newValue' cannot be null");
+		synchronized (this.monitor) {
+			long hash = hash(key);
+			int offset = lookup(hash);
+			if (offset < 0 || !oldValue.equals(readValue(offset))) {
+				return false;
+			}
+			doPut(hash, newValue);
+			return true;
+		}
+	}
+
+	/**
+	 * Force the mapped log to disk; the store remains available to other threads
+	 * meanwhile. If the log is remapped (extended or compacted) while it is forced,
+	 * the new mapping is forced too.
+	 */
+	@Override
+	public void flush() {
+		MappedByteBuffer forced = null;
+		while (true) {
+			MappedByteBuffer log;
+			synchronized (this.monitor) {
+				log = this.log;
+			}
+			if (log == null || log == forced) {
+				return;
+			}
+			log.force();
+			forced = log;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this.monitor) {
+			try {
+				if (this.log != null) {
+					this.log.force();
+					this.log = null;
+				}
+				if (this.channel != null) {
+					this.channel.close();
+					this.channel = null;
+				}
+				this.index = null;
+			}
+			finally {
+				unlock();
+			}
+		}
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		close();
+	}
+
+	/**
+	 * Compact the log now, unless it contains only live records.
+	 */
+	public void compact() {
+		synchronized (this.monitor) {
+			assertOpen();
+			if (this.position - FILE_HEADER_LENGTH > this.liveBytes) {
+				doCompact();
+			}
+		}
+	}
+
+	private void open() throws IOException {
+		lock();
+		try {
+			doOpen();
+		}
+		catch (IOException | RuntimeException e) {
+			if (this.channel != null) {
+				this.channel.close();
+				this.channel = null;
+			}
+			this.log = null;
+			unlock();
+			throw e;
+		}
+	}
+
+	/**
+	 * Lock a separate file, rather than the log itself, since compaction replaces the
+	 * log file.
+	 */
+	private void lock() throws IOException {
+		File lockFile = new File(this.file.getPath() + ".lock");
+		this.lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		try {
+			this.lock = this.lockChannel.tryLock();
+		}
+		catch (OverlappingFileLockException e) {
+			// locked by another store in this JVM
+		}
+		if (this.lock == null) {
+			this.lockChannel.close();
+			this.lockChannel = null;
+			throw new IllegalStateException("Metadata-store file '" + this.file.getAbsolutePath()
+					+ "' is in use by another metadata store");
+		}
+	}
+
+	private void unlock() throws IOException {
+		if (this.lockChannel != null) {
+			try {
+				this.lock.release();
+			}
+			finally {
+				this.lock = null;
+				this.lockChannel.close();
+				this.lockChannel = null;
+			}
+		}
+	}
+
+	private void doOpen() throws IOException {
+		this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		long fileSize = this.channel.size();
+		Assert.state(fileSize <= Integer.MAX_VALUE, "The metadata-store file is too large");
+		this.log = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(fileSize, this.initialLogSize));
+		this.index = ByteBuffer.allocateDirect(INITIAL_SLOTS * SLOT_LENGTH);
+		this.slots = INITIAL_SLOTS;
+		this.size = 0;
+		this.liveBytes = 0;
+		this.position = FILE_HEADER_LENGTH;
+		this.evictionPosition = FILE_HEADER_LENGTH;
+		if (fileSize == 0) {
+			this.log.putLong(0, MAGIC);
+		}
+		else {
+			Assert.state(this.log.getLong(0) == MAGIC,
+					"'" + this.file.getAbsolutePath() + "' is not a metadata-store file");
+			recover();
+			while (this.size > this.maxEntries) {
+				evictOldest();
+			}
+		}
+	}
+
+	private void recover() {
+		int capacity = this.log.capacity();
+		while (this.position + RECORD_HEADER_LENGTH + CHECKSUM_LENGTH <= capacity) {
+			byte op = this.log.get(this.position);
+			if (op != PUT && op != REMOVE) {
+				break;
+			}
+			int valueLength = this.log.getInt(this.position + 9);
+			if (valueLength < 0
+					|| (long) this.position + RECORD_HEADER_LENGTH + valueLength + CHECKSUM_LENGTH > capacity
+					|| checksum(this.position, RECORD_HEADER_LENGTH + valueLength)
+							!= this.log.getInt(this.position + RECORD_HEADER_LENGTH + valueLength)) {
+				break;
+			}
+			long hash = this.log.getLong(this.position + 1);
+			int previous = lookup(hash);
+			if (previous >= 0) {
+				this.liveBytes -= recordLength(previous);
+			}
+			if (op == PUT) {
+				indexPut(hash, this.position);
+				this.liveBytes += recordLength(this.position);
+			}
+			else {
+				indexRemove(hash);
+			}
+			this.position += RECORD_HEADER_LENGTH + valueLength + CHECKSUM_LENGTH;
+		}
+		if (this.position < capacity && this.log.get(this.position) != 0) {
+			this.logger.warn("Discarding the incomplete tail of '" + this.file.getAbsolutePath()
+					+ "' from position " + this.position + "; some entries may have been lost");
+			for (int i = this.position; i < capacity; i++) {
+				this.log.put(i, (byte) 0);
+			}
+		}
+	}
+
+	private void doPut(long hash, String value) {
+		assertOpen();
+		int previous = lookup(hash);
+		int previousLength = previous < 0 ? 0 : recordLength(previous);
+		int offset = append(PUT, hash, value.getBytes(StandardCharsets.UTF_8));
+		indexPut(hash, offset);
+		this.liveBytes += recordLength(offset) - previousLength;
+		if (this.size > this.maxEntries) {
+			evictOldest();
+		}
+		compactIfNeeded();
+	}
+
+	/**
+	 * Remove the live entry with the lowest offset; records are appended, so it is the
+	 * least recently written one. The records before {@link #evictionPosition} are all
+	 * superseded, so each record is only scanned once between compactions.
+	 */
+	private void evictOldest() {
+		int offset = this.evictionPosition;
+		while (offset < this.position) {
+			long hash = this.log.getLong(offset + 1);
+			int length = recordLength(offset);
+			if (this.log.get(offset) == PUT && lookup(hash) == offset) {
+				this.evictionPosition = offset + length;
+				append(REMOVE, hash, NO_VALUE);
+				this.liveBytes -= length;
+				indexRemove(hash);
+				return;
+			}
+			offset += length;
+		}
+		this.evictionPosition = offset;
+	}
+
+	private int append(byte op, long hash, byte[] value) {
+		int length = RECORD_HEADER_LENGTH + value.length + CHECKSUM_LENGTH;
+		ensureCapacity(length);
+		ByteBuffer record = ByteBuffer.allocate(length);
+		record.put(op).putLong(hash).putInt(value.length).put(value);
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), 0, length - CHECKSUM_LENGTH);
+		record.putInt((int) crc.getValue());
+		int offset = this.position;
+		ByteBuffer target = this.log.duplicate();
+		target.position(offset);
+		target.put(record.array());
+		this.position += length;
+		return offset;
+	}
+
+	private void ensureCapacity(int length) {
+		long required = (long) this.position + length;
+		if (required > Integer.MAX_VALUE && this.position - FILE_HEADER_LENGTH > this.liveBytes) {
+			doCompact();
+			required = (long) this.position + length;
+		}
+		if (required > this.log.capacity()) {
+			Assert.state(required <= Integer.MAX_VALUE, "The metadata-store file is full");
+			long capacity = Math.min(Math.max(2L * this.log.capacity(), required), Integer.MAX_VALUE);
+			try {
+				this.log.force();
+				this.log = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException("Failed to extend metadata-store file '"
+						+ this.file.getAbsolutePath() + "'", e);
+			}
+		}
+	}
+
+	private void compactIfNeeded() {
+		if (this.position > this.compactionThreshold && this.position - FILE_HEADER_LENGTH > 2 * this.liveBytes) {
+			doCompact();
+		}
+	}
+
+	private void doCompact() {
+		File compacted = new File(this.file.getPath() + ".compacting");
+		long capacity = Math.max(FILE_HEADER_LENGTH + 2 * this.liveBytes, this.initialLogSize);
+		int newPosition;
+		try {
+			try (FileChannel target = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				MappedByteBuffer newLog = target.map(FileChannel.MapMode.READ_WRITE, 0,
+						Math.min(capacity, Integer.MAX_VALUE));
+				newLog.putLong(MAGIC);
+				// copy the live records in log order, so the oldest entries remain first
+				int offset = FILE_HEADER_LENGTH;
+				while (offset < this.position) {
+					int length = recordLength(offset);
+					if (this.log.get(offset) == PUT) {
+						int slot = findSlot(this.log.getLong(offset + 1));
+						if (this.index.getLong(slot * SLOT_LENGTH) != 0
+								&& this.index.getInt(slot * SLOT_LENGTH + 8) == offset) {
+							ByteBuffer record = this.log.duplicate();
+							record.position(offset);
+							record.limit(offset + length);
+							newLog.put(record);
+						}
+					}
+					offset += length;
+				}
+				newLog.force();
+				newPosition = newLog.position();
+			}
+			this.channel.close();
+			Files.move(compacted.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			this.logger.warn("Failed to compact '" + this.file.getAbsolutePath() + "'", e);
+			compacted.delete();
+			reopen();
+			return;
+		}
+		this.position = newPosition;
+		this.evictionPosition = FILE_HEADER_LENGTH;
+		reopen();
+		// the index is only updated once the new log is in place, so a failed compaction leaves it intact
+		int offset = FILE_HEADER_LENGTH;
+		while (offset < this.position) {
+			int slot = findSlot(this.log.getLong(offset + 1));
+			this.index.putInt(slot * SLOT_LENGTH + 8, offset);
+			offset += recordLength(offset);
+		}
+	}
+
+	private void reopen() {
+		try {
+			if (!this.channel.isOpen()) {
+				this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ,
+						StandardOpenOption.WRITE);
+			}
+			this.log = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+					Math.max(this.channel.size(), this.position));
+		}
+		catch (IOException e) {
+			this.log = null;
+			throw new IllegalStateException("Failed to reopen metadata-store file '"
+					+ this.file.getAbsolutePath() + "'", e);
+		}
+	}
+
+	private void assertOpen() {
+		Assert.state(this.log != null, "The metadata store is not open");
+	}
+
+	private String readValue(int offset) {
+		int valueLength = this.log.getInt(offset + 9);
+		byte[] value = new byte[valueLength];
+		ByteBuffer record = this.log.duplicate();
+		record.position(offset + RECORD_HEADER_LENGTH);
+		record.get(value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	private int recordLength(int offset) {
+		return RECORD_HEADER_LENGTH + this.log.getInt(offset + 9) + CHECKSUM_LENGTH;
+	}
+
+	private int checksum(int offset, int length) {
+		ByteBuffer record = this.log.duplicate();
+		record.position(offset);
+		record.limit(offset + length);
+		CRC32 crc = new CRC32();
+		crc.update(record);
+		return (int) crc.getValue();
+	}
+
+	private int lookup(long hash) {
+		assertOpen();
+		int slot = findSlot(hash);
+		return this.index.getLong(slot * SLOT_LENGTH) == 0 ? -1 : this.index.getInt(slot * SLOT_LENGTH + 8);
+	}
+
+	private int findSlot(long hash) {
+		int mask = this.slots - 1;
+		int slot = home(hash);
+		while (true) {
+			long current = this.index.getLong(slot * SLOT_LENGTH);
+			if (current == 0 || current == hash) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	private int home(long hash) {
+		return (int) (hash ^ (hash >>> 32)) & (this.slots - 1);
+	}
+
+	private void indexPut(long hash, int offset) {
+		if (2 * (this.size + 1) > this.slots) {
+			resizeIndex();
+		}
+		int slot = findSlot(hash);
+		if (this.index.getLong(slot * SLOT_LENGTH) == 0) {
+			this.index.putLong(slot * SLOT_LENGTH, hash);
+			this.size++;
+		}
+		this.index.putInt(slot * SLOT_LENGTH + 8, offset);
+	}
+
+	private void indexRemove(long hash) {
+		int mask = this.slots - 1;
+		int hole = findSlot(hash);
+		if (this.index.getLong(hole * SLOT_LENGTH) == 0) {
+			return;
+		}
+		// backward shift deletion; entries displaced past the hole move into it
+		int next = (hole + 1) & mask;
+		while (true) {
+			long current = this.index.getLong(next * SLOT_LENGTH);
+			if (current == 0) {
+				break;
+			}
+			if (((next - home(current)) & mask) >= ((next - hole) & mask)) {
+				this.index.putLong(hole * SLOT_LENGTH, current);
+				this.index.putInt(hole * SLOT_LENGTH + 8, this.index.getInt(next * SLOT_LENGTH + 8));
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		this.index.putLong(hole * SLOT_LENGTH, 0);
+		this.size--;
+	}
+
+	private void resizeIndex() {
+		ByteBuffer oldIndex = this.index;
+		int oldSlots = this.slots;
+		Assert.state(oldSlots <= Integer.MAX_VALUE / (2 * SLOT_LENGTH), "The metadata-store index is full");
+		this.slots = oldSlots * 2;
+		this.index = ByteBuffer.allocateDirect(this.slots * SLOT_LENGTH);
+		for (int slot = 0; slot < oldSlots; slot++) {
+			long hash = oldIndex.getLong(slot * SLOT_LENGTH);
+			if (hash != 0) {
+				int newSlot = findSlot(hash);
+				this.index.putLong(newSlot * SLOT_LENGTH, hash);
+				this.index.putInt(newSlot * SLOT_LENGTH + 8, oldIndex.getInt(slot * SLOT_LENGTH + 8));
+			}
+		}
+	}
+
+	private static long hash(String key) {
+		// FNV-1a, with the MurmurHash3 finalizer to spread the bits
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb93e2c3e98a1L;
+		hash ^= hash >>> 33;
+		return hash == 0 ? 1 : hash;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,6 +50,8 @@ public class PollerMetadata {
 
 	private volatile long receiveTimeout = 1000;
 
+	private volatile int batchSize = 1;
+
 	private volatile ErrorHandler errorHandler;
 
 	private volatile List<Advice> adviceChain;
@@ -114,6 +116,24 @@ public class PollerMetadata {
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Set the maximum number of messages a polling consumer receives from its input
+	 * channel in one receive operation, and handles within one poll. Only applies to
+	 * consumers of channels that implement
+	 * {@link org.springframework.integration.channel.BatchQueueChannelOperations}.
+	 * <p>The default is 1.
+	 * @param batchSize the batch size.
+	 * @since 5.0.1
+	 * @see org.springframework.integration.endpoint.PollingConsumer#setBatchSize(int)
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
 	public void setAdviceChain(List<Advice> adviceChain) {
 		this.adviceChain = adviceChain;
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2014-2016 the original author or authors.
+ * Copyright 2014-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,11 @@
 
 package org.springframework.integration.store;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.messaging.Message;
 
 /**
  * A marker interface that indicates this message store has optimizations for
@@ -28,4 +32,38 @@ import org.springframework.integration.channel.QueueChannel;
  */
 public interface ChannelMessageStore extends BasicMessageGroupStore {
 
+	/**
+	 * Poll up to {@code maxMessages} messages from the group, removing them from the
+	 * store. The default implementation invokes {@link #pollMessageFromGroup(Object)}
+	 * until the group is empty or the limit is reached; implementations may override
+	 * it to claim several messages with a single round trip.
+	 * @param groupId The group identifier.
+	 * @param maxMessages the maximum number of messages to poll.
+	 * @return the polled messages; never null.
+	 * @since 5.0.1
+	 */
+	default List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+		List<Message<?>> messages = new ArrayList<>();
+		for (int i = 0; i < maxMessages; i++) {
+			Message<?> message = pollMessageFromGroup(groupId);
+			if (message == null) {
+				break;
+			}
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	/**
+	 * Return true if {@link #addMessageToGroup(Object, Message)} may be invoked
+	 * concurrently with other adds and polls for the same group. A
+	 * {@link MessageGroupQueue} with unbounded capacity then adds messages without
+	 * holding its store lock, so that concurrent senders reach the store together.
+	 * @return true if concurrent adds are supported; false by default.
+	 * @since 5.0.1
+	 */
+	default boolean isConcurrentAddSupported() {
+		return false;
+	}
+
 }
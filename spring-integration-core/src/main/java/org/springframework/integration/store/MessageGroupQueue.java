@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.AbstractQueue;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
@@ -65,6 +66,8 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 
 	private final Condition messageStoreNotEmpty;
 
+	private final boolean concurrentAdd;
+
 	public MessageGroupQueue(BasicMessageGroupStore messageGroupStore, Object groupId) {
 		this(messageGroupStore, groupId, DEFAULT_CAPACITY, new ReentrantLock(true));
 	}
@@ -88,6 +91,8 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		this.messageGroupStore = messageGroupStore;
 		this.groupId = groupId;
 		this.capacity = capacity;
+		this.concurrentAdd = capacity == DEFAULT_CAPACITY && messageGroupStore instanceof ChannelMessageStore
+				&& ((ChannelMessageStore) messageGroupStore).isConcurrentAddSupported();
 		if (this.logger.isWarnEnabled() && !(messageGroupStore instanceof ChannelMessageStore)) {
 			this.logger.warn(messageGroupStore.getClass().getSimpleName() + " is not optimized for use "
 					+ "in a 'MessageGroupQueue'; consider using a `ChannelMessageStore'");
@@ -201,10 +206,25 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		try {
 			storeLock.lockInterruptibly();
 			try {
-				Message<?> message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
-				for (int i = 0; i < maxElements && message != null; i++) {
-					list.add(message);
-					message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
+				if (this.messageGroupStore instanceof ChannelMessageStore) {
+					ChannelMessageStore channelMessageStore = (ChannelMessageStore) this.messageGroupStore;
+					while (list.size() < maxElements) {
+						List<Message<?>> messages =
+								channelMessageStore.pollMessagesFromGroup(this.groupId, maxElements - list.size());
+						if (messages.isEmpty()) {
+							break;
+						}
+						list.addAll(messages);
+					}
+				}
+				else {
+					for (int i = 0; i < maxElements; i++) {
+						Message<?> message = this.messageGroupStore.pollMessageFromGroup(this.groupId);
+						if (message == null) {
+							break;
+						}
+						list.add(message);
+					}
 				}
 				this.messageStoreNotFull.signal();
 			}
@@ -222,6 +242,11 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 
 	@Override
 	public boolean offer(Message<?> message) {
+		if (this.concurrentAdd) {
+			this.messageGroupStore.addMessageToGroup(this.groupId, message);
+			signalNotEmpty();
+			return true;
+		}
 		boolean offered = true;
 		final Lock storeLock = this.storeLock;
 		try {
@@ -241,6 +266,9 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 
 	@Override
 	public boolean offer(Message<?> message, long timeout, TimeUnit unit) throws InterruptedException {
+		if (this.concurrentAdd) {
+			return offer(message);
+		}
 		long timeoutInNanos = unit.toNanos(timeout);
 		boolean offered = false;
 
@@ -264,6 +292,10 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 
 	@Override
 	public void put(Message<?> message) throws InterruptedException {
+		if (this.concurrentAdd) {
+			offer(message);
+			return;
+		}
 		final Lock storeLock = this.storeLock;
 		storeLock.lockInterruptibly();
 		try {
@@ -320,6 +352,21 @@ public class MessageGroupQueue extends AbstractQueue<Message<?>> implements Bloc
 		return message;
 	}
 
+	/**
+	 * Used when the message has been added to the store without holding the 'storeLock'
+	 * so that waiting consumers are notified.
+	 */
+	private void signalNotEmpty() {
+		final Lock storeLock = this.storeLock;
+		storeLock.lock();
+		try {
+			this.messageStoreNotEmpty.signal();
+		}
+		finally {
+			storeLock.unlock();
+		}
+	}
+
 	/**
 	 * It is assumed that the 'storeLock' is being held by the caller, otherwise
 	 * IllegalMonitorStateException may be thrown
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.messaging.Message;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SimpleMessageGroup} that additionally indexes its messages by the
+ * {@code sequenceNumber} header in an array of slots, so that duplicate sequence
+ * detection, the lowest present sequence and the contiguous run of sequences
+ * starting from a given number can be answered without scanning or sorting the group.
+ * <p>
+ * The slot array only spans the window between the lowest and highest sequence
+ * currently in the group, so unbounded sequences whose released messages are
+ * removed (as with a resequencer) do not grow it indefinitely. That window is also
+ * limited to a small multiple of the number of indexed messages (with a fixed minimum
+ * and maximum), so a message whose sequence is far from the others does not cause a
+ * huge array to be allocated; such a message is kept in the group, but is not indexed.
+ * Messages without a positive {@code sequenceNumber} are kept in the group, but
+ * are not indexed either; a second message with an already indexed sequence is also
+ * kept, but the first one remains the indexed one.
+ *
+ * @since 5.0.1
+ *
+ * @see SequenceIndexedMessageGroupFactory
+ */
+public class SequenceIndexedMessageGroup extends SimpleMessageGroup {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final int MIN_WINDOW = 1024;
+
+	private static final int MAX_WINDOW = 1 << 24;
+
+	private static final int WINDOW_FACTOR = 4;
+
+	private final Collection<Message<?>> messages;
+
+	private Message<?>[] slots = new Message<?>[INITIAL_CAPACITY];
+
+	/**
+	 * The array index of the lowest indexed sequence.
+	 */
+	private int head;
+
+	/**
+	 * The array index of the highest indexed sequence.
+	 */
+	private int tail;
+
+	/**
+	 * The sequence number held in {@code slots[head]}.
+	 */
+	private int base;
+
+	private int indexed;
+
+	private int unindexed;
+
+	public SequenceIndexedMessageGroup(Object groupId) {
+		this(Collections.emptyList(), groupId);
+	}
+
+	public SequenceIndexedMessageGroup(Collection<? extends Message<?>> messages, Object groupId) {
+		this(messages, groupId, System.currentTimeMillis(), false);
+	}
+
+	public SequenceIndexedMessageGroup(Collection<? extends Message<?>> messages, Object groupId, long timestamp,
+			boolean complete) {
+
+		this(new LinkedHashSet<>(), messages, groupId, timestamp, complete);
+	}
+
+	private SequenceIndexedMessageGroup(Collection<Message<?>> internalStore,
+			Collection<? extends Message<?>> messages, Object groupId, long timestamp, boolean complete) {
+
+		super(internalStore, null, groupId, timestamp, complete, true);
+		Assert.notNull(messages, "'messages' must not be null");
+		this.messages = internalStore;
+		for (Message<?> message : messages) {
+			if (message != null) {
+				add(message);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void add(Message<?> messageToAdd) {
+		if (this.messages.add(messageToAdd)) {
+			int sequence = sequenceOf(messageToAdd);
+			if (sequence <= 0 || !index(sequence, messageToAdd)) {
+				this.unindexed++;
+			}
+		}
+	}
+
+	@Override
+	public synchronized boolean remove(Message<?> message) {
+		boolean removed = this.messages.remove(message);
+		if (removed) {
+			int slot = slotOf(sequenceOf(message));
+			if (slot >= 0 && message.equals(this.slots[slot])) {
+				unindex(slot);
+			}
+			else {
+				this.unindexed--;
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public synchronized void clear() {
+		this.messages.clear();
+		Arrays.fill(this.slots, null);
+		this.head = 0;
+		this.tail = 0;
+		this.indexed = 0;
+		this.unindexed = 0;
+	}
+
+	@Override
+	public synchronized boolean containsSequence(Integer sequence) {
+		if (sequence == null) {
+			return false;
+		}
+		if (getMessageWithSequence(sequence) != null) {
+			return true;
+		}
+		if (this.unindexed > 0) {
+			for (Message<?> message : this.messages) {
+				if (sequenceOf(message) == sequence) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the indexed message with this sequence number.
+	 * @param sequence the sequence number.
+	 * @return the message, or null if there is none.
+	 */
+	public synchronized Message<?> getMessageWithSequence(int sequence) {
+		int slot = slotOf(sequence);
+		return slot >= 0 ? this.slots[slot] : null;
+	}
+
+	/**
+	 * Return the lowest sequence number in the group.
+	 * @return the sequence number, or 0 if there are no indexed messages.
+	 */
+	public synchronized int getLowestSequenceNumber() {
+		return this.indexed > 0 ? this.base : 0;
+	}
+
+	/**
+	 * Return the number of messages with consecutive sequence numbers starting
+	 * at the given sequence; that is, how many messages could be released in order
+	 * from that point without a gap.
+	 * @param fromSequence the first sequence number.
+	 * @return the count.
+	 */
+	public synchronized int getContiguousSequenceCount(int fromSequence) {
+		Message<?> message = getMessageWithSequence(fromSequence);
+		if (message == null) {
+			return 0;
+		}
+		int start = fromSequence - this.base + this.head;
+		int slot = start;
+		while (slot < this.slots.length && this.slots[slot] != null) {
+			slot++;
+		}
+		return slot - start;
+	}
+
+	/**
+	 * Return the messages with consecutive sequence numbers starting at the given
+	 * sequence, in sequence order.
+	 * @param fromSequence the first sequence number.
+	 * @return the messages; empty if there is no message with that sequence.
+	 */
+	public synchronized List<Message<?>> getContiguousSequence(int fromSequence) {
+		int count = getContiguousSequenceCount(fromSequence);
+		List<Message<?>> sequence = new ArrayList<>(count);
+		int start = fromSequence - this.base + this.head;
+		for (int i = start; i < start + count; i++) {
+			sequence.add(this.slots[i]);
+		}
+		return sequence;
+	}
+
+	/**
+	 * Return true if the group contains messages that are not indexed because they
+	 * have no positive sequence number, duplicate an indexed sequence, or are too far
+	 * from the indexed sequences.
+	 * @return true if there are unindexed messages.
+	 */
+	public synchronized boolean hasUnindexedMessages() {
+		return this.unindexed > 0;
+	}
+
+	private boolean index(int sequence, Message<?> message) {
+		if (this.indexed > 0) {
+			long highest = (long) this.base + this.tail - this.head;
+			long span = Math.max(highest, sequence) - Math.min(this.base, sequence) + 1;
+			if (span > maxWindow()) {
+				return false;
+			}
+		}
+		if (this.indexed == 0) {
+			this.head = 0;
+			this.tail = 0;
+			this.base = sequence;
+		}
+		else if (sequence < this.base) {
+			int shift = this.base - sequence;
+			if (shift > this.head) {
+				// leave as much room again below the window for further out of order arrivals
+				int length = this.tail - this.head + 1;
+				relocate(shift + length, shift + 2 * length);
+			}
+			this.head -= shift;
+			this.base = sequence;
+		}
+		int slot = sequence - this.base + this.head;
+		if (slot >= this.slots.length) {
+			relocate(0, sequence - this.base + 1);
+			slot = sequence - this.base;
+		}
+		if (this.slots[slot] != null) {
+			return false;
+		}
+		this.slots[slot] = message;
+		this.tail = Math.max(this.tail, slot);
+		this.indexed++;
+		return true;
+	}
+
+	private void unindex(int slot) {
+		this.slots[slot] = null;
+		this.indexed--;
+		if (this.indexed == 0) {
+			this.head = 0;
+			this.tail = 0;
+		}
+		else if (slot == this.head) {
+			int next = this.head + 1;
+			while (this.slots[next] == null) {
+				next++;
+			}
+			this.base += next - this.head;
+			this.head = next;
+		}
+		else if (slot == this.tail) {
+			int previous = this.tail - 1;
+			while (this.slots[previous] == null) {
+				previous--;
+			}
+			this.tail = previous;
+		}
+	}
+
+	/**
+	 * Return the slot for this sequence, or -1 if it is outside the slot array.
+	 */
+	private int slotOf(int sequence) {
+		if (this.indexed == 0 || sequence < this.base || sequence - this.base >= this.slots.length - this.head) {
+			return -1;
+		}
+		return sequence - this.base + this.head;
+	}
+
+	private int maxWindow() {
+		return (int) Math.min(MAX_WINDOW, Math.max(MIN_WINDOW, (long) WINDOW_FACTOR * (this.indexed + 1)));
+	}
+
+	/**
+	 * Move the indexed window to start at {@code newHead}, into a larger array if the
+	 * current one has fewer than {@code capacity} slots.
+	 */
+	private void relocate(int newHead, int capacity) {
+		int length = this.tail - this.head + 1;
+		Message<?>[] target = this.slots;
+		if (capacity > this.slots.length) {
+			int newLength = this.slots.length;
+			while (newLength < capacity) {
+				newLength <<= 1;
+			}
+			target = new Message<?>[newLength];
+		}
+		System.arraycopy(this.slots, this.head, target, newHead, length);
+		if (target == this.slots) {
+			if (newHead < this.head) {
+				Arrays.fill(this.slots, Math.max(this.head, newHead + length), this.head + length, null);
+			}
+			else if (newHead > this.head) {
+				Arrays.fill(this.slots, this.head, Math.min(this.head + length, newHead), null);
+			}
+		}
+		this.slots = target;
+		this.tail += newHead - this.head;
+		this.head = newHead;
+	}
+
+	private static int sequenceOf(Message<?> message) {
+		Integer sequence = message.getHeaders().get(IntegrationMessageHeaderAccessor.SEQUENCE_NUMBER, Integer.class);
+		return sequence != null ? sequence : 0;
+	}
+
+	@Override
+	public String toString() {
+		return "SequenceIndexedMessageGroup{" +
+				"groupId=" + getGroupId() +
+				", messages=" + this.messages +
+				", timestamp=" + getTimestamp() +
+				", lastModified=" + getLastModified() +
+				'}';
+	}
+
+}
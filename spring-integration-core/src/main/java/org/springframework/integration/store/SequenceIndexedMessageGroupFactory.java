@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.store;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.messaging.Message;
+
+/**
+ * The {@link MessageGroupFactory} implementation to produce {@link SequenceIndexedMessageGroup}
+ * instances. Intended for in-memory stores such as {@link SimpleMessageStore} that keep
+ * the created groups, so the {@code sequenceNumber} index is maintained as messages
+ * arrive and is available to the release strategy and the resequencer.
+ *
+ * @since 5.0.1
+ */
+public class SequenceIndexedMessageGroupFactory implements MessageGroupFactory {
+
+	@Override
+	public MessageGroup create(Object groupId) {
+		return create(Collections.emptyList(), groupId);
+	}
+
+	@Override
+	public MessageGroup create(Collection<? extends Message<?>> messages, Object groupId) {
+		return create(messages, groupId, System.currentTimeMillis(), false);
+	}
+
+	@Override
+	public MessageGroup create(Collection<? extends Message<?>> messages, Object groupId, long timestamp,
+			boolean complete) {
+
+		return new SequenceIndexedMessageGroup(messages, groupId, timestamp, complete);
+	}
+
+	@Override
+	public MessageGroup create(MessageGroupStore messageGroupStore, Object groupId) {
+		return create(messageGroupStore.getMessagesForGroup(groupId), groupId);
+	}
+
+	@Override
+	public MessageGroup create(MessageGroupStore messageGroupStore, Object groupId, long timestamp, boolean complete) {
+		return create(messageGroupStore.getMessagesForGroup(groupId), groupId, timestamp, complete);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2016 the original author or authors.
+ * Copyright 2015-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,8 @@ public abstract class AbstractMessageChannelMetrics implements ConfigurableMetri
 
 	private volatile boolean fullStatsEnabled;
 
+	private volatile LatencyHistogram durationHistogram;
+
 	public AbstractMessageChannelMetrics(String name) {
 		this.name = name;
 	}
@@ -51,6 +53,69 @@ public abstract class AbstractMessageChannelMetrics implements ConfigurableMetri
 		return this.fullStatsEnabled;
 	}
 
+	/**
+	 * When true, and full statistics are enabled, send durations are also recorded
+	 * in a {@link LatencyHistogram} so that percentiles (p50, p90, p99, p99.9) over a
+	 * rolling window are available from {@link #getSendDurationPercentiles()}.
+	 * @param percentilesEnabled true to maintain percentiles.
+	 * @since 5.0.1
+	 */
+	public void setPercentilesEnabled(boolean percentilesEnabled) {
+		if (!percentilesEnabled) {
+			this.durationHistogram = null;
+		}
+		else if (this.durationHistogram == null) {
+			this.durationHistogram = createLatencyHistogram();
+		}
+	}
+
+	protected boolean isPercentilesEnabled() {
+		return this.durationHistogram != null;
+	}
+
+	/**
+	 * Create the histogram used when percentiles are enabled; override to customize the
+	 * rolling window.
+	 * @return the histogram.
+	 * @since 5.0.1
+	 */
+	protected LatencyHistogram createLatencyHistogram() {
+		return new LatencyHistogram();
+	}
+
+	/**
+	 * Record a send duration if percentiles are enabled.
+	 * @param durationNanos the duration in nanoseconds.
+	 * @since 5.0.1
+	 */
+	protected void recordSendDuration(long durationNanos) {
+		LatencyHistogram histogram = this.durationHistogram;
+		if (histogram != null) {
+			histogram.record(durationNanos);
+		}
+	}
+
+	/**
+	 * Discard the durations recorded for percentiles.
+	 * @since 5.0.1
+	 */
+	protected void resetPercentiles() {
+		LatencyHistogram histogram = this.durationHistogram;
+		if (histogram != null) {
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * @return the send duration percentiles (milliseconds) over the rolling window, or
+	 * null if percentiles are not enabled.
+	 * @since 5.0.1
+	 */
+	public LatencyPercentiles getSendDurationPercentiles() {
+		LatencyHistogram histogram = this.durationHistogram;
+		return histogram != null ? histogram.getPercentiles() : null;
+	}
+
 	/**
 	 * Begin a send event.
 	 * @return the context to be used in a subsequent {@link #afterSend(MetricsContext, boolean)}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,6 +60,16 @@ public class AggregatingMessageHandlerMetrics extends DefaultMessageHandlerMetri
 		this.sampleSize = sampleSize;
 	}
 
+	/**
+	 * Percentiles are not supported; only aggregated durations are sampled.
+	 * @param percentilesEnabled ignored.
+	 * @since 5.0.1
+	 */
+	@Override
+	public void setPercentilesEnabled(boolean percentilesEnabled) {
+		// no-op
+	}
+
 	@Override
 	public synchronized MetricsContext beforeHandle() {
 		long count = this.handleCount.getAndIncrement();
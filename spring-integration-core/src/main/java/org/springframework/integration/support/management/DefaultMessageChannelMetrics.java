@@ -113,8 +113,10 @@ public class DefaultMessageChannelMetrics extends AbstractMessageChannelMetrics
 		if (result) {
 			if (isFullStatsEnabled()) {
 				long now = System.nanoTime();
+				long duration = now - ((DefaultChannelMetricsContext) context).start;
 				this.sendSuccessRatio.success(now);
-				this.sendDuration.append(now - ((DefaultChannelMetricsContext) context).start);
+				this.sendDuration.append(duration);
+				recordSendDuration(duration);
 			}
 		}
 		else {
@@ -137,6 +139,7 @@ public class DefaultMessageChannelMetrics extends AbstractMessageChannelMetrics
 		this.sendErrorCount.set(0);
 		this.receiveErrorCount.set(0);
 		this.receiveCount.set(0);
+		resetPercentiles();
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,7 +78,9 @@ public class DefaultMessageHandlerMetrics extends AbstractMessageHandlerMetrics
 	public void afterHandle(MetricsContext context, boolean success) {
 		this.activeCount.decrementAndGet();
 		if (isFullStatsEnabled() && success) {
-			this.duration.append(System.nanoTime() - ((DefaultHandlerMetricsContext) context).start);
+			long duration = System.nanoTime() - ((DefaultHandlerMetricsContext) context).start;
+			this.duration.append(duration);
+			recordDuration(duration);
 		}
 		else if (!success) {
 			this.errorCount.incrementAndGet();
@@ -90,6 +92,7 @@ public class DefaultMessageHandlerMetrics extends AbstractMessageHandlerMetrics
 		this.duration.reset();
 		this.errorCount.set(0);
 		this.handleCount.set(0);
+		resetPercentiles();
 	}
 
 	@Override
@@ -82,12 +82,25 @@ public class ExponentialMovingAverageRate {
 	 * @since 4.2
 	 */
 	public ExponentialMovingAverageRate(double period, double lapsePeriod, int window, boolean millis) {
+		this(period, lapsePeriod, window, millis, System.nanoTime());
+	}
+
+	/**
+	 * Used to replay samples recorded elsewhere (e.g. {@link StripedMessageChannelMetrics})
+	 * relative to the original start time.
+	 * @param period the period to base the rate measurement (in seconds)
+	 * @param lapsePeriod the exponential lapse rate for the rate average (in seconds)
+	 * @param window the exponential lapse window (number of measurements)
+	 * @param millis when true, analyze the data as milliseconds instead of the native nanoseconds
+	 * @param t0 the start time (System.nanoTime()).
+	 */
+	ExponentialMovingAverageRate(double period, double lapsePeriod, int window, boolean millis, long t0) {
 		this.lapse = lapsePeriod > 0 ? 0.001 / lapsePeriod : 0; // convert to milliseconds
 		this.period = period * 1000; // convert to milliseconds
 		this.window = window;
 		this.retention = window * 5;
 		this.factor = millis ? 1000000 : 1;
-		this.t0 = System.nanoTime() / this.factor;
+		this.t0 = t0 / this.factor;
 	}
 
 
@@ -69,6 +69,8 @@ public class IntegrationManagementConfigurer implements SmartInitializingSinglet
 
 	private Boolean defaultStatsEnabled = false;
 
+	private Boolean defaultPercentilesEnabled = false;
+
 	private MetricsFactory metricsFactory;
 
 	private String metricsFactoryBeanName;
@@ -77,6 +79,8 @@ public class IntegrationManagementConfigurer implements SmartInitializingSinglet
 
 	private String[] enabledStatsPatterns = { };
 
+	private String[] enabledPercentilesPatterns = { };
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -146,6 +150,23 @@ public class IntegrationManagementConfigurer implements SmartInitializingSinglet
 		this.enabledStatsPatterns = Arrays.copyOf(enabledStatsPatterns, enabledStatsPatterns.length);
 	}
 
+	/**
+	 * Set the array of simple patterns for component names for which send/handle
+	 * duration percentiles (p50, p90, p99, p99.9) over a rolling window will be
+	 * maintained, in addition to statistics (defaults to none). Percentiles are only
+	 * recorded while statistics are enabled for the component and are maintained by the
+	 * metrics objects, so they have no effect on components with explicitly configured
+	 * metrics. If a pattern starts with `!`, percentiles are disabled for matches. For
+	 * components that match multiple patterns, the first pattern wins.
+	 * @param enabledPercentilesPatterns the patterns.
+	 * @since 5.0.1
+	 */
+	public void setEnabledPercentilesPatterns(String[] enabledPercentilesPatterns) {
+		Assert.notNull(enabledPercentilesPatterns, "enabledPercentilesPatterns must not be null");
+		this.enabledPercentilesPatterns = Arrays.copyOf(enabledPercentilesPatterns,
+				enabledPercentilesPatterns.length);
+	}
+
 	/**
 	 * Set whether managed components maintain message counts by default.
 	 * Defaults to false, unless an Integration MBean Exporter is configured.
@@ -172,6 +193,20 @@ public class IntegrationManagementConfigurer implements SmartInitializingSinglet
 		return this.defaultStatsEnabled;
 	}
 
+	/**
+	 * Set whether managed components maintain duration percentiles by default.
+	 * Defaults to false.
+	 * @param defaultPercentilesEnabled true to enable.
+	 * @since 5.0.1
+	 */
+	public void setDefaultPercentilesEnabled(Boolean defaultPercentilesEnabled) {
+		this.defaultPercentilesEnabled = defaultPercentilesEnabled;
+	}
+
+	public Boolean getDefaultPercentilesEnabled() {
+		return this.defaultPercentilesEnabled;
+	}
+
 	/**
 	 * Disable all logging in the normal message flow in framework components. When 'false', such logging will be
 	 * skipped, regardless of logging level. When 'true', the logging is controlled as normal by the logging
@@ -249,6 +284,8 @@ public class IntegrationManagementConfigurer implements SmartInitializingSinglet
 				metrics.setFullStatsEnabled(this.defaultStatsEnabled);
 			}
 		}
+		enabled = PatternMatchUtils.smartMatch(name, this.enabledPercentilesPatterns);
+		metrics.setPercentilesEnabled(enabled != null ? enabled : this.defaultPercentilesEnabled);
 		if (bean instanceof ConfigurableMetricsAware && !overrides.metricsConfigured) {
 			((ConfigurableMetricsAware<AbstractMessageChannelMetrics>) bean).configureMetrics(metrics);
 		}
@@ -280,6 +317,8 @@ public class IntegrationManagementConfigurer implements SmartInitializingSinglet
 				metrics.setFullStatsEnabled(this.defaultStatsEnabled);
 			}
 		}
+		enabled = PatternMatchUtils.smartMatch(name, this.enabledPercentilesPatterns);
+		metrics.setPercentilesEnabled(enabled != null ? enabled : this.defaultPercentilesEnabled);
 		if (bean instanceof ConfigurableMetricsAware && !overrides.metricsConfigured) {
 			((ConfigurableMetricsAware<AbstractMessageHandlerMetrics>) bean).configureMetrics(metrics);
 		}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * A lock-free, fixed-memory latency histogram with a rolling window, used to
+ * calculate duration percentiles.
+ * <p>Durations (nanoseconds) are recorded into log-linear buckets in the manner of
+ * an HDR histogram: values below 64ns are exact, larger values are kept with
+ * roughly two significant decimal digits (bucket width at most 1/32 of the value).
+ * Values above ~68 seconds are clamped into the last bucket; the maximum is always
+ * tracked exactly.
+ * <p>The window is made up of a ring of intervals; recording a sample increments a
+ * bucket counter in the current interval and the interval is recycled when the
+ * ring wraps around. A {@link #getPercentiles() snapshot} merges the intervals that
+ * are still inside the window. A sample recorded while its interval is being
+ * recycled might be dropped; this is an acceptable trade-off for monitoring.
+ *
+ * @since 5.0.1
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The default interval length (10 seconds).
+	 */
+	public static final long DEFAULT_INTERVAL_MILLIS = 10000;
+
+	/**
+	 * The default number of intervals in the window (6 - one minute with the default
+	 * interval).
+	 */
+	public static final int DEFAULT_INTERVALS = 6;
+
+	static final int SUB_BUCKET_BITS = 6;
+
+	static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+	static final int MAX_VALUE_BITS = 36;
+
+	static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+	static final int BUCKETS = SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+	private final Interval[] intervals;
+
+	private final long intervalNanos;
+
+	/**
+	 * Construct an instance with a one minute window made up of six 10 second intervals.
+	 */
+	public LatencyHistogram() {
+		this(DEFAULT_INTERVAL_MILLIS, DEFAULT_INTERVALS);
+	}
+
+	/**
+	 * Construct an instance with a window of {@code intervalMillis * intervals}.
+	 * Memory usage is fixed at roughly {@code intervals * 8KB}.
+	 * @param intervalMillis the length of each interval.
+	 * @param intervals the number of intervals in the window.
+	 */
+	public LatencyHistogram(long intervalMillis, int intervals) {
+		Assert.isTrue(intervalMillis > 0, "'intervalMillis' must be positive");
+		Assert.isTrue(intervals > 0, "'intervals' must be positive");
+		this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+		this.intervals = new Interval[intervals];
+		for (int i = 0; i < intervals; i++) {
+			this.intervals[i] = new Interval();
+		}
+	}
+
+	/**
+	 * Record a duration.
+	 * @param durationNanos the duration in nanoseconds.
+	 */
+	public void record(long durationNanos) {
+		record(durationNanos, System.nanoTime());
+	}
+
+	void record(long durationNanos, long now) {
+		long epoch = Math.floorDiv(now, this.intervalNanos);
+		Interval interval = this.intervals[(int) Math.floorMod(epoch, (long) this.intervals.length)];
+		long current = interval.epoch.get();
+		if (current != epoch) {
+			if (current > epoch) {
+				// stale sample - the interval has already moved on
+				return;
+			}
+			if (interval.epoch.compareAndSet(current, epoch) && current != Long.MIN_VALUE) {
+				interval.clear();
+			}
+		}
+		long value = Math.max(durationNanos, 0);
+		interval.counts.incrementAndGet(bucketIndex(value));
+		long max = interval.max.get();
+		while (value > max && !interval.max.compareAndSet(max, value)) {
+			max = interval.max.get();
+		}
+	}
+
+	/**
+	 * Return the percentiles for the durations recorded in the current window.
+	 * @return the percentiles.
+	 */
+	public LatencyPercentiles getPercentiles() {
+		return getPercentiles(System.nanoTime());
+	}
+
+	LatencyPercentiles getPercentiles(long now) {
+		long epoch = Math.floorDiv(now, this.intervalNanos);
+		long oldest = epoch - this.intervals.length;
+		long[] counts = new long[BUCKETS];
+		long max = 0;
+		for (Interval interval : this.intervals) {
+			long intervalEpoch = interval.epoch.get();
+			if (intervalEpoch > oldest && intervalEpoch <= epoch) {
+				for (int i = 0; i < BUCKETS; i++) {
+					counts[i] += interval.counts.get(i);
+				}
+				max = Math.max(max, interval.max.get());
+			}
+		}
+		return new LatencyPercentiles(counts, max);
+	}
+
+	/**
+	 * Discard all recorded durations.
+	 */
+	public void reset() {
+		for (Interval interval : this.intervals) {
+			interval.epoch.set(Long.MIN_VALUE);
+			interval.clear();
+		}
+	}
+
+	static int bucketIndex(long value) {
+		long clamped = Math.min(value, MAX_TRACKABLE_VALUE);
+		if (clamped < SUB_BUCKET_COUNT) {
+			return (int) clamped;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(clamped) - (SUB_BUCKET_BITS - 1);
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT
+				+ (int) (clamped >>> shift) - SUB_BUCKET_HALF_COUNT;
+	}
+
+	static long lowestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int offset = index - SUB_BUCKET_COUNT;
+		int shift = offset / SUB_BUCKET_HALF_COUNT + 1;
+		long subBucket = offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+		return subBucket << shift;
+	}
+
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+		return lowestEquivalentValue(index) + (1L << shift) - 1;
+	}
+
+	private static final class Interval {
+
+		private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+		private final AtomicLong max = new AtomicLong();
+
+		void clear() {
+			for (int i = 0; i < BUCKETS; i++) {
+				this.counts.set(i, 0);
+			}
+			this.max.set(0);
+		}
+
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import org.springframework.util.Assert;
+
+/**
+ * An immutable snapshot of the durations recorded by a {@link LatencyHistogram}.
+ * All values are in milliseconds; a percentile is reported as the highest value
+ * of the histogram bucket it falls in (capped at the maximum), so it is never
+ * understated.
+ *
+ * @since 5.0.1
+ */
+public class LatencyPercentiles {
+
+	private static final double NANOS_PER_MILLI = 1000000.;
+
+	private final long[] counts;
+
+	private final long count;
+
+	private final long max;
+
+	private final double p50;
+
+	private final double p90;
+
+	private final double p99;
+
+	private final double p999;
+
+
+	LatencyPercentiles(long[] counts, long max) {
+		this.counts = counts;
+		long total = 0;
+		for (long bucketCount : counts) {
+			total += bucketCount;
+		}
+		this.count = total;
+		this.max = max;
+		this.p50 = getValueAtPercentile(50.);
+		this.p90 = getValueAtPercentile(90.);
+		this.p99 = getValueAtPercentile(99.);
+		this.p999 = getValueAtPercentile(99.9);
+	}
+
+
+	/**
+	 * @return the number of durations in the window.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * @return the median duration.
+	 */
+	public double getP50() {
+		return this.p50;
+	}
+
+	/**
+	 * @return the 90th percentile duration.
+	 */
+	public double getP90() {
+		return this.p90;
+	}
+
+	/**
+	 * @return the 99th percentile duration.
+	 */
+	public double getP99() {
+		return this.p99;
+	}
+
+	/**
+	 * @return the 99.9th percentile duration.
+	 */
+	public double getP999() {
+		return this.p999;
+	}
+
+	/**
+	 * @return the maximum duration in the window.
+	 */
+	public double getMax() {
+		return this.max / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Return the duration at or below which the supplied percentage of the durations
+	 * in the window fall.
+	 * @param percentile the percentile (0-100).
+	 * @return the duration, or 0 if no durations were recorded.
+	 */
+	public double getValueAtPercentile(double percentile) {
+		Assert.isTrue(percentile >= 0 && percentile <= 100, "'percentile' must be between 0 and 100");
+		if (this.count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100. * this.count));
+		long seen = 0;
+		for (int i = 0; i < this.counts.length; i++) {
+			seen += this.counts[i];
+			if (seen >= rank) {
+				long value = i < this.counts.length - 1
+						? Math.min(LatencyHistogram.highestEquivalentValue(i), this.max)
+						: this.max;
+				return value / NANOS_PER_MILLI;
+			}
+		}
+		return getMax();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("[N=%d, p50=%f, p90=%f, p99=%f, p99.9=%f, max=%f]",
+				this.count, this.p50, this.p90, this.p99, this.p999, getMax());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -108,6 +108,15 @@ public interface MessageChannelMetrics extends IntegrationStatsManagement {
 	 */
 	Statistics getSendDuration();
 
+	/**
+	 * @return the send duration percentiles (milliseconds) over a rolling window, or null
+	 * if percentiles are not enabled.
+	 * @since 5.0.1
+	 */
+	default LatencyPercentiles getSendDurationPercentiles() {
+		return null;
+	}
+
 	/**
 	 * @return summary statistics about the send rates (per second)
 	 */
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+/**
+ * Keeps the minimum and maximum values reported by successive {@link Statistics}
+ * calculations over a moving window of samples, in the same way as the
+ * {@code ExponentialMovingAverage*} classes do.
+ *
+ * @since 5.0.1
+ */
+final class StatisticsExtremes {
+
+	private double min = Double.MAX_VALUE;
+
+	private double max;
+
+	/**
+	 * Merge the min/max of the calculated statistics into the recorded extremes.
+	 * @param calculated the statistics calculated over the current window.
+	 * @param count the total number of measurements.
+	 * @return statistics with the total count and the recorded extremes.
+	 */
+	synchronized Statistics merge(Statistics calculated, long count) {
+		if (calculated.getCountLong() > 0) {
+			this.max = Math.max(this.max, calculated.getMax());
+			this.min = Math.min(this.min, calculated.getMin());
+		}
+		return new Statistics(count, this.min == Double.MAX_VALUE ? 0 : this.min, this.max,
+				calculated.getMean(), calculated.getStandardDeviation());
+	}
+
+	synchronized void reset() {
+		this.min = Double.MAX_VALUE;
+		this.max = 0;
+	}
+
+}
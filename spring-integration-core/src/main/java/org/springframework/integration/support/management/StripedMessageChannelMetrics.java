@@ -0,0 +1,297 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link AbstractMessageChannelMetrics} implementation that does not lock on the send
+ * path: counts are kept in {@link LongAdder}s and the samples for the statistics are
+ * recorded into striped, fixed-size primitive ring buffers. The moving averages are
+ * calculated when the statistics are read, by replaying the retained samples through
+ * the same {@code ExponentialMovingAverage*} algorithms used by
+ * {@link DefaultMessageChannelMetrics}, so the resulting {@link Statistics} are
+ * equivalent.
+ * <p>Use this implementation (via {@link StripedMetricsFactory}) when statistics are
+ * enabled on channels sent to by many threads concurrently.
+ *
+ * @since 5.0.1
+ */
+public class StripedMessageChannelMetrics extends AbstractMessageChannelMetrics {
+
+	private static final MetricsContext NO_STATS_CONTEXT = new StripedChannelMetricsContext(0);
+
+	private final int window;
+
+	private final LongAdder sendCount = new LongAdder();
+
+	private final LongAdder sendErrorCount = new LongAdder();
+
+	private final LongAdder receiveCount = new LongAdder();
+
+	private final LongAdder receiveErrorCount = new LongAdder();
+
+	private final LongAdder sendDurationCount = new LongAdder();
+
+	private final LongAdder sendRateCount = new LongAdder();
+
+	private final LongAdder sendErrorRateCount = new LongAdder();
+
+	private final StripedSampleBuffer sendDurations;
+
+	private final StripedSampleBuffer sendTimes;
+
+	private final StripedSampleBuffer sendErrorTimes;
+
+	private final StripedSampleBuffer sendOutcomes;
+
+	private final StatisticsExtremes sendDurationExtremes = new StatisticsExtremes();
+
+	private final StatisticsExtremes sendRateExtremes = new StatisticsExtremes();
+
+	private final StatisticsExtremes sendErrorRateExtremes = new StatisticsExtremes();
+
+	private volatile long t0 = System.nanoTime();
+
+	/**
+	 * Construct an instance with the default moving average window (10), rate period
+	 * (1 second) and lapse period (1 minute).
+	 * @param name the name.
+	 */
+	public StripedMessageChannelMetrics(String name) {
+		this(name, DefaultMessageChannelMetrics.DEFAULT_MOVING_AVERAGE_WINDOW);
+	}
+
+	/**
+	 * Construct an instance with the supplied moving average window; the number of
+	 * retained samples is {@code 5 * window}, as for the {@code ExponentialMovingAverage*}
+	 * classes.
+	 * @param name the name.
+	 * @param window the exponential lapse window (number of measurements).
+	 */
+	public StripedMessageChannelMetrics(String name, int window) {
+		super(name);
+		this.window = window;
+		int retention = window * 5;
+		this.sendDurations = new StripedSampleBuffer(retention);
+		this.sendTimes = new StripedSampleBuffer(retention);
+		this.sendErrorTimes = new StripedSampleBuffer(retention);
+		this.sendOutcomes = new StripedSampleBuffer(retention);
+	}
+
+	@Override
+	public MetricsContext beforeSend() {
+		this.sendCount.increment();
+		if (isFullStatsEnabled()) {
+			long start = System.nanoTime();
+			this.sendTimes.add(start, 0);
+			this.sendRateCount.increment();
+			return new StripedChannelMetricsContext(start);
+		}
+		return NO_STATS_CONTEXT;
+	}
+
+	@Override
+	public void afterSend(MetricsContext context, boolean result) {
+		if (result) {
+			if (isFullStatsEnabled()) {
+				long now = System.nanoTime();
+				long duration = now - ((StripedChannelMetricsContext) context).start;
+				this.sendOutcomes.add(now, 1);
+				this.sendDurations.add(now, duration);
+				recordSendDuration(duration);
+				this.sendDurationCount.increment();
+			}
+		}
+		else {
+			if (isFullStatsEnabled()) {
+				long now = System.nanoTime();
+				this.sendOutcomes.add(now, 0);
+				this.sendErrorTimes.add(now, 0);
+				this.sendErrorRateCount.increment();
+			}
+			this.sendErrorCount.increment();
+		}
+	}
+
+	@Override
+	public synchronized void reset() {
+		this.sendDurations.reset();
+		this.sendTimes.reset();
+		this.sendErrorTimes.reset();
+		this.sendOutcomes.reset();
+		this.sendDurationExtremes.reset();
+		this.sendRateExtremes.reset();
+		this.sendErrorRateExtremes.reset();
+		this.sendDurationCount.reset();
+		this.sendRateCount.reset();
+		this.sendErrorRateCount.reset();
+		this.sendCount.reset();
+		this.sendErrorCount.reset();
+		this.receiveCount.reset();
+		this.receiveErrorCount.reset();
+		resetPercentiles();
+		this.t0 = System.nanoTime();
+	}
+
+	@Override
+	public int getSendCount() {
+		return (int) getSendCountLong();
+	}
+
+	@Override
+	public long getSendCountLong() {
+		return this.sendCount.sum();
+	}
+
+	@Override
+	public int getSendErrorCount() {
+		return (int) getSendErrorCountLong();
+	}
+
+	@Override
+	public long getSendErrorCountLong() {
+		return this.sendErrorCount.sum();
+	}
+
+	@Override
+	public double getTimeSinceLastSend() {
+		return rate(this.sendTimes).getTimeSinceLastMeasurement();
+	}
+
+	@Override
+	public double getMeanSendRate() {
+		return rate(this.sendTimes).getMean();
+	}
+
+	@Override
+	public double getMeanErrorRate() {
+		return rate(this.sendErrorTimes).getMean();
+	}
+
+	@Override
+	public double getMeanErrorRatio() {
+		ExponentialMovingAverageRatio ratio = new ExponentialMovingAverageRatio(
+				DefaultMessageChannelMetrics.ONE_MINUTE_SECONDS, this.window, true, this.t0);
+		for (long[] sample : this.sendOutcomes.snapshot()) {
+			if (sample[1] > 0) {
+				ratio.success(sample[0]);
+			}
+			else {
+				ratio.failure(sample[0]);
+			}
+		}
+		return 1 - ratio.getMean();
+	}
+
+	@Override
+	public double getMeanSendDuration() {
+		return getSendDuration().getMean();
+	}
+
+	@Override
+	public double getMinSendDuration() {
+		return getSendDuration().getMin();
+	}
+
+	@Override
+	public double getMaxSendDuration() {
+		return getSendDuration().getMax();
+	}
+
+	@Override
+	public double getStandardDeviationSendDuration() {
+		return getSendDuration().getStandardDeviation();
+	}
+
+	@Override
+	public Statistics getSendDuration() {
+		ExponentialMovingAverage duration = new ExponentialMovingAverage(this.window, 1000000.);
+		for (long[] sample : this.sendDurations.snapshot()) {
+			duration.append(sample[1]);
+		}
+		return this.sendDurationExtremes.merge(duration.getStatistics(), this.sendDurationCount.sum());
+	}
+
+	@Override
+	public Statistics getSendRate() {
+		return this.sendRateExtremes.merge(rate(this.sendTimes).getStatistics(), this.sendRateCount.sum());
+	}
+
+	@Override
+	public Statistics getErrorRate() {
+		return this.sendErrorRateExtremes.merge(rate(this.sendErrorTimes).getStatistics(),
+				this.sendErrorRateCount.sum());
+	}
+
+	@Override
+	public void afterReceive() {
+		this.receiveCount.increment();
+	}
+
+	@Override
+	public void afterError() {
+		this.receiveErrorCount.increment();
+	}
+
+	@Override
+	public int getReceiveCount() {
+		return (int) getReceiveCountLong();
+	}
+
+	@Override
+	public long getReceiveCountLong() {
+		return this.receiveCount.sum();
+	}
+
+	@Override
+	public int getReceiveErrorCount() {
+		return (int) getReceiveErrorCountLong();
+	}
+
+	@Override
+	public long getReceiveErrorCountLong() {
+		return this.receiveErrorCount.sum();
+	}
+
+	private ExponentialMovingAverageRate rate(StripedSampleBuffer times) {
+		ExponentialMovingAverageRate rate = new ExponentialMovingAverageRate(
+				DefaultMessageChannelMetrics.ONE_SECOND_SECONDS, DefaultMessageChannelMetrics.ONE_MINUTE_SECONDS,
+				this.window, true, this.t0);
+		for (long[] sample : times.snapshot()) {
+			rate.increment(sample[0]);
+		}
+		return rate;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MessageChannelMonitor: [name=%s, sends=%d, receives=%d]",
+				this.name, getSendCountLong(), getReceiveCountLong());
+	}
+
+	private static final class StripedChannelMetricsContext implements MetricsContext {
+
+		private final long start;
+
+		StripedChannelMetricsContext(long start) {
+			this.start = start;
+		}
+
+	}
+
+}
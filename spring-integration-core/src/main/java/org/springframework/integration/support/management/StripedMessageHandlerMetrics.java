@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link AbstractMessageHandlerMetrics} implementation that does not lock on the
+ * handling path: counts are kept in {@link LongAdder}s and the durations are recorded
+ * into striped, fixed-size primitive ring buffers. The duration statistics are
+ * calculated when read, by replaying the retained samples through an
+ * {@link ExponentialMovingAverage}, so they are equivalent to those of
+ * {@link DefaultMessageHandlerMetrics}.
+ *
+ * @since 5.0.1
+ * @see StripedMessageChannelMetrics
+ */
+public class StripedMessageHandlerMetrics extends AbstractMessageHandlerMetrics {
+
+	private static final int DEFAULT_MOVING_AVERAGE_WINDOW = 10;
+
+	private static final MetricsContext NO_STATS_CONTEXT = new StripedHandlerMetricsContext(0);
+
+	private final int window;
+
+	private final LongAdder activeCount = new LongAdder();
+
+	private final LongAdder handleCount = new LongAdder();
+
+	private final LongAdder errorCount = new LongAdder();
+
+	private final LongAdder durationCount = new LongAdder();
+
+	private final StripedSampleBuffer durations;
+
+	private final StatisticsExtremes durationExtremes = new StatisticsExtremes();
+
+	/**
+	 * Construct an instance with the default moving average window (10).
+	 * @param name the name.
+	 */
+	public StripedMessageHandlerMetrics(String name) {
+		this(name, DEFAULT_MOVING_AVERAGE_WINDOW);
+	}
+
+	/**
+	 * Construct an instance with the supplied moving average window; the number of
+	 * retained samples is {@code 5 * window}.
+	 * @param name the name.
+	 * @param window the exponential lapse window (number of measurements).
+	 */
+	public StripedMessageHandlerMetrics(String name, int window) {
+		super(name);
+		this.window = window;
+		this.durations = new StripedSampleBuffer(window * 5);
+	}
+
+	@Override
+	public MetricsContext beforeHandle() {
+		this.handleCount.increment();
+		this.activeCount.increment();
+		if (isFullStatsEnabled()) {
+			return new StripedHandlerMetricsContext(System.nanoTime());
+		}
+		return NO_STATS_CONTEXT;
+	}
+
+	@Override
+	public void afterHandle(MetricsContext context, boolean success) {
+		this.activeCount.decrement();
+		if (isFullStatsEnabled() && success) {
+			long now = System.nanoTime();
+			long duration = now - ((StripedHandlerMetricsContext) context).start;
+			this.durations.add(now, duration);
+			recordDuration(duration);
+			this.durationCount.increment();
+		}
+		else if (!success) {
+			this.errorCount.increment();
+		}
+	}
+
+	@Override
+	public synchronized void reset() {
+		this.durations.reset();
+		this.durationExtremes.reset();
+		this.durationCount.reset();
+		this.errorCount.reset();
+		this.handleCount.reset();
+		resetPercentiles();
+	}
+
+	@Override
+	public long getHandleCountLong() {
+		return this.handleCount.sum();
+	}
+
+	@Override
+	public int getHandleCount() {
+		return (int) getHandleCountLong();
+	}
+
+	@Override
+	public int getErrorCount() {
+		return (int) getErrorCountLong();
+	}
+
+	@Override
+	public long getErrorCountLong() {
+		return this.errorCount.sum();
+	}
+
+	@Override
+	public double getMeanDuration() {
+		return getDuration().getMean();
+	}
+
+	@Override
+	public double getMinDuration() {
+		return getDuration().getMin();
+	}
+
+	@Override
+	public double getMaxDuration() {
+		return getDuration().getMax();
+	}
+
+	@Override
+	public double getStandardDeviationDuration() {
+		return getDuration().getStandardDeviation();
+	}
+
+	@Override
+	public int getActiveCount() {
+		return (int) getActiveCountLong();
+	}
+
+	@Override
+	public long getActiveCountLong() {
+		return this.activeCount.sum();
+	}
+
+	@Override
+	public Statistics getDuration() {
+		ExponentialMovingAverage duration = new ExponentialMovingAverage(this.window, 1000000.);
+		for (long[] sample : this.durations.snapshot()) {
+			duration.append(sample[1]);
+		}
+		return this.durationExtremes.merge(duration.getStatistics(), this.durationCount.sum());
+	}
+
+	private static final class StripedHandlerMetricsContext implements MetricsContext {
+
+		private final long start;
+
+		StripedHandlerMetricsContext(long start) {
+			this.start = start;
+		}
+
+	}
+
+}
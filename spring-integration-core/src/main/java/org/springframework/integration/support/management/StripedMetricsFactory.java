@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+/**
+ * A {@link MetricsFactory} creating {@link StripedMessageChannelMetrics} and
+ * {@link StripedMessageHandlerMetrics}, which record counts and statistics without
+ * locking; intended for components used concurrently by many threads with statistics
+ * enabled.
+ *
+ * @since 5.0.1
+ */
+public class StripedMetricsFactory implements MetricsFactory {
+
+	private final int window;
+
+	/**
+	 * Create a factory with the default moving average window (10).
+	 */
+	public StripedMetricsFactory() {
+		this(DefaultMessageChannelMetrics.DEFAULT_MOVING_AVERAGE_WINDOW);
+	}
+
+	/**
+	 * @param window the exponential lapse window (number of measurements) for the statistics.
+	 */
+	public StripedMetricsFactory(int window) {
+		this.window = window;
+	}
+
+	@Override
+	public AbstractMessageChannelMetrics createChannelMetrics(String name) {
+		return new StripedMessageChannelMetrics(name, this.window);
+	}
+
+	@Override
+	public AbstractMessageHandlerMetrics createHandlerMetrics(String name) {
+		return new StripedMessageHandlerMetrics(name, this.window);
+	}
+
+}
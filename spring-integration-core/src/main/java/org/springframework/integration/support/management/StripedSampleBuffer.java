@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free store for the most recent {@code (time, value)} samples recorded by
+ * many threads. Samples are written to one of several fixed-size primitive ring
+ * buffers (stripes) selected by the recording thread, so concurrent producers
+ * rarely touch the same memory; a reader merges the stripes in time order.
+ * <p>Each slot is guarded by its own sequence number so readers skip slots that
+ * are being overwritten instead of blocking the writers.
+ *
+ * @since 5.0.1
+ */
+final class StripedSampleBuffer {
+
+	private static final int MAX_STRIPES = 64;
+
+	private static final Comparator<long[]> BY_TIME = Comparator.comparingLong(sample -> sample[0]);
+
+	private final Stripe[] stripes;
+
+	private final int mask;
+
+	private final int retention;
+
+	/**
+	 * @param retention the number of most recent samples returned by {@link #snapshot()}.
+	 */
+	StripedSampleBuffer(int retention) {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int stripeCount = 1;
+		while (stripeCount < processors && stripeCount < MAX_STRIPES) {
+			stripeCount <<= 1;
+		}
+		this.stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			this.stripes[i] = new Stripe(retention);
+		}
+		this.mask = stripeCount - 1;
+		this.retention = retention;
+	}
+
+	void add(long time, long value) {
+		this.stripes[(int) Thread.currentThread().getId() & this.mask].add(time, value);
+	}
+
+	/**
+	 * Return the most recent samples (at most {@code retention}) in time order.
+	 * @return the samples; element {@code [i][0]} is the time and {@code [i][1]} the value.
+	 */
+	long[][] snapshot() {
+		long[][] samples = new long[this.stripes.length * this.retention][];
+		int size = 0;
+		for (Stripe stripe : this.stripes) {
+			size = stripe.collect(samples, size);
+		}
+		Arrays.sort(samples, 0, size, BY_TIME);
+		int from = Math.max(0, size - this.retention);
+		return Arrays.copyOfRange(samples, from, size);
+	}
+
+	void reset() {
+		for (Stripe stripe : this.stripes) {
+			stripe.reset();
+		}
+	}
+
+	private static final class Stripe {
+
+		private final AtomicLong cursor = new AtomicLong();
+
+		private final int length;
+
+		/*
+		 * sequence + 1 of the sample held in each slot; 0 while the slot is empty or being written.
+		 */
+		private final AtomicLongArray sequences;
+
+		private final AtomicLongArray times;
+
+		private final AtomicLongArray values;
+
+		Stripe(int length) {
+			this.length = length;
+			this.sequences = new AtomicLongArray(length);
+			this.times = new AtomicLongArray(length);
+			this.values = new AtomicLongArray(length);
+		}
+
+		void add(long time, long value) {
+			long sequence = this.cursor.getAndIncrement();
+			int slot = (int) (sequence % this.length);
+			this.sequences.set(slot, 0);
+			this.times.lazySet(slot, time);
+			this.values.lazySet(slot, value);
+			this.sequences.lazySet(slot, sequence + 1);
+		}
+
+		int collect(long[][] samples, int position) {
+			int size = position;
+			for (int slot = 0; slot < this.length; slot++) {
+				long sequence = this.sequences.get(slot);
+				if (sequence != 0) {
+					long time = this.times.get(slot);
+					long value = this.values.get(slot);
+					if (this.sequences.get(slot) == sequence) {
+						samples[size++] = new long[] { time, value };
+					}
+				}
+			}
+			return size;
+		}
+
+		void reset() {
+			for (int slot = 0; slot < this.length; slot++) {
+				this.sequences.set(slot, 0);
+			}
+			this.cursor.set(0);
+		}
+
+	}
+
+}
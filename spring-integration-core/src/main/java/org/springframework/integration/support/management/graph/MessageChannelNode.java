@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 the original author or authors.
+ * Copyright 2016-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 
 package org.springframework.integration.support.management.graph;
 
+import org.springframework.integration.support.management.LatencyPercentiles;
 import org.springframework.integration.support.management.MessageChannelMetrics;
 import org.springframework.integration.support.management.Statistics;
 import org.springframework.messaging.MessageChannel;
@@ -100,6 +101,10 @@ public class MessageChannelNode extends IntegrationNode {
 			return this.channel.getSendDuration();
 		}
 
+		public LatencyPercentiles getSendDurationPercentiles() {
+			return this.channel.getSendDurationPercentiles();
+		}
+
 		public Statistics getSendRate() {
 			return this.channel.getSendRate();
 		}
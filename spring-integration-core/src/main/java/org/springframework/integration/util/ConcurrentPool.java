@@ -0,0 +1,531 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
+
+/**
+ * Implementation of {@link Pool} that does not use locks to borrow and return items;
+ * an alternative to {@link SimplePool} when many threads contend for the pool. Idle
+ * items are kept in a concurrent deque; the most recently used item is borrowed first,
+ * so the least recently used items collect at the tail, where
+ * {@link #evictIdleItems() eviction} removes them when they have been idle for too
+ * long, or when there are more than {@link #setMaxIdle(int)} idle items.
+ * <p>
+ * When the pool is exhausted, {@link #getItemAsync()} returns a
+ * {@link CompletableFuture} that is completed when an item is returned (or can be
+ * created); {@link #getItem()} waits for that future for up to the wait timeout.
+ * <p>
+ * Eviction also validates idle items (using {@link SimplePool.PoolItemCallback#isStale(Object)});
+ * when run in the background, the validation on borrow can be relaxed with
+ * {@link #setValidationInterval(long)}.
+ *
+ * @param <T> the pooled item type.
+ *
+ * @since 5.0.1
+ *
+ */
+public class ConcurrentPool<T> implements Pool<T> {
+
+	protected final Log logger = LogFactory.getLog(this.getClass());
+
+	private final Map<T, PoolEntry> allocated = new ConcurrentHashMap<T, PoolEntry>();
+
+	private final ConcurrentLinkedDeque<T> idle = new ConcurrentLinkedDeque<T>();
+
+	private final Queue<CompletableFuture<T>> waiters = new ConcurrentLinkedQueue<CompletableFuture<T>>();
+
+	private final AtomicInteger allocatedCount = new AtomicInteger();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private final AtomicInteger activeCount = new AtomicInteger();
+
+	private final SimplePool.PoolItemCallback<T> callback;
+
+	private volatile int poolSize;
+
+	private volatile long waitTimeout = Long.MAX_VALUE;
+
+	private volatile long validationInterval;
+
+	private volatile long maxIdleTime;
+
+	private volatile int maxIdle = Integer.MAX_VALUE;
+
+	private volatile long evictionInterval;
+
+	private final AtomicLong nextEviction = new AtomicLong();
+
+	/**
+	 * Create a pool with a specific limit.
+	 * @param poolSize The maximum number of items the pool supports; 0 or less for
+	 * no limit.
+	 * @param callback A {@link SimplePool.PoolItemCallback} implementation called during
+	 * various pool operations.
+	 */
+	public ConcurrentPool(int poolSize, SimplePool.PoolItemCallback<T> callback) {
+		Assert.notNull(callback, "'callback' cannot be null");
+		this.poolSize = poolSize <= 0 ? Integer.MAX_VALUE : poolSize;
+		this.callback = callback;
+	}
+
+	/**
+	 * Adjust the pool size. When reducing the pool size, idle items are removed; if
+	 * too many items are in use, they are removed as they are returned.
+	 * @param poolSize The desired pool size.
+	 */
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize <= 0 ? Integer.MAX_VALUE : poolSize;
+		T item;
+		while (this.allocatedCount.get() > this.poolSize && (item = pollIdle(false)) != null) {
+			doRemoveItem(item);
+		}
+		drain();
+	}
+
+	/**
+	 * Set the time for which {@link #getItem()} waits if no idle items are available
+	 * and the pool is at its limit.
+	 * <br>
+	 * Default: infinity.
+	 * @param waitTimeout The wait timeout in milliseconds.
+	 */
+	public void setWaitTimeout(long waitTimeout) {
+		this.waitTimeout = waitTimeout;
+	}
+
+	/**
+	 * Set the time for which an idle item, once validated, is not validated again when
+	 * it is borrowed; useful when validation is expensive and {@link #evictIdleItems()}
+	 * is invoked periodically to validate idle items in the background.
+	 * <br>
+	 * Default: 0 - items are validated each time they are borrowed.
+	 * @param validationInterval the interval in milliseconds.
+	 */
+	public void setValidationInterval(long validationInterval) {
+		this.validationInterval = validationInterval;
+	}
+
+	/**
+	 * Set the time after which {@link #evictIdleItems()} removes an idle item.
+	 * <br>
+	 * Default: 0 - items are not evicted because of their idle time.
+	 * @param maxIdleTime the time in milliseconds.
+	 */
+	public void setMaxIdleTime(long maxIdleTime) {
+		this.maxIdleTime = maxIdleTime;
+	}
+
+	/**
+	 * Set the number of idle items above which {@link #evictIdleItems()} removes the
+	 * least recently used idle items.
+	 * <br>
+	 * Default: no limit.
+	 * @param maxIdle the maximum number of idle items.
+	 */
+	public void setMaxIdle(int maxIdle) {
+		Assert.isTrue(maxIdle >= 0, "'maxIdle' cannot be negative");
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Set an interval at which {@link #evictIdleItems()} is invoked by a borrowing
+	 * thread; the first borrower after the interval has passed performs the eviction.
+	 * An alternative to {@link #scheduleEviction(TaskScheduler, long)} when no
+	 * scheduler is available.
+	 * <br>
+	 * Default: 0 - no eviction on borrow.
+	 * @param evictionInterval the interval in milliseconds.
+	 */
+	public void setEvictionInterval(long evictionInterval) {
+		this.evictionInterval = evictionInterval;
+		this.nextEviction.set(System.currentTimeMillis() + evictionInterval);
+	}
+
+	@Override
+	public int getPoolSize() {
+		return this.poolSize;
+	}
+
+	@Override
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+
+	@Override
+	public int getActiveCount() {
+		return this.activeCount.get();
+	}
+
+	@Override
+	public int getAllocatedCount() {
+		return this.allocated.size();
+	}
+
+	/**
+	 * Return the number of callers waiting for an item.
+	 * @return the number of waiters.
+	 */
+	public int getWaiterCount() {
+		return this.waiters.size();
+	}
+
+	/**
+	 * Obtain an item from the pool; waits up to the wait timeout (default infinity).
+	 * @throws MessagingException if no items become available in time.
+	 */
+	@Override
+	public T getItem() {
+		CompletableFuture<T> future = getItemAsync();
+		try {
+			if (this.waitTimeout == Long.MAX_VALUE) {
+				return future.get();
+			}
+			return future.get(this.waitTimeout, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			T item = abandon(future);
+			if (item != null) {
+				return item;
+			}
+			throw new MessagingException("Interrupted awaiting a pooled resource", e);
+		}
+		catch (TimeoutException e) {
+			T item = abandon(future);
+			if (item != null) {
+				return item;
+			}
+			throw new MessagingException("Failed to obtain pooled item",
+					new IllegalStateException("Timed out while waiting to acquire a pool entry."));
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof MessagingException) {
+				throw (MessagingException) cause;
+			}
+			throw new MessagingException("Failed to obtain pooled item", cause);
+		}
+	}
+
+	/**
+	 * Cancel the future; if it was completed concurrently, the item is returned.
+	 */
+	private T abandon(CompletableFuture<T> future) {
+		if (future.cancel(false)) {
+			this.waiters.remove(future);
+			return null;
+		}
+		return future.getNow(null);
+	}
+
+	/**
+	 * Obtain an item from the pool. If an idle item is available, or the pool is below
+	 * its limit, the future is completed before this method returns (a new item is
+	 * created on the calling thread); otherwise, it is completed by the thread that
+	 * makes an item available. If a caller cancels the future, an item that would have
+	 * been delivered to it remains in the pool. Callers do not wait in line; a caller
+	 * that finds an idle item takes it, even if others are waiting.
+	 * @return a future for the item.
+	 */
+	public CompletableFuture<T> getItemAsync() {
+		evictIfDue();
+		T item = pollIdle(true);
+		if (item != null) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Obtained " + item + " from pool.");
+			}
+			return CompletableFuture.completedFuture(item);
+		}
+		if (reserve()) {
+			try {
+				return CompletableFuture.completedFuture(create());
+			}
+			catch (RuntimeException e) {
+				// let a waiter try
+				drain();
+				CompletableFuture<T> failed = new CompletableFuture<T>();
+				failed.completeExceptionally(e);
+				return failed;
+			}
+		}
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		this.waiters.add(future);
+		// an item may have been returned, or capacity released, before we were queued
+		drain();
+		return future;
+	}
+
+	/**
+	 * Return an item to the pool.
+	 */
+	@Override
+	public void releaseItem(T item) {
+		Assert.notNull(item, "Item cannot be null");
+		PoolEntry entry = this.allocated.get(item);
+		Assert.isTrue(entry != null, "You can only release items that were obtained from the pool");
+		if (!entry.inUse.compareAndSet(true, false)) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Ignoring release of " + item + " back to the pool - not in use");
+			}
+			return;
+		}
+		this.activeCount.decrementAndGet();
+		if (this.allocatedCount.get() > this.poolSize) {
+			doRemoveItem(item);
+			return;
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Releasing " + item + " back to the pool");
+		}
+		entry.lastUsed = System.currentTimeMillis();
+		this.idleCount.incrementAndGet();
+		this.idle.offerFirst(item);
+		drain();
+	}
+
+	@Override
+	public void removeAllIdleItems() {
+		T item;
+		while ((item = pollIdle(false)) != null) {
+			doRemoveItem(item);
+		}
+		drain();
+	}
+
+	/**
+	 * Remove stale idle items, items that have been idle for longer than
+	 * {@link #setMaxIdleTime(long)}, and the least recently used items in excess of
+	 * {@link #setMaxIdle(int)}. Items that are retained are marked as validated.
+	 * Idle items being examined are not available to borrowers.
+	 * @return the number of items removed.
+	 */
+	public int evictIdleItems() {
+		long now = System.currentTimeMillis();
+		int excess = this.idleCount.get() - this.maxIdle;
+		int toExamine = this.idleCount.get();
+		List<T> retained = new ArrayList<T>();
+		int removed = 0;
+		T item;
+		// least recently used first
+		while (toExamine-- > 0 && (item = this.idle.pollLast()) != null) {
+			this.idleCount.decrementAndGet();
+			PoolEntry entry = this.allocated.get(item);
+			if (excess-- > 0
+					|| (this.maxIdleTime > 0 && now - entry.lastUsed > this.maxIdleTime)
+					|| this.callback.isStale(item)) {
+				doRemoveItem(item);
+				removed++;
+			}
+			else {
+				entry.lastValidated = now;
+				retained.add(item);
+			}
+		}
+		for (int i = retained.size() - 1; i >= 0; i--) {
+			this.idleCount.incrementAndGet();
+			this.idle.offerLast(retained.get(i));
+		}
+		if (removed > 0 && this.logger.isDebugEnabled()) {
+			this.logger.debug("Evicted " + removed + " idle items from the pool");
+		}
+		drain();
+		return removed;
+	}
+
+	/**
+	 * Schedule {@link #evictIdleItems()} to run periodically.
+	 * @param taskScheduler the scheduler.
+	 * @param interval the interval in milliseconds.
+	 * @return the future, which can be used to cancel eviction.
+	 */
+	public ScheduledFuture<?> scheduleEviction(TaskScheduler taskScheduler, long interval) {
+		Assert.notNull(taskScheduler, "'taskScheduler' cannot be null");
+		return taskScheduler.scheduleWithFixedDelay(() -> {
+			try {
+				evictIdleItems();
+			}
+			catch (RuntimeException e) {
+				this.logger.error("Failed to evict idle items", e);
+			}
+		}, interval);
+	}
+
+	private void evictIfDue() {
+		if (this.evictionInterval > 0) {
+			long now = System.currentTimeMillis();
+			long next = this.nextEviction.get();
+			if (now >= next && this.nextEviction.compareAndSet(next, now + this.evictionInterval)) {
+				evictIdleItems();
+			}
+		}
+	}
+
+	/**
+	 * Poll the most recently used idle item, marking it in use.
+	 * @param validate true to discard stale items.
+	 * @return the item, or null if there are no idle items.
+	 */
+	private T pollIdle(boolean validate) {
+		T item;
+		while ((item = this.idle.pollFirst()) != null) {
+			this.idleCount.decrementAndGet();
+			PoolEntry entry = this.allocated.get(item);
+			if (validate && System.currentTimeMillis() - entry.lastValidated >= this.validationInterval
+					&& this.callback.isStale(item)) {
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug("Received a stale item " + item + ", will attempt to get a new one.");
+				}
+				doRemoveItem(item);
+			}
+			else {
+				entry.inUse.set(true);
+				this.activeCount.incrementAndGet();
+				return item;
+			}
+		}
+		return null;
+	}
+
+	private boolean reserve() {
+		int count;
+		do {
+			count = this.allocatedCount.get();
+			if (count >= this.poolSize) {
+				return false;
+			}
+		}
+		while (!this.allocatedCount.compareAndSet(count, count + 1));
+		return true;
+	}
+
+	/**
+	 * Create an item, with capacity already reserved.
+	 */
+	private T create() {
+		T item;
+		try {
+			item = this.callback.createForPool();
+		}
+		catch (RuntimeException e) {
+			this.allocatedCount.decrementAndGet();
+			throw e;
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Obtained new " + item + ".");
+		}
+		PoolEntry entry = new PoolEntry();
+		entry.inUse.set(true);
+		this.allocated.put(item, entry);
+		this.activeCount.incrementAndGet();
+		return item;
+	}
+
+	/**
+	 * Deliver idle items (or new items, if there is capacity) to waiters. Called by
+	 * both sides after publishing an item or a waiter, so neither can be missed.
+	 */
+	private void drain() {
+		while (!this.waiters.isEmpty()) {
+			T item = pollIdle(true);
+			if (item == null) {
+				if (!reserve()) {
+					return;
+				}
+				CompletableFuture<T> waiter = this.waiters.poll();
+				if (waiter == null) {
+					this.allocatedCount.decrementAndGet();
+					return;
+				}
+				try {
+					item = create();
+				}
+				catch (RuntimeException e) {
+					waiter.completeExceptionally(e);
+					continue;
+				}
+				if (!waiter.complete(item)) {
+					returnToIdle(item);
+				}
+			}
+			else {
+				CompletableFuture<T> waiter = this.waiters.poll();
+				if (waiter == null || !waiter.complete(item)) {
+					// the waiter has gone; any new waiter will drain again
+					returnToIdle(item);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return an item that was never delivered (the waiter cancelled).
+	 */
+	private void returnToIdle(T item) {
+		this.allocated.get(item).inUse.set(false);
+		this.activeCount.decrementAndGet();
+		this.idleCount.incrementAndGet();
+		this.idle.offerFirst(item);
+	}
+
+	private void doRemoveItem(T item) {
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Removing " + item + " from the pool");
+		}
+		PoolEntry entry = this.allocated.remove(item);
+		if (entry != null) {
+			this.allocatedCount.decrementAndGet();
+			if (entry.inUse.getAndSet(false)) {
+				this.activeCount.decrementAndGet();
+			}
+		}
+		this.callback.removedFromPool(item);
+	}
+
+	private static final class PoolEntry {
+
+		private final AtomicBoolean inUse = new AtomicBoolean();
+
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		private volatile long lastValidated = this.lastUsed;
+
+	}
+
+}
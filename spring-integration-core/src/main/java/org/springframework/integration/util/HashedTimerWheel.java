@@ -0,0 +1,210 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * A hashed timer wheel holding at most one timeout task per key.
+ * <p>
+ * Timeouts are hashed into a fixed ring of buckets by the tick in which they fall due,
+ * so {@link #schedule(Object, long, Runnable) scheduling}, rescheduling and
+ * {@link #cancel(Object) cancelling} are O(1), regardless of how many timeouts are pending.
+ * The wheel does not run by itself: the owner calls {@link #expire(long)} periodically
+ * (typically once per tick from a single scheduled task) and runs the due tasks it
+ * returns as one batch. A task never runs before its deadline, but may run up to one
+ * tick (plus the owner's invocation delay) after it.
+ *
+ * @param <K> the key type.
+ *
+ * @since 5.0.1
+ */
+public class HashedTimerWheel<K> {
+
+	private final long tickDuration;
+
+	private final Timeout<K>[] buckets;
+
+	private final int mask;
+
+	private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+
+	/**
+	 * The next tick to be processed by {@link #expire(long)}.
+	 */
+	private long currentTick;
+
+	/**
+	 * Construct a wheel with the given tick duration and number of buckets.
+	 * @param tickDuration the tick duration in milliseconds.
+	 * @param ticksPerWheel the number of buckets; rounded up to a power of two.
+	 */
+	@SuppressWarnings("unchecked")
+	public HashedTimerWheel(long tickDuration, int ticksPerWheel) {
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		Assert.isTrue(ticksPerWheel > 0 && ticksPerWheel <= 1 << 30,
+				"'ticksPerWheel' must be between 1 and 2^30");
+		int size = 1;
+		while (size < ticksPerWheel) {
+			size <<= 1;
+		}
+		this.tickDuration = tickDuration;
+		this.buckets = new Timeout[size];
+		this.mask = size - 1;
+		this.currentTick = System.currentTimeMillis() / tickDuration;
+	}
+
+	public long getTickDuration() {
+		return this.tickDuration;
+	}
+
+	/**
+	 * Schedule the task to run at the deadline, replacing any task already scheduled
+	 * for the key.
+	 * @param key the key.
+	 * @param deadline the deadline in milliseconds since the epoch.
+	 * @param task the task.
+	 */
+	public synchronized void schedule(K key, long deadline, Runnable task) {
+		Assert.notNull(key, "'key' must not be null");
+		Assert.notNull(task, "'task' must not be null");
+		Timeout<K> timeout = this.timeouts.get(key);
+		if (timeout == null) {
+			timeout = new Timeout<>(key);
+			this.timeouts.put(key, timeout);
+		}
+		else {
+			unlink(timeout);
+		}
+		timeout.task = task;
+		long tick = deadline / this.tickDuration;
+		if (tick * this.tickDuration < deadline) {
+			tick++;
+		}
+		timeout.tick = Math.max(tick, this.currentTick);
+		link(timeout);
+	}
+
+	/**
+	 * Cancel the task scheduled for the key, if any.
+	 * @param key the key.
+	 * @return true if a task was cancelled.
+	 */
+	public synchronized boolean cancel(K key) {
+		Timeout<K> timeout = this.timeouts.remove(key);
+		if (timeout != null) {
+			unlink(timeout);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Cancel all scheduled tasks.
+	 */
+	public synchronized void clear() {
+		for (int i = 0; i < this.buckets.length; i++) {
+			this.buckets[i] = null;
+		}
+		this.timeouts.clear();
+	}
+
+	public synchronized int size() {
+		return this.timeouts.size();
+	}
+
+	/**
+	 * Advance the wheel to the given time, removing and returning the tasks that have
+	 * become due. The caller is responsible for running them.
+	 * @param now the current time in milliseconds since the epoch.
+	 * @return the due tasks; empty if there are none.
+	 */
+	public synchronized List<Runnable> expire(long now) {
+		long nowTick = now / this.tickDuration;
+		if (nowTick < this.currentTick || this.timeouts.isEmpty()) {
+			this.currentTick = Math.max(this.currentTick, nowTick + 1);
+			return new ArrayList<>(0);
+		}
+		List<Runnable> due = new ArrayList<>();
+		// after a long pause there is no point visiting the same bucket more than once
+		long firstTick = Math.max(this.currentTick, nowTick - this.mask);
+		for (long tick = firstTick; tick <= nowTick; tick++) {
+			Timeout<K> timeout = this.buckets[(int) (tick & this.mask)];
+			while (timeout != null) {
+				Timeout<K> next = timeout.next;
+				if (timeout.tick <= nowTick) {
+					unlink(timeout);
+					this.timeouts.remove(timeout.key);
+					due.add(timeout.task);
+				}
+				timeout = next;
+			}
+		}
+		this.currentTick = nowTick + 1;
+		return due;
+	}
+
+	private void link(Timeout<K> timeout) {
+		int bucket = (int) (timeout.tick & this.mask);
+		Timeout<K> head = this.buckets[bucket];
+		timeout.prev = null;
+		timeout.next = head;
+		if (head != null) {
+			head.prev = timeout;
+		}
+		this.buckets[bucket] = timeout;
+	}
+
+	private void unlink(Timeout<K> timeout) {
+		if (timeout.prev != null) {
+			timeout.prev.next = timeout.next;
+		}
+		else {
+			this.buckets[(int) (timeout.tick & this.mask)] = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.prev = timeout.prev;
+		}
+		timeout.prev = null;
+		timeout.next = null;
+	}
+
+	private static final class Timeout<K> {
+
+		private final K key;
+
+		private Runnable task;
+
+		private long tick;
+
+		private Timeout<K> prev;
+
+		private Timeout<K> next;
+
+		Timeout(K key) {
+			this.key = key;
+		}
+
+	}
+
+}
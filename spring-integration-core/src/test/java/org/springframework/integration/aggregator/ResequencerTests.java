@@ -37,6 +37,7 @@ import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.SequenceIndexedMessageGroupFactory;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
@@ -404,6 +405,61 @@ public class ResequencerTests {
 		assertNotNull(out3);
 	}
 
+	@Test
+	public void testTimeoutDontExpireWithTimerWheel() throws InterruptedException {
+		this.resequencer.setGroupTimeoutExpression(new SpelExpressionParser().parseExpression("100"));
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		this.resequencer.setTaskScheduler(taskScheduler);
+		QueueChannel discardChannel = new QueueChannel();
+		this.resequencer.setDiscardChannel(discardChannel);
+		QueueChannel replyChannel = new QueueChannel();
+		this.resequencer.setOutputChannel(replyChannel);
+		this.resequencer.setExpireGroupsUponTimeout(true);
+		this.resequencer.setGroupTimeoutResolution(10);
+
+		Message<?> message3 = createMessage("789", "ABC", 3, 3, null);
+		Message<?> message2 = createMessage("456", "ABC", 3, 2, null);
+		this.resequencer.handleMessage(message3);
+		this.resequencer.handleMessage(message2);
+		Message<?> out1 = replyChannel.receive(0);
+		assertNull(out1);
+		out1 = discardChannel.receive(10000);
+		assertNotNull(out1);
+		Message<?> out2 = discardChannel.receive(10);
+		assertNotNull(out2);
+		Message<?> message1 = createMessage("123", "ABC", 3, 1, null);
+		this.resequencer.handleMessage(message1);
+		Message<?> out3 = discardChannel.receive(0);
+		assertNull(out3);
+		out3 = discardChannel.receive(10000);
+		assertNotNull(out3);
+		taskScheduler.destroy();
+	}
+
+	@Test
+	public void testUnboundedResequencingWithSequenceIndexedGroups() {
+		SimpleMessageStore indexedStore = new SimpleMessageStore();
+		indexedStore.setMessageGroupFactory(new SequenceIndexedMessageGroupFactory());
+		this.resequencer = new ResequencingMessageHandler(processor, indexedStore, null,
+				new SequenceSizeReleaseStrategy(true));
+		QueueChannel replyChannel = new QueueChannel();
+		this.resequencer.setCorrelationStrategy(message -> "A");
+		this.resequencer.setOutputChannel(replyChannel);
+		this.resequencer.setBeanFactory(mock(BeanFactory.class));
+		this.resequencer.afterPropertiesSet();
+
+		for (int i = 1; i <= 100; i += 2) {
+			this.resequencer.handleMessage(MessageBuilder.withPayload("x").setSequenceNumber(i + 1).build());
+			assertNull(replyChannel.receive(0));
+			this.resequencer.handleMessage(MessageBuilder.withPayload("x").setSequenceNumber(i).build());
+			assertThat(new IntegrationMessageHeaderAccessor(replyChannel.receive(0)).getSequenceNumber(), is(i));
+			assertThat(new IntegrationMessageHeaderAccessor(replyChannel.receive(0)).getSequenceNumber(), is(i + 1));
+		}
+		assertEquals(0, indexedStore.getMessageGroup("A").size());
+		assertEquals(100, indexedStore.getMessageGroup("A").getLastReleasedMessageSequenceNumber());
+	}
+
 	private static Message<?> createMessage(String payload, Object correlationId, int sequenceSize, int sequenceNumber,
 			MessageChannel replyChannel) {
 		return MessageBuilder.withPayload(payload).setCorrelationId(correlationId).setSequenceSize(sequenceSize)
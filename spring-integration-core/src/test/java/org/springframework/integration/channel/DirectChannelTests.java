@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.integration.channel;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.spy;
@@ -31,6 +33,7 @@ import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.Log;
 import org.junit.Test;
@@ -41,10 +44,13 @@ import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.integration.dispatcher.RoundRobinLoadBalancingStrategy;
 import org.springframework.integration.dispatcher.UnicastingDispatcher;
 import org.springframework.integration.endpoint.EventDrivenConsumer;
+import org.springframework.integration.history.MessageHistory;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.ReflectionUtils;
 
@@ -153,6 +159,41 @@ public class DirectChannelTests {
 		assertEquals("test-thread", target.threadName);
 	}
 
+	@Test
+	public void testFastSendHonorsLateConfigurationChanges() {
+		DirectChannel channel = new DirectChannel();
+		channel.setBeanName("fastChannel");
+		AtomicReference<Message<?>> received = new AtomicReference<>();
+		channel.subscribe(received::set);
+		GenericMessage<String> message = new GenericMessage<String>("test");
+		assertTrue(channel.send(message));
+		assertSame(message, received.get());
+
+		AtomicInteger preSends = new AtomicInteger();
+		ChannelInterceptor interceptor = new ChannelInterceptorAdapter() {
+
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				preSends.incrementAndGet();
+				return message;
+			}
+
+		};
+		channel.addInterceptor(interceptor);
+		assertTrue(channel.send(message));
+		assertEquals(1, preSends.get());
+		assertTrue(channel.removeInterceptor(interceptor));
+		assertTrue(channel.send(message));
+		assertEquals(1, preSends.get());
+
+		channel.setShouldTrack(true);
+		assertTrue(channel.send(message));
+		assertNotNull(MessageHistory.read(received.get()));
+		channel.setShouldTrack(false);
+		assertTrue(channel.send(message));
+		assertSame(message, received.get());
+	}
+
 	@Test //  See INT-2434
 	public void testChannelCreationWithBeanDefinitionOverrideTrue() throws Exception {
 		ClassPathXmlApplicationContext parentContext = new ClassPathXmlApplicationContext("parent-config.xml", this.getClass());
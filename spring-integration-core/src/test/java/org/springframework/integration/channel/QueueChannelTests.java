@@ -27,6 +27,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -35,6 +36,8 @@ import org.junit.rules.TemporaryFolder;
 import org.springframework.integration.selector.UnexpiredMessageSelector;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
 import org.springframework.messaging.support.GenericMessage;
 
 /**
@@ -223,6 +226,45 @@ public class QueueChannelTests {
 		assertTrue(channel.send(new GenericMessage<String>("roomAvailable"), 0));
 	}
 
+	@Test
+	public void testBatchReceive() {
+		QueueChannel channel = new QueueChannel();
+		channel.setCountsEnabled(true);
+		assertEquals(0, channel.receive(10, 0).size());
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		List<Message<?>> messages = channel.receive(3, 0);
+		assertEquals(3, messages.size());
+		assertEquals(0, messages.get(0).getPayload());
+		assertEquals(2, messages.get(2).getPayload());
+		messages = channel.receive(10, 0);
+		assertEquals(2, messages.size());
+		assertEquals(4, messages.get(1).getPayload());
+		assertEquals(0, channel.getQueueSize());
+		assertEquals(6, channel.getReceiveCountLong());
+	}
+
+	@Test
+	public void testBatchReceiveWithInterceptor() {
+		QueueChannel channel = new QueueChannel();
+		AtomicInteger postReceived = new AtomicInteger();
+		channel.addInterceptor(new ChannelInterceptorAdapter() {
+
+			@Override
+			public Message<?> postReceive(Message<?> message, MessageChannel channel) {
+				postReceived.incrementAndGet();
+				return message;
+			}
+
+		});
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		assertEquals(4, channel.receive(4, 0).size());
+		assertEquals(4, postReceived.get());
+	}
+
 	@Rule
 	public final TemporaryFolder tempFolder = new TemporaryFolder();
 
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+/**
+ * @since 5.0.1
+ */
+public class CodecMessageMapperTests {
+
+	@Test
+	public void testAllHeaders() throws Exception {
+		CodecMessageMapper mapper = new CodecMessageMapper();
+		Message<String> message = MessageBuilder.withPayload("foo")
+				.setHeader("bar", "baz")
+				.setHeader("qux", 42)
+				.build();
+		Message<?> decoded = mapper.toMessage(mapper.fromMessage(message));
+		assertEquals("foo", decoded.getPayload());
+		assertEquals("baz", decoded.getHeaders().get("bar"));
+		assertEquals(42, decoded.getHeaders().get("qux"));
+		assertNotEquals(message.getHeaders().getId(), decoded.getHeaders().getId());
+	}
+
+	@Test
+	public void testChannelHeadersNotEncodedByDefault() throws Exception {
+		CodecMessageMapper mapper = new CodecMessageMapper();
+		Message<String> message = MessageBuilder.withPayload("foo")
+				.setHeader("bar", "baz")
+				.setReplyChannel(new QueueChannel())
+				.setErrorChannelName("errors")
+				.build();
+		Message<?> decoded = mapper.toMessage(mapper.fromMessage(message));
+		assertEquals("baz", decoded.getHeaders().get("bar"));
+		assertNull(decoded.getHeaders().getReplyChannel());
+		assertNull(decoded.getHeaders().getErrorChannel());
+
+		mapper = new CodecMessageMapper("*");
+		decoded = mapper.toMessage(mapper.fromMessage(message));
+		assertEquals("errors", decoded.getHeaders().getErrorChannel());
+	}
+
+	@Test
+	public void testHeaderPatterns() throws Exception {
+		CodecMessageMapper mapper = new CodecMessageMapper("app_*", "correlationId");
+		Message<?> decoded = mapper.toMessage(mapper.fromMessage(message()));
+		assertEquals("foo", decoded.getPayload());
+		assertEquals("one", decoded.getHeaders().get("app_one"));
+		assertEquals("two", decoded.getHeaders().get("app_two"));
+		assertEquals("corr", decoded.getHeaders().get("correlationId"));
+		assertFalse(decoded.getHeaders().containsKey("other"));
+	}
+
+	@Test
+	public void testNegatedHeaderPatterns() throws Exception {
+		CodecMessageMapper mapper = new CodecMessageMapper("!app_two", "app_*");
+		Message<?> decoded = mapper.toMessage(mapper.fromMessage(message()));
+		assertEquals("one", decoded.getHeaders().get("app_one"));
+		assertFalse(decoded.getHeaders().containsKey("app_two"));
+		assertFalse(decoded.getHeaders().containsKey("other"));
+
+		// the first matching pattern wins
+		mapper = new CodecMessageMapper("app_*", "!app_two");
+		decoded = mapper.toMessage(mapper.fromMessage(message()));
+		assertEquals("two", decoded.getHeaders().get("app_two"));
+
+		mapper = new CodecMessageMapper("!app_*", "*");
+		decoded = mapper.toMessage(mapper.fromMessage(message()));
+		assertFalse(decoded.getHeaders().containsKey("app_one"));
+		assertFalse(decoded.getHeaders().containsKey("app_two"));
+		assertEquals("other", decoded.getHeaders().get("other"));
+		assertEquals("corr", decoded.getHeaders().get("correlationId"));
+	}
+
+	@Test
+	public void testCaseSensitivity() throws Exception {
+		CodecMessageMapper mapper = new CodecMessageMapper("APP_ONE", "!CorrelationID", "*");
+		Message<?> decoded = mapper.toMessage(mapper.fromMessage(message()));
+		assertEquals("one", decoded.getHeaders().get("app_one"));
+		assertFalse(decoded.getHeaders().containsKey("correlationId"));
+
+		mapper.setCaseSensitive(true);
+		decoded = mapper.toMessage(mapper.fromMessage(message()));
+		assertEquals("one", decoded.getHeaders().get("app_one"));
+		assertEquals("corr", decoded.getHeaders().get("correlationId"));
+
+		mapper = new CodecMessageMapper("APP_*");
+		mapper.setCaseSensitive(true);
+		decoded = mapper.toMessage(mapper.fromMessage(message()));
+		assertFalse(decoded.getHeaders().containsKey("app_one"));
+	}
+
+	@Test
+	public void testToMessageHeaderPrecedence() throws Exception {
+		CodecMessageMapper mapper = new CodecMessageMapper();
+		byte[] bytes = mapper.fromMessage(message());
+		Map<String, Object> headers = new HashMap<>();
+		headers.put("app_one", "supplied");
+		headers.put("added", "value");
+		Message<?> decoded = mapper.toMessage(bytes, headers);
+		assertEquals("one", decoded.getHeaders().get("app_one"));
+		assertEquals("value", decoded.getHeaders().get("added"));
+		assertEquals("corr", decoded.getHeaders().get("correlationId"));
+
+		decoded = mapper.toMessage(bytes, null);
+		assertNull(decoded.getHeaders().get("added"));
+		assertTrue(decoded.getHeaders().containsKey("app_two"));
+	}
+
+	private static Message<String> message() {
+		return MessageBuilder.withPayload("foo")
+				.setHeader("app_one", "one")
+				.setHeader("app_two", "two")
+				.setHeader("other", "other")
+				.setCorrelationId("corr")
+				.build();
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.endpoint;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.handler.BatchMessageHandler;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.PollableChannel;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+/**
+ * @since 5.0.1
+ *
+ */
+public class PollingConsumerBatchTests {
+
+	@Test
+	public void testBatchHandler() {
+		QueueChannel channel = new QueueChannel();
+		List<List<Message<?>>> batches = new ArrayList<>();
+		BatchMessageHandler handler = messages -> batches.add(new ArrayList<>(messages));
+		PollingConsumer consumer = new PollingConsumer(channel, handler);
+		consumer.setReceiveTimeout(0);
+		consumer.setBatchSize(3);
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		consumer.handleMessage(consumer.receiveMessage());
+		consumer.handleMessage(consumer.receiveMessage());
+		assertNull(consumer.receiveMessage());
+		assertEquals(2, batches.size());
+		assertEquals(3, batches.get(0).size());
+		assertEquals(2, batches.get(1).size());
+		assertEquals(4, batches.get(1).get(1).getPayload());
+	}
+
+	@Test
+	public void testPerMessageHandlerFailure() {
+		QueueChannel channel = new QueueChannel();
+		List<Object> handled = new ArrayList<>();
+		PollingConsumer consumer = new PollingConsumer(channel, message -> {
+			if (message.getPayload().equals(2)) {
+				throw new IllegalStateException("bad");
+			}
+			handled.add(message.getPayload());
+		});
+		consumer.setReceiveTimeout(0);
+		consumer.setBatchSize(10);
+		for (int i = 0; i < 5; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		try {
+			consumer.handleMessage(consumer.receiveMessage());
+			fail("Expected exception");
+		}
+		catch (MessageDeliveryException e) {
+			assertEquals(2, handled.size());
+			assertThat(e.getFailedMessage().getPayload(), instanceOf(List.class));
+			List<?> unhandled = (List<?>) e.getFailedMessage().getPayload();
+			assertEquals(3, unhandled.size());
+			assertEquals(2, ((Message<?>) unhandled.get(0)).getPayload());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBatchRequiresQueueChannel() {
+		new PollingConsumer(mock(PollableChannel.class), message -> { }).setBatchSize(2);
+	}
+
+	@Test
+	public void testPolling() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		for (int i = 0; i < 100; i++) {
+			channel.send(new GenericMessage<>(i));
+		}
+		CountDownLatch latch = new CountDownLatch(100);
+		List<Integer> sizes = new ArrayList<>();
+		BatchMessageHandler handler = messages -> {
+			sizes.add(messages.size());
+			messages.forEach(m -> latch.countDown());
+		};
+		PollingConsumer consumer = new PollingConsumer(channel, handler);
+		consumer.setBatchSize(25);
+		consumer.setTrigger(new PeriodicTrigger(10));
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		consumer.setTaskScheduler(scheduler);
+		consumer.setBeanFactory(mock(BeanFactory.class));
+		consumer.afterPropertiesSet();
+		consumer.start();
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		consumer.stop();
+		scheduler.destroy();
+		assertEquals(4, sizes.size());
+		assertTrue(sizes.stream().allMatch(size -> size == 25));
+	}
+
+}
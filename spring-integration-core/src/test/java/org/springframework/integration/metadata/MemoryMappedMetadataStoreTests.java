@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.metadata;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ *
+ * @since 5.0.1
+ */
+public class MemoryMappedMetadataStoreTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testOperationsSurviveRestart() throws Exception {
+		MemoryMappedMetadataStore metadataStore = createStore();
+		assertNull(metadataStore.putIfAbsent("foo", "baz"));
+		assertEquals("baz", metadataStore.putIfAbsent("foo", "bar"));
+		assertFalse(metadataStore.replace("foo", "xxx", "bar"));
+		assertTrue(metadataStore.replace("foo", "baz", "bar"));
+		metadataStore.put("qux", "quux");
+		metadataStore.put("removed", "value");
+		assertEquals("value", metadataStore.remove("removed"));
+		assertNull(metadataStore.remove("removed"));
+		metadataStore.close();
+
+		metadataStore = createStore();
+		assertEquals("bar", metadataStore.get("foo"));
+		assertEquals("quux", metadataStore.get("qux"));
+		assertNull(metadataStore.get("removed"));
+		metadataStore.close();
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		MemoryMappedMetadataStore metadataStore = createStore();
+		for (int i = 0; i < 100000; i++) {
+			metadataStore.put("key" + (i % 100), Integer.toString(i));
+		}
+		metadataStore.close();
+		File file = new File(this.folder.getRoot(), "metadata-store.log");
+		assertThat(file.length(), lessThan(1024L * 1024L));
+
+		metadataStore = createStore();
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Integer.toString(99900 + i), metadataStore.get("key" + i));
+		}
+		metadataStore.close();
+	}
+
+	@Test
+	public void testMaxEntries() throws Exception {
+		MemoryMappedMetadataStore metadataStore = createStore(1000);
+		for (int i = 0; i < 100000; i++) {
+			metadataStore.put("key" + i, Integer.toString(i));
+			if (i % 10 == 0) {
+				// rewriting an entry makes it the most recent one
+				metadataStore.put("key0", "0");
+			}
+		}
+		metadataStore.flush();
+		metadataStore.close();
+		File file = new File(this.folder.getRoot(), "metadata-store.log");
+		assertThat(file.length(), lessThan(1024L * 1024L));
+
+		metadataStore = createStore(1000);
+		assertEquals("0", metadataStore.get("key0"));
+		assertNull(metadataStore.get("key1"));
+		assertNull(metadataStore.get("key99000"));
+		for (int i = 99001; i < 100000; i++) {
+			assertEquals(Integer.toString(i), metadataStore.get("key" + i));
+		}
+		metadataStore.close();
+
+		metadataStore = createStore(10);
+		assertEquals("0", metadataStore.get("key0"));
+		assertNull(metadataStore.get("key99990"));
+		assertEquals("99991", metadataStore.get("key99991"));
+		metadataStore.close();
+	}
+
+	@Test
+	public void testLogCannotBeShared() throws Exception {
+		MemoryMappedMetadataStore metadataStore = createStore();
+		metadataStore.put("foo", "bar");
+		try {
+			createStore();
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertThat(e.getMessage(), containsString("in use by another metadata store"));
+		}
+		// the lock survives the replacement of the log by compaction
+		metadataStore.put("foo", "baz");
+		metadataStore.compact();
+		try {
+			createStore();
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertThat(e.getMessage(), containsString("in use by another metadata store"));
+		}
+		metadataStore.close();
+
+		metadataStore = createStore();
+		assertEquals("baz", metadataStore.get("foo"));
+		metadataStore.close();
+	}
+
+	@Test
+	public void testIncompleteRecordIsDiscarded() throws Exception {
+		MemoryMappedMetadataStore metadataStore = createStore();
+		metadataStore.put("a", "1");
+		metadataStore.put("b", "2");
+		metadataStore.close();
+
+		// corrupt the value of the second record: file header (8) + record (13 + 1 + 4) + record header (13)
+		try (RandomAccessFile file = new RandomAccessFile(new File(this.folder.getRoot(), "metadata-store.log"),
+				"rw")) {
+			file.seek(39);
+			file.write('X');
+		}
+
+		metadataStore = createStore();
+		assertEquals("1", metadataStore.get("a"));
+		assertNull(metadataStore.get("b"));
+		metadataStore.put("c", "3");
+		metadataStore.close();
+
+		metadataStore = createStore();
+		assertEquals("1", metadataStore.get("a"));
+		assertNull(metadataStore.get("b"));
+		assertEquals("3", metadataStore.get("c"));
+		metadataStore.close();
+	}
+
+	private MemoryMappedMetadataStore createStore() {
+		return createStore(Integer.MAX_VALUE);
+	}
+
+	private MemoryMappedMetadataStore createStore(int maxEntries) {
+		MemoryMappedMetadataStore metadataStore = new MemoryMappedMetadataStore();
+		metadataStore.setMaxEntries(maxEntries);
+		metadataStore.setBaseDirectory(this.folder.getRoot().getAbsolutePath());
+		metadataStore.setInitialLogSize(64 * 1024);
+		metadataStore.setCompactionThreshold(64 * 1024);
+		metadataStore.afterPropertiesSet();
+		return metadataStore;
+	}
+
+}
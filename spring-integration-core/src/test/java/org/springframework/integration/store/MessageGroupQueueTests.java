@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,13 +21,17 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -100,6 +104,46 @@ public class MessageGroupQueueTests {
 		doTestConcurrentAccess(50, 20, null);
 	}
 
+	@Test
+	public void testConcurrentAddOutsideStoreLock() throws Exception {
+		ConcurrentAddMessageStore messageGroupStore = new ConcurrentAddMessageStore();
+		ReentrantLock storeLock = new ReentrantLock();
+		MessageGroupQueue queue = new MessageGroupQueue(messageGroupStore, "FOO", storeLock);
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		storeLock.lock();
+		Future<Boolean> offered;
+		try {
+			offered = executorService.submit(() -> queue.offer(new GenericMessage<>("foo")));
+			int n = 0;
+			while (n++ < 100 && messageGroupStore.messageGroupSize("FOO") == 0) {
+				Thread.sleep(50);
+			}
+			assertEquals(1, messageGroupStore.messageGroupSize("FOO"));
+		}
+		finally {
+			storeLock.unlock();
+		}
+		assertTrue(offered.get(10, TimeUnit.SECONDS));
+		assertNotNull(queue.poll(100, TimeUnit.MILLISECONDS));
+		executorService.shutdown();
+	}
+
+	@Test
+	public void testDrainToPollsInBatches() {
+		ConcurrentAddMessageStore messageGroupStore = new ConcurrentAddMessageStore();
+		MessageGroupQueue queue = new MessageGroupQueue(messageGroupStore, "FOO");
+		for (int i = 0; i < 5; i++) {
+			queue.offer(new GenericMessage<>(i));
+		}
+		List<Message<?>> drained = new ArrayList<>();
+		assertEquals(3, queue.drainTo(drained, 3));
+		assertEquals(1, messageGroupStore.batchPolls);
+		assertEquals(2, queue.drainTo(drained));
+		assertEquals(5, drained.size());
+		assertEquals(0, drained.get(0).getPayload());
+		assertEquals(4, drained.get(4).getPayload());
+	}
+
 	private void doTestConcurrentAccess(int concurrency, final int maxPerTask, final Set<String> set) throws Exception {
 
 		SimpleMessageStore messageGroupStore = new SimpleMessageStore();
@@ -161,4 +205,31 @@ public class MessageGroupQueueTests {
 
 	}
 
+	private static class ConcurrentAddMessageStore extends SimpleMessageStore {
+
+		private volatile int batchPolls;
+
+		@Override
+		public synchronized MessageGroup addMessageToGroup(Object groupId, Message<?> message) {
+			return super.addMessageToGroup(groupId, message);
+		}
+
+		@Override
+		public synchronized Message<?> pollMessageFromGroup(Object groupId) {
+			return super.pollMessageFromGroup(groupId);
+		}
+
+		@Override
+		public synchronized List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+			this.batchPolls++;
+			return super.pollMessagesFromGroup(groupId, maxMessages);
+		}
+
+		@Override
+		public boolean isConcurrentAddSupported() {
+			return true;
+		}
+
+	}
+
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.store;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+
+/**
+ * @since 5.0.1
+ */
+public class SequenceIndexedMessageGroupTests {
+
+	private final SequenceIndexedMessageGroup group = new SequenceIndexedMessageGroup("foo");
+
+	@Test
+	public void testContiguousSequenceOutOfOrder() {
+		this.group.add(message(3));
+		this.group.add(message(5));
+		this.group.add(message(2));
+		assertEquals(3, this.group.size());
+		assertEquals(2, this.group.getLowestSequenceNumber());
+		assertEquals(2, this.group.getContiguousSequenceCount(2));
+		assertEquals(0, this.group.getContiguousSequenceCount(4));
+		this.group.add(message(4));
+		assertThat(sequenceNumbers(this.group.getContiguousSequence(2)), contains(2, 3, 4, 5));
+		assertTrue(this.group.containsSequence(4));
+		assertFalse(this.group.containsSequence(1));
+		assertFalse(this.group.containsSequence(6));
+	}
+
+	@Test
+	public void testRemoveAdvancesLowestSequence() {
+		List<Message<?>> messages = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			messages.add(message(i));
+		}
+		messages.forEach(this.group::add);
+		assertTrue(this.group.remove(messages.get(0)));
+		assertTrue(this.group.remove(messages.get(1)));
+		assertEquals(3, this.group.getLowestSequenceNumber());
+		assertTrue(this.group.remove(messages.get(2)));
+		assertTrue(this.group.remove(messages.get(4)));
+		assertEquals(4, this.group.getLowestSequenceNumber());
+		assertThat(sequenceNumbers(this.group.getContiguousSequence(4)), contains(4));
+		assertTrue(this.group.remove(messages.get(3)));
+		assertEquals(0, this.group.getLowestSequenceNumber());
+		assertThat(this.group.getContiguousSequence(4), empty());
+	}
+
+	@Test
+	public void testReverseOrderAndUnboundedSequences() {
+		for (int i = 1000; i > 0; i--) {
+			this.group.add(message(i));
+		}
+		assertEquals(1000, this.group.getContiguousSequenceCount(1));
+		for (Message<?> message : this.group.getContiguousSequence(1)) {
+			this.group.remove(message);
+		}
+		assertEquals(0, this.group.size());
+		this.group.add(message(100000));
+		this.group.add(message(100001));
+		assertEquals(100000, this.group.getLowestSequenceNumber());
+		assertEquals(2, this.group.getContiguousSequenceCount(100000));
+	}
+
+	@Test
+	public void testUnindexedMessages() {
+		Message<?> first = message(1);
+		Message<?> duplicate = message(1);
+		this.group.add(first);
+		this.group.add(duplicate);
+		assertEquals(2, this.group.size());
+		assertTrue(this.group.hasUnindexedMessages());
+		assertSame(first, this.group.getMessageWithSequence(1));
+		this.group.remove(duplicate);
+		assertFalse(this.group.hasUnindexedMessages());
+		assertSame(first, this.group.getMessageWithSequence(1));
+		this.group.add(new GenericMessage<>("bar"));
+		assertTrue(this.group.hasUnindexedMessages());
+		this.group.clear();
+		assertFalse(this.group.hasUnindexedMessages());
+		assertNull(this.group.getMessageWithSequence(1));
+	}
+
+	@Test
+	public void testHugeSequenceGapIsNotIndexed() {
+		Message<?> first = message(1);
+		Message<?> far = message(1_500_000_000);
+		this.group.add(first);
+		this.group.add(far);
+		assertEquals(2, this.group.size());
+		assertTrue(this.group.hasUnindexedMessages());
+		assertTrue(this.group.containsSequence(1_500_000_000));
+		assertNull(this.group.getMessageWithSequence(1_500_000_000));
+		assertEquals(1, this.group.getLowestSequenceNumber());
+		Message<?> second = message(2);
+		this.group.add(second);
+		assertEquals(2, this.group.getContiguousSequenceCount(1));
+		assertTrue(this.group.remove(far));
+		assertFalse(this.group.hasUnindexedMessages());
+		assertTrue(this.group.remove(first));
+		assertTrue(this.group.remove(second));
+		this.group.add(far);
+		assertFalse(this.group.hasUnindexedMessages());
+		assertSame(far, this.group.getMessageWithSequence(1_500_000_000));
+	}
+
+	@Test
+	public void testFactoryWithSimpleMessageStore() {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.setMessageGroupFactory(new SequenceIndexedMessageGroupFactory());
+		store.addMessageToGroup("foo", message(2));
+		MessageGroup messageGroup = store.addMessageToGroup("foo", message(1));
+		assertTrue(messageGroup instanceof SequenceIndexedMessageGroup);
+		assertEquals(2, ((SequenceIndexedMessageGroup) messageGroup).getContiguousSequenceCount(1));
+	}
+
+	private static Message<?> message(int sequenceNumber) {
+		return MessageBuilder.withPayload("foo").setSequenceNumber(sequenceNumber).build();
+	}
+
+	private static List<Integer> sequenceNumbers(List<Message<?>> messages) {
+		List<Integer> sequenceNumbers = new ArrayList<>();
+		for (Message<?> message : messages) {
+			sequenceNumbers.add(message.getHeaders().get("sequenceNumber", Integer.class));
+		}
+		return sequenceNumbers;
+	}
+
+}
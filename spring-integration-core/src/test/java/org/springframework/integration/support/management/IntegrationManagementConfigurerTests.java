@@ -17,7 +17,10 @@
 package org.springframework.integration.support.management;
 
 import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -41,6 +44,7 @@ import org.springframework.integration.handler.AbstractMessageHandler;
 import org.springframework.integration.router.RecipientListRouter;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.GenericMessage;
 
 /**
  * @author Gary Russell
@@ -102,6 +106,24 @@ public class IntegrationManagementConfigurerTests {
 		ctx.close();
 	}
 
+	@Test
+	public void testPercentilesPatterns() {
+		AnnotationConfigApplicationContext ctx =
+				new AnnotationConfigApplicationContext(ConfigPercentiles.class);
+		DirectChannel channel = ctx.getBean("channel", DirectChannel.class);
+		DirectChannel other = ctx.getBean("other", DirectChannel.class);
+		channel.subscribe(m -> { });
+		other.subscribe(m -> { });
+		channel.send(new GenericMessage<>("foo"));
+		other.send(new GenericMessage<>("foo"));
+		LatencyPercentiles percentiles = channel.getSendDurationPercentiles();
+		assertNotNull(percentiles);
+		assertEquals(1, percentiles.getCount());
+		assertTrue(percentiles.getP99() <= percentiles.getMax());
+		assertNull(other.getSendDurationPercentiles());
+		ctx.close();
+	}
+
 	@Configuration
 	@EnableIntegration
 	@EnableIntegrationManagement
@@ -120,4 +142,21 @@ public class IntegrationManagementConfigurerTests {
 		}
 	}
 
+	@Configuration
+	@EnableIntegration
+	@EnableIntegrationManagement(percentilesEnabled = { "!other", "*" })
+	public static class ConfigPercentiles {
+
+		@Bean
+		public MessageChannel channel() {
+			return new DirectChannel();
+		}
+
+		@Bean
+		public MessageChannel other() {
+			return new DirectChannel();
+		}
+
+	}
+
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * @since 5.0.1
+ *
+ */
+public class LatencyHistogramTests {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	@Test
+	public void testBucketBoundaries() {
+		int previous = -1;
+		for (long value = 0; value < 1L << 20; value++) {
+			int index = LatencyHistogram.bucketIndex(value);
+			assertThat(index, greaterThanOrEqualTo(previous));
+			assertThat(LatencyHistogram.lowestEquivalentValue(index), lessThanOrEqualTo(value));
+			assertThat(LatencyHistogram.highestEquivalentValue(index), greaterThanOrEqualTo(value));
+			previous = index;
+		}
+		assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+		assertEquals(LatencyHistogram.MAX_TRACKABLE_VALUE,
+				LatencyHistogram.highestEquivalentValue(LatencyHistogram.BUCKETS - 1));
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram(1000, 4);
+		long now = 100 * SECOND;
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(i * 10), now);
+		}
+		LatencyPercentiles percentiles = histogram.getPercentiles(now);
+		assertEquals(1000, percentiles.getCount());
+		assertThat(percentiles.getP50(), closeTo(5., 5. * 0.032));
+		assertThat(percentiles.getP90(), closeTo(9., 9. * 0.032));
+		assertThat(percentiles.getP99(), closeTo(9.9, 9.9 * 0.032));
+		assertThat(percentiles.getP999(), closeTo(9.99, 9.99 * 0.032));
+		assertEquals(10., percentiles.getMax(), 0.);
+		assertEquals(10., percentiles.getValueAtPercentile(100), 0.);
+	}
+
+	@Test
+	public void testRollingWindow() {
+		LatencyHistogram histogram = new LatencyHistogram(1000, 4);
+		long now = 100 * SECOND;
+		histogram.record(SECOND, now);
+		histogram.record(SECOND, now + SECOND);
+		assertEquals(2, histogram.getPercentiles(now + SECOND).getCount());
+		assertEquals(1, histogram.getPercentiles(now + 4 * SECOND).getCount());
+		assertEquals(0, histogram.getPercentiles(now + 5 * SECOND).getCount());
+		histogram.record(2 * SECOND, now + 8 * SECOND);
+		LatencyPercentiles percentiles = histogram.getPercentiles(now + 8 * SECOND);
+		assertEquals(1, percentiles.getCount());
+		assertEquals(2000., percentiles.getMax(), 0.);
+		histogram.reset();
+		assertEquals(0, histogram.getPercentiles(now + 8 * SECOND).getCount());
+		assertEquals(0., histogram.getPercentiles(now + 8 * SECOND).getP99(), 0.);
+	}
+
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram(TimeUnit.DAYS.toMillis(1), 2);
+		int threads = 4;
+		int perThread = 25000;
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		CountDownLatch latch = new CountDownLatch(threads);
+		for (int i = 0; i < threads; i++) {
+			exec.execute(() -> {
+				for (int j = 0; j < perThread; j++) {
+					histogram.record(j);
+				}
+				latch.countDown();
+			});
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		exec.shutdown();
+		LatencyPercentiles percentiles = histogram.getPercentiles();
+		assertEquals(threads * perThread, percentiles.getCount());
+		assertEquals((perThread - 1) / 1000000., percentiles.getMax(), 0.);
+	}
+
+}
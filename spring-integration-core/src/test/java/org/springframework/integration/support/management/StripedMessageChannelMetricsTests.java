@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.support.management;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.support.MessageBuilder;
+
+/**
+ * @since 5.0.1
+ */
+public class StripedMessageChannelMetricsTests {
+
+	@Test
+	public void testConcurrentSends() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		channel.configureMetrics(new StripedMetricsFactory().createChannelMetrics("test"));
+		channel.setStatsEnabled(true);
+		int threads = 8;
+		int sends = 1000;
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		CountDownLatch latch = new CountDownLatch(threads);
+		for (int i = 0; i < threads; i++) {
+			exec.execute(() -> {
+				for (int j = 0; j < sends; j++) {
+					channel.send(MessageBuilder.withPayload("foo").build());
+				}
+				latch.countDown();
+			});
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		exec.shutdownNow();
+		assertEquals(threads * sends, channel.getSendCountLong());
+		assertEquals(0, channel.getSendErrorCountLong());
+		Statistics duration = channel.getSendDuration();
+		assertEquals(threads * sends, duration.getCountLong());
+		assertThat(duration.getMean(), greaterThanOrEqualTo(0.));
+		assertThat(duration.getMax(), greaterThanOrEqualTo(duration.getMin()));
+		assertEquals(threads * sends, channel.getSendRate().getCountLong());
+		assertThat(channel.getMeanSendRate(), greaterThan(0.));
+		assertEquals(0., channel.getMeanErrorRatio(), 0.0001);
+	}
+
+	@Test
+	public void testErrorsAndReset() {
+		QueueChannel channel = new QueueChannel(5);
+		channel.configureMetrics(new StripedMessageChannelMetrics("test"));
+		channel.setStatsEnabled(true);
+		for (int i = 0; i < 10; i++) {
+			channel.send(MessageBuilder.withPayload("foo").build(), 0);
+		}
+		assertEquals(10, channel.getSendCount());
+		assertEquals(5, channel.getSendErrorCount());
+		assertEquals(5, channel.getErrorRate().getCountLong());
+		assertThat(channel.getMeanErrorRatio(), greaterThan(0.));
+		assertThat(channel.getMeanErrorRatio(), lessThanOrEqualTo(1.));
+
+		channel.reset();
+		assertEquals(0, channel.getSendCount());
+		assertEquals(0, channel.getSendErrorCount());
+		assertEquals(0, channel.getSendDuration().getCountLong());
+		assertEquals(0., channel.getMeanErrorRatio(), 0.0001);
+		assertEquals(0., channel.getTimeSinceLastSend(), 0.0001);
+	}
+
+	@Test
+	public void testHandlerMetrics() {
+		StripedMessageHandlerMetrics metrics = new StripedMessageHandlerMetrics("test");
+		metrics.setFullStatsEnabled(true);
+		for (int i = 0; i < 100; i++) {
+			MetricsContext context = metrics.beforeHandle();
+			assertEquals(1, metrics.getActiveCount());
+			metrics.afterHandle(context, i % 10 != 0);
+		}
+		assertEquals(0, metrics.getActiveCount());
+		assertEquals(100, metrics.getHandleCount());
+		assertEquals(10, metrics.getErrorCount());
+		assertEquals(90, metrics.getDuration().getCountLong());
+		assertThat(metrics.getMaxDuration(), greaterThanOrEqualTo(metrics.getMinDuration()));
+	}
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.messaging.MessagingException;
+
+/**
+ * @since 5.0.1
+ *
+ */
+public class ConcurrentPoolTests {
+
+	@Test
+	public void testReuseAndStale() {
+		Set<String> strings = ConcurrentHashMap.newKeySet();
+		AtomicBoolean stale = new AtomicBoolean();
+		ConcurrentPool<String> pool = stringPool(2, strings, stale);
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		assertNotSame(s1, s2);
+		pool.releaseItem(s1);
+		String s3 = pool.getItem();
+		assertSame(s1, s3);
+		stale.set(true);
+		pool.releaseItem(s3);
+		s3 = pool.getItem();
+		assertNotSame(s1, s3);
+		assertFalse(strings.contains(s1));
+		assertEquals(2, pool.getAllocatedCount());
+		assertEquals(2, pool.getActiveCount());
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	@Test
+	public void testAsyncBorrowAndTimeout() throws Exception {
+		ConcurrentPool<String> pool = stringPool(2, ConcurrentHashMap.newKeySet(), new AtomicBoolean());
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		CompletableFuture<String> future = pool.getItemAsync();
+		assertFalse(future.isDone());
+		assertEquals(1, pool.getWaiterCount());
+		pool.releaseItem(s1);
+		assertSame(s1, future.get(10, TimeUnit.SECONDS));
+		assertEquals(0, pool.getIdleCount());
+		pool.setWaitTimeout(10);
+		try {
+			pool.getItem();
+			fail("Expected exception");
+		}
+		catch (MessagingException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertEquals(0, pool.getWaiterCount());
+		// a cancelled waiter does not consume the item
+		CompletableFuture<String> cancelled = pool.getItemAsync();
+		cancelled.cancel(false);
+		pool.releaseItem(s2);
+		assertEquals(1, pool.getIdleCount());
+		assertSame(s2, pool.getItem());
+	}
+
+	@Test
+	public void testResize() {
+		Set<String> strings = ConcurrentHashMap.newKeySet();
+		ConcurrentPool<String> pool = stringPool(2, strings, new AtomicBoolean());
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		CompletableFuture<String> future = pool.getItemAsync();
+		assertFalse(future.isDone());
+		// resize up; the waiter gets a new item
+		pool.setPoolSize(3);
+		assertTrue(future.isDone());
+		assertEquals(3, pool.getActiveCount());
+		// resize down; in-use items are removed when returned
+		pool.setPoolSize(1);
+		pool.releaseItem(s1);
+		pool.releaseItem(s2);
+		assertEquals(0, pool.getIdleCount());
+		assertEquals(1, pool.getActiveCount());
+		assertEquals(1, pool.getAllocatedCount());
+		assertEquals(1, strings.size());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+		Set<String> strings = ConcurrentHashMap.newKeySet();
+		ConcurrentPool<String> pool = stringPool(0, strings, new AtomicBoolean());
+		List<String> items = new ArrayList<String>();
+		for (int i = 0; i < 5; i++) {
+			items.add(pool.getItem());
+		}
+		for (String item : items) {
+			pool.releaseItem(item);
+		}
+		assertEquals(5, pool.getIdleCount());
+		pool.setMaxIdle(3);
+		assertEquals(2, pool.evictIdleItems());
+		assertEquals(3, pool.getIdleCount());
+		// the least recently used were evicted
+		assertFalse(strings.contains(items.get(0)));
+		assertFalse(strings.contains(items.get(1)));
+		assertTrue(strings.contains(items.get(4)));
+		// the most recently used is borrowed first
+		assertSame(items.get(4), pool.getItem());
+		pool.releaseItem(items.get(4));
+		pool.setMaxIdleTime(1);
+		Thread.sleep(50);
+		assertEquals(3, pool.evictIdleItems());
+		assertEquals(0, pool.getAllocatedCount());
+	}
+
+	@Test
+	public void testContention() throws Exception {
+		AtomicInteger created = new AtomicInteger();
+		ConcurrentPool<String> pool = new ConcurrentPool<String>(4, new SimplePool.PoolItemCallback<String>() {
+
+			@Override
+			public String createForPool() {
+				return "String" + created.getAndIncrement();
+			}
+
+			@Override
+			public boolean isStale(String item) {
+				return false;
+			}
+
+			@Override
+			public void removedFromPool(String item) {
+			}
+
+		});
+		Set<String> inUse = ConcurrentHashMap.newKeySet();
+		AtomicBoolean failed = new AtomicBoolean();
+		ExecutorService exec = Executors.newFixedThreadPool(16);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = 0; i < 16; i++) {
+			futures.add(exec.submit(() -> {
+				for (int j = 0; j < 1000; j++) {
+					String item = pool.getItem();
+					if (!inUse.add(item) || inUse.size() > 4) {
+						failed.set(true);
+					}
+					inUse.remove(item);
+					pool.releaseItem(item);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		exec.shutdown();
+		assertFalse(failed.get());
+		assertEquals(4, created.get());
+		assertEquals(4, pool.getIdleCount());
+		assertEquals(0, pool.getActiveCount());
+		assertEquals(0, pool.getWaiterCount());
+	}
+
+	private ConcurrentPool<String> stringPool(int size, Set<String> strings, AtomicBoolean stale) {
+		return new ConcurrentPool<String>(size, new SimplePool.PoolItemCallback<String>() {
+
+			private final AtomicInteger i = new AtomicInteger();
+
+			@Override
+			public String createForPool() {
+				String string = "String" + this.i.getAndIncrement();
+				strings.add(string);
+				return string;
+			}
+
+			@Override
+			public boolean isStale(String item) {
+				return stale.get();
+			}
+
+			@Override
+			public void removedFromPool(String item) {
+				strings.remove(item);
+			}
+
+		});
+	}
+
+}
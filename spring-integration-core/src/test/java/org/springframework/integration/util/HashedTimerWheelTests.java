@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @since 5.0.1
+ */
+public class HashedTimerWheelTests {
+
+	private final List<String> fired = new ArrayList<>();
+
+	private final HashedTimerWheel<String> wheel = new HashedTimerWheel<>(10, 8);
+
+	private final long now = System.currentTimeMillis();
+
+	@Test
+	public void testTasksNeverFireEarly() {
+		this.wheel.schedule("foo", this.now + 25, task("foo"));
+		this.wheel.schedule("bar", this.now + 500, task("bar"));
+		run(this.wheel.expire(this.now + 24));
+		assertThat(this.fired, empty());
+		run(this.wheel.expire(this.now + 40));
+		assertThat(this.fired, contains("foo"));
+		// 'bar' is more than a full rotation away; its bucket has been visited
+		run(this.wheel.expire(this.now + 100));
+		assertThat(this.fired, contains("foo"));
+		assertEquals(1, this.wheel.size());
+		run(this.wheel.expire(this.now + 510));
+		assertThat(this.fired, contains("foo", "bar"));
+		assertEquals(0, this.wheel.size());
+	}
+
+	@Test
+	public void testCancelAndReschedule() {
+		this.wheel.schedule("foo", this.now + 20, task("foo"));
+		this.wheel.schedule("bar", this.now + 20, task("bar"));
+		this.wheel.schedule("baz", this.now + 20, task("baz"));
+		assertTrue(this.wheel.cancel("bar"));
+		assertFalse(this.wheel.cancel("bar"));
+		this.wheel.schedule("foo", this.now + 200, task("foo"));
+		run(this.wheel.expire(this.now + 50));
+		assertThat(this.fired, contains("baz"));
+		run(this.wheel.expire(this.now + 210));
+		assertThat(this.fired, contains("baz", "foo"));
+	}
+
+	@Test
+	public void testOverdueTasksFireOnNextExpiry() {
+		run(this.wheel.expire(this.now + 1000));
+		this.wheel.schedule("foo", this.now, task("foo"));
+		run(this.wheel.expire(this.now + 1000));
+		assertThat(this.fired, empty());
+		run(this.wheel.expire(this.now + 1010));
+		assertThat(this.fired, contains("foo"));
+	}
+
+	@Test
+	public void testManyTimeoutsInOneBatch() {
+		for (int i = 0; i < 10000; i++) {
+			this.wheel.schedule("foo" + i, this.now + i % 100, task("foo"));
+		}
+		List<Runnable> due = this.wheel.expire(this.now + 1000);
+		assertEquals(10000, due.size());
+		assertEquals(0, this.wheel.size());
+	}
+
+	private Runnable task(String name) {
+		return () -> this.fired.add(name);
+	}
+
+	private static void run(List<Runnable> tasks) {
+		tasks.forEach(Runnable::run);
+	}
+
+}
@@ -62,6 +62,8 @@ public abstract class AbstractRemoteFileInboundChannelAdapterParser extends Abst
 		String remoteFileSeparator = element.getAttribute("remote-file-separator");
 		synchronizerBuilder.addPropertyValue("remoteFileSeparator", remoteFileSeparator);
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(synchronizerBuilder, element, "temporary-file-suffix");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(synchronizerBuilder, element, "concurrency");
+		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(synchronizerBuilder, element, "task-executor");
 
 		FileParserUtils.configureFilter(synchronizerBuilder, element, parserContext,
 				getSimplePatternFileListFilterClass(), getRegexPatternFileListFilterClass(),
@@ -82,6 +82,8 @@ public abstract class AbstractRemoteFileOutboundGatewayParser extends AbstractCo
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "local-filename-generator-expression",
 				"localFilenameGeneratorExpressionString");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "mode", "fileExistsMode");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "concurrency");
+		IntegrationNamespaceUtils.setReferenceIfAttributeDefined(builder, element, "task-executor");
 		postProcessBuilder(builder, element);
 		return builder;
 	}
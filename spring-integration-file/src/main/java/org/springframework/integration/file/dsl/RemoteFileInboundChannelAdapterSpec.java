@@ -19,6 +19,7 @@ package org.springframework.integration.file.dsl;
 import java.io.File;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import org.springframework.expression.Expression;
@@ -245,6 +246,31 @@ public abstract class RemoteFileInboundChannelAdapterSpec<F, S extends RemoteFil
 		return _this();
 	}
 
+	/**
+	 * Set the number of sessions used to transfer files concurrently; each local file
+	 * is emitted as soon as it has been transferred.
+	 * @param concurrency the number of concurrent transfers.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see AbstractInboundFileSynchronizer#setConcurrency(int)
+	 */
+	public S concurrency(int concurrency) {
+		this.synchronizer.setConcurrency(concurrency);
+		return _this();
+	}
+
+	/**
+	 * Set the executor used to run concurrent transfers.
+	 * @param taskExecutor the executor.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see AbstractInboundFileSynchronizer#setTaskExecutor(Executor)
+	 */
+	public S taskExecutor(Executor taskExecutor) {
+		this.synchronizer.setTaskExecutor(taskExecutor);
+		return _this();
+	}
+
 	@Override
 	public Map<Object, String> getComponentsToRegister() {
 		Map<Object, String> componentsToRegister = new LinkedHashMap<>();
@@ -19,6 +19,7 @@ package org.springframework.integration.file.dsl;
 import java.io.File;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import org.springframework.expression.Expression;
@@ -351,6 +352,31 @@ public abstract class RemoteFileOutboundGatewaySpec<F, S extends RemoteFileOutbo
 		return _this();
 	}
 
+	/**
+	 * Set the number of sessions used to transfer files concurrently with the MGET
+	 * and MPUT commands.
+	 * @param concurrency the number of concurrent transfers.
+	 * @return the current Spec
+	 * @since 5.0.1
+	 * @see AbstractRemoteFileOutboundGateway#setConcurrency(int)
+	 */
+	public S concurrency(int concurrency) {
+		this.target.setConcurrency(concurrency);
+		return _this();
+	}
+
+	/**
+	 * Set the executor used to run concurrent MGET and MPUT transfers.
+	 * @param taskExecutor the executor.
+	 * @return the current Spec
+	 * @since 5.0.1
+	 * @see AbstractRemoteFileOutboundGateway#setTaskExecutor(Executor)
+	 */
+	public S taskExecutor(Executor taskExecutor) {
+		this.target.setTaskExecutor(taskExecutor);
+		return _this();
+	}
+
 
 	@Override
 	public Map<Object, String> getComponentsToRegister() {
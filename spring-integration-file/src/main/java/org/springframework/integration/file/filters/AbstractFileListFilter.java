@@ -30,7 +30,7 @@ import java.util.List;
 public abstract class AbstractFileListFilter<F> implements FileListFilter<F> {
 
 	@Override
-	public final List<F> filterFiles(F[] files) {
+	public List<F> filterFiles(F[] files) {
 		List<F> accepted = new ArrayList<F>();
 		if (files != null) {
 			for (F file : files) {
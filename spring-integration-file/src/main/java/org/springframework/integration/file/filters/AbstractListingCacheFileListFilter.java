@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.filters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link FileListFilter} that remembers the entries (name, size and modified time)
+ * of the previous listing; on the next listing, entries which are unchanged are
+ * discarded without being passed to the delegate, so only new or changed entries
+ * reach the (possibly expensive) delegate filters, such as an
+ * {@link AbstractPersistentAcceptOnceFileListFilter}. By default, entries rejected by
+ * the delegate are remembered too, so, for example, files already accepted by a
+ * persistent filter before a restart are only presented to it once; when the
+ * delegate's decision about an unchanged entry can change (for example, a filter on
+ * the age of the files), set {@link #setCacheRejected(boolean) cacheRejected} to
+ * false, so rejected entries are presented to the delegate again on the next listing.
+ * Since entries are identified by name, an instance should only be used by a single
+ * source.
+ * <p>
+ * Optionally, remote file sources can consult the
+ * {@link #setDirectoryModifiedCheck(boolean) directory modified check} before listing
+ * the directory at all; when the directory's modified time has not changed since the
+ * last listing, the listing is skipped. A full listing is still performed every
+ * {@link #setFullListingInterval(long) fullListingInterval}, because a directory's
+ * modified time does not change when a file is modified in place, and it usually has
+ * a one-second resolution.
+ *
+ * @param <F> the type of file.
+ *
+ * @since 5.0.1
+ */
+public abstract class AbstractListingCacheFileListFilter<F>
+		implements ReversibleFileListFilter<F>, ResettableFileListFilter<F>, Closeable {
+
+	private static final long DEFAULT_FULL_LISTING_INTERVAL = 60000;
+
+	private final FileListFilter<F> delegate;
+
+	private final Object monitor = new Object();
+
+	private Map<String, String> listing = new HashMap<>();
+
+	private final Map<String, Long> directoryModified = new HashMap<>();
+
+	private final Map<String, Long> directoryListed = new HashMap<>();
+
+	private String pendingDirectory;
+
+	private long pendingModified;
+
+	private long pendingListed;
+
+	private volatile boolean directoryModifiedCheck;
+
+	private volatile long fullListingInterval = DEFAULT_FULL_LISTING_INTERVAL;
+
+	private volatile boolean cacheRejected = true;
+
+	public AbstractListingCacheFileListFilter(FileListFilter<F> delegate) {
+		Assert.notNull(delegate, "'delegate' cannot be null");
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Set to true to allow remote file sources to skip listing a directory when its
+	 * modified time has not changed since the previous listing. Only effective when
+	 * the session can determine a directory's modified time. Default false.
+	 * @param directoryModifiedCheck true to enable the check.
+	 */
+	public void setDirectoryModifiedCheck(boolean directoryModifiedCheck) {
+		this.directoryModifiedCheck = directoryModifiedCheck;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) for which listings can be skipped by the
+	 * {@link #setDirectoryModifiedCheck(boolean) directory modified check}; a full
+	 * listing is always performed when this time has elapsed since the last one.
+	 * Default 60 seconds.
+	 * @param fullListingInterval the interval.
+	 */
+	public void setFullListingInterval(long fullListingInterval) {
+		this.fullListingInterval = fullListingInterval;
+	}
+
+	/**
+	 * Set to false to present the entries rejected by the delegate to it again on the
+	 * next listing, even if they have not changed; required when the delegate's
+	 * decision depends on more than the entry itself (for example, its age). Default
+	 * true.
+	 * @param cacheRejected false to only remember the accepted entries.
+	 */
+	public void setCacheRejected(boolean cacheRejected) {
+		this.cacheRejected = cacheRejected;
+	}
+
+	public boolean isDirectoryModifiedCheck() {
+		return this.directoryModifiedCheck;
+	}
+
+	/**
+	 * Determine whether the directory has to be listed; it has to be unless the
+	 * {@link #setDirectoryModifiedCheck(boolean) directory modified check} is enabled,
+	 * the directory's modified time is known and has not changed since the last
+	 * listing, and the {@link #setFullListingInterval(long) fullListingInterval} has not
+	 * elapsed. The state is only updated when the listing is then
+	 * {@link #filterFiles(Object[]) filtered}, so a failed listing does not cause the
+	 * next one to be skipped.
+	 * @param directory the directory.
+	 * @param lastModified the directory's modified time, or a negative value if unknown.
+	 * @return true if the directory has to be listed.
+	 */
+	public boolean isListingRequired(String directory, long lastModified) {
+		if (!this.directoryModifiedCheck || lastModified < 0) {
+			return true;
+		}
+		String key = directory == null ? "" : directory;
+		long now = System.currentTimeMillis();
+		synchronized (this.monitor) {
+			Long previous = this.directoryModified.get(key);
+			if (previous != null && previous == lastModified
+					&& now - this.directoryListed.get(key) < this.fullListingInterval) {
+				return false;
+			}
+			this.pendingDirectory = key;
+			this.pendingModified = lastModified;
+			this.pendingListed = now;
+			return true;
+		}
+	}
+
+	@Override
+	public List<F> filterFiles(F[] files) {
+		if (files == null || files.length == 0) {
+			synchronized (this.monitor) {
+				this.listing = new HashMap<>();
+				commitDirectory();
+			}
+			return Collections.emptyList();
+		}
+		synchronized (this.monitor) {
+			Map<String, String> retained = new HashMap<>();
+			F[] candidates = Arrays.copyOf(files, files.length);
+			String[] candidateSignatures = new String[files.length];
+			int n = 0;
+			for (F file : files) {
+				String name = fileName(file);
+				String signature = signature(file);
+				if (signature.equals(this.listing.get(name))) {
+					retained.put(name, signature);
+				}
+				else {
+					candidateSignatures[n] = signature;
+					candidates[n++] = file;
+				}
+			}
+			List<F> accepted = n == 0
+					? Collections.<F>emptyList()
+					: this.delegate.filterFiles(Arrays.copyOf(candidates, n));
+			if (this.cacheRejected) {
+				for (int i = 0; i < n; i++) {
+					retained.put(fileName(candidates[i]), candidateSignatures[i]);
+				}
+			}
+			else {
+				for (F file : accepted) {
+					retained.put(fileName(file), signature(file));
+				}
+			}
+			this.listing = retained;
+			commitDirectory();
+			return accepted;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The rolled back files are forgotten, so they are presented to the delegate
+	 * again on the next listing, which is always performed.
+	 */
+	@Override
+	public void rollback(F file, List<F> files) {
+		boolean rollingBack = false;
+		synchronized (this.monitor) {
+			for (F fileToRollback : files) {
+				if (fileToRollback.equals(file)) {
+					rollingBack = true;
+				}
+				if (rollingBack) {
+					this.listing.remove(fileName(fileToRollback));
+				}
+			}
+			invalidateDirectories();
+		}
+		if (this.delegate instanceof ReversibleFileListFilter) {
+			((ReversibleFileListFilter<F>) this.delegate).rollback(file, files);
+		}
+	}
+
+	@Override
+	public boolean remove(F f) {
+		boolean removed;
+		synchronized (this.monitor) {
+			removed = this.listing.remove(fileName(f)) != null;
+			invalidateDirectories();
+		}
+		if (this.delegate instanceof ResettableFileListFilter) {
+			removed = ((ResettableFileListFilter<F>) this.delegate).remove(f);
+		}
+		return removed;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.delegate instanceof Closeable) {
+			((Closeable) this.delegate).close();
+		}
+	}
+
+	private void commitDirectory() {
+		if (this.pendingDirectory != null) {
+			this.directoryModified.put(this.pendingDirectory, this.pendingModified);
+			this.directoryListed.put(this.pendingDirectory, this.pendingListed);
+			this.pendingDirectory = null;
+		}
+	}
+
+	private void invalidateDirectories() {
+		this.directoryModified.clear();
+		this.directoryListed.clear();
+		this.pendingDirectory = null;
+	}
+
+	private String signature(F file) {
+		return modified(file) + ":" + size(file);
+	}
+
+	protected abstract String fileName(F file);
+
+	protected abstract long modified(F file);
+
+	protected abstract long size(F file);
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2013-2016 the original author or authors.
+ * Copyright 2013-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,16 +19,31 @@ package org.springframework.integration.file.filters;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
 import org.springframework.integration.metadata.ConcurrentMetadataStore;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Stores "seen" files in a MetadataStore to survive application restarts.
  * The default key is 'prefix' plus the absolute file name; value is the timestamp of the file.
  * Files are deemed as already 'seen' if they exist in the store and have the
  * same modified time as the current file.
+ * <p>
+ * A listing is filtered with the store's bulk {@link ConcurrentMetadataStore#putIfAbsent(Map)}
+ * and {@link ConcurrentMetadataStore#replace(Map, Map)} operations, rather than one
+ * {@link #accept(Object)} per file, and the store is flushed (if needed) once per listing;
+ * when a subclass overrides {@link #accept(Object)}, the listing is filtered one file at
+ * a time with that method instead.
  *
  * @author Gary Russell
  * @since 3.0
@@ -47,6 +62,8 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 
 	private final Object monitor = new Object();
 
+	private final boolean acceptOverridden;
+
 	public AbstractPersistentAcceptOnceFileListFilter(ConcurrentMetadataStore store, String prefix) {
 		Assert.notNull(store, "'store' cannot be null");
 		Assert.notNull(prefix, "'prefix' cannot be null");
@@ -58,6 +75,9 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 		else {
 			this.flushableStore = null;
 		}
+		Method accept = ReflectionUtils.findMethod(getClass(), "accept", Object.class);
+		this.acceptOverridden = accept == null
+				|| !AbstractPersistentAcceptOnceFileListFilter.class.equals(accept.getDeclaringClass());
 	}
 
 	/**
@@ -69,6 +89,57 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 		this.flushOnUpdate = flushOnUpdate;
 	}
 
+	@Override
+	public List<F> filterFiles(F[] files) {
+		if (this.acceptOverridden) {
+			return super.filterFiles(files);
+		}
+		List<F> accepted = new ArrayList<F>();
+		if (files == null || files.length == 0) {
+			return accepted;
+		}
+		Map<String, F> filesByKey = new LinkedHashMap<>();
+		Map<String, String> newValues = new LinkedHashMap<>();
+		for (F file : files) {
+			String key = buildKey(file);
+			filesByKey.put(key, file);
+			newValues.put(key, value(file));
+		}
+		Set<String> acceptedKeys;
+		synchronized (this.monitor) {
+			Map<String, String> existing = this.store.putIfAbsent(newValues);
+			acceptedKeys = new HashSet<>(newValues.keySet());
+			acceptedKeys.removeAll(existing.keySet());
+			Map<String, String> oldValues = new HashMap<>();
+			Map<String, String> replacements = new HashMap<>();
+			for (Entry<String, String> entry : existing.entrySet()) {
+				String key = entry.getKey();
+				if (!isEqual(filesByKey.get(key), entry.getValue())) {
+					oldValues.put(key, entry.getValue());
+					replacements.put(key, newValues.get(key));
+				}
+			}
+			if (!oldValues.isEmpty()) {
+				acceptedKeys.addAll(this.store.replace(oldValues, replacements));
+			}
+			if (!acceptedKeys.isEmpty()) {
+				flushIfNeeded();
+			}
+		}
+		for (F file : files) {
+			// a key listed twice is only accepted once
+			if (acceptedKeys.remove(buildKey(file))) {
+				accepted.add(file);
+			}
+		}
+		return accepted;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Since 5.0.1, {@link #filterFiles(Object[])} doesn't call this method unless it is
+	 * overridden, in which case the store's bulk operations are not used.
+	 */
 	@Override
 	public boolean accept(F file) {
 		String key = buildKey(file);
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file.filters;
+
+import java.io.File;
+
+import org.springframework.integration.metadata.MemoryMappedMetadataStore;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link FileSystemPersistentAcceptOnceFileListFilter} which records the files it has
+ * seen (the hash of their path, and their modified time) in its own
+ * {@link MemoryMappedMetadataStore}; the store is closed when the filter is closed.
+ *
+ * @since 5.0.1
+ *
+ */
+public class MemoryMappedAcceptOnceFileListFilter extends FileSystemPersistentAcceptOnceFileListFilter {
+
+	/**
+	 * Construct an instance recording the seen files in the provided file, which is
+	 * created if necessary.
+	 * @param indexFile the file.
+	 */
+	public MemoryMappedAcceptOnceFileListFilter(File indexFile) {
+		this(indexFile, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Construct an instance recording at most {@code maxCapacity} seen files in the
+	 * provided file, which is created if necessary; the least recently recorded files
+	 * are forgotten first.
+	 * @param indexFile the file.
+	 * @param maxCapacity the maximum number of files to remember.
+	 * @see MemoryMappedMetadataStore#setMaxEntries(int)
+	 */
+	public MemoryMappedAcceptOnceFileListFilter(File indexFile, int maxCapacity) {
+		super(createStore(indexFile, maxCapacity), "");
+	}
+
+	private static MemoryMappedMetadataStore createStore(File indexFile, int maxCapacity) {
+		Assert.notNull(indexFile, "'indexFile' cannot be null");
+		File absoluteFile = indexFile.getAbsoluteFile();
+		MemoryMappedMetadataStore store = new MemoryMappedMetadataStore();
+		store.setMaxEntries(maxCapacity);
+		store.setBaseDirectory(absoluteFile.getParent());
+		store.setFileName(absoluteFile.getName());
+		store.afterPropertiesSet();
+		return store;
+	}
+
+}
@@ -35,6 +35,7 @@ import org.springframework.expression.common.LiteralExpression;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.endpoint.AbstractFetchLimitingMessageSource;
 import org.springframework.integration.file.FileHeaders;
+import org.springframework.integration.file.filters.AbstractListingCacheFileListFilter;
 import org.springframework.integration.file.filters.FileListFilter;
 import org.springframework.integration.file.filters.ReversibleFileListFilter;
 import org.springframework.integration.file.remote.session.Session;
@@ -191,7 +192,10 @@ public abstract class AbstractRemoteFileStreamingMessageSource<F>
 
 	private void listFiles() {
 		String remoteDirectory = this.remoteDirectoryExpression.getValue(getEvaluationContext(), String.class);
-		F[] files = this.remoteFileTemplate.list(remoteDirectory);
+		F[] files = this.remoteFileTemplate.execute(session -> listRemoteDirectory(session, remoteDirectory));
+		if (files == null) {
+			return;
+		}
 		int maxFetchSize = getMaxFetchSize();
 		List<F> filteredFiles = this.filter == null ? Arrays.asList(files) : this.filter.filterFiles(files);
 		if (maxFetchSize > 0 && filteredFiles.size() > maxFetchSize) {
@@ -219,6 +223,20 @@ public abstract class AbstractRemoteFileStreamingMessageSource<F>
 		this.toBeReceived.addAll(fileInfoList);
 	}
 
+	private F[] listRemoteDirectory(Session<F> session, String remoteDirectory) throws IOException {
+		if (this.filter instanceof AbstractListingCacheFileListFilter) {
+			AbstractListingCacheFileListFilter<F> cache = (AbstractListingCacheFileListFilter<F>) this.filter;
+			if (cache.isDirectoryModifiedCheck() && remoteDirectory != null
+					&& !cache.isListingRequired(remoteDirectory, session.lastModified(remoteDirectory))) {
+				if (this.logger.isTraceEnabled()) {
+					this.logger.trace("Remote directory " + remoteDirectory + " not modified - listing skipped");
+				}
+				return null;
+			}
+		}
+		return session.list(remoteDirectory);
+	}
+
 	protected void rollbackFromFileToListEnd(List<F> filteredFiles, F file) {
 		if (this.filter instanceof ReversibleFileListFilter) {
 			((ReversibleFileListFilter<F>) this.filter)
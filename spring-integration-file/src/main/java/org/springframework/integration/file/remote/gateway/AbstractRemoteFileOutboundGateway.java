@@ -28,9 +28,22 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
@@ -55,6 +68,7 @@ import org.springframework.integration.support.PartialSuccessException;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
@@ -67,7 +81,8 @@ import org.springframework.util.StringUtils;
  *
  * @since 2.1
  */
-public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReplyProducingMessageHandler {
+public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReplyProducingMessageHandler
+		implements DisposableBean {
 
 	protected final RemoteFileTemplate<F> remoteFileTemplate;
 
@@ -249,6 +264,12 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 
 	private volatile Integer chmod;
 
+	private volatile int concurrency = 1;
+
+	private volatile Executor taskExecutor;
+
+	private ExecutorService internalExecutor;
+
 	/**
 	 * Construct an instance using the provided session factory and callback for
 	 * performing operations on the session.
@@ -523,6 +544,50 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 		return false;
 	}
 
+	/**
+	 * Set the number of sessions used to transfer files concurrently with the
+	 * {@code mget} and {@code mput} commands. When greater than one, the files are
+	 * listed as usual, then the transfers are fanned out over that many sessions:
+	 * the session used for the listing, and up to {@code concurrency - 1} more obtained
+	 * from the session factory. If fewer sessions are available (for example from a
+	 * smaller {@link org.springframework.integration.file.remote.session.CachingSessionFactory}),
+	 * the transfers proceed on those that are. The reply contains the files in the order
+	 * in which their transfers completed. After a failure, no further transfers are
+	 * started and a {@link PartialSuccessException} reports the files transferred so
+	 * far; failures of transfers that were already in progress are added as
+	 * suppressed exceptions to its cause. Default 1 - files are transferred one after
+	 * the other, on a single session.
+	 * @param concurrency the number of concurrent transfers.
+	 * @since 5.0.1
+	 * @see #setTaskExecutor(Executor)
+	 */
+	public void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "'concurrency' must be greater than 0");
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Set the executor used to run concurrent transfers; it should be able to run
+	 * {@link #setConcurrency(int) concurrency - 1} tasks at the same time (the calling
+	 * thread runs the transfers of the remaining session). By default, a fixed thread
+	 * pool of that size is created, and shut down when this gateway
+	 * is destroyed.
+	 * @param taskExecutor the executor.
+	 * @since 5.0.1
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	@Override
+	public synchronized void destroy() throws Exception {
+		if (this.internalExecutor != null) {
+			this.internalExecutor.shutdown();
+			this.internalExecutor = null;
+		}
+	}
+
 	@Override
 	protected void doInit() {
 		Assert.state(this.command != null || this.messageSessionCallback != null,
@@ -828,7 +893,8 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 	/**
 	 * Put files from the provided directory to the remote server recursively.
 	 * The message can be consulted to determine some context.
-	 * The session argument isn't used in the default implementation.
+	 * The session argument is only used in the default implementation when the
+	 * {@link #setConcurrency(int) concurrency} is greater than one.
 	 * @param message the request message related to this mPut command
 	 * @param session the remote protocol session for this invocation context
 	 * @param localDir the local directory to mput to the server
@@ -836,9 +902,53 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 	 * @since 5.0
 	 */
 	protected List<String> mPut(Message<?> message, Session<F> session, File localDir) {
+		if (this.concurrency > 1) {
+			return putLocalDirectoryConcurrently(message, session, localDir);
+		}
 		return putLocalDirectory(message, localDir, null);
 	}
 
+	private List<String> putLocalDirectoryConcurrently(Message<?> requestMessage, Session<F> session,
+			File localDir) {
+		Map<File, String> subDirectories = new LinkedHashMap<>();
+		collectLocalFiles(localDir, null, subDirectories);
+		List<File> files = new ArrayList<>(subDirectories.keySet());
+		Set<String> createdSubDirectories = ConcurrentHashMap.newKeySet();
+		try {
+			return transferConcurrently(requestMessage, session, files, (transferSession, file) -> {
+				String subDirectory = subDirectories.get(file);
+				String key = subDirectory == null ? "" : subDirectory;
+				Message<File> message = new MutableMessage<>(file, requestMessage.getHeaders());
+				if (createdSubDirectories.contains(key)) {
+					return put(message, transferSession, subDirectory);
+				}
+				// the first transfer to each directory creates it; avoid racing to do so
+				synchronized (createdSubDirectories) {
+					String path = put(message, transferSession, subDirectory);
+					createdSubDirectories.add(key);
+					return path;
+				}
+			}, "Partially successful 'mput' operation", files);
+		}
+		catch (IOException e) {
+			throw new MessageHandlingException(requestMessage, "Failed to process MPUT", e);
+		}
+	}
+
+	private void collectLocalFiles(File directory, String subDirectory, Map<File, String> subDirectories) {
+		for (File file : filterMputFiles(directory.listFiles())) {
+			if (!file.isDirectory()) {
+				subDirectories.put(file, subDirectory);
+			}
+			else if (this.options.contains(Option.RECURSIVE)) {
+				String newSubDirectory = (StringUtils.hasText(subDirectory) ?
+						subDirectory + this.remoteFileTemplate.getRemoteFileSeparator() : "")
+						+ file.getName();
+				collectLocalFiles(file, newSubDirectory, subDirectories);
+			}
+		}
+	}
+
 	private List<String> putLocalDirectory(Message<?> requestMessage, File file, String subDirectory) {
 		File[] files = file.listFiles();
 		List<File> filteredFiles = this.filterMputFiles(files);
@@ -1129,6 +1239,9 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 					+ (remoteDirectory != null ? remoteDirectory : "Client Working Directory")
 					+ " with pattern " + remoteFilename);
 		}
+		if (this.concurrency > 1) {
+			return getConcurrently(message, session, remoteDirectory, remoteFiles);
+		}
 		try {
 			for (AbstractFileInfo<F> lsEntry : remoteFiles) {
 				if (lsEntry.isDirectory()) {
@@ -1176,6 +1289,9 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 					+ (remoteDirectory != null ? remoteDirectory : "Client Working Directory")
 					+ " with pattern " + remoteFilename);
 		}
+		if (this.concurrency > 1) {
+			return getConcurrently(message, session, remoteDirectory, fileNames);
+		}
 		try {
 			for (AbstractFileInfo<F> lsEntry : fileNames) {
 				String fullFileName = remoteDirectory != null
@@ -1213,6 +1329,129 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 		return files;
 	}
 
+	private List<File> getConcurrently(Message<?> message, Session<F> session, String remoteDirectory,
+			List<AbstractFileInfo<F>> remoteFiles) throws IOException {
+
+		List<AbstractFileInfo<F>> files = new ArrayList<>();
+		for (AbstractFileInfo<F> lsEntry : remoteFiles) {
+			if (!lsEntry.isDirectory()) {
+				files.add(lsEntry);
+			}
+		}
+		return transferConcurrently(message, session, files, (transferSession, lsEntry) -> {
+			String fullFileName = remoteDirectory != null
+					? remoteDirectory + getFilename(lsEntry)
+					: getFilename(lsEntry);
+			String fileName = getRemoteFilename(fullFileName);
+			String actualRemoteDirectory = getRemoteDirectory(fullFileName, fileName);
+			return get(message, transferSession, actualRemoteDirectory, fullFileName, fileName,
+					lsEntry.getFileInfo());
+		}, "Partially successful 'mget' operation on "
+				+ (remoteDirectory != null ? remoteDirectory : "Client Working Directory"), remoteFiles);
+	}
+
+	/**
+	 * Fan the transfers out over {@link #setConcurrency(int) concurrency} sessions, and
+	 * wait for them to complete. The calling thread transfers items on the session it
+	 * already holds, so at most {@code concurrency - 1} more sessions are borrowed; a
+	 * task which has not obtained its session by the time the calling thread runs out of
+	 * items is abandoned, so a session pool smaller than the concurrency can't deadlock.
+	 * @param message the request message.
+	 * @param callerSession the session held by the calling thread.
+	 * @param items the items to transfer.
+	 * @param transfer the transfer of a single item.
+	 * @param partialSuccessDescription the description of a partial success.
+	 * @param derivedInput the input for a {@link PartialSuccessException}.
+	 * @return the results (other than null) in the order they completed.
+	 * @throws IOException if the first transfer to fail threw one, and nothing was transferred.
+	 */
+	private <T, R> List<R> transferConcurrently(Message<?> message, Session<F> callerSession, List<T> items,
+			Transfer<F, T, R> transfer, String partialSuccessDescription, Collection<?> derivedInput)
+			throws IOException {
+
+		Queue<T> pending = new ConcurrentLinkedQueue<>(items);
+		Queue<R> results = new ConcurrentLinkedQueue<>();
+		Queue<Exception> failures = new ConcurrentLinkedQueue<>();
+		Consumer<Session<F>> drain = session -> {
+			T item;
+			while (failures.isEmpty() && (item = pending.poll()) != null) {
+				try {
+					R result = transfer.transfer(session, item);
+					if (result != null) {
+						results.add(result);
+					}
+				}
+				catch (Exception e) {
+					failures.add(e);
+				}
+			}
+		};
+		Executor executor = obtainTaskExecutor();
+		int helpers = Math.max(Math.min(this.concurrency, items.size()) - 1, 0);
+		AtomicBoolean[] claims = new AtomicBoolean[helpers];
+		CompletableFuture<?>[] helperTransfers = new CompletableFuture<?>[helpers];
+		for (int i = 0; i < helpers; i++) {
+			AtomicBoolean claimed = new AtomicBoolean();
+			claims[i] = claimed;
+			helperTransfers[i] = CompletableFuture.runAsync(() -> {
+				if (!claimed.get()) {
+					this.remoteFileTemplate.invoke(operations -> {
+						if (claimed.compareAndSet(false, true)) {
+							drain.accept(operations.getSession());
+						}
+						return null;
+					});
+				}
+			}, executor);
+		}
+		drain.accept(callerSession);
+		List<CompletableFuture<?>> running = new ArrayList<>();
+		for (int i = 0; i < helpers; i++) {
+			if (!claims[i].compareAndSet(false, true)) {
+				running.add(helperTransfers[i]);
+			}
+		}
+		CompletableFuture<?>[] transfers = running.toArray(new CompletableFuture<?>[running.size()]);
+		try {
+			CompletableFuture.allOf(transfers).join();
+		}
+		catch (CompletionException e) {
+			failures.add(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+		}
+		if (!failures.isEmpty()) {
+			Iterator<Exception> iterator = failures.iterator();
+			Exception cause = iterator.next();
+			while (iterator.hasNext()) {
+				cause.addSuppressed(iterator.next());
+			}
+			if (!results.isEmpty() || cause instanceof PartialSuccessException) {
+				throw new PartialSuccessException(message, partialSuccessDescription, cause,
+						new ArrayList<>(results), derivedInput);
+			}
+			else if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			else {
+				throw new MessagingException(message, "Failed to process the first file", cause);
+			}
+		}
+		return new ArrayList<>(results);
+	}
+
+	private synchronized Executor obtainTaskExecutor() {
+		if (this.taskExecutor != null) {
+			return this.taskExecutor;
+		}
+		if (this.internalExecutor == null) {
+			this.internalExecutor = Executors.newFixedThreadPool(Math.max(this.concurrency - 1, 1),
+					new CustomizableThreadFactory("remote-file-transfer-"));
+		}
+		return this.internalExecutor;
+	}
+
 	private String getRemoteDirectory(String remoteFilePath, String remoteFilename) {
 		String remoteDir = remoteFilePath.substring(0, remoteFilePath.lastIndexOf(remoteFilename));
 		if (remoteDir.length() == 0) {
@@ -1243,7 +1482,9 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 		File localDir = ExpressionUtils.expressionToFile(this.localDirectoryExpression, evaluationContext, message,
 				"Local Directory");
 		if (!localDir.exists()) {
-			Assert.isTrue(localDir.mkdirs(), "Failed to make local directory: " + localDir);
+			// concurrent transfers may race to make the same directory
+			Assert.isTrue(localDir.mkdirs() || localDir.isDirectory(),
+					"Failed to make local directory: " + localDir);
 		}
 		return localDir;
 	}
@@ -1271,4 +1512,14 @@ public abstract class AbstractRemoteFileOutboundGateway<F> extends AbstractReply
 
 	abstract protected F enhanceNameWithSubDirectory(F file, String directory);
 
+	/**
+	 * A single transfer performed by a concurrent {@code mget} or {@code mput}.
+	 */
+	@FunctionalInterface
+	private interface Transfer<F, T, R> {
+
+		R transfer(Session<F> session, T item) throws IOException;
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,17 @@ package org.springframework.integration.file.remote.session;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.util.ConcurrentPool;
+import org.springframework.integration.util.Pool;
 import org.springframework.integration.util.SimplePool;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 
 /**
@@ -44,12 +49,18 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 
 	private final SessionFactory<F> sessionFactory;
 
-	private final SimplePool<Session<F>> pool;
+	private final Pool<Session<F>> pool;
 
 	private final boolean isSharedSessionCapable;
 
 	private volatile long sharedSessionEpoch;
 
+	private TaskScheduler taskScheduler;
+
+	private long evictionInterval;
+
+	private ScheduledFuture<?> evictionFuture;
+
 	/**
 	 * Create a CachingSessionFactory with an unlimited number of sessions.
 	 *
@@ -72,10 +83,25 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 	 * @param sessionCacheSize The maximum cache size.
 	 */
 	public CachingSessionFactory(SessionFactory<F> sessionFactory, int sessionCacheSize) {
+		this(sessionFactory, sessionCacheSize, false);
+	}
+
+	/**
+	 * Create a CachingSessionFactory with the specified session limit, optionally using
+	 * a {@link ConcurrentPool}, which does not use locks to borrow and return sessions,
+	 * supports {@link #getSessionAsync()} without blocking, and can evict idle sessions
+	 * ({@link #setMaxIdleTime(long)}).
+	 * @param sessionFactory The underlying session factory.
+	 * @param sessionCacheSize The maximum cache size.
+	 * @param concurrentPool true to use a {@link ConcurrentPool} rather than a
+	 * {@link SimplePool}.
+	 * @since 5.0.1
+	 */
+	public CachingSessionFactory(SessionFactory<F> sessionFactory, int sessionCacheSize, boolean concurrentPool) {
 		Assert.isTrue(!(sessionFactory instanceof DelegatingSessionFactory),
 				"'sessionFactory' cannot be a 'DelegatingSessionFactory'; cache each delegate instead");
 		this.sessionFactory = sessionFactory;
-		this.pool = new SimplePool<Session<F>>(sessionCacheSize, new SimplePool.PoolItemCallback<Session<F>>() {
+		SimplePool.PoolItemCallback<Session<F>> callback = new SimplePool.PoolItemCallback<Session<F>>() {
 			@Override
 			public Session<F> createForPool() {
 				return CachingSessionFactory.this.sessionFactory.getSession();
@@ -90,7 +116,10 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 			public void removedFromPool(Session<F> session) {
 				session.close();
 			}
-		});
+		};
+		this.pool = concurrentPool
+				? new ConcurrentPool<Session<F>>(sessionCacheSize, callback)
+				: new SimplePool<Session<F>>(sessionCacheSize, callback);
 		this.isSharedSessionCapable = sessionFactory instanceof SharedSessionCapable;
 	}
 
@@ -102,7 +131,12 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 	 * @throws IllegalStateException if the wait expires prior to a Session becoming available.
 	 */
 	public void setSessionWaitTimeout(long sessionWaitTimeout) {
-		this.pool.setWaitTimeout(sessionWaitTimeout);
+		if (this.pool instanceof ConcurrentPool) {
+			((ConcurrentPool<Session<F>>) this.pool).setWaitTimeout(sessionWaitTimeout);
+		}
+		else {
+			((SimplePool<Session<F>>) this.pool).setWaitTimeout(sessionWaitTimeout);
+		}
 	}
 
 	/**
@@ -112,7 +146,85 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 	 * @param poolSize The pool size.
 	 */
 	public void setPoolSize(int poolSize) {
-		this.pool.setPoolSize(poolSize);
+		if (this.pool instanceof ConcurrentPool) {
+			((ConcurrentPool<Session<F>>) this.pool).setPoolSize(poolSize);
+		}
+		else {
+			((SimplePool<Session<F>>) this.pool).setPoolSize(poolSize);
+		}
+	}
+
+	/**
+	 * Set the time after which idle sessions are closed and removed from the pool.
+	 * Unless an {@link #setEvictionInterval(long) eviction interval} is set, eviction is
+	 * performed by a borrowing thread, at most once per this time.
+	 * Requires a {@link ConcurrentPool}.
+	 * @param maxIdleTime the time in milliseconds.
+	 * @since 5.0.1
+	 * @see ConcurrentPool#setMaxIdleTime(long)
+	 * @see ConcurrentPool#setEvictionInterval(long)
+	 */
+	public synchronized void setMaxIdleTime(long maxIdleTime) {
+		ConcurrentPool<Session<F>> concurrentPool = concurrentPool("maxIdleTime");
+		concurrentPool.setMaxIdleTime(maxIdleTime);
+		if (this.evictionInterval <= 0) {
+			concurrentPool.setEvictionInterval(maxIdleTime);
+		}
+	}
+
+	/**
+	 * Set the task scheduler used to validate and evict idle sessions when an
+	 * {@link #setEvictionInterval(long) eviction interval} is set.
+	 * @param taskScheduler the task scheduler.
+	 * @since 5.0.1
+	 */
+	public synchronized void setTaskScheduler(TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+		scheduleEviction();
+	}
+
+	/**
+	 * Set the interval at which idle sessions are validated, and closed if they are
+	 * stale or have been idle for longer than the {@link #setMaxIdleTime(long) maxIdleTime},
+	 * by a task scheduled on the {@link #setTaskScheduler(TaskScheduler) task scheduler},
+	 * rather than by borrowing threads. Requires a {@link ConcurrentPool}.
+	 * @param evictionInterval the interval in milliseconds.
+	 * @since 5.0.1
+	 * @see ConcurrentPool#scheduleEviction(TaskScheduler, long)
+	 * @see #setValidationInterval(long)
+	 */
+	public synchronized void setEvictionInterval(long evictionInterval) {
+		concurrentPool("evictionInterval").setEvictionInterval(0);
+		this.evictionInterval = evictionInterval;
+		scheduleEviction();
+	}
+
+	/**
+	 * Set the time for which an idle session, once validated (for example by the
+	 * scheduled eviction), is not validated again when it is borrowed.
+	 * Requires a {@link ConcurrentPool}.
+	 * @param validationInterval the interval in milliseconds.
+	 * @since 5.0.1
+	 * @see ConcurrentPool#setValidationInterval(long)
+	 */
+	public void setValidationInterval(long validationInterval) {
+		concurrentPool("validationInterval").setValidationInterval(validationInterval);
+	}
+
+	private ConcurrentPool<Session<F>> concurrentPool(String property) {
+		Assert.state(this.pool instanceof ConcurrentPool, "'" + property + "' requires a ConcurrentPool");
+		return (ConcurrentPool<Session<F>>) this.pool;
+	}
+
+	private void scheduleEviction() {
+		if (this.evictionFuture != null) {
+			this.evictionFuture.cancel(false);
+			this.evictionFuture = null;
+		}
+		if (this.taskScheduler != null && this.evictionInterval > 0) {
+			this.evictionFuture = concurrentPool("evictionInterval")
+					.scheduleEviction(this.taskScheduler, this.evictionInterval);
+		}
 	}
 
 	/**
@@ -123,11 +235,34 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 		return new CachedSession(this.pool.getItem(), this.sharedSessionEpoch);
 	}
 
+	/**
+	 * Get a session from the pool without blocking; when using a {@link ConcurrentPool}
+	 * and none is available, the future is completed when another session is returned
+	 * to the pool. With a {@link SimplePool}, this method blocks like
+	 * {@link #getSession()}.
+	 * @return a future for the session.
+	 * @since 5.0.1
+	 */
+	public CompletableFuture<Session<F>> getSessionAsync() {
+		if (this.pool instanceof ConcurrentPool) {
+			long epoch = this.sharedSessionEpoch;
+			return ((ConcurrentPool<Session<F>>) this.pool).getItemAsync()
+					.thenApply(session -> new CachedSession(session, epoch));
+		}
+		return CompletableFuture.completedFuture(getSession());
+	}
+
 	/**
 	 * Remove (close) any unused sessions in the pool.
 	 */
 	@Override
 	public void destroy() {
+		synchronized (this) {
+			if (this.evictionFuture != null) {
+				this.evictionFuture.cancel(false);
+				this.evictionFuture = null;
+			}
+		}
 		this.pool.removeAllIdleItems();
 	}
 
@@ -263,6 +398,11 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 			return this.targetSession.listNames(path);
 		}
 
+		@Override
+		public long lastModified(String path) throws IOException {
+			return this.targetSession.lastModified(path);
+		}
+
 		@Override
 		public InputStream readRaw(String source) throws IOException {
 			return this.targetSession.readRaw(source);
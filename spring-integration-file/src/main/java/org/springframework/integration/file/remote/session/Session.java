@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,19 @@ public interface Session<F> extends Closeable {
 
 	String[] listNames(String path) throws IOException;
 
+	/**
+	 * Return the last modified time of the remote file or directory, in milliseconds
+	 * since the epoch; the default implementation returns -1, indicating that the
+	 * session cannot determine it.
+	 * @param path the remote path.
+	 * @return the last modified time, or -1 if it cannot be determined.
+	 * @throws IOException an IO exception during remote interaction.
+	 * @since 5.0.1
+	 */
+	default long lastModified(String path) throws IOException {
+		return -1;
+	}
+
 	/**
 	 * Retrieve a remote file as a raw {@link InputStream}.
 	 * @param source The path of the remote file.
@@ -24,7 +24,18 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 
 import org.apache.commons.logging.Log;
@@ -40,13 +51,16 @@ import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.integration.expression.ExpressionUtils;
+import org.springframework.integration.file.filters.AbstractListingCacheFileListFilter;
 import org.springframework.integration.file.filters.FileListFilter;
 import org.springframework.integration.file.filters.ResettableFileListFilter;
 import org.springframework.integration.file.filters.ReversibleFileListFilter;
 import org.springframework.integration.file.remote.RemoteFileTemplate;
+import org.springframework.integration.file.remote.session.CachingSessionFactory;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.integration.file.remote.session.SessionFactory;
 import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
@@ -108,6 +122,12 @@ public abstract class AbstractInboundFileSynchronizer<F>
 	 */
 	private volatile boolean preserveTimestamp;
 
+	private volatile int concurrency = 1;
+
+	private volatile Executor taskExecutor;
+
+	private ExecutorService internalExecutor;
+
 	private BeanFactory beanFactory;
 
 	/**
@@ -220,6 +240,44 @@ public abstract class AbstractInboundFileSynchronizer<F>
 		this.preserveTimestamp = preserveTimestamp;
 	}
 
+	/**
+	 * Set the number of sessions used to transfer files concurrently. When greater
+	 * than one, the remote directory is listed and filtered as usual, then the
+	 * transfers are fanned out over that many sessions obtained from the session
+	 * factory (a {@link org.springframework.integration.file.remote.session.CachingSessionFactory}
+	 * should be able to supply them); files are taken in the order of the filtered
+	 * list, but may complete out of that order. Default 1 - files are transferred one
+	 * after the other, on the session used to list the directory.
+	 * @param concurrency the number of concurrent transfers.
+	 * @since 5.0.1
+	 * @see #setTaskExecutor(Executor)
+	 */
+	public void setConcurrency(int concurrency) {
+		Assert.isTrue(concurrency > 0, "'concurrency' must be greater than 0");
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * @return the number of concurrent transfers.
+	 * @since 5.0.1
+	 */
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+	/**
+	 * Set the executor used to run concurrent transfers; it must be able to run
+	 * {@link #setConcurrency(int) concurrency} tasks at the same time. By default,
+	 * a fixed thread pool of that size is created, and shut down when this
+	 * synchronizer is closed.
+	 * @param taskExecutor the executor.
+	 * @since 5.0.1
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "'taskExecutor' must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this.beanFactory = beanFactory;
@@ -245,12 +303,48 @@ public abstract class AbstractInboundFileSynchronizer<F>
 		return (this.filter != null) ? this.filter.filterFiles(files) : Arrays.asList(files);
 	}
 
+	/**
+	 * List the remote directory; when the filter is an
+	 * {@link AbstractListingCacheFileListFilter} with the directory modified check
+	 * enabled, the listing is skipped (and null returned) if the directory has not been
+	 * modified since the previous listing. An empty listing is passed to such a filter,
+	 * so that it can forget the previous one.
+	 * @param session the session.
+	 * @param remoteDirectory the remote directory.
+	 * @return the remote files, or null if the listing was skipped.
+	 * @throws IOException an IO exception.
+	 */
+	private F[] listFiles(Session<F> session, String remoteDirectory) throws IOException {
+		if (this.filter instanceof AbstractListingCacheFileListFilter) {
+			AbstractListingCacheFileListFilter<F> cache = (AbstractListingCacheFileListFilter<F>) this.filter;
+			if (cache.isDirectoryModifiedCheck() && remoteDirectory != null
+					&& !cache.isListingRequired(remoteDirectory, session.lastModified(remoteDirectory))) {
+				if (this.logger.isTraceEnabled()) {
+					this.logger.trace("Remote directory " + remoteDirectory + " not modified - listing skipped");
+				}
+				return null;
+			}
+			F[] files = session.list(remoteDirectory);
+			if (ObjectUtils.isEmpty(files)) {
+				cache.filterFiles(files);
+			}
+			return files;
+		}
+		return session.list(remoteDirectory);
+	}
+
 	protected String getTemporaryFileSuffix() {
 		return this.temporaryFileSuffix;
 	}
 
 	@Override
 	public void close() throws IOException {
+		synchronized (this) {
+			if (this.internalExecutor != null) {
+				this.internalExecutor.shutdown();
+				this.internalExecutor = null;
+			}
+		}
 		if (this.filter instanceof Closeable) {
 			((Closeable) this.filter).close();
 		}
@@ -263,16 +357,39 @@ public abstract class AbstractInboundFileSynchronizer<F>
 
 	@Override
 	public void synchronizeToLocalDirectory(final File localDirectory, final int maxFetchSize) {
+		if (this.concurrency > 1) {
+			try {
+				int transferred = synchronizeToLocalDirectory(localDirectory, maxFetchSize, null).get();
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug(transferred + " files transferred");
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MessagingException("Interrupted while synchronizing remote to local directory", e);
+			}
+			catch (ExecutionException e) {
+				throw unwrapSynchronizationFailure(e.getCause());
+			}
+		}
+		else {
+			synchronizeSequentially(localDirectory, maxFetchSize, null);
+		}
+	}
+
+	private int synchronizeSequentially(final File localDirectory, final int maxFetchSize,
+			final Consumer<File> transferCallback) {
+
 		if (maxFetchSize == 0) {
 			if (this.logger.isDebugEnabled()) {
 				this.logger.debug("Max Fetch Size is zero - fetch to " + localDirectory.getAbsolutePath() + " ignored");
 			}
-			return;
+			return 0;
 		}
 		final String remoteDirectory = this.remoteDirectoryExpression.getValue(this.evaluationContext, String.class);
 		try {
 			int transferred = this.remoteFileTemplate.execute(session -> {
-				F[] files = session.list(remoteDirectory);
+				F[] files = listFiles(session, remoteDirectory);
 				if (!ObjectUtils.isEmpty(files)) {
 					List<F> filteredFiles = filterFiles(files);
 					if (maxFetchSize >= 0 && filteredFiles.size() > maxFetchSize) {
@@ -292,6 +409,9 @@ public abstract class AbstractInboundFileSynchronizer<F>
 								if (!copyFileToLocalDirectory(remoteDirectory, file, localDirectory, session)) {
 									copied--;
 								}
+								else if (transferCallback != null) {
+									transferCallback.accept(localFileFor(localDirectory, file));
+								}
 							}
 						}
 						catch (RuntimeException e1) {
@@ -313,12 +433,160 @@ public abstract class AbstractInboundFileSynchronizer<F>
 			if (this.logger.isDebugEnabled()) {
 				this.logger.debug(transferred + " files transferred");
 			}
+			return transferred;
 		}
 		catch (Exception e) {
 			throw new MessagingException("Problem occurred while synchronizing remote to local directory", e);
 		}
 	}
 
+	/**
+	 * Synchronize up to maxFetchSize files to the local directory, transferring them
+	 * concurrently when {@link #setConcurrency(int) concurrency} is greater than one.
+	 * The remote directory is listed on the calling thread; the returned future
+	 * completes when all transfers have finished (when concurrency is one, the files
+	 * are also transferred on the calling thread, and the future is already complete).
+	 * The callback (if any) is invoked with each local file as soon as it has been
+	 * transferred, on the transferring thread. If a transfer fails, files that have
+	 * not been transferred are rolled back in a {@link ReversibleFileListFilter} and
+	 * the future completes exceptionally.
+	 * @param localDirectory the directory.
+	 * @param maxFetchSize the maximum files to fetch.
+	 * @param transferCallback the callback; may be null.
+	 * @return a future for the number of files transferred.
+	 * @since 5.0.1
+	 */
+	public CompletableFuture<Integer> synchronizeToLocalDirectory(File localDirectory, int maxFetchSize,
+			Consumer<File> transferCallback) {
+
+		if (this.concurrency <= 1) {
+			return CompletableFuture.completedFuture(
+					synchronizeSequentially(localDirectory, maxFetchSize, transferCallback));
+		}
+		if (maxFetchSize == 0) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Max Fetch Size is zero - fetch to " + localDirectory.getAbsolutePath() + " ignored");
+			}
+			return CompletableFuture.completedFuture(0);
+		}
+		String remoteDirectory = this.remoteDirectoryExpression.getValue(this.evaluationContext, String.class);
+		List<F> filteredFiles;
+		try {
+			filteredFiles = this.remoteFileTemplate.execute(session -> {
+				F[] files = listFiles(session, remoteDirectory);
+				if (ObjectUtils.isEmpty(files)) {
+					return Collections.<F>emptyList();
+				}
+				List<F> filtered = filterFiles(files);
+				if (maxFetchSize >= 0 && filtered.size() > maxFetchSize) {
+					rollbackFromFileToListEnd(filtered, filtered.get(maxFetchSize));
+					filtered = new ArrayList<>(filtered.subList(0, maxFetchSize));
+				}
+				return filtered;
+			});
+		}
+		catch (Exception e) {
+			throw new MessagingException("Problem occurred while synchronizing remote to local directory", e);
+		}
+		Queue<F> pending = new ConcurrentLinkedQueue<>();
+		for (F file : filteredFiles) {
+			if (file != null) {
+				pending.add(file);
+			}
+		}
+		if (pending.isEmpty()) {
+			return CompletableFuture.completedFuture(0);
+		}
+		Executor executor = obtainTaskExecutor();
+		AtomicBoolean failed = new AtomicBoolean();
+		int workers = Math.min(this.concurrency, pending.size());
+		@SuppressWarnings("unchecked")
+		CompletableFuture<Integer>[] transfers = new CompletableFuture[workers];
+		for (int i = 0; i < workers; i++) {
+			transfers[i] = CompletableFuture.supplyAsync(() ->
+					transferPending(remoteDirectory, localDirectory, pending, failed, transferCallback), executor);
+		}
+		return CompletableFuture.allOf(transfers)
+				.handle((v, t) -> {
+					if (!pending.isEmpty()) {
+						List<F> notTransferred = new ArrayList<>(pending);
+						rollbackFromFileToListEnd(notTransferred, notTransferred.get(0));
+					}
+					if (t != null) {
+						throw unwrapSynchronizationFailure(t);
+					}
+					int transferred = 0;
+					for (CompletableFuture<Integer> transfer : transfers) {
+						transferred += transfer.join();
+					}
+					return transferred;
+				});
+	}
+
+	private int transferPending(String remoteDirectory, File localDirectory, Queue<F> pending,
+			AtomicBoolean failed, Consumer<File> transferCallback) {
+
+		int copied = 0;
+		Session<F> session = null;
+		try {
+			session = this.remoteFileTemplate.getSessionFactory().getSession();
+			F file;
+			while (!failed.get() && (file = pending.poll()) != null) {
+				try {
+					if (copyFileToLocalDirectory(remoteDirectory, file, localDirectory, session)) {
+						copied++;
+						if (transferCallback != null) {
+							transferCallback.accept(localFileFor(localDirectory, file));
+						}
+					}
+				}
+				catch (IOException | RuntimeException e) {
+					rollbackFromFileToListEnd(Collections.singletonList(file), file);
+					throw e;
+				}
+			}
+			return copied;
+		}
+		catch (Exception e) {
+			failed.set(true);
+			if (session instanceof CachingSessionFactory<?>.CachedSession) {
+				((CachingSessionFactory<?>.CachedSession) session).dirty();
+			}
+			throw new MessagingException("Problem occurred while synchronizing remote to local directory", e);
+		}
+		finally {
+			if (session != null) {
+				try {
+					session.close();
+				}
+				catch (Exception e) {
+					if (this.logger.isDebugEnabled()) {
+						this.logger.debug("failed to close Session", e);
+					}
+				}
+			}
+		}
+	}
+
+	private synchronized Executor obtainTaskExecutor() {
+		if (this.taskExecutor != null) {
+			return this.taskExecutor;
+		}
+		if (this.internalExecutor == null) {
+			this.internalExecutor = Executors.newFixedThreadPool(this.concurrency,
+					new CustomizableThreadFactory("remote-file-sync-"));
+		}
+		return this.internalExecutor;
+	}
+
+	private static RuntimeException unwrapSynchronizationFailure(Throwable t) {
+		Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		return new MessagingException("Problem occurred while synchronizing remote to local directory", cause);
+	}
+
 	protected void rollbackFromFileToListEnd(List<F> filteredFiles, F file) {
 		if (this.filter instanceof ReversibleFileListFilter) {
 			((ReversibleFileListFilter<F>) this.filter)
@@ -436,6 +704,10 @@ public abstract class AbstractInboundFileSynchronizer<F>
 		return false;
 	}
 
+	private File localFileFor(File localDirectory, F remoteFile) {
+		return new File(localDirectory, generateLocalFileName(getFilename(remoteFile)));
+	}
+
 	private String generateLocalFileName(String remoteFileName) {
 		if (this.localFilenameGeneratorExpression != null) {
 			return this.localFilenameGeneratorExpression.getValue(this.evaluationContext, remoteFileName, String.class);
@@ -21,6 +21,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.BeanInitializationException;
@@ -96,6 +99,16 @@ public abstract class AbstractInboundFileSynchronizingMessageSource<F>
 	 */
 	private volatile boolean scannerExplicitlySet = false;
 
+	private final Object synchronizationMonitor = new Object();
+
+	/**
+	 * Released each time a file is transferred by a concurrent synchronization, and
+	 * when the synchronization completes.
+	 */
+	private final Semaphore transferred = new Semaphore(0);
+
+	private CompletableFuture<Integer> synchronization;
+
 	public AbstractInboundFileSynchronizingMessageSource(AbstractInboundFileSynchronizer<F> synchronizer) {
 		this(synchronizer, null);
 	}
@@ -242,19 +255,83 @@ public abstract class AbstractInboundFileSynchronizingMessageSource<F>
 	 * If the result is null, it attempts to sync up with the remote directory to populate the file source.
 	 * At most, maxFetchSize files will be fetched.
 	 * Then, it polls the file source again and returns the result, whether or not it is null.
+	 * When the synchronizer transfers files concurrently, the first file is returned as
+	 * soon as it has been transferred; the remaining files are returned by subsequent
+	 * polls while the synchronization continues.
 	 * @param maxFetchSize the maximum files to fetch.
+	 * @see AbstractInboundFileSynchronizer#setConcurrency(int)
 	 */
 	@Override
 	public final AbstractIntegrationMessageBuilder<File> doReceive(int maxFetchSize) {
 		AbstractIntegrationMessageBuilder<File> messageBuilder = this.fileSource.doReceive();
 		if (messageBuilder == null) {
-			this.synchronizer.synchronizeToLocalDirectory(this.localDirectory, maxFetchSize);
-			messageBuilder = this.fileSource.doReceive();
+			if (this.synchronizer.getConcurrency() > 1) {
+				messageBuilder = receiveWhileSynchronizing(maxFetchSize);
+			}
+			else {
+				this.synchronizer.synchronizeToLocalDirectory(this.localDirectory, maxFetchSize);
+				messageBuilder = this.fileSource.doReceive();
+			}
 		}
 
 		return messageBuilder;
 	}
 
+	private AbstractIntegrationMessageBuilder<File> receiveWhileSynchronizing(int maxFetchSize) {
+		CompletableFuture<Integer> synchronization;
+		synchronized (this.synchronizationMonitor) {
+			synchronization = this.synchronization;
+			if (synchronization == null || synchronization.isDone()) {
+				this.synchronization = null;
+				if (synchronization != null && synchronization.isCompletedExceptionally()) {
+					// report the failure of a synchronization that completed after its last poll
+					awaitSynchronization(synchronization);
+				}
+				this.transferred.drainPermits();
+				synchronization = this.synchronizer.synchronizeToLocalDirectory(this.localDirectory, maxFetchSize,
+						file -> this.transferred.release());
+				synchronization.whenComplete((count, t) -> this.transferred.release());
+				this.synchronization = synchronization;
+			}
+		}
+		while (true) {
+			boolean done = synchronization.isDone();
+			AbstractIntegrationMessageBuilder<File> messageBuilder = this.fileSource.doReceive();
+			if (messageBuilder != null) {
+				return messageBuilder;
+			}
+			if (done) {
+				synchronized (this.synchronizationMonitor) {
+					if (this.synchronization == synchronization) {
+						this.synchronization = null;
+					}
+				}
+				awaitSynchronization(synchronization);
+				return null;
+			}
+			try {
+				this.transferred.acquire();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+	}
+
+	private void awaitSynchronization(CompletableFuture<Integer> synchronization) {
+		try {
+			synchronization.join();
+		}
+		catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw e;
+		}
+	}
+
 	private FileListFilter<File> buildFilter() {
 		Pattern completePattern = Pattern.compile("^.*(?<!" + this.synchronizer.getTemporaryFileSuffix() + ")$");
 		return new CompositeFileListFilter<>(
@@ -124,6 +124,19 @@ public class PersistentAcceptOnceFileListFilterExternalStoreTests extends RedisA
 			return invocation.callRealMethod();
 		}).when(store).replace(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
 
+		Mockito.doAnswer(invocation -> {
+			if (suspend.get()) {
+				latch2.countDown();
+				try {
+					latch1.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return invocation.callRealMethod();
+		}).when(store).replace(Mockito.anyMap(), Mockito.anyMap());
+
 		final FileSystemPersistentAcceptOnceFileListFilter filter =
 				new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
 		final File file = File.createTempFile("foo", ".txt");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2013-2015 the original author or authors.
+ * Copyright 2013-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,9 @@ import java.io.File;
 import java.io.Flushable;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -198,4 +200,85 @@ public class PersistentAcceptOnceFileListFilterTests extends AcceptOnceFileListF
 		assertEquals(5, flushes.get());
 	}
 
+	@Test
+	public void testOneBulkCallAndFlushPerListing() throws Exception {
+		final AtomicInteger bulkCalls = new AtomicInteger();
+		final AtomicInteger singleCalls = new AtomicInteger();
+		final AtomicInteger flushes = new AtomicInteger();
+		class MS extends SimpleMetadataStore implements Flushable {
+
+			@Override
+			public void flush() throws IOException {
+				flushes.incrementAndGet();
+			}
+
+			@Override
+			public Map<String, String> putIfAbsent(Map<String, String> entries) {
+				bulkCalls.incrementAndGet();
+				Map<String, String> existing = new HashMap<>();
+				for (Map.Entry<String, String> entry : entries.entrySet()) {
+					String oldValue = super.putIfAbsent(entry.getKey(), entry.getValue());
+					if (oldValue != null) {
+						existing.put(entry.getKey(), oldValue);
+					}
+				}
+				return existing;
+			}
+
+			@Override
+			public String putIfAbsent(String key, String value) {
+				singleCalls.incrementAndGet();
+				return super.putIfAbsent(key, value);
+			}
+
+		}
+		MS store = new MS();
+		FileSystemPersistentAcceptOnceFileListFilter filter = new FileSystemPersistentAcceptOnceFileListFilter(
+				store, "bulk:");
+		filter.setFlushOnUpdate(true);
+		File[] files = new File[] { File.createTempFile("foo", ".txt"), File.createTempFile("bar", ".txt"),
+				File.createTempFile("baz", ".txt") };
+		assertEquals(3, filter.filterFiles(files).size());
+		assertEquals(1, bulkCalls.get());
+		assertEquals(1, flushes.get());
+
+		assertEquals(0, filter.filterFiles(files).size());
+		assertEquals(2, bulkCalls.get());
+		assertEquals(1, flushes.get());
+
+		File qux = File.createTempFile("qux", ".txt");
+		files[1].setLastModified(files[1].lastModified() + 5000L);
+		List<File> passed = filter.filterFiles(new File[] { files[0], files[1], files[2], qux });
+		assertEquals(2, passed.size());
+		assertEquals(files[1], passed.get(0));
+		assertEquals(qux, passed.get(1));
+		assertEquals(3, bulkCalls.get());
+		assertEquals(2, flushes.get());
+		assertEquals(0, singleCalls.get());
+
+		for (File file : files) {
+			file.delete();
+		}
+		qux.delete();
+	}
+
+	@Test
+	public void testMemoryMapped() throws Exception {
+		File index = File.createTempFile("seen", ".log");
+		File file = File.createTempFile("foo", ".txt");
+		File[] files = new File[] { file };
+		MemoryMappedAcceptOnceFileListFilter filter = new MemoryMappedAcceptOnceFileListFilter(index);
+		assertEquals(1, filter.filterFiles(files).size());
+		assertEquals(0, filter.filterFiles(files).size());
+		filter.close();
+
+		filter = new MemoryMappedAcceptOnceFileListFilter(index);
+		assertEquals(0, filter.filterFiles(files).size());
+		file.setLastModified(file.lastModified() + 5000L);
+		assertEquals(1, filter.filterFiles(files).size());
+		filter.close();
+		file.delete();
+		index.delete();
+	}
+
 }
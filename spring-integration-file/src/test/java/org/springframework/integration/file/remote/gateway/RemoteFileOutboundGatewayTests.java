@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -47,7 +48,13 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Rule;
@@ -63,10 +70,12 @@ import org.springframework.integration.file.filters.AbstractSimplePatternFileLis
 import org.springframework.integration.file.remote.AbstractFileInfo;
 import org.springframework.integration.file.remote.RemoteFileTemplate;
 import org.springframework.integration.file.remote.handler.FileTransferringMessageHandler;
+import org.springframework.integration.file.remote.session.CachingSessionFactory;
 import org.springframework.integration.file.remote.session.Session;
 import org.springframework.integration.file.remote.session.SessionFactory;
 import org.springframework.integration.file.support.FileExistsMode;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.support.PartialSuccessException;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.MessagingException;
@@ -231,6 +240,126 @@ public class RemoteFileOutboundGatewayTests {
 				out.getHeaders().get(FileHeaders.REMOTE_DIRECTORY));
 	}
 
+	@Test(timeout = 30000)
+	public void testMGetConcurrentWithCachedSessions() throws Exception {
+		testMGetConcurrentGuts(3);
+	}
+
+	@Test(timeout = 30000)
+	public void testMGetConcurrentWithFewerCachedSessions() throws Exception {
+		testMGetConcurrentGuts(1);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void testMGetConcurrentGuts(int poolSize) throws Exception {
+		SessionFactory<TestLsEntry> sessionFactory = mock(SessionFactory.class);
+		AtomicInteger sessions = new AtomicInteger();
+		when(sessionFactory.getSession()).thenAnswer(invocation -> {
+			sessions.incrementAndGet();
+			return new TestSession() {
+
+				@Override
+				public boolean isOpen() {
+					return true;
+				}
+
+				@Override
+				public void read(String source, OutputStream outputStream) throws IOException {
+					try {
+						Thread.sleep(50);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					outputStream.write("testData".getBytes());
+				}
+
+				@Override
+				public TestLsEntry[] list(String path) throws IOException {
+					TestLsEntry[] entries = new TestLsEntry[6];
+					for (int i = 0; i < entries.length; i++) {
+						entries[i] = new TestLsEntry("f" + i, 123, false, false, 1234, "-r--r--r--");
+					}
+					return entries;
+				}
+
+			};
+		});
+		CachingSessionFactory<TestLsEntry> cachingSessionFactory = new CachingSessionFactory<>(sessionFactory,
+				poolSize);
+		TestRemoteFileOutboundGateway gw = new TestRemoteFileOutboundGateway(cachingSessionFactory, "mget",
+				"payload");
+		gw.setLocalDirectory(this.tempFolder.newFolder());
+		gw.setConcurrency(3);
+		gw.afterPropertiesSet();
+		MessageBuilder<List<File>> out = (MessageBuilder<List<File>>) gw
+				.handleRequestMessage(new GenericMessage<>("testremote/*"));
+		assertEquals(6, out.getPayload().size());
+		assertThat(sessions.get(), lessThanOrEqualTo(poolSize));
+		gw.destroy();
+		cachingSessionFactory.destroy();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testMGetConcurrentPartialSuccess() throws Exception {
+		SessionFactory<TestLsEntry> sessionFactory = mock(SessionFactory.class);
+		Set<String> transferred = ConcurrentHashMap.newKeySet();
+		CountDownLatch transferring = new CountDownLatch(1);
+		when(sessionFactory.getSession()).thenAnswer(invocation -> new TestSession() {
+
+			@Override
+			public void read(String source, OutputStream outputStream) throws IOException {
+				if (source.endsWith("f2")) {
+					try {
+						// make sure another transfer has started, so the failure is a partial success
+						transferring.await(10, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					throw new IOException("failed to read f2");
+				}
+				outputStream.write("testData".getBytes());
+				transferred.add(source.substring(source.lastIndexOf('/') + 1));
+				transferring.countDown();
+			}
+
+			@Override
+			public TestLsEntry[] list(String path) throws IOException {
+				TestLsEntry[] entries = new TestLsEntry[4];
+				for (int i = 0; i < entries.length; i++) {
+					entries[i] = new TestLsEntry("f" + i, 123, false, false, 1234, "-r--r--r--");
+				}
+				return entries;
+			}
+
+		});
+		TestRemoteFileOutboundGateway gw = new TestRemoteFileOutboundGateway(sessionFactory, "mget", "payload");
+		gw.setLocalDirectory(this.tempFolder.newFolder());
+		gw.setConcurrency(2);
+		gw.afterPropertiesSet();
+		try {
+			gw.handleRequestMessage(new GenericMessage<>("testremote/*"));
+			fail("Expected PartialSuccessException");
+		}
+		catch (PartialSuccessException e) {
+			assertThat(e.getCause(), instanceOf(MessagingException.class));
+			assertThat(e.getCause().getCause(), instanceOf(IOException.class));
+			assertEquals("failed to read f2", e.getCause().getCause().getMessage());
+			Collection<TestLsEntry> derivedInput = e.getDerivedInput(TestLsEntry.class);
+			assertEquals(4, derivedInput.size());
+			Set<String> partialResults = new HashSet<>();
+			for (File file : e.getPartialResults(File.class)) {
+				partialResults.add(file.getName());
+			}
+			assertFalse(partialResults.isEmpty());
+			assertFalse(partialResults.contains("f2"));
+			assertEquals(transferred, partialResults);
+		}
+		gw.destroy();
+	}
+
 	@Test(expected = MessagingException.class)
 	public void testMGetEmpty() throws Exception {
 		SessionFactory sessionFactory = mock(SessionFactory.class);
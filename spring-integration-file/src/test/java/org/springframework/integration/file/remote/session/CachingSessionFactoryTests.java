@@ -1,5 +1,5 @@
 /*
- * Copyright 2013-2016 the original author or authors.
+ * Copyright 2013-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -40,6 +42,7 @@ import org.springframework.integration.file.remote.InputStreamCallback;
 import org.springframework.integration.file.remote.RemoteFileTemplate;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * @author Gary Russell
@@ -77,6 +80,54 @@ public class CachingSessionFactoryTests {
 		assertFalse(sess1.isOpen());
 	}
 
+	@Test
+	public void testConcurrentPoolAsync() throws Exception {
+		TestSessionFactory factory = new TestSessionFactory();
+		CachingSessionFactory<String> cache = new CachingSessionFactory<String>(factory, 1, true);
+		Session<String> sess1 = cache.getSession();
+		assertEquals("session:1", TestUtils.getPropertyValue(sess1, "targetSession.id"));
+		CompletableFuture<Session<String>> future = cache.getSessionAsync();
+		assertFalse(future.isDone());
+		sess1.close();
+		Session<String> sess2 = future.get(10, TimeUnit.SECONDS);
+		assertEquals("session:1", TestUtils.getPropertyValue(sess2, "targetSession.id"));
+		Session<?> target = TestUtils.getPropertyValue(sess2, "targetSession", Session.class);
+		sess2.close();
+		assertTrue(target.isOpen());
+		cache.setMaxIdleTime(1);
+		Thread.sleep(50);
+		// the idle session is evicted by the next borrower
+		sess2 = cache.getSession();
+		assertEquals("session:2", TestUtils.getPropertyValue(sess2, "targetSession.id"));
+		assertFalse(target.isOpen());
+		sess2.close();
+	}
+
+	@Test
+	public void testConcurrentPoolScheduledEviction() throws Exception {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		TestSessionFactory factory = new TestSessionFactory();
+		CachingSessionFactory<String> cache = new CachingSessionFactory<String>(factory, 1, true);
+		cache.setMaxIdleTime(100);
+		cache.setEvictionInterval(10);
+		cache.setTaskScheduler(scheduler);
+		Session<String> session = cache.getSession();
+		Session<?> target = TestUtils.getPropertyValue(session, "targetSession", Session.class);
+		session.close();
+		int n = 0;
+		while (target.isOpen() && n++ < 1000) {
+			Thread.sleep(10);
+		}
+		// evicted without any borrower
+		assertFalse(target.isOpen());
+		session = cache.getSession();
+		assertEquals("session:2", TestUtils.getPropertyValue(session, "targetSession.id"));
+		session.close();
+		cache.destroy();
+		scheduler.destroy();
+	}
+
 	@Test
 	public void testDirtySession() throws Exception {
 		@SuppressWarnings("unchecked")
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ftp.filters;
+
+import org.apache.commons.net.ftp.FTPFile;
+
+import org.springframework.integration.file.filters.AbstractListingCacheFileListFilter;
+import org.springframework.integration.file.filters.FileListFilter;
+
+/**
+ * Caches the previous FTP listing so that only new or changed files are passed to
+ * the delegate filter.
+ *
+ * @since 5.0.1
+ *
+ */
+public class FtpListingCacheFileListFilter extends AbstractListingCacheFileListFilter<FTPFile> {
+
+	public FtpListingCacheFileListFilter(FileListFilter<FTPFile> delegate) {
+		super(delegate);
+	}
+
+	@Override
+	protected String fileName(FTPFile file) {
+		return file.getName();
+	}
+
+	@Override
+	protected long modified(FTPFile file) {
+		return file.getTimestamp() == null ? 0 : file.getTimestamp().getTimeInMillis();
+	}
+
+	@Override
+	protected long size(FTPFile file) {
+		return file.getSize();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -221,6 +221,16 @@ public class FtpSession implements Session<FTPFile> {
 		return exists;
 	}
 
+	@Override
+	public long lastModified(String path) throws IOException {
+		Assert.hasText(path, "'path' must not be empty");
+		FTPFile file = this.client.mlistFile(path);
+		if (file == null || file.getTimestamp() == null) {
+			return -1;
+		}
+		return file.getTimestamp().getTimeInMillis();
+	}
+
 	@Override
 	public FTPClient getClientInstance() {
 		return this.client;
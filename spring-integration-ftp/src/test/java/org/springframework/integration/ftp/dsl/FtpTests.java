@@ -24,6 +24,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -32,7 +33,9 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 
 import org.apache.commons.net.ftp.FTPFile;
@@ -135,6 +138,39 @@ public class FtpTests extends FtpTestSupport {
 		registration.destroy();
 	}
 
+	@Test
+	public void testFtpInboundConcurrentFlow() throws IOException {
+		for (int i = 0; i < 10; i++) {
+			FileCopyUtils.copy(("concurrent" + i).getBytes(),
+					new File(this.sourceRemoteDirectory, "concurrent" + i + ".txt"));
+		}
+		QueueChannel out = new QueueChannel();
+		IntegrationFlow flow = IntegrationFlows.from(Ftp.inboundAdapter(sessionFactory())
+						.remoteDirectory("ftpSource")
+						.regexFilter(".*\\.txt$")
+						.concurrency(4)
+						.localDirectory(getTargetLocalDirectory()),
+				e -> e.poller(Pollers.fixedDelay(100).maxMessagesPerPoll(-1)))
+				.channel(out)
+				.get();
+		IntegrationFlowRegistration registration = this.flowContext.registration(flow).register();
+		Set<String> received = new HashSet<>();
+		for (int i = 0; i < 12; i++) {
+			Message<?> message = out.receive(10_000);
+			assertNotNull(message);
+			File file = (File) message.getPayload();
+			assertThat(file.getAbsolutePath(), containsString("localTarget"));
+			assertTrue(received.add(file.getName()));
+		}
+		for (int i = 0; i < 10; i++) {
+			assertTrue(received.contains("concurrent" + i + ".txt"));
+		}
+		assertTrue(received.contains(" ftpSource1.txt"));
+		assertTrue(received.contains("ftpSource2.txt"));
+		assertNull(out.receive(10));
+		registration.destroy();
+	}
+
 	@Test
 	public void testFtpInboundStreamFlow() throws Exception {
 		QueueChannel out = new QueueChannel();
@@ -219,6 +255,36 @@ public class FtpTests extends FtpTestSupport {
 		registration.destroy();
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testFtpConcurrentMgetFlow() {
+		QueueChannel out = new QueueChannel();
+		IntegrationFlow flow = f -> f
+				.handle(Ftp.outboundGateway(sessionFactory(), AbstractRemoteFileOutboundGateway.Command.MGET,
+						"payload")
+						.options(AbstractRemoteFileOutboundGateway.Option.RECURSIVE)
+						.concurrency(3)
+						.localDirectoryExpression("'" + getTargetLocalDirectoryName() + "' + #remoteDirectory"))
+				.channel(out);
+		String dir = "ftpSource/";
+		IntegrationFlowRegistration registration = this.flowContext.registration(flow).register();
+		registration.getInputChannel().send(new GenericMessage<>(dir + "*"));
+		Message<?> result = out.receive(10_000);
+		assertNotNull(result);
+		List<File> localFiles = (List<File>) result.getPayload();
+		assertEquals(3, localFiles.size());
+		Set<String> names = new HashSet<>();
+		for (File file : localFiles) {
+			assertTrue(file.exists());
+			names.add(file.getName());
+		}
+		assertTrue(names.contains(" ftpSource1.txt"));
+		assertTrue(names.contains("ftpSource2.txt"));
+		assertTrue(names.contains("subFtpSource1.txt"));
+
+		registration.destroy();
+	}
+
 	@Configuration
 	@EnableIntegration
 	public static class ContextConfiguration {
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ftp.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.Test;
+
+import org.springframework.integration.metadata.SimpleMetadataStore;
+
+/**
+ * @since 5.0.1
+ *
+ */
+public class FtpListingCacheFileListFilterTests {
+
+	@Test
+	public void testOnlyNewOrChangedFilesReachDelegate() throws Exception {
+		AtomicInteger accepts = new AtomicInteger();
+		FtpListingCacheFileListFilter filter = new FtpListingCacheFileListFilter(
+				new FtpPersistentAcceptOnceFileListFilter(new SimpleMetadataStore(), "cache:") {
+
+					@Override
+					public boolean accept(FTPFile file) {
+						accepts.incrementAndGet();
+						return super.accept(file);
+					}
+
+				});
+		FTPFile foo = ftpFile("foo", 1000, 10);
+		FTPFile bar = ftpFile("bar", 1000, 10);
+		List<FTPFile> passed = filter.filterFiles(new FTPFile[] { foo, bar });
+		assertEquals(2, passed.size());
+		assertEquals(2, accepts.get());
+
+		FTPFile baz = ftpFile("baz", 1000, 10);
+		passed = filter.filterFiles(new FTPFile[] { foo, bar, baz });
+		assertEquals(1, passed.size());
+		assertEquals("baz", passed.get(0).getName());
+		assertEquals(3, accepts.get());
+
+		passed = filter.filterFiles(new FTPFile[] { foo, bar, baz });
+		assertEquals(0, passed.size());
+		assertEquals(3, accepts.get());
+
+		FTPFile changedBar = ftpFile("bar", 2000, 20);
+		passed = filter.filterFiles(new FTPFile[] { foo, changedBar, baz });
+		assertEquals(1, passed.size());
+		assertEquals("bar", passed.get(0).getName());
+		assertEquals(4, accepts.get());
+
+		FTPFile[] files = new FTPFile[] { foo, changedBar, baz };
+		filter.rollback(changedBar, Arrays.asList(files));
+		passed = filter.filterFiles(files);
+		assertEquals(2, passed.size());
+		assertEquals("bar", passed.get(0).getName());
+		assertEquals("baz", passed.get(1).getName());
+		assertEquals(6, accepts.get());
+		filter.close();
+	}
+
+	@Test
+	public void testDirectoryModifiedCheck() {
+		FtpListingCacheFileListFilter filter = new FtpListingCacheFileListFilter(new FtpSimplePatternFileListFilter("*"));
+		assertTrue(filter.isListingRequired("dir", 1000));
+		filter.setDirectoryModifiedCheck(true);
+		assertTrue(filter.isListingRequired("dir", 1000));
+		assertTrue(filter.isListingRequired("dir", 1000));
+		filter.filterFiles(new FTPFile[] { ftpFile("foo", 1000, 10) });
+		assertFalse(filter.isListingRequired("dir", 1000));
+		assertTrue(filter.isListingRequired("dir", -1));
+		assertTrue(filter.isListingRequired("dir", 2000));
+		filter.filterFiles(new FTPFile[] { ftpFile("foo", 1000, 10) });
+		assertFalse(filter.isListingRequired("dir", 2000));
+		filter.remove(ftpFile("foo", 1000, 10));
+		assertTrue(filter.isListingRequired("dir", 2000));
+		filter.filterFiles(new FTPFile[0]);
+		filter.setFullListingInterval(0);
+		assertTrue(filter.isListingRequired("dir", 2000));
+	}
+
+	private static FTPFile ftpFile(String name, long modified, long size) {
+		FTPFile file = new FTPFile();
+		file.setName(name);
+		Calendar timestamp = Calendar.getInstance();
+		timestamp.setTimeInMillis(modified);
+		file.setTimestamp(timestamp);
+		file.setSize(size);
+		return file;
+	}
+
+}
@@ -135,6 +135,9 @@ public class FtpServerOutboundTests extends FtpTestSupport {
 	@Autowired
 	private DirectChannel inboundMPutRecursiveFiltered;
 
+	@Autowired
+	private DirectChannel inboundMPutRecursiveConcurrent;
+
 	@Autowired
 	private DirectChannel appending;
 
@@ -434,6 +437,18 @@ public class FtpServerOutboundTests extends FtpTestSupport {
 						equalTo("ftpTarget/subLocalSource/subLocalSource1.txt")));
 	}
 
+	@Test
+	public void testMPutRecursiveConcurrent() {
+		this.inboundMPutRecursiveConcurrent.send(new GenericMessage<File>(getSourceLocalDirectory()));
+		@SuppressWarnings("unchecked")
+		Message<List<String>> out = (Message<List<String>>) this.output.receive(10_000);
+		assertNotNull(out);
+		assertEquals(3, out.getPayload().size());
+		assertThat(out.getPayload(), containsInAnyOrder("ftpTarget/localSource1.txt", "ftpTarget/localSource2.txt",
+				"ftpTarget/subLocalSource/subLocalSource1.txt"));
+		assertTrue(new File(getTargetRemoteDirectory(), "subLocalSource/subLocalSource1.txt").exists());
+	}
+
 	@Test
 	public void testInt3088MPutRecursiveFiltered() {
 		this.inboundMPutRecursiveFiltered.send(new GenericMessage<File>(getSourceLocalDirectory()));
@@ -16,7 +16,9 @@
 
 package org.springframework.integration.gemfire.metadata;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -78,6 +80,28 @@ public class GemfireMetadataStore implements ListenableMetadataStore {
 		return this.region.putIfAbsent(key, value);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The current values are fetched with a single {@link Region#getAll(java.util.Collection)};
+	 * only the absent keys are then inserted one at a time.
+	 */
+	@Override
+	public Map<String, String> putIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' must not be null.");
+		Map<String, String> existing = new HashMap<>();
+		for (Map.Entry<String, String> entry : this.region.getAll(entries.keySet()).entrySet()) {
+			String key = entry.getKey();
+			String oldValue = entry.getValue();
+			if (oldValue == null) {
+				oldValue = putIfAbsent(key, entries.get(key));
+			}
+			if (oldValue != null) {
+				existing.put(key, oldValue);
+			}
+		}
+		return existing;
+	}
+
 	@Override
 	public boolean replace(String key, String oldValue, String newValue) {
 		Assert.notNull(key, "'key' must not be null.");
@@ -19,6 +19,13 @@ package org.springframework.integration.gemfire.metadata;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
@@ -28,6 +35,7 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.AdditionalAnswers;
 
 import org.springframework.data.gemfire.GemfireTemplate;
 import org.springframework.integration.metadata.ConcurrentMetadataStore;
@@ -167,4 +175,31 @@ public class GemfireMetadataStoreTests {
 		assertEquals("Integration", gemfireTemplate.get("GemfireMetadataStoreTests-Spring"));
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testBulkPutIfAbsent() {
+		Region<String, String> concurrentRegion = mock(Region.class, AdditionalAnswers.delegatesTo(region));
+		doAnswer(invocation -> {
+			Map<String, String> found = (Map<String, String>) (Map<?, ?>) region.getAll(invocation.getArgument(0));
+			// another member puts a key between the read and the writes
+			region.put("concurrent", "other");
+			return found;
+		}).when(concurrentRegion).getAll(any(Collection.class));
+		GemfireMetadataStore store = new GemfireMetadataStore(concurrentRegion);
+		store.put("existing", "old");
+		Map<String, String> entries = new HashMap<>();
+		entries.put("existing", "new");
+		entries.put("concurrent", "new");
+		entries.put("absent1", "value1");
+		entries.put("absent2", "value2");
+		Map<String, String> existing = store.putIfAbsent(entries);
+		assertEquals(2, existing.size());
+		assertEquals("old", existing.get("existing"));
+		assertEquals("other", existing.get("concurrent"));
+		assertEquals("old", region.get("existing"));
+		assertEquals("other", region.get("concurrent"));
+		assertEquals("value1", region.get("absent1"));
+		assertEquals("value2", region.get("absent2"));
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -123,7 +123,7 @@ public abstract class AbstractInternetProtocolReceivingChannelAdapter
 	 */
 	protected void checkTaskExecutor(final String threadName) {
 		if (this.active && this.taskExecutor == null) {
-			Executor executor = Executors.newFixedThreadPool(this.poolSize, new ThreadFactory() {
+			Executor executor = Executors.newFixedThreadPool(getPoolSize(), new ThreadFactory() {
 				@Override
 				public Thread newThread(Runnable runner) {
 					Thread thread = new Thread(runner);
@@ -169,6 +169,16 @@ public abstract class AbstractInternetProtocolReceivingChannelAdapter
 		this.poolSize = poolSize;
 	}
 
+	/**
+	 * Return the number of threads of the default task executor, created when no
+	 * executor is provided.
+	 * @return the pool size.
+	 * @since 5.0.1
+	 */
+	protected int getPoolSize() {
+		return this.poolSize;
+	}
+
 	public void setTaskExecutor(Executor taskExecutor) {
 		Assert.notNull(taskExecutor, "'taskExecutor' cannot be null");
 		this.taskExecutor = taskExecutor;
@@ -72,6 +72,26 @@ public abstract class IpAdapterParserUtils {
 
 	static final String USING_DIRECT_BUFFERS = "using-direct-buffers";
 
+	static final String IN_PLACE_FRAMING = "in-place-framing";
+
+	static final String BUFFER_POOL = "buffer-pool";
+
+	static final String WRITE_COALESCING_WINDOW = "write-coalescing-window";
+
+	static final String WRITE_COALESCING_BUDGET = "write-coalescing-budget";
+
+	static final String RECEIVER_COUNT = "receiver-count";
+
+	static final String BATCH_SIZE = "batch-size";
+
+	static final String FILE_STREAMING = "file-streaming";
+
+	static final String IDLE_TIMEOUT = "idle-timeout";
+
+	static final String IO_SELECTOR_COUNT = "io-selector-count";
+
+	static final String IO_SELECTOR_LEAST_LOADED = "io-selector-least-loaded";
+
 	static final String SO_LINGER = "so-linger";
 
 	static final String SO_TCP_NODELAY = "so-tcp-no-delay";
@@ -104,6 +124,12 @@ public abstract class IpAdapterParserUtils {
 
 	public static final String REPLY_CHANNEL = "reply-channel";
 
+	static final String PIPELINED = "pipelined";
+
+	static final String MAX_PIPELINED_REQUESTS = "max-pipelined-requests";
+
+	static final String REPLY_CORRELATION_EXPRESSION = "reply-correlation-expression";
+
 	public static final String LOOKUP_HOST = "lookup-host";
 
 	public static final String APPLY_SEQUENCE = "apply-sequence";
@@ -27,6 +27,7 @@ import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.context.Lifecycle;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.AbstractConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.AbstractServerConnectionFactory;
@@ -36,6 +37,7 @@ import org.springframework.integration.ip.tcp.connection.DefaultTcpNetSocketFact
 import org.springframework.integration.ip.tcp.connection.DefaultTcpNioConnectionSupport;
 import org.springframework.integration.ip.tcp.connection.DefaultTcpNioSSLConnectionSupport;
 import org.springframework.integration.ip.tcp.connection.DefaultTcpSocketSupport;
+import org.springframework.integration.ip.tcp.connection.DirectByteBufferPool;
 import org.springframework.integration.ip.tcp.connection.TcpConnectionInterceptorFactoryChain;
 import org.springframework.integration.ip.tcp.connection.TcpMessageMapper;
 import org.springframework.integration.ip.tcp.connection.TcpNetClientConnectionFactory;
@@ -106,12 +108,28 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean inPlaceFraming;
+
+	private volatile DirectByteBufferPool bufferPool;
+
+	private volatile long writeCoalescingWindow;
+
+	private volatile int writeCoalescingBudget;
+
+	private volatile int ioSelectorCount;
+
+	private volatile boolean ioSelectorLeastLoaded;
+
 	private volatile String beanName;
 
 	private volatile boolean applySequence;
 
 	private volatile Long readDelay;
 
+	private volatile boolean fileStreaming;
+
+	private volatile long idleTimeout;
+
 	private volatile TcpSSLContextSupport sslContextSupport;
 
 	private volatile Integer sslHandshakeTimeout;
@@ -161,6 +179,12 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 				this.setCommonAttributes(connectionFactory);
 				this.setServerAttributes(connectionFactory);
 				connectionFactory.setUsingDirectBuffers(this.usingDirectBuffers);
+				connectionFactory.setInPlaceFraming(this.inPlaceFraming);
+				connectionFactory.setBufferPool(this.bufferPool);
+				connectionFactory.setWriteCoalescingWindow(this.writeCoalescingWindow);
+				connectionFactory.setWriteCoalescingBudget(this.writeCoalescingBudget);
+				connectionFactory.setIoSelectorCount(this.ioSelectorCount);
+				connectionFactory.setIoSelectorLeastLoaded(this.ioSelectorLeastLoaded);
 				connectionFactory.setTcpNioConnectionSupport(this.obtainNioConnectionSupport());
 				this.connectionFactory = connectionFactory;
 			}
@@ -169,6 +193,10 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 						this.host, this.port);
 				this.setCommonAttributes(connectionFactory);
 				connectionFactory.setUsingDirectBuffers(this.usingDirectBuffers);
+				connectionFactory.setInPlaceFraming(this.inPlaceFraming);
+				connectionFactory.setBufferPool(this.bufferPool);
+				connectionFactory.setWriteCoalescingWindow(this.writeCoalescingWindow);
+				connectionFactory.setWriteCoalescingBudget(this.writeCoalescingBudget);
 				connectionFactory.setTcpNioConnectionSupport(this.obtainNioConnectionSupport());
 				this.connectionFactory = connectionFactory;
 			}
@@ -219,6 +247,11 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 		if (this.readDelay != null) {
 			factory.setReadDelay(this.readDelay);
 		}
+		factory.setFileStreaming(this.fileStreaming);
+		if (this.idleTimeout > 0) {
+			factory.setIdleTimeout(this.idleTimeout);
+			factory.setTaskScheduler(IntegrationContextUtils.getTaskScheduler(this.beanFactory));
+		}
 	}
 
 	private void setServerAttributes(AbstractServerConnectionFactory factory) {
@@ -362,6 +395,60 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * @param inPlaceFraming the inPlaceFraming to set.
+	 * @since 5.0.1
+	 * @see TcpNioServerConnectionFactory#setInPlaceFraming(boolean)
+	 */
+	public void setInPlaceFraming(boolean inPlaceFraming) {
+		this.inPlaceFraming = inPlaceFraming;
+	}
+
+	/**
+	 * @param bufferPool the bufferPool to set.
+	 * @since 5.0.1
+	 * @see TcpNioServerConnectionFactory#setBufferPool(DirectByteBufferPool)
+	 */
+	public void setBufferPool(DirectByteBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * @param writeCoalescingWindow the writeCoalescingWindow to set.
+	 * @since 5.0.1
+	 * @see TcpNioServerConnectionFactory#setWriteCoalescingWindow(long)
+	 */
+	public void setWriteCoalescingWindow(long writeCoalescingWindow) {
+		this.writeCoalescingWindow = writeCoalescingWindow;
+	}
+
+	/**
+	 * @param writeCoalescingBudget the writeCoalescingBudget to set.
+	 * @since 5.0.1
+	 * @see TcpNioServerConnectionFactory#setWriteCoalescingBudget(int)
+	 */
+	public void setWriteCoalescingBudget(int writeCoalescingBudget) {
+		this.writeCoalescingBudget = writeCoalescingBudget;
+	}
+
+	/**
+	 * @param ioSelectorCount the ioSelectorCount to set.
+	 * @since 5.0.1
+	 * @see TcpNioServerConnectionFactory#setIoSelectorCount(int)
+	 */
+	public void setIoSelectorCount(int ioSelectorCount) {
+		this.ioSelectorCount = ioSelectorCount;
+	}
+
+	/**
+	 * @param ioSelectorLeastLoaded the ioSelectorLeastLoaded to set.
+	 * @since 5.0.1
+	 * @see TcpNioServerConnectionFactory#setIoSelectorLeastLoaded(boolean)
+	 */
+	public void setIoSelectorLeastLoaded(boolean ioSelectorLeastLoaded) {
+		this.ioSelectorLeastLoaded = ioSelectorLeastLoaded;
+	}
+
 	/**
 	 * @param taskExecutor The task executor.
 	 * @see AbstractConnectionFactory#setTaskExecutor(java.util.concurrent.Executor)
@@ -472,6 +559,24 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 		this.readDelay = readDelay;
 	}
 
+	/**
+	 * @param fileStreaming true to stream file payloads.
+	 * @since 5.0.1
+	 * @see AbstractConnectionFactory#setFileStreaming(boolean)
+	 */
+	public void setFileStreaming(boolean fileStreaming) {
+		this.fileStreaming = fileStreaming;
+	}
+
+	/**
+	 * @param idleTimeout the idle timeout.
+	 * @since 5.0.1
+	 * @see AbstractConnectionFactory#setIdleTimeout(long)
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
 	public void setSslContextSupport(TcpSSLContextSupport sslContextSupport) {
 		Assert.notNull(sslContextSupport, "TcpSSLContextSupport may not be null");
 		this.sslContextSupport = sslContextSupport;
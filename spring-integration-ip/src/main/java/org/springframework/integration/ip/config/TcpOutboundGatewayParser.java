@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,6 +55,15 @@ public class TcpOutboundGatewayParser extends AbstractConsumerEndpointParser {
 		}
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element,
 				IpAdapterParserUtils.REPLY_TIMEOUT, "sendTimeout");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, IpAdapterParserUtils.PIPELINED);
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element,
+				IpAdapterParserUtils.MAX_PIPELINED_REQUESTS);
+		BeanDefinition replyCorrelationExpression = IntegrationNamespaceUtils
+				.createExpressionDefIfAttributeDefined(IpAdapterParserUtils.REPLY_CORRELATION_EXPRESSION, element);
+		if (replyCorrelationExpression != null) {
+			builder.addPropertyValue("replyCorrelationExpression", replyCorrelationExpression);
+		}
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "async");
 		return builder;
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 the original author or authors.
+ * Copyright 2016-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -209,6 +209,28 @@ public abstract class AbstractConnectionFactorySpec
 		return _this();
 	}
 
+	/**
+	 * @param fileStreaming true to stream file payloads.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see AbstractConnectionFactory#setFileStreaming(boolean)
+	 */
+	public S fileStreaming(boolean fileStreaming) {
+		this.target.setFileStreaming(fileStreaming);
+		return _this();
+	}
+
+	/**
+	 * @param idleTimeout the idle timeout.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see AbstractConnectionFactory#setIdleTimeout(long)
+	 */
+	public S idleTimeout(long idleTimeout) {
+		this.target.setIdleTimeout(idleTimeout);
+		return _this();
+	}
+
 	/**
 	 * @param tcpSocketSupport the {@link TcpSocketSupport}.
 	 * @return the spec.
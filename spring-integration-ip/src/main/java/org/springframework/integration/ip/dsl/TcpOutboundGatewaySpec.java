@@ -89,6 +89,58 @@ public class TcpOutboundGatewaySpec extends MessageHandlerSpec<TcpOutboundGatewa
 		return _this();
 	}
 
+	/**
+	 * @param pipelined true to pipeline requests on each connection.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see TcpOutboundGateway#setPipelined(boolean)
+	 */
+	public TcpOutboundGatewaySpec pipelined(boolean pipelined) {
+		this.target.setPipelined(pipelined);
+		return _this();
+	}
+
+	/**
+	 * @param maxPipelinedRequests the maximum outstanding requests per connection.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see TcpOutboundGateway#setMaxPipelinedRequests(int)
+	 */
+	public TcpOutboundGatewaySpec maxPipelinedRequests(int maxPipelinedRequests) {
+		this.target.setMaxPipelinedRequests(maxPipelinedRequests);
+		return _this();
+	}
+
+	/**
+	 * Configure a {@link Function} that will be invoked with each pipelined request and
+	 * reply to determine the key used to correlate them. Typically used with a Java 8
+	 * Lambda expression:
+	 * <pre class="code">
+	 * {@code
+	 * .replyCorrelation(m -> m.getHeaders().get("myId"))
+	 * }
+	 * </pre>
+	 * @param replyCorrelationFunction the function.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see TcpOutboundGateway#setReplyCorrelationExpression(org.springframework.expression.Expression)
+	 */
+	public TcpOutboundGatewaySpec replyCorrelation(Function<Message<?>, ?> replyCorrelationFunction) {
+		this.target.setReplyCorrelationExpression(new FunctionExpression<Message<?>>(replyCorrelationFunction));
+		return _this();
+	}
+
+	/**
+	 * @param async true to release the sending thread when pipelining.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see TcpOutboundGateway#setAsync(boolean)
+	 */
+	public TcpOutboundGatewaySpec async(boolean async) {
+		this.target.setAsync(async);
+		return _this();
+	}
+
 	@Override
 	public Map<Object, String> getComponentsToRegister() {
 		return this.connectionFactory != null
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 the original author or authors.
+ * Copyright 2016-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.net.DatagramSocket;
 import java.util.concurrent.Executor;
 
 import org.springframework.integration.dsl.MessageProducerSpec;
+import org.springframework.integration.ip.tcp.connection.DirectByteBufferPool;
 import org.springframework.integration.ip.udp.MulticastReceivingChannelAdapter;
 import org.springframework.integration.ip.udp.UnicastReceivingChannelAdapter;
 import org.springframework.scheduling.TaskScheduler;
@@ -152,4 +153,48 @@ public class UdpInboundChannelAdapterSpec
 		return _this();
 	}
 
+	/**
+	 * @param usingNio true to receive using a datagram channel and reusable buffers.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see UnicastReceivingChannelAdapter#setUsingNio(boolean)
+	 */
+	public UdpInboundChannelAdapterSpec usingNio(boolean usingNio) {
+		this.target.setUsingNio(usingNio);
+		return _this();
+	}
+
+	/**
+	 * @param receiverCount the number of receiver threads.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see UnicastReceivingChannelAdapter#setReceiverCount(int)
+	 */
+	public UdpInboundChannelAdapterSpec receiverCount(int receiverCount) {
+		this.target.setReceiverCount(receiverCount);
+		return _this();
+	}
+
+	/**
+	 * @param batchSize the maximum number of packets handed off together.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see UnicastReceivingChannelAdapter#setBatchSize(int)
+	 */
+	public UdpInboundChannelAdapterSpec batchSize(int batchSize) {
+		this.target.setBatchSize(batchSize);
+		return _this();
+	}
+
+	/**
+	 * @param bufferPool the pool of receive buffers.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see UnicastReceivingChannelAdapter#setBufferPool(DirectByteBufferPool)
+	 */
+	public UdpInboundChannelAdapterSpec bufferPool(DirectByteBufferPool bufferPool) {
+		this.target.setBufferPool(bufferPool);
+		return _this();
+	}
+
 }
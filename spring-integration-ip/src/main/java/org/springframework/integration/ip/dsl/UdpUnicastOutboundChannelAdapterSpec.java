@@ -19,6 +19,8 @@ package org.springframework.integration.ip.dsl;
 import java.util.function.Function;
 
 import org.springframework.integration.dsl.MessageHandlerSpec;
+import org.springframework.integration.ip.tcp.connection.DirectByteBufferPool;
+import org.springframework.integration.ip.udp.UnicastSendingMessageHandler;
 import org.springframework.messaging.Message;
 
 /**
@@ -44,4 +46,26 @@ public class UdpUnicastOutboundChannelAdapterSpec
 		super(destinationExpression);
 	}
 
+	/**
+	 * @param usingNio true to send using a datagram channel and pooled buffers.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see UnicastSendingMessageHandler#setUsingNio(boolean)
+	 */
+	public UdpUnicastOutboundChannelAdapterSpec usingNio(boolean usingNio) {
+		this.target.setUsingNio(usingNio);
+		return _this();
+	}
+
+	/**
+	 * @param bufferPool the pool of send buffers.
+	 * @return the spec.
+	 * @since 5.0.1
+	 * @see UnicastSendingMessageHandler#setBufferPool(DirectByteBufferPool)
+	 */
+	public UdpUnicastOutboundChannelAdapterSpec bufferPool(DirectByteBufferPool bufferPool) {
+		this.target.setBufferPool(bufferPool);
+		return _this();
+	}
+
 }
@@ -16,11 +16,19 @@
 
 package org.springframework.integration.ip.tcp;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.Lifecycle;
@@ -35,22 +43,29 @@ import org.springframework.integration.handler.AbstractReplyProducingMessageHand
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.AbstractConnectionFactory;
+import org.springframework.integration.ip.tcp.connection.CachingClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.TcpConnection;
 import org.springframework.integration.ip.tcp.connection.TcpConnectionFailedCorrelationEvent;
 import org.springframework.integration.ip.tcp.connection.TcpListener;
 import org.springframework.integration.ip.tcp.connection.TcpSender;
+import org.springframework.integration.util.HashedTimerWheel;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.util.Assert;
+import org.springframework.util.concurrent.SettableListenableFuture;
 
 /**
  * TCP outbound gateway that uses a client connection factory. If the factory is configured
  * for single-use connections, each request is sent on a new connection; if the factory does not use
  * single use connections, each request is blocked until the previous response is received
  * (or times out). Asynchronous requests/responses over the same connection are not
- * supported - use a pair of outbound/inbound adapters for that use case.
+ * supported - use a pair of outbound/inbound adapters for that use case - unless
+ * {@link #setPipelined(boolean) pipelining} is enabled, in which case many requests can
+ * be outstanding on a connection, and replies are correlated to requests either by
+ * {@link #setReplyCorrelationExpression(Expression) a correlation expression} or by
+ * the order in which they are received.
  * <p>
  * {@link SmartLifecycle} methods delegate to the underlying {@link AbstractConnectionFactory}
  *
@@ -75,6 +90,22 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 
 	private volatile EvaluationContext evaluationContext = new StandardEvaluationContext();
 
+	private static final long PIPELINE_TIMEOUT_RESOLUTION = 100;
+
+	private static final int PIPELINE_TIMEOUT_WHEEL_SIZE = 512;
+
+	private final Map<String, Pipeline> pipelines = new ConcurrentHashMap<String, Pipeline>();
+
+	private volatile boolean pipelined;
+
+	private volatile int maxPipelinedRequests = 100;
+
+	private volatile Expression replyCorrelationExpression;
+
+	private volatile HashedTimerWheel<PipelinedReply> pipelineTimeouts;
+
+	private volatile ScheduledFuture<?> pipelineTimeoutsFuture;
+
 	/**
 	 * @param requestTimeout the requestTimeout to set
 	 */
@@ -100,6 +131,56 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		this.evaluationContext = evaluationContext;
 	}
 
+	/**
+	 * Set to true to send requests without waiting for the replies to previous
+	 * requests on the same connection. Up to {@link #setMaxPipelinedRequests(int)}
+	 * requests can be outstanding on each connection; replies are correlated using the
+	 * {@link #setReplyCorrelationExpression(Expression) reply correlation expression}
+	 * or, if there is none, by assuming the server replies to requests in the order
+	 * they were received. Requires a connection factory that shares its connection
+	 * (singleUse=false), or a {@link CachingClientConnectionFactory}, in which case the
+	 * cached connections are returned to the pool as soon as the request is sent, and
+	 * requests are spread over the pool. Remote timeouts are enforced by a single
+	 * periodic task (with a resolution of 100 milliseconds), which requires a
+	 * {@link org.springframework.scheduling.TaskScheduler}. With
+	 * {@link #setAsync(boolean) async} true, the sending thread does not wait for the
+	 * reply.
+	 * @param pipelined true to pipeline requests.
+	 * @since 5.0.1
+	 */
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+
+	/**
+	 * When pipelining, the maximum number of requests that can be outstanding on each
+	 * connection; further requests wait for up to the request timeout for a reply to
+	 * be received. Default 100.
+	 * @param maxPipelinedRequests the maximum.
+	 * @since 5.0.1
+	 */
+	public void setMaxPipelinedRequests(int maxPipelinedRequests) {
+		Assert.isTrue(maxPipelinedRequests > 0, "'maxPipelinedRequests' must be > 0");
+		this.maxPipelinedRequests = maxPipelinedRequests;
+	}
+
+	/**
+	 * When pipelining, an expression that is evaluated against each request (before
+	 * it is sent) and each reply, to determine the key used to correlate them; for
+	 * example {@code headers['myCorrelation']}, where the header is mapped to and from
+	 * the data (such as a payload prefix) by a custom
+	 * {@link org.springframework.integration.ip.tcp.connection.TcpMessageMapper}. Keys
+	 * must be unique among the outstanding requests on a connection. When there is no
+	 * expression, replies are correlated with requests in order (FIFO); a remote timeout
+	 * then causes the connection to be closed, failing its other outstanding requests,
+	 * because later replies can no longer be correlated.
+	 * @param replyCorrelationExpression the expression.
+	 * @since 5.0.1
+	 */
+	public void setReplyCorrelationExpression(Expression replyCorrelationExpression) {
+		this.replyCorrelationExpression = replyCorrelationExpression;
+	}
+
 	@Override
 	protected void doInit() {
 		super.doInit();
@@ -107,12 +188,19 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		if (this.evaluationContext == null) {
 			this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(getBeanFactory());
 		}
+		Assert.state(!this.pipelined || !this.isSingleUse
+						|| this.connectionFactory instanceof CachingClientConnectionFactory,
+				"Pipelining requires a connection factory with shared connections, or a "
+						+ "CachingClientConnectionFactory");
 	}
 
 	@Override
 	protected Object handleRequestMessage(Message<?> requestMessage) {
 		Assert.notNull(this.connectionFactory, this.getClass().getName() +
 				" requires a client connection factory");
+		if (this.pipelined) {
+			return handlePipelinedRequest(requestMessage);
+		}
 		boolean haveSemaphore = false;
 		TcpConnection connection = null;
 		String connectionId = null;
@@ -176,6 +264,123 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		}
 	}
 
+	private Object handlePipelinedRequest(Message<?> requestMessage) {
+		PipelinedReply reply = null;
+		try {
+			TcpConnection connection = this.connectionFactory.getConnection();
+			try {
+				Object correlationKey = null;
+				if (this.replyCorrelationExpression != null) {
+					correlationKey = this.replyCorrelationExpression.getValue(this.evaluationContext, requestMessage);
+					if (correlationKey == null) {
+						throw new MessagingException(requestMessage, "The reply correlation expression '"
+								+ this.replyCorrelationExpression.getExpressionString()
+								+ "' evaluated to null for the request");
+					}
+				}
+				long remoteTimeout = this.remoteTimeoutExpression.getValue(this.evaluationContext,
+						requestMessage, Long.class);
+				Pipeline pipeline = this.pipelines.computeIfAbsent(connection.getConnectionId(),
+						id -> new Pipeline(connection));
+				if (!pipeline.permits.tryAcquire(this.requestTimeout, TimeUnit.MILLISECONDS)) {
+					throw new MessageTimeoutException(requestMessage,
+							"Timed out waiting for a pending reply on " + pipeline.connectionId);
+				}
+				reply = new PipelinedReply(pipeline, requestMessage, correlationKey, remoteTimeout);
+				PipelinedReply pipelinedReply = reply;
+				startPipelineTimeoutsIfNecessary();
+				this.pipelineTimeouts.schedule(reply, System.currentTimeMillis() + remoteTimeout,
+						() -> pipelinedReplyTimedOut(pipelinedReply));
+				pipeline.send(reply);
+			}
+			finally {
+				if (this.isSingleUse) {
+					// return the cached connection to the pool
+					connection.close();
+				}
+			}
+			if (isAsync()) {
+				return reply.future;
+			}
+			return awaitPipelinedReply(reply);
+		}
+		catch (Exception e) {
+			if (reply != null) {
+				reply.fail(e);
+			}
+			logger.error("Tcp Gateway exception", e);
+			if (e instanceof MessagingException) {
+				throw (MessagingException) e;
+			}
+			throw new MessagingException("Failed to send or receive", e);
+		}
+	}
+
+	private Message<?> awaitPipelinedReply(PipelinedReply reply) throws Exception {
+		try {
+			// the timeout is enforced by the timer wheel; this is just a safety net
+			return reply.future.get(reply.remoteTimeout + 2 * PIPELINE_TIMEOUT_RESOLUTION, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException(reply.request, "Interrupted while awaiting reply", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof MessagingException) {
+				throw (MessagingException) cause;
+			}
+			throw new MessagingException(reply.request, "Exception while awaiting reply", cause);
+		}
+		catch (TimeoutException e) {
+			pipelinedReplyTimedOut(reply);
+			throw new MessageTimeoutException(reply.request, "Timed out waiting for response");
+		}
+	}
+
+	private void pipelinedReplyTimedOut(PipelinedReply reply) {
+		Pipeline pipeline = reply.pipeline;
+		pipeline.remove(reply);
+		if (reply.fail(new MessageTimeoutException(reply.request, "Timed out waiting for response"))) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Remote Timeout on " + pipeline.connectionId);
+			}
+			if (this.replyCorrelationExpression == null) {
+				// later replies can no longer be correlated by position - the connection is dirty
+				closePipeline(pipeline, new MessagingException("A request timed out on " + pipeline.connectionId
+						+ "; the connection has been closed"));
+				this.connectionFactory.forceClose(pipeline.connection);
+			}
+		}
+	}
+
+	private void closePipeline(Pipeline pipeline, Throwable cause) {
+		this.pipelines.remove(pipeline.connectionId, pipeline);
+		pipeline.failAll(cause);
+	}
+
+	private synchronized void startPipelineTimeoutsIfNecessary() {
+		if (this.pipelineTimeouts == null) {
+			this.pipelineTimeouts = new HashedTimerWheel<>(PIPELINE_TIMEOUT_RESOLUTION, PIPELINE_TIMEOUT_WHEEL_SIZE);
+		}
+		if (this.pipelineTimeoutsFuture == null) {
+			Assert.state(getTaskScheduler() != null, "Pipelining requires a task scheduler");
+			this.pipelineTimeoutsFuture = getTaskScheduler().scheduleAtFixedRate(this::expirePipelinedReplies,
+					PIPELINE_TIMEOUT_RESOLUTION);
+		}
+	}
+
+	private void expirePipelinedReplies() {
+		for (Runnable task : this.pipelineTimeouts.expire(System.currentTimeMillis())) {
+			try {
+				task.run();
+			}
+			catch (RuntimeException e) {
+				logger.error("Failed to process a remote timeout", e);
+			}
+		}
+	}
+
 	@Override
 	public boolean onMessage(Message<?> message) {
 		String connectionId = (String) message.getHeaders().get(IpHeaders.CONNECTION_ID);
@@ -187,6 +392,9 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		if (logger.isTraceEnabled()) {
 			logger.trace("onMessage: " + connectionId + "(" + message + ")");
 		}
+		if (this.pipelined) {
+			return onPipelinedMessage(connectionId, message);
+		}
 		AsyncReply reply = this.pendingReplies.get(connectionId);
 		if (reply == null) {
 			if (message instanceof ErrorMessage) {
@@ -207,6 +415,26 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 		return false;
 	}
 
+	private boolean onPipelinedMessage(String connectionId, Message<?> message) {
+		Pipeline pipeline = this.pipelines.get(connectionId);
+		if (message instanceof ErrorMessage) {
+			// the connection has failed; so have all the requests outstanding on it
+			if (pipeline != null) {
+				closePipeline(pipeline, (Throwable) message.getPayload());
+			}
+			return false;
+		}
+		PipelinedReply reply = pipeline != null ? pipeline.take(message) : null;
+		if (reply == null) {
+			String errorMessage = "Cannot correlate response - no pending reply for " + connectionId;
+			logger.error(errorMessage);
+			publishNoConnectionEvent(message, connectionId, errorMessage);
+			return false;
+		}
+		reply.complete(message);
+		return false;
+	}
+
 	private void publishNoConnectionEvent(Message<?> message, String connectionId, String errorMessage) {
 		ApplicationEventPublisher applicationEventPublisher = this.connectionFactory.getApplicationEventPublisher();
 		if (applicationEventPublisher != null) {
@@ -229,7 +457,10 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 
 	@Override
 	public void removeDeadConnection(TcpConnection connection) {
-		// do nothing - no asynchronous multiplexing supported
+		Pipeline pipeline = this.pipelines.get(connection.getConnectionId());
+		if (pipeline != null) {
+			closePipeline(pipeline, new MessagingException("Connection " + pipeline.connectionId + " closed"));
+		}
 	}
 
 	/**
@@ -264,6 +495,15 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 	@Override
 	public void stop() {
 		this.connectionFactory.stop();
+		synchronized (this) {
+			if (this.pipelineTimeoutsFuture != null) {
+				this.pipelineTimeoutsFuture.cancel(true);
+				this.pipelineTimeoutsFuture = null;
+			}
+		}
+		for (Pipeline pipeline : this.pipelines.values()) {
+			closePipeline(pipeline, new MessagingException("Gateway stopped"));
+		}
 	}
 
 	@Override
@@ -353,4 +593,158 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler
 
 	}
 
+	/**
+	 * The requests outstanding on a connection, when pipelining.
+	 */
+	private final class Pipeline {
+
+		private final TcpConnection connection;
+
+		private final String connectionId;
+
+		private final Semaphore permits;
+
+		private final Deque<PipelinedReply> inOrder = new ArrayDeque<PipelinedReply>();
+
+		private final Map<Object, PipelinedReply> correlated = new ConcurrentHashMap<Object, PipelinedReply>();
+
+		private volatile boolean closed;
+
+		Pipeline(TcpConnection connection) {
+			this.connection = connection;
+			this.connectionId = connection.getConnectionId();
+			this.permits = new Semaphore(TcpOutboundGateway.this.maxPipelinedRequests);
+		}
+
+		/**
+		 * Register the reply and send the request; when correlating in order, the
+		 * registration and send are performed atomically.
+		 */
+		void send(PipelinedReply reply) throws Exception {
+			if (reply.correlationKey == null) {
+				synchronized (this) {
+					assertOpen(reply);
+					this.inOrder.add(reply);
+					try {
+						this.connection.send(reply.request);
+					}
+					catch (Exception e) {
+						this.inOrder.removeLastOccurrence(reply);
+						throw e;
+					}
+				}
+			}
+			else {
+				assertOpen(reply);
+				if (this.correlated.putIfAbsent(reply.correlationKey, reply) != null) {
+					throw new MessagingException(reply.request, "A request with correlation key '"
+							+ reply.correlationKey + "' is already pending on " + this.connectionId);
+				}
+				try {
+					this.connection.send(reply.request);
+				}
+				catch (Exception e) {
+					this.correlated.remove(reply.correlationKey, reply);
+					throw e;
+				}
+			}
+		}
+
+		private void assertOpen(PipelinedReply reply) {
+			if (this.closed) {
+				throw new MessagingException(reply.request, "Connection " + this.connectionId + " is closed");
+			}
+		}
+
+		PipelinedReply take(Message<?> message) {
+			Expression expression = TcpOutboundGateway.this.replyCorrelationExpression;
+			if (expression == null) {
+				synchronized (this) {
+					return this.inOrder.poll();
+				}
+			}
+			Object correlationKey = expression.getValue(TcpOutboundGateway.this.evaluationContext, message);
+			return correlationKey != null ? this.correlated.remove(correlationKey) : null;
+		}
+
+		void remove(PipelinedReply reply) {
+			if (reply.correlationKey == null) {
+				synchronized (this) {
+					this.inOrder.remove(reply);
+				}
+			}
+			else {
+				this.correlated.remove(reply.correlationKey, reply);
+			}
+		}
+
+		void failAll(Throwable cause) {
+			List<PipelinedReply> replies;
+			synchronized (this) {
+				this.closed = true;
+				replies = new ArrayList<PipelinedReply>(this.inOrder);
+				this.inOrder.clear();
+			}
+			replies.addAll(this.correlated.values());
+			this.correlated.clear();
+			for (PipelinedReply reply : replies) {
+				reply.fail(cause instanceof MessagingException ? cause
+						: new MessagingException(reply.request, "Connection " + this.connectionId + " failed", cause));
+			}
+		}
+
+	}
+
+	/**
+	 * A pipelined request awaiting its reply; completing the future (once) releases
+	 * the request's slot on the connection and cancels its timeout.
+	 */
+	private final class PipelinedReply {
+
+		private final Pipeline pipeline;
+
+		private final Message<?> request;
+
+		private final Object correlationKey;
+
+		private final long remoteTimeout;
+
+		private final SettableListenableFuture<Message<?>> future = new SettableListenableFuture<Message<?>>();
+
+		private final AtomicBoolean done = new AtomicBoolean();
+
+		PipelinedReply(Pipeline pipeline, Message<?> request, Object correlationKey, long remoteTimeout) {
+			this.pipeline = pipeline;
+			this.request = request;
+			this.correlationKey = correlationKey;
+			this.remoteTimeout = remoteTimeout;
+		}
+
+		boolean complete(Message<?> reply) {
+			if (done()) {
+				this.future.set(reply);
+				return true;
+			}
+			return false;
+		}
+
+		boolean fail(Throwable cause) {
+			if (done()) {
+				this.future.setException(cause);
+				return true;
+			}
+			return false;
+		}
+
+		private boolean done() {
+			if (this.done.compareAndSet(false, true)) {
+				this.pipeline.permits.release();
+				TcpOutboundGateway.this.pipelineTimeouts.cancel(this);
+				return true;
+			}
+			return false;
+		}
+
+	}
+
 }
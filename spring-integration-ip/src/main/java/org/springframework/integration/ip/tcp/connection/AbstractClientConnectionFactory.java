@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -164,6 +164,7 @@ public abstract class AbstractClientConnectionFactory extends AbstractConnection
 		connection.setMapper(this.getMapper());
 		connection.setDeserializer(this.getDeserializer());
 		connection.setSerializer(this.getSerializer());
+		connection.setFileStreaming(isFileStreaming());
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -40,6 +40,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.context.ApplicationEventPublisher;
@@ -48,7 +49,9 @@ import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.integration.context.IntegrationObjectSupport;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
+import org.springframework.integration.util.HashedTimerWheel;
 import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 
 /**
@@ -67,6 +70,10 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 
 	private static final int DEFAULT_READ_DELAY = 100;
 
+	private static final long MIN_IDLE_SCAVENGE_INTERVAL = 100;
+
+	private static final int IDLE_WHEEL_SIZE = 512;
+
 	private volatile String host;
 
 	private volatile int port;
@@ -129,6 +136,14 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 
 	private volatile Integer sslHandshakeTimeout;
 
+	private volatile boolean fileStreaming;
+
+	private volatile long idleTimeout;
+
+	private volatile HashedTimerWheel<TcpConnectionSupport> idleTimeouts;
+
+	private volatile ScheduledFuture<?> idleScavengerFuture;
+
 	public AbstractConnectionFactory(int port) {
 		this.port = port;
 	}
@@ -495,6 +510,56 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 		this.readDelay = readDelay;
 	}
 
+	/**
+	 * When true, a {@code File}, {@code Path} or {@code FileChannel} payload sent on a
+	 * connection created by this factory is written as a length header frame (requires
+	 * a {@link org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer}),
+	 * with the content transferred from the file rather than read into memory.
+	 * Default false.
+	 * @param fileStreaming true to stream file payloads.
+	 * @since 5.0.1
+	 * @see TcpConnectionSupport#setFileStreaming(boolean)
+	 */
+	public void setFileStreaming(boolean fileStreaming) {
+		this.fileStreaming = fileStreaming;
+	}
+
+	/**
+	 * @return true if file payloads are streamed.
+	 * @since 5.0.1
+	 */
+	protected boolean isFileStreaming() {
+		return this.fileStreaming;
+	}
+
+	/**
+	 * Set the time (in milliseconds) after which a connection with no activity (no data
+	 * read or written) is closed, regardless of the {@link #setSoTimeout(int) soTimeout}.
+	 * Connections are checked using a timer wheel (driven by the task scheduler), so
+	 * the cost does not depend on the number of connections; an idle connection is
+	 * closed up to 10% (minimum 100ms) after the timeout. Default 0 (disabled).
+	 * @param idleTimeout the idle timeout.
+	 * @since 5.0.1
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		Assert.isTrue(idleTimeout >= 0, "'idleTimeout' cannot be negative");
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * @return the idle timeout.
+	 * @since 5.0.1
+	 * @see #setIdleTimeout(long)
+	 */
+	public long getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	@Override // super class is protected
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+		super.setTaskScheduler(taskScheduler);
+	}
+
 	@Override
 	protected void onInit() throws Exception {
 		super.onInit();
@@ -505,11 +570,59 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 
 	@Override
 	public void start() {
+		if (this.idleTimeout > 0) {
+			startIdleScavenger();
+		}
 		if (logger.isInfoEnabled()) {
 			logger.info("started " + this);
 		}
 	}
 
+	private void startIdleScavenger() {
+		synchronized (this.lifecycleMonitor) {
+			if (this.idleScavengerFuture == null) {
+				TaskScheduler taskScheduler = getTaskScheduler();
+				Assert.state(taskScheduler != null, "An idle timeout requires a task scheduler");
+				long interval = Math.max(MIN_IDLE_SCAVENGE_INTERVAL, this.idleTimeout / 10);
+				this.idleTimeouts = new HashedTimerWheel<>(interval, IDLE_WHEEL_SIZE);
+				this.idleScavengerFuture = taskScheduler.scheduleAtFixedRate(this::closeIdleConnections, interval);
+			}
+		}
+	}
+
+	private void closeIdleConnections() {
+		for (Runnable task : this.idleTimeouts.expire(System.currentTimeMillis())) {
+			try {
+				task.run();
+			}
+			catch (RuntimeException e) {
+				logger.error("Failed to close an idle connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Close the connection if it has been idle for the timeout; otherwise check again
+	 * when it will have been, if there is no further activity. Activity does not touch
+	 * the wheel, so each connection is checked at most once per timeout period.
+	 */
+	private void checkIdle(TcpConnectionSupport connection) {
+		HashedTimerWheel<TcpConnectionSupport> idleTimeouts = this.idleTimeouts;
+		if (idleTimeouts == null || !connection.isOpen()) {
+			return;
+		}
+		long deadline = connection.getLastActivity() + this.idleTimeout;
+		if (deadline <= System.currentTimeMillis()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(getComponentName() + ": Closing idle connection: " + connection.getConnectionId());
+			}
+			connection.close();
+		}
+		else {
+			idleTimeouts.schedule(connection, deadline, () -> checkIdle(connection));
+		}
+	}
+
 	/**
 	 * Creates a taskExecutor (if one was not provided).
 	 * @return The executor.
@@ -533,6 +646,14 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 	@Override
 	public void stop() {
 		this.active = false;
+		synchronized (this.lifecycleMonitor) {
+			if (this.idleScavengerFuture != null) {
+				this.idleScavengerFuture.cancel(true);
+				this.idleScavengerFuture = null;
+				this.idleTimeouts.clear();
+				this.idleTimeouts = null;
+			}
+		}
 		synchronized (this.connections) {
 			Iterator<Entry<String, TcpConnectionSupport>> iterator = this.connections.entrySet().iterator();
 			while (iterator.hasNext()) {
@@ -766,6 +887,10 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 					PendingIO pendingRead = this.delayedReads.take();
 					if (pendingRead.key.channel().isOpen()) {
 						pendingRead.key.interestOps(SelectionKey.OP_READ);
+						if (pendingRead.key.selector() != selector) {
+							// the delayed reads are shared by the selectors of a multi-selector server
+							pendingRead.key.selector().wakeup();
+						}
 						wakeSelector = true;
 						if (logger.isDebugEnabled()) {
 							logger.debug("Rescheduling delayed read for " + ((TcpNioConnection) pendingRead.key.attachment()).getConnectionId());
@@ -808,6 +933,11 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 				return;
 			}
 			this.connections.put(connection.getConnectionId(), connection);
+			HashedTimerWheel<TcpConnectionSupport> idleTimeouts = this.idleTimeouts;
+			if (idleTimeouts != null) {
+				idleTimeouts.schedule(connection, connection.getLastActivity() + this.idleTimeout,
+						() -> checkIdle(connection));
+			}
 			if (logger.isDebugEnabled()) {
 				logger.debug(getComponentName() + ": Added new connection: " + connection.getConnectionId());
 			}
@@ -827,6 +957,10 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 				TcpConnectionSupport connection = entry.getValue();
 				if (!connection.isOpen()) {
 					iterator.remove();
+					HashedTimerWheel<TcpConnectionSupport> idleTimeouts = this.idleTimeouts;
+					if (idleTimeouts != null) {
+						idleTimeouts.cancel(connection);
+					}
 					if (logger.isDebugEnabled()) {
 						logger.debug(getComponentName() + ": Removed closed connection: " + connection.getConnectionId());
 					}
@@ -892,6 +1026,56 @@ public abstract class AbstractConnectionFactory extends IntegrationObjectSupport
 		return Collections.unmodifiableList(this.removeClosedConnectionsAndReturnOpenConnectionIds());
 	}
 
+	/**
+	 * Return the number of open connections; unlike {@link #getOpenConnectionIds()},
+	 * this does not remove closed connections.
+	 * @return the number of open connections.
+	 * @since 5.0.1
+	 */
+	public int getOpenConnectionCount() {
+		int count = 0;
+		for (TcpConnectionSupport connection : this.connections.values()) {
+			if (connection.isOpen()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return a snapshot of the activity of each open connection.
+	 * @return the metrics.
+	 * @since 5.0.1
+	 */
+	public List<ConnectionMetrics> getConnectionMetrics() {
+		List<ConnectionMetrics> metrics = new ArrayList<ConnectionMetrics>();
+		for (TcpConnectionSupport connection : this.connections.values()) {
+			if (connection.isOpen()) {
+				metrics.add(connection.getMetrics());
+			}
+		}
+		return metrics;
+	}
+
+	/**
+	 * Return a snapshot of the activity of the busiest open connections (by bytes read
+	 * and written), rendered as strings.
+	 * @param max the maximum number of connections to return.
+	 * @return the metrics.
+	 * @since 5.0.1
+	 * @see #getConnectionMetrics()
+	 */
+	public List<String> busiestConnections(int max) {
+		List<ConnectionMetrics> metrics = getConnectionMetrics();
+		metrics.sort((a, b) -> Long.compare(b.getBytesRead() + b.getBytesWritten(),
+				a.getBytesRead() + a.getBytesWritten()));
+		List<String> result = new ArrayList<String>();
+		for (int i = 0; i < Math.min(max, metrics.size()); i++) {
+			result.add(metrics.get(i).toString());
+		}
+		return result;
+	}
+
 	/**
 	 * Close a connection with the specified connection id.
 	 * @param connectionId the connection id.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2001-2016 the original author or authors.
+ * Copyright 2001-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -127,6 +127,7 @@ public abstract class AbstractServerConnectionFactory extends AbstractConnection
 		connection.setMapper(getMapper());
 		connection.setDeserializer(getDeserializer());
 		connection.setSerializer(getSerializer());
+		connection.setFileStreaming(isFileStreaming());
 		/*
 		 * If we are configured
 		 * for single use; need to enforce a timeout on the socket so we will close
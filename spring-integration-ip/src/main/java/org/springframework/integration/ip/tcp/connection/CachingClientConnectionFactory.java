@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,16 +19,21 @@ package org.springframework.integration.ip.tcp.connection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
+import org.springframework.integration.util.ConcurrentPool;
+import org.springframework.integration.util.Pool;
 import org.springframework.integration.util.SimplePool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.Assert;
 
 /**
  * Connection factory that caches connections from the underlying target factory. The underlying
@@ -44,7 +49,11 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 
 	private final AbstractClientConnectionFactory targetConnectionFactory;
 
-	private final SimplePool<TcpConnectionSupport> pool;
+	private final Pool<TcpConnectionSupport> pool;
+
+	private volatile long evictionInterval;
+
+	private volatile ScheduledFuture<?> evictionFuture;
 
 	/**
 	 * Construct a caching connection factory that delegates to the provided factory, with
@@ -53,11 +62,27 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	 * @param poolSize the number of connections to allow.
 	 */
 	public CachingClientConnectionFactory(AbstractClientConnectionFactory target, int poolSize) {
+		this(target, poolSize, false);
+	}
+
+	/**
+	 * Construct a caching connection factory that delegates to the provided factory, with
+	 * the provided pool size, optionally using a {@link ConcurrentPool}, which does not
+	 * use locks to borrow and return connections, and can evict idle connections
+	 * ({@link #setMaxIdleTime(long)}).
+	 * @param target the target factory.
+	 * @param poolSize the number of connections to allow.
+	 * @param concurrentPool true to use a {@link ConcurrentPool} rather than a
+	 * {@link SimplePool}.
+	 * @since 5.0.1
+	 */
+	public CachingClientConnectionFactory(AbstractClientConnectionFactory target, int poolSize,
+			boolean concurrentPool) {
 		super("", 0);
 		// override single-use to true so the target creates multiple connections
 		target.setSingleUse(true);
 		this.targetConnectionFactory = target;
-		this.pool = new SimplePool<TcpConnectionSupport>(poolSize,
+		SimplePool.PoolItemCallback<TcpConnectionSupport> callback =
 				new SimplePool.PoolItemCallback<TcpConnectionSupport>() {
 
 					@Override
@@ -80,27 +105,92 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 						connection.close();
 					}
 
-				});
+				};
+		this.pool = concurrentPool
+				? new ConcurrentPool<TcpConnectionSupport>(poolSize, callback)
+				: new SimplePool<TcpConnectionSupport>(poolSize, callback);
 	}
 
 	/**
 	 * @param connectionWaitTimeout the new timeout.
 	 * @see SimplePool#setWaitTimeout(long)
+	 * @see ConcurrentPool#setWaitTimeout(long)
 	 */
 	public void setConnectionWaitTimeout(int connectionWaitTimeout) {
-		this.pool.setWaitTimeout(connectionWaitTimeout);
+		if (this.pool instanceof ConcurrentPool) {
+			((ConcurrentPool<TcpConnectionSupport>) this.pool).setWaitTimeout(connectionWaitTimeout);
+		}
+		else {
+			((SimplePool<TcpConnectionSupport>) this.pool).setWaitTimeout(connectionWaitTimeout);
+		}
 	}
 
 	/**
 	 * @param poolSize the new pool size.
 	 * @see SimplePool#setPoolSize(int)
+	 * @see ConcurrentPool#setPoolSize(int)
 	 */
 	public void setPoolSize(int poolSize) {
-		this.pool.setPoolSize(poolSize);
+		if (this.pool instanceof ConcurrentPool) {
+			((ConcurrentPool<TcpConnectionSupport>) this.pool).setPoolSize(poolSize);
+		}
+		else {
+			((SimplePool<TcpConnectionSupport>) this.pool).setPoolSize(poolSize);
+		}
 	}
 
 	/**
-	 * @see SimplePool#getPoolSize()
+	 * Set the time after which idle connections are closed and removed from the pool.
+	 * Unless an {@link #setEvictionInterval(long) eviction interval} is set, eviction is
+	 * performed by a borrowing thread, at most once per this time.
+	 * Requires a {@link ConcurrentPool}.
+	 * @param maxIdleTime the time in milliseconds.
+	 * @since 5.0.1
+	 * @see ConcurrentPool#setMaxIdleTime(long)
+	 * @see ConcurrentPool#setEvictionInterval(long)
+	 */
+	public void setMaxIdleTime(long maxIdleTime) {
+		ConcurrentPool<TcpConnectionSupport> concurrentPool = concurrentPool("maxIdleTime");
+		concurrentPool.setMaxIdleTime(maxIdleTime);
+		if (this.evictionInterval <= 0) {
+			concurrentPool.setEvictionInterval(maxIdleTime);
+		}
+	}
+
+	/**
+	 * Set the interval at which idle connections are validated, and evicted if they are
+	 * stale or have been idle for longer than the {@link #setMaxIdleTime(long) maxIdleTime},
+	 * by a task scheduled on the task scheduler when the factory is started, rather
+	 * than by borrowing threads. Requires a {@link ConcurrentPool}.
+	 * @param evictionInterval the interval in milliseconds.
+	 * @since 5.0.1
+	 * @see ConcurrentPool#scheduleEviction(TaskScheduler, long)
+	 * @see #setValidationInterval(long)
+	 */
+	public void setEvictionInterval(long evictionInterval) {
+		concurrentPool("evictionInterval").setEvictionInterval(0);
+		this.evictionInterval = evictionInterval;
+	}
+
+	/**
+	 * Set the time for which an idle connection, once validated (for example by the
+	 * scheduled eviction), is not validated again when it is borrowed.
+	 * Requires a {@link ConcurrentPool}.
+	 * @param validationInterval the interval in milliseconds.
+	 * @since 5.0.1
+	 * @see ConcurrentPool#setValidationInterval(long)
+	 */
+	public void setValidationInterval(long validationInterval) {
+		concurrentPool("validationInterval").setValidationInterval(validationInterval);
+	}
+
+	private ConcurrentPool<TcpConnectionSupport> concurrentPool(String property) {
+		Assert.state(this.pool instanceof ConcurrentPool, "'" + property + "' requires a ConcurrentPool");
+		return (ConcurrentPool<TcpConnectionSupport>) this.pool;
+	}
+
+	/**
+	 * @see Pool#getPoolSize()
 	 * @return the pool size.
 	 */
 	public int getPoolSize() {
@@ -108,7 +198,7 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	}
 
 	/**
-	 * @see SimplePool#getIdleCount()
+	 * @see Pool#getIdleCount()
 	 * @return the idle count.
 	 */
 	public int getIdleCount() {
@@ -116,7 +206,7 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	}
 
 	/**
-	 * @see SimplePool#getActiveCount()
+	 * @see Pool#getActiveCount()
 	 * @return the active count.
 	 */
 	public int getActiveCount() {
@@ -124,7 +214,7 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	}
 
 	/**
-	 * @see SimplePool#getAllocatedCount()
+	 * @see Pool#getAllocatedCount()
 	 * @return the allocated count.
 	 */
 	public int getAllocatedCount() {
@@ -379,11 +469,23 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 	public void start() {
 		setActive(true);
 		this.targetConnectionFactory.start();
+		synchronized (this) {
+			if (this.evictionInterval > 0 && this.evictionFuture == null) {
+				TaskScheduler taskScheduler = getTaskScheduler();
+				Assert.state(taskScheduler != null, "An eviction interval requires a task scheduler");
+				this.evictionFuture = concurrentPool("evictionInterval")
+						.scheduleEviction(taskScheduler, this.evictionInterval);
+			}
+		}
 		super.start();
 	}
 
 	@Override
 	public synchronized void stop() {
+		if (this.evictionFuture != null) {
+			this.evictionFuture.cancel(false);
+			this.evictionFuture = null;
+		}
 		this.targetConnectionFactory.stop();
 		this.pool.removeAllIdleItems();
 	}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.ip.tcp.connection;
+
+/**
+ * A snapshot of the activity of a {@link TcpConnectionSupport connection}.
+ *
+ * @since 5.0.1
+ *
+ */
+public final class ConnectionMetrics {
+
+	private final String connectionId;
+
+	private final long bytesRead;
+
+	private final long bytesWritten;
+
+	private final long messagesReceived;
+
+	private final long messagesSent;
+
+	private final long lastActivity;
+
+	ConnectionMetrics(String connectionId, long bytesRead, long bytesWritten, long messagesReceived,
+			long messagesSent, long lastActivity) {
+		this.connectionId = connectionId;
+		this.bytesRead = bytesRead;
+		this.bytesWritten = bytesWritten;
+		this.messagesReceived = messagesReceived;
+		this.messagesSent = messagesSent;
+		this.lastActivity = lastActivity;
+	}
+
+	/**
+	 * @return the connection id.
+	 */
+	public String getConnectionId() {
+		return this.connectionId;
+	}
+
+	/**
+	 * @return the number of bytes read from the socket.
+	 */
+	public long getBytesRead() {
+		return this.bytesRead;
+	}
+
+	/**
+	 * @return the number of bytes written to the socket.
+	 */
+	public long getBytesWritten() {
+		return this.bytesWritten;
+	}
+
+	/**
+	 * @return the number of messages (frames) received.
+	 */
+	public long getMessagesReceived() {
+		return this.messagesReceived;
+	}
+
+	/**
+	 * @return the number of messages (frames) sent.
+	 */
+	public long getMessagesSent() {
+		return this.messagesSent;
+	}
+
+	/**
+	 * @return the time (milliseconds since the epoch) that data was last read or
+	 * written; the time the connection was created if there has been no activity.
+	 */
+	public long getLastActivity() {
+		return this.lastActivity;
+	}
+
+	@Override
+	public String toString() {
+		return "ConnectionMetrics [connectionId=" + this.connectionId + ", bytesRead=" + this.bytesRead
+				+ ", bytesWritten=" + this.bytesWritten + ", messagesReceived=" + this.messagesReceived
+				+ ", messagesSent=" + this.messagesSent + ", lastActivity=" + this.lastActivity + "]";
+	}
+
+}
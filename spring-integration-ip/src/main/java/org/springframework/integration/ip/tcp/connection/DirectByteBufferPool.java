@@ -0,0 +1,254 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.ip.tcp.connection;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.util.Assert;
+
+/**
+ * A bounded pool of direct {@link ByteBuffer}s, which can be shared by NIO connection
+ * factories, to avoid allocating (and later reclaiming) direct memory for each
+ * connection.
+ * <p>
+ * Buffers are pooled in power-of-two size classes, from the minimum to the maximum
+ * buffer size; a request is served with a buffer of the smallest class that
+ * satisfies it, so the buffer's capacity may exceed the requested length. Up to
+ * {@code maxPooledPerSize} idle buffers are retained for each class; buffers released
+ * when the class is full, and requests larger than the maximum buffer size, are not
+ * pooled and are left to the garbage collector.
+ *
+ * @since 5.0.1
+ */
+@ManagedResource
+public class DirectByteBufferPool {
+
+	/**
+	 * The default minimum (smallest size class) buffer size.
+	 */
+	public static final int DEFAULT_MIN_BUFFER_SIZE = 1024;
+
+	/**
+	 * The default maximum (largest size class) buffer size.
+	 */
+	public static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
+
+	/**
+	 * The default maximum number of idle buffers retained for each size class.
+	 */
+	public static final int DEFAULT_MAX_POOLED_PER_SIZE = 64;
+
+	private final int minShift;
+
+	private final int maxBufferSize;
+
+	private final BlockingQueue<ByteBuffer>[] pools;
+
+	private final AtomicInteger borrowed = new AtomicInteger();
+
+	private final AtomicLong allocations = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong discards = new AtomicLong();
+
+	/**
+	 * Construct a pool with the default sizes.
+	 */
+	public DirectByteBufferPool() {
+		this(DEFAULT_MAX_POOLED_PER_SIZE);
+	}
+
+	/**
+	 * Construct a pool with the default buffer sizes and the provided number of
+	 * buffers retained for each size class.
+	 * @param maxPooledPerSize the maximum number of idle buffers for each size class.
+	 */
+	public DirectByteBufferPool(int maxPooledPerSize) {
+		this(DEFAULT_MIN_BUFFER_SIZE, DEFAULT_MAX_BUFFER_SIZE, maxPooledPerSize);
+	}
+
+	/**
+	 * Construct a pool with the provided sizes; the buffer sizes are rounded up to
+	 * a power of two.
+	 * @param minBufferSize the smallest size class.
+	 * @param maxBufferSize the largest size class.
+	 * @param maxPooledPerSize the maximum number of idle buffers for each size class.
+	 */
+	@SuppressWarnings("unchecked")
+	public DirectByteBufferPool(int minBufferSize, int maxBufferSize, int maxPooledPerSize) {
+		Assert.isTrue(minBufferSize > 0, "'minBufferSize' must be > 0");
+		Assert.isTrue(maxBufferSize >= minBufferSize, "'maxBufferSize' must be >= 'minBufferSize'");
+		Assert.isTrue(maxBufferSize <= 1 << 30, "'maxBufferSize' must be <= 2^30");
+		Assert.isTrue(maxPooledPerSize > 0, "'maxPooledPerSize' must be > 0");
+		this.minShift = shift(minBufferSize);
+		int maxShift = shift(maxBufferSize);
+		this.maxBufferSize = 1 << maxShift;
+		this.pools = new BlockingQueue[maxShift - this.minShift + 1];
+		for (int i = 0; i < this.pools.length; i++) {
+			this.pools[i] = new ArrayBlockingQueue<>(maxPooledPerSize);
+		}
+	}
+
+	/**
+	 * Obtain a direct buffer with at least the requested capacity, cleared and ready
+	 * for use.
+	 * @param capacity the required capacity.
+	 * @return the buffer.
+	 */
+	public ByteBuffer acquire(int capacity) {
+		this.borrowed.incrementAndGet();
+		if (capacity > this.maxBufferSize) {
+			this.allocations.incrementAndGet();
+			return ByteBuffer.allocateDirect(capacity);
+		}
+		int index = index(capacity);
+		ByteBuffer buffer = this.pools[index].poll();
+		if (buffer == null) {
+			this.allocations.incrementAndGet();
+			return ByteBuffer.allocateDirect(1 << (index + this.minShift));
+		}
+		this.hits.incrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Return a buffer obtained from {@link #acquire(int)} to the pool; the buffer must
+	 * not be used by the caller after it is released.
+	 * @param buffer the buffer.
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer == null || !buffer.isDirect()) {
+			return;
+		}
+		this.borrowed.decrementAndGet();
+		int capacity = buffer.capacity();
+		if (capacity <= this.maxBufferSize && Integer.bitCount(capacity) == 1) {
+			int index = index(capacity);
+			if (1 << (index + this.minShift) == capacity && this.pools[index].offer(buffer)) {
+				return;
+			}
+		}
+		this.discards.incrementAndGet();
+	}
+
+	/**
+	 * Discard all idle buffers.
+	 */
+	@ManagedOperation
+	public void clear() {
+		for (BlockingQueue<ByteBuffer> pool : this.pools) {
+			pool.clear();
+		}
+	}
+
+	/**
+	 * @return the number of buffers currently acquired and not yet released.
+	 */
+	@ManagedAttribute
+	public int getBorrowedCount() {
+		return this.borrowed.get();
+	}
+
+	/**
+	 * @return the number of idle buffers in the pool.
+	 */
+	@ManagedAttribute
+	public int getIdleCount() {
+		int count = 0;
+		for (BlockingQueue<ByteBuffer> pool : this.pools) {
+			count += pool.size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return the total capacity of the idle buffers in the pool.
+	 */
+	@ManagedAttribute
+	public long getIdleBytes() {
+		long bytes = 0;
+		for (int i = 0; i < this.pools.length; i++) {
+			bytes += (long) this.pools[i].size() << (i + this.minShift);
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the number of idle buffers in the pool, keyed by size class.
+	 */
+	@ManagedAttribute
+	public Map<Integer, Integer> getIdleCountBySize() {
+		Map<Integer, Integer> counts = new LinkedHashMap<>();
+		for (int i = 0; i < this.pools.length; i++) {
+			counts.put(1 << (i + this.minShift), this.pools[i].size());
+		}
+		return counts;
+	}
+
+	/**
+	 * @return the number of buffers allocated because no idle buffer was available.
+	 */
+	@ManagedAttribute
+	public long getAllocationCount() {
+		return this.allocations.get();
+	}
+
+	/**
+	 * @return the number of requests served with an idle buffer from the pool.
+	 */
+	@ManagedAttribute
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * @return the number of released buffers that were not retained, because the pool
+	 * for their size was full or they were not pooled.
+	 */
+	@ManagedAttribute
+	public long getDiscardCount() {
+		return this.discards.get();
+	}
+
+	private int index(int capacity) {
+		return Math.max(shift(capacity) - this.minShift, 0);
+	}
+
+	private static int shift(int size) {
+		return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+	}
+
+	@Override
+	public String toString() {
+		return "DirectByteBufferPool [borrowed=" + getBorrowedCount() + ", idle=" + getIdleCount()
+				+ ", idleBytes=" + getIdleBytes() + ", allocations=" + getAllocationCount()
+				+ ", hits=" + getHitCount() + ", discards=" + getDiscardCount() + "]";
+	}
+
+}
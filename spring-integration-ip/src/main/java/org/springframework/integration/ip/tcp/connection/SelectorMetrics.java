@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.connection;
+
+/**
+ * A snapshot of the activity of one of the selector loops of a
+ * {@link TcpNioServerConnectionFactory}.
+ *
+ * @since 5.0.1
+ *
+ */
+public final class SelectorMetrics {
+
+	private final String name;
+
+	private final int connectionCount;
+
+	private final long selectCount;
+
+	private final long selectedKeyCount;
+
+	private final long maxSelectedKeys;
+
+	private final long processingTime;
+
+	private final long maxProcessingTime;
+
+	SelectorMetrics(String name, int connectionCount, long selectCount, long selectedKeyCount,
+			long maxSelectedKeys, long processingTime, long maxProcessingTime) {
+		this.name = name;
+		this.connectionCount = connectionCount;
+		this.selectCount = selectCount;
+		this.selectedKeyCount = selectedKeyCount;
+		this.maxSelectedKeys = maxSelectedKeys;
+		this.processingTime = processingTime;
+		this.maxProcessingTime = maxProcessingTime;
+	}
+
+	/**
+	 * @return the name of the selector; "acceptor", or "io-n" for the I/O selectors.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @return the number of connections registered with the selector (including any
+	 * that have closed but have not yet been harvested).
+	 */
+	public int getConnectionCount() {
+		return this.connectionCount;
+	}
+
+	/**
+	 * @return the number of times the selector loop has run.
+	 */
+	public long getSelectCount() {
+		return this.selectCount;
+	}
+
+	/**
+	 * @return the total number of ready keys processed.
+	 */
+	public long getSelectedKeyCount() {
+		return this.selectedKeyCount;
+	}
+
+	/**
+	 * @return the maximum number of ready keys processed in one loop.
+	 */
+	public long getMaxSelectedKeys() {
+		return this.maxSelectedKeys;
+	}
+
+	/**
+	 * @return the mean number of ready keys processed per loop.
+	 */
+	public double getMeanSelectedKeys() {
+		return this.selectCount == 0 ? 0 : (double) this.selectedKeyCount / this.selectCount;
+	}
+
+	/**
+	 * @return the total time (nanoseconds) spent processing ready keys; excludes the
+	 * time spent waiting in {@code select()}.
+	 */
+	public long getProcessingTime() {
+		return this.processingTime;
+	}
+
+	/**
+	 * @return the maximum time (nanoseconds) spent processing ready keys in one loop.
+	 */
+	public long getMaxProcessingTime() {
+		return this.maxProcessingTime;
+	}
+
+	/**
+	 * @return the mean time (nanoseconds) spent processing ready keys per loop.
+	 */
+	public double getMeanProcessingTime() {
+		return this.selectCount == 0 ? 0 : (double) this.processingTime / this.selectCount;
+	}
+
+	@Override
+	public String toString() {
+		return "SelectorMetrics [name=" + this.name + ", connectionCount=" + this.connectionCount
+				+ ", selectCount=" + this.selectCount + ", meanSelectedKeys=" + getMeanSelectedKeys()
+				+ ", maxSelectedKeys=" + this.maxSelectedKeys + ", meanProcessingTime=" + getMeanProcessingTime()
+				+ ", maxProcessingTime=" + this.maxProcessingTime + "]";
+	}
+
+}
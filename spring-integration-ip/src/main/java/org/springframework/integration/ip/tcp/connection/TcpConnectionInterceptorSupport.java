@@ -141,6 +141,26 @@ public abstract class TcpConnectionInterceptorSupport extends TcpConnectionSuppo
 		this.theConnection.setSerializer(serializer);
 	}
 
+	@Override
+	public void setFileStreaming(boolean fileStreaming) {
+		this.theConnection.setFileStreaming(fileStreaming);
+	}
+
+	@Override
+	public boolean isFileStreaming() {
+		return this.theConnection.isFileStreaming();
+	}
+
+	@Override
+	public ConnectionMetrics getMetrics() {
+		return this.theConnection.getMetrics();
+	}
+
+	@Override
+	public long getLastActivity() {
+		return this.theConnection.getLastActivity();
+	}
+
 	@Override
 	public boolean isServer() {
 		return this.theConnection.isServer();
@@ -16,8 +16,14 @@
 
 package org.springframework.integration.ip.tcp.connection;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
@@ -25,6 +31,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -34,6 +41,7 @@ import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.tcp.serializer.AbstractByteArraySerializer;
+import org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.ErrorMessage;
 import org.springframework.util.Assert;
@@ -49,6 +57,12 @@ import org.springframework.util.Assert;
  */
 public abstract class TcpConnectionSupport implements TcpConnection {
 
+	private static final AtomicLongFieldUpdater<TcpConnectionSupport> BYTES_WRITTEN_UPDATER =
+			AtomicLongFieldUpdater.newUpdater(TcpConnectionSupport.class, "bytesWritten");
+
+	private static final AtomicLongFieldUpdater<TcpConnectionSupport> MESSAGES_SENT_UPDATER =
+			AtomicLongFieldUpdater.newUpdater(TcpConnectionSupport.class, "messagesSent");
+
 	protected final Log logger = LogFactory.getLog(this.getClass());
 
 	private final CountDownLatch listenerRegisteredLatch = new CountDownLatch(1);
@@ -89,6 +103,23 @@ public abstract class TcpConnectionSupport implements TcpConnection {
 
 	private volatile boolean manualListenerRegistration;
 
+	private volatile boolean fileStreaming;
+
+	/*
+	 * Activity counters; the read counters are only updated by the reading thread;
+	 * the write counters are updated atomically, since messages can be sent (or
+	 * coalesced writes flushed) concurrently.
+	 */
+	private volatile long bytesRead;
+
+	private volatile long messagesReceived;
+
+	private volatile long bytesWritten;
+
+	private volatile long messagesSent;
+
+	private volatile long lastActivity = System.currentTimeMillis();
+
 	public TcpConnectionSupport() {
 		this(null);
 	}
@@ -230,6 +261,81 @@ public abstract class TcpConnectionSupport implements TcpConnection {
 		}
 	}
 
+	/**
+	 * When true, a {@link File}, {@link Path} or {@link FileChannel} payload is sent as
+	 * a length header frame (requires a {@link ByteArrayLengthHeaderSerializer}), with
+	 * the content transferred from the file to the socket rather than read into memory.
+	 * @param fileStreaming true to stream file payloads.
+	 * @since 5.0.1
+	 */
+	public void setFileStreaming(boolean fileStreaming) {
+		this.fileStreaming = fileStreaming;
+	}
+
+	/**
+	 * @return true if file payloads are streamed.
+	 * @since 5.0.1
+	 * @see #setFileStreaming(boolean)
+	 */
+	public boolean isFileStreaming() {
+		return this.fileStreaming;
+	}
+
+	/**
+	 * Return a snapshot of the activity of this connection.
+	 * @return the metrics.
+	 * @since 5.0.1
+	 */
+	public ConnectionMetrics getMetrics() {
+		return new ConnectionMetrics(getConnectionId(), this.bytesRead, this.bytesWritten,
+				this.messagesReceived, this.messagesSent, this.lastActivity);
+	}
+
+	/**
+	 * @return the time (milliseconds since the epoch) that data was last read or
+	 * written; the time the connection was created if there has been no activity.
+	 * @since 5.0.1
+	 */
+	public long getLastActivity() {
+		return this.lastActivity;
+	}
+
+	/**
+	 * Record bytes read from the socket; only to be called by the reading thread.
+	 * @param count the number of bytes.
+	 * @since 5.0.1
+	 */
+	protected void recordBytesRead(long count) {
+		this.bytesRead += count;
+		this.lastActivity = System.currentTimeMillis();
+	}
+
+	/**
+	 * Record bytes written to the socket.
+	 * @param count the number of bytes.
+	 * @since 5.0.1
+	 */
+	protected void recordBytesWritten(long count) {
+		BYTES_WRITTEN_UPDATER.addAndGet(this, count);
+		this.lastActivity = System.currentTimeMillis();
+	}
+
+	/**
+	 * Record a message received; only to be called by the reading thread.
+	 * @since 5.0.1
+	 */
+	protected void recordMessageReceived() {
+		this.messagesReceived++;
+	}
+
+	/**
+	 * Record a message sent.
+	 * @since 5.0.1
+	 */
+	protected void recordMessageSent() {
+		MESSAGES_SENT_UPDATER.incrementAndGet(this);
+	}
+
 	/**
 	 * Set the listener that will receive incoming Messages.
 	 * @param listener The listener.
@@ -332,6 +438,59 @@ public abstract class TcpConnectionSupport implements TcpConnection {
 		return this.connectionFactoryName;
 	}
 
+	/**
+	 * @param payload the payload.
+	 * @return true if file streaming is enabled and the payload is a {@link File},
+	 * {@link Path} or {@link FileChannel}.
+	 * @since 5.0.1
+	 */
+	protected boolean isFileStreamingPayload(Object payload) {
+		return this.fileStreaming
+				&& (payload instanceof File || payload instanceof Path || payload instanceof FileChannel);
+	}
+
+	/**
+	 * Send a {@link File}, {@link Path} or {@link FileChannel} payload as a length
+	 * header frame: the header is written to, and flushed from, the output stream, then
+	 * the content is written by the transfer. A {@link FileChannel} payload is sent from
+	 * its current position, which is then advanced to the end; it is not closed.
+	 * @param payload the payload.
+	 * @param outputStream the stream for the header.
+	 * @param transfer the transfer of the content.
+	 * @throws IOException an IOException.
+	 * @since 5.0.1
+	 */
+	protected void sendFile(Object payload, OutputStream outputStream, FileTransfer transfer)
+			throws IOException {
+
+		Serializer<?> serializer = getSerializer();
+		Assert.state(serializer instanceof ByteArrayLengthHeaderSerializer,
+				"File streaming requires a ByteArrayLengthHeaderSerializer");
+		boolean channelPayload = payload instanceof FileChannel;
+		FileChannel fileChannel = channelPayload
+				? (FileChannel) payload
+				: FileChannel.open(payload instanceof File ? ((File) payload).toPath() : (Path) payload,
+						StandardOpenOption.READ);
+		try {
+			long position = fileChannel.position();
+			long length = fileChannel.size() - position;
+			if (length > Integer.MAX_VALUE) {
+				throw new IOException("File too large for a length header: " + length);
+			}
+			((ByteArrayLengthHeaderSerializer) serializer).serializeHeader((int) length, outputStream);
+			outputStream.flush();
+			transfer.transfer(fileChannel, position, length);
+			if (channelPayload) {
+				fileChannel.position(position + length);
+			}
+		}
+		finally {
+			if (!channelPayload) {
+				fileChannel.close();
+			}
+		}
+	}
+
 	protected boolean isNoReadErrorOnClose() {
 		return this.noReadErrorOnClose;
 	}
@@ -404,4 +563,22 @@ public abstract class TcpConnectionSupport implements TcpConnection {
 		return getClass().getSimpleName() + ":" + this.connectionId;
 	}
 
+	/**
+	 * Writes (part of) a file to the connection.
+	 * @since 5.0.1
+	 */
+	@FunctionalInterface
+	protected interface FileTransfer {
+
+		/**
+		 * Write the file content.
+		 * @param fileChannel the file channel.
+		 * @param position the position of the first byte.
+		 * @param count the number of bytes.
+		 * @throws IOException an IOException.
+		 */
+		void transfer(FileChannel fileChannel, long position, long count) throws IOException;
+
+	}
+
 }
@@ -17,12 +17,18 @@
 package org.springframework.integration.ip.tcp.connection;
 
 import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
 
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
@@ -46,8 +52,12 @@ public class TcpNetConnection extends TcpConnectionSupport implements Scheduling
 
 	private final Socket socket;
 
+	private final Object inputStreamMonitor = new Object();
+
 	private volatile OutputStream socketOutputStream;
 
+	private volatile InputStream socketInputStream;
+
 	private volatile long lastRead = System.currentTimeMillis();
 
 	private volatile long lastSend;
@@ -99,9 +109,25 @@ public class TcpNetConnection extends TcpConnectionSupport implements Scheduling
 	public synchronized void send(Message<?> message) throws Exception {
 		if (this.socketOutputStream == null) {
 			int writeBufferSize = this.socket.getSendBufferSize();
-			this.socketOutputStream = new BufferedOutputStream(this.socket.getOutputStream(),
+			this.socketOutputStream = new BufferedOutputStream(new CountingOutputStream(this.socket.getOutputStream()),
 					writeBufferSize > 0 ? writeBufferSize : 8192);
 		}
+		if (isFileStreamingPayload(message.getPayload())) {
+			this.lastSend = System.currentTimeMillis();
+			try {
+				sendFile(message.getPayload(), this.socketOutputStream, this::transferFile);
+			}
+			catch (Exception e) {
+				this.publishConnectionExceptionEvent(new MessagingException(message, "Failed TCP file transfer", e));
+				this.closeConnection(true);
+				throw e;
+			}
+			recordMessageSent();
+			if (logger.isDebugEnabled()) {
+				logger.debug(getConnectionId() + " File sent " + message);
+			}
+			return;
+		}
 		Object object = this.getMapper().fromMessage(message);
 		this.lastSend = System.currentTimeMillis();
 		try {
@@ -113,11 +139,36 @@ public class TcpNetConnection extends TcpConnectionSupport implements Scheduling
 			this.closeConnection(true);
 			throw e;
 		}
+		recordMessageSent();
 		if (logger.isDebugEnabled()) {
 			logger.debug(getConnectionId() + " Message sent " + message);
 		}
 	}
 
+	/**
+	 * Transfer directly to the socket's channel, if it has one (when the socket factory
+	 * creates sockets from channels); otherwise, the content is copied to the socket's
+	 * stream through a small buffer.
+	 */
+	private void transferFile(FileChannel fileChannel, long position, long count) throws IOException {
+		SocketChannel socketChannel = this.socket.getChannel();
+		WritableByteChannel target = socketChannel != null
+				? socketChannel
+				: Channels.newChannel(this.socketOutputStream);
+		long end = position + count;
+		while (position < end) {
+			long transferred = fileChannel.transferTo(position, end - position, target);
+			if (transferred <= 0) {
+				throw new IOException("File truncated during transfer");
+			}
+			position += transferred;
+		}
+		if (socketChannel != null) {
+			recordBytesWritten(count);
+		}
+		this.socketOutputStream.flush();
+	}
+
 	@Override
 	public Object getPayload() throws Exception {
 		return this.getDeserializer().deserialize(inputStream());
@@ -155,7 +206,14 @@ public class TcpNetConnection extends TcpConnectionSupport implements Scheduling
 	 * @since 5.0
 	 */
 	protected InputStream inputStream() throws IOException {
-		return this.socket.getInputStream();
+		if (this.socketInputStream == null) {
+			synchronized (this.inputStreamMonitor) {
+				if (this.socketInputStream == null) {
+					this.socketInputStream = new CountingInputStream(this.socket.getInputStream());
+				}
+			}
+		}
+		return this.socketInputStream;
 	}
 
 	/**
@@ -184,6 +242,7 @@ public class TcpNetConnection extends TcpConnectionSupport implements Scheduling
 				}
 			}
 			if (okToRun && message != null) {
+				recordMessageReceived();
 				if (logger.isDebugEnabled()) {
 					logger.debug("Message received " + message);
 				}
@@ -269,4 +328,57 @@ public class TcpNetConnection extends TcpConnectionSupport implements Scheduling
 		return doClose;
 	}
 
+	/**
+	 * Counts the bytes read from the socket.
+	 */
+	private final class CountingInputStream extends FilterInputStream {
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				recordBytesRead(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				recordBytesRead(n);
+			}
+			return n;
+		}
+
+	}
+
+	/**
+	 * Counts the bytes written to the socket; wrapped in a buffered stream, so it sees
+	 * few, large, writes.
+	 */
+	private final class CountingOutputStream extends FilterOutputStream {
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			recordBytesWritten(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			recordBytesWritten(len);
+		}
+
+	}
+
 }
@@ -46,6 +46,14 @@ public class TcpNioClientConnectionFactory extends
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean inPlaceFraming;
+
+	private volatile DirectByteBufferPool bufferPool;
+
+	private volatile long writeCoalescingWindow;
+
+	private volatile int writeCoalescingBudget;
+
 	private volatile Selector selector;
 
 	private final Map<SocketChannel, TcpNioConnection> channelMap = new ConcurrentHashMap<SocketChannel, TcpNioConnection>();
@@ -87,6 +95,15 @@ public class TcpNioClientConnectionFactory extends
 		TcpNioConnection connection = this.tcpNioConnectionSupport.createNewConnection(
 				socketChannel, false, this.isLookupHost(), this.getApplicationEventPublisher(), getComponentName());
 		connection.setUsingDirectBuffers(this.usingDirectBuffers);
+		connection.setInPlaceFraming(this.inPlaceFraming);
+		connection.setBufferPool(this.bufferPool);
+		connection.setWriteCoalescingWindow(this.writeCoalescingWindow);
+		if (this.writeCoalescingBudget > 0) {
+			connection.setWriteCoalescingBudget(this.writeCoalescingBudget);
+		}
+		if (this.writeCoalescingWindow > 0) {
+			connection.setTaskScheduler(getTaskScheduler());
+		}
 		connection.setTaskExecutor(this.getTaskExecutor());
 		if (getSslHandshakeTimeout() != null && connection instanceof TcpNioSSLConnection) {
 			((TcpNioSSLConnection) connection).setHandshakeTimeout(getSslHandshakeTimeout());
@@ -113,6 +130,60 @@ public class TcpNioClientConnectionFactory extends
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * When set to true, and the deserializer is a
+	 * {@link org.springframework.integration.ip.tcp.serializer.ByteBufferFrameDecoder},
+	 * connections created by this factory decode frames in place from the buffer the data
+	 * is read into, and send them to the listener on the reading thread; there is no
+	 * copy through a pipe to a separate assembler thread. Downstream processing then
+	 * delays further reads from the same connection, so it should be fast, or hand off
+	 * to another thread.
+	 * @param inPlaceFraming true to decode frames in place.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setInPlaceFraming(boolean)
+	 */
+	public void setInPlaceFraming(boolean inPlaceFraming) {
+		this.inPlaceFraming = inPlaceFraming;
+	}
+
+	/**
+	 * Set a pool of direct buffers, which may be shared with other factories; the
+	 * connections created by this factory borrow their buffers from the pool (instead
+	 * of allocating them), and return them when closed.
+	 * @param bufferPool the pool.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setBufferPool(DirectByteBufferPool)
+	 */
+	public void setBufferPool(DirectByteBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * Set the time (in milliseconds) for which messages sent on connections created by
+	 * this factory are queued, so that they can be written together with a single
+	 * gathering write; useful when sending many small messages to the same peer.
+	 * Write failures are then not reported to the sender; the connection is closed.
+	 * The queued messages are written by a task scheduled on the task scheduler, which
+	 * is therefore required. Default 0 (disabled).
+	 * @param writeCoalescingWindow the window.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setWriteCoalescingWindow(long)
+	 */
+	public void setWriteCoalescingWindow(long writeCoalescingWindow) {
+		this.writeCoalescingWindow = writeCoalescingWindow;
+	}
+
+	/**
+	 * Set the number of queued bytes which causes coalesced messages to be written
+	 * before the window expires. Default 64k.
+	 * @param writeCoalescingBudget the budget.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setWriteCoalescingBudget(int)
+	 */
+	public void setWriteCoalescingBudget(int writeCoalescingBudget) {
+		this.writeCoalescingBudget = writeCoalescingBudget;
+	}
+
 	public void setTcpNioConnectionSupport(TcpNioConnectionSupport tcpNioSupport) {
 		Assert.notNull(tcpNioSupport, "TcpNioSupport must not be null");
 		this.tcpNioConnectionSupport = tcpNioSupport;
@@ -138,6 +209,8 @@ public class TcpNioClientConnectionFactory extends
 
 	@Override
 	public void start() {
+		Assert.state(this.writeCoalescingWindow <= 0 || getTaskScheduler() != null,
+				"A write coalescing window requires a task scheduler");
 		synchronized (this.lifecycleMonitor) {
 			if (!this.isActive()) {
 				this.setActive(true);
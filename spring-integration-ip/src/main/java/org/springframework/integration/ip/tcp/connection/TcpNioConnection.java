@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,9 +23,13 @@ import java.io.OutputStream;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
@@ -34,16 +38,19 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.SSLSession;
 
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.ip.tcp.serializer.ByteBufferFrameDecoder;
 import org.springframework.integration.ip.tcp.serializer.SoftEndOfStreamException;
 import org.springframework.integration.util.CompositeExecutor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 
 /**
@@ -58,6 +65,10 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private static final long DEFAULT_PIPE_TIMEOUT = 60000;
 
+	private static final int DEFAULT_WRITE_COALESCING_BUDGET = 64 * 1024;
+
+	private static final int INITIAL_FRAME_BUFFER_SIZE = 256;
+
 	private final SocketChannel socketChannel;
 
 	private final ChannelOutputStream channelOutputStream;
@@ -88,6 +99,34 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private volatile boolean timedOut;
 
+	private volatile boolean inPlaceFraming;
+
+	private volatile ByteBufferFrameDecoder frameDecoder;
+
+	private volatile ByteBuffer frameBuffer;
+
+	private volatile int partialFrameLength;
+
+	private volatile byte[] currentFrame;
+
+	private volatile DirectByteBufferPool bufferPool;
+
+	private final AtomicInteger bufferUsers = new AtomicInteger(1);
+
+	private final AtomicBoolean buffersClosed = new AtomicBoolean();
+
+	private final List<ByteBuffer> pendingWrites = new ArrayList<ByteBuffer>();
+
+	private volatile long writeCoalescingWindow;
+
+	private volatile int writeCoalescingBudget = DEFAULT_WRITE_COALESCING_BUDGET;
+
+	private volatile TaskScheduler taskScheduler;
+
+	private int pendingWriteBytes;
+
+	private boolean flushScheduled;
+
 	/**
 	 * Constructs a TcpNetConnection for the SocketChannel.
 	 * @param socketChannel The socketChannel.
@@ -117,6 +156,16 @@ public class TcpNioConnection extends TcpConnectionSupport {
 	@Override
 	public void close() {
 		this.setNoReadErrorOnClose(true);
+		if (this.writeCoalescingWindow > 0 && isOpen()) {
+			try {
+				flushPendingWrites();
+			}
+			catch (Exception e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(getConnectionId() + " Failed to flush pending writes on close", e);
+				}
+			}
+		}
 		doClose();
 	}
 
@@ -131,6 +180,9 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 		catch (Exception e) {
 		}
+		if (this.buffersClosed.compareAndSet(false, true)) {
+			releaseBuffers();
+		}
 		super.close();
 	}
 
@@ -142,6 +194,14 @@ public class TcpNioConnection extends TcpConnectionSupport {
 	@Override
 	@SuppressWarnings("unchecked")
 	public void send(Message<?> message) throws Exception {
+		if (isFileStreamingPayload(message.getPayload())) {
+			sendFile(message);
+			return;
+		}
+		if (this.writeCoalescingWindow > 0) {
+			sendCoalesced(message);
+			return;
+		}
 		synchronized (this.socketChannel) {
 			if (this.bufferedOutputStream == null) {
 				int writeBufferSize = this.socketChannel.socket().getSendBufferSize();
@@ -150,23 +210,220 @@ public class TcpNioConnection extends TcpConnectionSupport {
 			}
 			Object object = this.getMapper().fromMessage(message);
 			this.lastSend = System.currentTimeMillis();
+			boolean retained = retainBuffers();
 			try {
+				if (!retained) {
+					throw new ClosedChannelException();
+				}
 				((Serializer<Object>) this.getSerializer()).serialize(object, this.bufferedOutputStream);
 				this.bufferedOutputStream.flush();
+				recordMessageSent();
 			}
 			catch (Exception e) {
 				this.publishConnectionExceptionEvent(new MessagingException(message, "Failed TCP serialization", e));
 				this.closeConnection(true);
 				throw e;
 			}
+			finally {
+				if (retained) {
+					releaseBuffers();
+				}
+			}
 			if (logger.isDebugEnabled()) {
 				logger.debug(getConnectionId() + " Message sent " + message);
 			}
 		}
 	}
 
+	/**
+	 * Send a file payload; the content is transferred from the file directly to the
+	 * socket channel. Any queued (coalesced) messages are written first.
+	 */
+	private void sendFile(Message<?> message) throws Exception {
+		synchronized (this.socketChannel) {
+			this.lastSend = System.currentTimeMillis();
+			boolean retained = retainBuffers();
+			try {
+				if (!retained) {
+					throw new ClosedChannelException();
+				}
+				if (this.writeCoalescingWindow > 0) {
+					flushPendingWrites();
+				}
+				ChannelOutputStream channelOutputStream = getChannelOutputStream();
+				sendFile(message.getPayload(), channelOutputStream, channelOutputStream::doTransfer);
+				recordMessageSent();
+			}
+			catch (Exception e) {
+				this.publishConnectionExceptionEvent(new MessagingException(message, "Failed TCP file transfer", e));
+				this.closeConnection(true);
+				throw e;
+			}
+			finally {
+				if (retained) {
+					releaseBuffers();
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug(getConnectionId() + " File sent " + message);
+			}
+		}
+	}
+
+	/**
+	 * Serialize the message into a frame buffer and queue it; the queued frames are
+	 * written with a single gathering write when the coalescing window expires (by a
+	 * task scheduled on the task scheduler), or immediately, on this thread, when the
+	 * queued bytes reach the budget.
+	 */
+	@SuppressWarnings("unchecked")
+	private void sendCoalesced(Message<?> message) throws Exception {
+		Object object = this.getMapper().fromMessage(message);
+		this.lastSend = System.currentTimeMillis();
+		boolean flushNow = false;
+		boolean scheduleFlush = false;
+		try {
+			if (!isOpen()) {
+				throw new ClosedChannelException();
+			}
+			FrameOutputStream frameOutputStream = new FrameOutputStream();
+			try {
+				((Serializer<Object>) this.getSerializer()).serialize(object, frameOutputStream);
+			}
+			catch (Exception e) {
+				frameOutputStream.release();
+				throw e;
+			}
+			ByteBuffer frame = frameOutputStream.getFrame();
+			synchronized (this.pendingWrites) {
+				this.pendingWrites.add(frame);
+				this.pendingWriteBytes += frame.remaining();
+				if (this.pendingWriteBytes >= this.writeCoalescingBudget) {
+					flushNow = true;
+				}
+				else if (!this.flushScheduled) {
+					this.flushScheduled = true;
+					scheduleFlush = true;
+				}
+			}
+			if (flushNow) {
+				flushPendingWrites();
+			}
+		}
+		catch (Exception e) {
+			this.publishConnectionExceptionEvent(new MessagingException(message, "Failed TCP serialization", e));
+			this.closeConnection(true);
+			throw e;
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(getConnectionId() + " Message queued " + message);
+		}
+		if (scheduleFlush) {
+			scheduleFlush();
+		}
+	}
+
+	/**
+	 * Schedule the flush of the queued frames when the window expires; if there is no
+	 * task scheduler, or it rejects the task, the frames are written immediately on the
+	 * calling thread. Either way, the message has been queued, so a write failure is
+	 * not reported to the caller.
+	 */
+	private void scheduleFlush() {
+		TaskScheduler taskScheduler = this.taskScheduler;
+		if (taskScheduler != null) {
+			try {
+				taskScheduler.schedule(this::flushQueued,
+						new Date(System.currentTimeMillis() + this.writeCoalescingWindow));
+				return;
+			}
+			catch (RejectedExecutionException e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(getConnectionId() + " Coalesced write rejected by scheduler, writing now");
+				}
+			}
+		}
+		flushQueued();
+	}
+
+	private void flushQueued() {
+		try {
+			flushPendingWrites();
+		}
+		catch (Exception e) {
+			logger.error("Exception on coalesced write " + getConnectionId() + " " + e.getMessage(), e);
+			this.publishConnectionExceptionEvent(e);
+			this.closeConnection(true);
+		}
+	}
+
+	/**
+	 * Write all queued frames with a single gathering write (a sequence of writes
+	 * when using SSL). The queue is drained while holding the write lock, so frames
+	 * are written in the order they were queued.
+	 */
+	private void flushPendingWrites() throws IOException {
+		synchronized (this.socketChannel) {
+			ByteBuffer[] frames;
+			synchronized (this.pendingWrites) {
+				this.flushScheduled = false;
+				if (this.pendingWrites.isEmpty()) {
+					return;
+				}
+				frames = this.pendingWrites.toArray(new ByteBuffer[this.pendingWrites.size()]);
+				this.pendingWrites.clear();
+				this.pendingWriteBytes = 0;
+			}
+			boolean retained = retainBuffers();
+			try {
+				if (!retained) {
+					throw new ClosedChannelException();
+				}
+				getChannelOutputStream().doWrite(frames);
+				for (int i = 0; i < frames.length; i++) {
+					recordMessageSent();
+				}
+				if (logger.isDebugEnabled()) {
+					logger.debug(getConnectionId() + " Flushed " + frames.length + " message(s)");
+				}
+			}
+			finally {
+				for (ByteBuffer frame : frames) {
+					releaseFrame(frame);
+				}
+				if (retained) {
+					releaseBuffers();
+				}
+			}
+		}
+	}
+
+	private ByteBuffer allocateFrame(int length) {
+		DirectByteBufferPool pool = this.bufferPool;
+		return pool != null ? pool.acquire(length) : ByteBuffer.allocate(length);
+	}
+
+	private void releaseFrame(ByteBuffer frame) {
+		DirectByteBufferPool pool = this.bufferPool;
+		if (pool != null) {
+			pool.release(frame);
+		}
+	}
+
+	private CompositeExecutor getTaskExecutor() {
+		if (this.taskExecutor == null) {
+			ExecutorService executor = Executors.newCachedThreadPool();
+			this.taskExecutor = new CompositeExecutor(executor, executor);
+		}
+		return this.taskExecutor;
+	}
+
 	@Override
 	public Object getPayload() throws Exception {
+		byte[] frame = this.currentFrame;
+		if (frame != null) {
+			return frame;
+		}
 		return this.getDeserializer().deserialize(inputStream());
 	}
 
@@ -196,14 +453,19 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	/**
 	 * Allocates a ByteBuffer of the requested length using normal or
-	 * direct buffers, depending on the usingDirectBuffers field.
+	 * direct buffers, depending on the usingDirectBuffers field. If a
+	 * {@link DirectByteBufferPool} is provided, the (direct) buffer is borrowed from
+	 * the pool, and may have a larger capacity than requested.
 	 *
 	 * @param length The buffer length.
 	 * @return The buffer.
 	 */
 	protected ByteBuffer allocate(int length) {
 		ByteBuffer buffer;
-		if (this.usingDirectBuffers) {
+		if (this.bufferPool != null) {
+			buffer = this.bufferPool.acquire(length);
+		}
+		else if (this.usingDirectBuffers) {
 			buffer = ByteBuffer.allocateDirect(length);
 		}
 		else {
@@ -212,6 +474,71 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		return buffer;
 	}
 
+	/**
+	 * Return a buffer obtained from {@link #allocate(int)} to the
+	 * {@link DirectByteBufferPool}, if any.
+	 * @param buffer the buffer; must not be used after this call.
+	 * @since 5.0.1
+	 */
+	protected void release(ByteBuffer buffer) {
+		if (this.bufferPool != null) {
+			this.bufferPool.release(buffer);
+		}
+	}
+
+	/**
+	 * Register a user of this connection's buffers (a read or a write); a matching
+	 * {@link #releaseBuffers()} must follow. Buffers are returned to the pool when
+	 * the connection is closed and the last user releases them.
+	 * @return false if the connection's buffers have already been returned.
+	 * @since 5.0.1
+	 */
+	protected boolean retainBuffers() {
+		int users;
+		do {
+			users = this.bufferUsers.get();
+			if (users <= 0) {
+				return false;
+			}
+		}
+		while (!this.bufferUsers.compareAndSet(users, users + 1));
+		return true;
+	}
+
+	/**
+	 * Deregister a user of this connection's buffers; calls {@link #returnBuffers()}
+	 * when there are no users left.
+	 * @since 5.0.1
+	 */
+	protected void releaseBuffers() {
+		if (this.bufferUsers.decrementAndGet() == 0) {
+			returnBuffers();
+		}
+	}
+
+	/**
+	 * Return this connection's buffers to the {@link DirectByteBufferPool}, if any;
+	 * invoked once, after the connection is closed and no reads or writes are in
+	 * progress. Subclasses that allocate additional buffers should override, release
+	 * them, and call {@code super.returnBuffers()}.
+	 * @since 5.0.1
+	 */
+	protected void returnBuffers() {
+		if (this.bufferPool != null) {
+			release(this.rawBuffer);
+			this.rawBuffer = null;
+			release(this.frameBuffer);
+			this.frameBuffer = null;
+		}
+		synchronized (this.pendingWrites) {
+			for (ByteBuffer frame : this.pendingWrites) {
+				releaseFrame(frame);
+			}
+			this.pendingWrites.clear();
+			this.pendingWriteBytes = 0;
+		}
+	}
+
 	/**
 	 * If there is no listener,
 	 * this method exits. When there is a listener, this method assembles
@@ -379,6 +706,7 @@ public class TcpNioConnection extends TcpConnectionSupport {
 				if (listener == null) {
 					throw new NoListenerException("No listener");
 				}
+				recordMessageReceived();
 				listener.onMessage(message);
 			}
 		}
@@ -400,15 +728,19 @@ public class TcpNioConnection extends TcpConnectionSupport {
 	private void doRead() throws Exception {
 		if (this.rawBuffer == null) {
 			this.rawBuffer = allocate(this.maxMessageSize);
+			if (this.inPlaceFraming && getDeserializer() instanceof ByteBufferFrameDecoder) {
+				this.frameDecoder = (ByteBufferFrameDecoder) getDeserializer();
+			}
+		}
+		if (this.frameDecoder != null) {
+			doReadFrames();
+			return;
 		}
 
 		this.writingLatch = new CountDownLatch(1);
 		this.writingToPipe = true;
 		try {
-			if (this.taskExecutor == null) {
-				ExecutorService executor = Executors.newCachedThreadPool();
-				this.taskExecutor = new CompositeExecutor(executor, executor);
-			}
+			getTaskExecutor();
 			// If there is no assembler running, start one
 			checkForAssembler();
 
@@ -420,6 +752,9 @@ public class TcpNioConnection extends TcpConnectionSupport {
 				this.writingToPipe = false;
 				this.closeConnection(true);
 			}
+			else if (len > 0) {
+				recordBytesRead(len);
+			}
 			if (logger.isTraceEnabled()) {
 				logger.trace("After read:" + this.rawBuffer.position() + "/" + this.rawBuffer.limit());
 			}
@@ -445,8 +780,108 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	/**
+	 * Read directly into the raw buffer and decode any complete frames in place on
+	 * this (the reading) thread, without using the pipe and a separate assembler.
+	 * Reads are not re-enabled for this connection until this method returns, so
+	 * frames are decoded and sent to the listener in order.
+	 */
+	private void doReadFrames() throws Exception {
+		try {
+			int len = this.socketChannel.read(this.rawBuffer);
+			if (len > 0) {
+				recordBytesRead(len);
+			}
+			this.rawBuffer.flip();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Read " + len + " into raw buffer, " + this.rawBuffer.remaining() + " to decode");
+			}
+			sendToPipe(this.rawBuffer);
+			if (len < 0) {
+				this.closeConnection(true);
+			}
+		}
+		catch (FrameDecodingException e) {
+			// already reported, as a deserialization failure, by the decoder and to the listener
+			throw e;
+		}
+		catch (Exception e) {
+			this.publishConnectionExceptionEvent(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Decode and send complete frames; leave any partial frame at the start of the
+	 * buffer, ready to receive more data. Data in a buffer other than the raw buffer
+	 * (for example, data decrypted into a buffer that the caller reuses) is first
+	 * accumulated in a separate frame buffer.
+	 */
+	private void decodeFrames(ByteBuffer data) throws IOException {
+		ByteBuffer buffer = data;
+		boolean inRawBuffer = data == this.rawBuffer;
+		if (!inRawBuffer) {
+			if (this.frameBuffer == null) {
+				this.frameBuffer = allocate(Math.max(this.maxMessageSize, data.remaining()));
+			}
+			else if (this.frameBuffer.remaining() < data.remaining()) {
+				this.frameBuffer = grow(this.frameBuffer, this.frameBuffer.position() + data.remaining());
+			}
+			this.frameBuffer.put(data);
+			this.frameBuffer.flip();
+			buffer = this.frameBuffer;
+		}
+		try {
+			while (buffer.hasRemaining()) {
+				byte[] frame = this.frameDecoder.decode(buffer, this.partialFrameLength);
+				if (frame == null) {
+					// the decoder resumes its search after these bytes when more data arrives
+					this.partialFrameLength = buffer.remaining();
+					break;
+				}
+				this.partialFrameLength = 0;
+				Message<?> message;
+				this.currentFrame = frame;
+				try {
+					message = this.getMapper().toMessage(this);
+				}
+				finally {
+					this.currentFrame = null;
+				}
+				sendToChannel(message);
+			}
+		}
+		catch (Exception e) {
+			this.closeConnection(true);
+			this.sendExceptionToListener(e);
+			throw new FrameDecodingException(e);
+		}
+		buffer.compact();
+		if (!buffer.hasRemaining()) {
+			// a partial frame fills the buffer; the decoder throws an exception if it gets too large
+			if (inRawBuffer) {
+				this.rawBuffer = grow(buffer, buffer.capacity() * 2);
+			}
+			else {
+				this.frameBuffer = grow(buffer, buffer.capacity() * 2);
+			}
+		}
+	}
+
+	private ByteBuffer grow(ByteBuffer buffer, int capacity) {
+		ByteBuffer newBuffer = allocate(Math.max(capacity, buffer.capacity() * 2));
+		buffer.flip();
+		newBuffer.put(buffer);
+		release(buffer);
+		return newBuffer;
+	}
+
 	protected void sendToPipe(ByteBuffer rawBuffer) throws IOException {
 		Assert.notNull(rawBuffer, "rawBuffer cannot be null");
+		if (this.frameDecoder != null) {
+			decodeFrames(rawBuffer);
+			return;
+		}
 		if (logger.isTraceEnabled()) {
 			logger.trace(this.getConnectionId() + " Sending " + rawBuffer.limit() + " to pipe");
 		}
@@ -487,6 +922,12 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		if (logger.isDebugEnabled()) {
 			logger.debug(this.getConnectionId() + " Reading...");
 		}
+		if (!retainBuffers()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(this.getConnectionId() + " Channel is closed");
+			}
+			return;
+		}
 		try {
 			doRead();
 		}
@@ -505,6 +946,9 @@ public class TcpNioConnection extends TcpConnectionSupport {
 					e.getMessage(), e);
 			this.closeConnection(true);
 		}
+		finally {
+			releaseBuffers();
+		}
 	}
 
 	/**
@@ -541,6 +985,72 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		return this.usingDirectBuffers;
 	}
 
+	/**
+	 * Set a pool from which to borrow the connection's (direct) buffers; they are
+	 * returned to the pool when the connection is closed.
+	 * @param bufferPool the pool.
+	 * @since 5.0.1
+	 */
+	public void setBufferPool(DirectByteBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	protected DirectByteBufferPool getBufferPool() {
+		return this.bufferPool;
+	}
+
+	/**
+	 * Set the time (in milliseconds) for which sent messages are queued, so that they
+	 * can be written together with a single gathering write. When greater than zero,
+	 * {@link #send(Message)} serializes the message into a buffer (borrowed from the
+	 * {@link DirectByteBufferPool}, if provided) and returns; a write failure is then
+	 * not reported to the sender, but closes the connection (and publishes a
+	 * {@link TcpConnectionExceptionEvent}). Default 0 - each message is written
+	 * immediately.
+	 * @param writeCoalescingWindow the window in milliseconds.
+	 * @since 5.0.1
+	 * @see #setWriteCoalescingBudget(int)
+	 */
+	public void setWriteCoalescingWindow(long writeCoalescingWindow) {
+		this.writeCoalescingWindow = writeCoalescingWindow;
+	}
+
+	/**
+	 * Set the number of queued bytes which causes the queued messages to be written
+	 * before the coalescing window expires (by the thread sending the message that
+	 * reaches the budget). Default 64k.
+	 * @param writeCoalescingBudget the budget in bytes.
+	 * @since 5.0.1
+	 * @see #setWriteCoalescingWindow(long)
+	 */
+	public void setWriteCoalescingBudget(int writeCoalescingBudget) {
+		Assert.isTrue(writeCoalescingBudget > 0, "'writeCoalescingBudget' must be > 0");
+		this.writeCoalescingBudget = writeCoalescingBudget;
+	}
+
+	/**
+	 * Set the task scheduler used to write the queued messages when the
+	 * {@link #setWriteCoalescingWindow(long) coalescing window} expires; without one,
+	 * each message is written immediately by the sending thread.
+	 * @param taskScheduler the task scheduler.
+	 * @since 5.0.1
+	 */
+	public void setTaskScheduler(TaskScheduler taskScheduler) {
+		this.taskScheduler = taskScheduler;
+	}
+
+	/**
+	 * If true, and the deserializer is a {@link ByteBufferFrameDecoder}, frames are
+	 * decoded in place from the buffer the data is read into, and sent to the listener
+	 * on the reading thread, instead of the data being copied through an input stream
+	 * to a separate assembler thread.
+	 * @param inPlaceFraming true to decode frames in place.
+	 * @since 5.0.1
+	 */
+	public void setInPlaceFraming(boolean inPlaceFraming) {
+		this.inPlaceFraming = inPlaceFraming;
+	}
+
 	protected ChannelOutputStream getChannelOutputStream() {
 		return this.channelOutputStream;
 	}
@@ -611,9 +1121,11 @@ public class TcpNioConnection extends TcpConnectionSupport {
 			if (logger.isDebugEnabled()) {
 				logger.debug(getConnectionId() + " writing " + buffer.remaining());
 			}
+			int count = buffer.remaining();
 			TcpNioConnection.this.socketChannel.write(buffer);
 			int remaining = buffer.remaining();
 			if (remaining == 0) {
+				recordBytesWritten(count);
 				return;
 			}
 			if (this.selector == null) {
@@ -630,6 +1142,126 @@ public class TcpNioConnection extends TcpConnectionSupport {
 				TcpNioConnection.this.socketChannel.write(buffer);
 				remaining = buffer.remaining();
 			}
+			recordBytesWritten(count);
+		}
+
+		/**
+		 * Write the buffers with gathering writes.
+		 * @param buffers the buffers.
+		 * @throws IOException an IOException.
+		 * @since 5.0.1
+		 */
+		protected synchronized void doWrite(ByteBuffer[] buffers) throws IOException {
+			long remaining = 0;
+			for (ByteBuffer buffer : buffers) {
+				remaining += buffer.remaining();
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug(getConnectionId() + " writing " + remaining + " from " + buffers.length + " buffers");
+			}
+			long count = remaining;
+			remaining -= TcpNioConnection.this.socketChannel.write(buffers);
+			if (remaining == 0) {
+				recordBytesWritten(count);
+				return;
+			}
+			if (this.selector == null) {
+				this.selector = Selector.open();
+				this.soTimeout = TcpNioConnection.this.socketChannel.socket().getSoTimeout();
+			}
+			TcpNioConnection.this.socketChannel.register(this.selector, SelectionKey.OP_WRITE);
+			int offset = 0;
+			while (remaining > 0) {
+				int selectionCount = this.selector.select(this.soTimeout);
+				if (selectionCount == 0) {
+					throw new SocketTimeoutException("Timeout on write");
+				}
+				this.selector.selectedKeys().clear();
+				while (!buffers[offset].hasRemaining()) {
+					offset++;
+				}
+				remaining -= TcpNioConnection.this.socketChannel.write(buffers, offset, buffers.length - offset);
+			}
+			recordBytesWritten(count);
+		}
+
+		/**
+		 * Transfer part of a file directly to the socket channel, with no copy
+		 * through the heap.
+		 * @param fileChannel the file channel.
+		 * @param position the position of the first byte.
+		 * @param count the number of bytes.
+		 * @throws IOException an IOException.
+		 * @since 5.0.1
+		 */
+		protected synchronized void doTransfer(FileChannel fileChannel, long position, long count)
+				throws IOException {
+
+			if (logger.isDebugEnabled()) {
+				logger.debug(getConnectionId() + " transferring " + count + " from file");
+			}
+			long end = position + count;
+			long next = position + fileChannel.transferTo(position, count, TcpNioConnection.this.socketChannel);
+			while (next < end) {
+				if (this.selector == null) {
+					this.selector = Selector.open();
+					this.soTimeout = TcpNioConnection.this.socketChannel.socket().getSoTimeout();
+				}
+				TcpNioConnection.this.socketChannel.register(this.selector, SelectionKey.OP_WRITE);
+				int selectionCount = this.selector.select(this.soTimeout);
+				if (selectionCount == 0) {
+					throw new SocketTimeoutException("Timeout on write");
+				}
+				this.selector.selectedKeys().clear();
+				long transferred = fileChannel.transferTo(next, end - next, TcpNioConnection.this.socketChannel);
+				if (transferred == 0 && next >= fileChannel.size()) {
+					throw new IOException("File truncated during transfer");
+				}
+				next += transferred;
+			}
+			recordBytesWritten(count);
+		}
+
+	}
+
+	/**
+	 * An OutputStream that serializes a message into a frame buffer, borrowed
+	 * from the pool if there is one, for a coalesced write.
+	 */
+	private final class FrameOutputStream extends OutputStream {
+
+		private ByteBuffer buffer = allocateFrame(INITIAL_FRAME_BUFFER_SIZE);
+
+		@Override
+		public void write(int b) throws IOException {
+			ensureCapacity(1);
+			this.buffer.put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			ensureCapacity(len);
+			this.buffer.put(b, off, len);
+		}
+
+		private void ensureCapacity(int length) {
+			if (this.buffer.remaining() < length) {
+				ByteBuffer newBuffer = allocateFrame(Math.max(this.buffer.capacity() * 2,
+						this.buffer.position() + length));
+				this.buffer.flip();
+				newBuffer.put(this.buffer);
+				releaseFrame(this.buffer);
+				this.buffer = newBuffer;
+			}
+		}
+
+		ByteBuffer getFrame() {
+			this.buffer.flip();
+			return this.buffer;
+		}
+
+		void release() {
+			releaseFrame(this.buffer);
 		}
 
 	}
@@ -767,4 +1399,16 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	}
 
+	/**
+	 * A failure to decode or deliver a frame in place, which has already been handled.
+	 */
+	@SuppressWarnings("serial")
+	private static final class FrameDecodingException extends IOException {
+
+		FrameDecodingException(Exception cause) {
+			super(cause);
+		}
+
+	}
+
 }
@@ -18,6 +18,7 @@ package org.springframework.integration.ip.tcp.connection;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SocketChannel;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -56,6 +57,8 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 
 	private static final int DEFAULT_HANDSHAKE_TIMEOUT = 30;
 
+	private static final int FILE_TRANSFER_CHUNK_SIZE = 64 * 1024;
+
 	private final SSLEngine sslEngine;
 
 	private volatile ByteBuffer decoded;
@@ -162,7 +165,9 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 			}
 			Status status = result.getStatus();
 			if (status == Status.BUFFER_OVERFLOW) {
+				ByteBuffer tooSmall = this.decoded;
 				this.decoded = this.allocateEncryptionBuffer(this.sslEngine.getSession().getApplicationBufferSize());
+				release(tooSmall);
 			}
 			if (result.bytesProduced() > 0) {
 				this.decoded.flip();
@@ -177,7 +182,9 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 					logger.debug("After wrap: " + resultToString(result));
 				}
 				if (result.getStatus() == Status.BUFFER_OVERFLOW) {
+					ByteBuffer tooSmall = this.encoded;
 					this.encoded = this.allocateEncryptionBuffer(this.sslEngine.getSession().getPacketBufferSize());
+					release(tooSmall);
 				}
 				else {
 					this.encoded.flip();
@@ -258,8 +265,24 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 		}
 	}
 
+	/**
+	 * Replaces the encryption buffers allocated by {@link #init()} with buffers
+	 * borrowed from the pool; must be called before any I/O is performed.
+	 */
+	@Override
+	public void setBufferPool(DirectByteBufferPool bufferPool) {
+		super.setBufferPool(bufferPool);
+		if (bufferPool != null && this.decoded != null) {
+			this.decoded = allocateEncryptionBuffer(this.decoded.capacity());
+			this.encoded = allocateEncryptionBuffer(this.encoded.capacity());
+		}
+	}
+
 	private ByteBuffer allocateEncryptionBuffer(int size) {
-		if (isUsingDirectBuffers()) {
+		if (getBufferPool() != null) {
+			return allocate(size);
+		}
+		else if (isUsingDirectBuffers()) {
 			return ByteBuffer.allocateDirect(size);
 		}
 		else {
@@ -301,6 +324,17 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 		this.semaphore.release();
 	}
 
+	@Override
+	protected void returnBuffers() {
+		if (getBufferPool() != null) {
+			release(this.decoded);
+			this.decoded = null;
+			release(this.encoded);
+			this.encoded = null;
+		}
+		super.returnBuffers();
+	}
+
 	/**
 	 * Subclass of {@link TcpNioConnection.ChannelOutputStream} to handle encryption
 	 * of outbound data. Wraps an instance of the superclass, which is invoked to
@@ -315,6 +349,42 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 			this.channelOutputStream = channelOutputStream;
 		}
 
+		/**
+		 * Encrypts and writes each buffer in turn; SSL does not support gathering writes.
+		 */
+		@Override
+		protected synchronized void doWrite(ByteBuffer[] buffers) throws IOException {
+			for (ByteBuffer buffer : buffers) {
+				doWrite(buffer);
+			}
+		}
+
+		/**
+		 * The content must be encrypted, so it is read from the file in chunks, which
+		 * are encrypted and written in turn.
+		 */
+		@Override
+		protected synchronized void doTransfer(FileChannel fileChannel, long position, long count)
+				throws IOException {
+
+			ByteBuffer plainText = ByteBuffer.allocate((int) Math.min(count, FILE_TRANSFER_CHUNK_SIZE));
+			long next = position;
+			long end = position + count;
+			while (next < end) {
+				plainText.clear();
+				if (end - next < plainText.capacity()) {
+					plainText.limit((int) (end - next));
+				}
+				int read = fileChannel.read(plainText, next);
+				if (read < 0) {
+					throw new IOException("File truncated during transfer");
+				}
+				next += read;
+				plainText.flip();
+				doWrite(plainText);
+			}
+		}
+
 		/**
 		 * Encrypts the plaintText buffer and writes it to the SocketChannel.
 		 * Will participate in SSL handshaking as necessary. For very large
@@ -429,7 +499,9 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 						+ " Plaintext buffer @" + plainText.position() + "/" + plainText.limit());
 			}
 			if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+				ByteBuffer tooSmall = TcpNioSSLConnection.this.encoded;
 				TcpNioSSLConnection.this.encoded = allocateEncryptionBuffer(TcpNioSSLConnection.this.sslEngine.getSession().getPacketBufferSize());
+				release(tooSmall);
 				result = TcpNioSSLConnection.this.sslEngine.wrap(plainText, TcpNioSSLConnection.this.encoded);
 			}
 			return result;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,15 +27,25 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.springframework.util.Assert;
 
-/**
 /**
  * Implements a server connection factory that produces {@link TcpNioConnection}s using
  * a {@link ServerSocketChannel}. Must have a {@link TcpListener} registered.
+ * <p>
+ * By default, a single selector is used to accept new connections and to detect
+ * incoming data on all connections. With {@link #setIoSelectorCount(int)}, new
+ * connections are instead distributed over a number of I/O selectors, each with
+ * its own thread, leaving the original selector to only accept connections.
  *
  * @author Gary Russell
  * @author Artem Bilan
@@ -48,10 +58,28 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean inPlaceFraming;
+
+	private volatile DirectByteBufferPool bufferPool;
+
+	private volatile long writeCoalescingWindow;
+
+	private volatile int writeCoalescingBudget;
+
 	private final Map<SocketChannel, TcpNioConnection> channelMap = new HashMap<SocketChannel, TcpNioConnection>();
 
 	private volatile Selector selector;
 
+	private volatile int ioSelectorCount;
+
+	private volatile boolean ioSelectorLeastLoaded;
+
+	private final Reactor acceptor = new Reactor("acceptor", this.channelMap);
+
+	private volatile List<Reactor> ioReactors = Collections.emptyList();
+
+	private int nextIoReactor;
+
 	private volatile TcpNioConnectionSupport tcpNioConnectionSupport = new DefaultTcpNioConnectionSupport();
 
 	/**
@@ -135,7 +163,9 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 				setListening(true);
 				publishServerListeningEvent(getPort());
 				this.selector = selector;
-				doSelect(this.serverChannel, selector);
+				startIoReactors();
+				this.acceptor.selector = selector;
+				doSelect(this.serverChannel, this.acceptor);
 			}
 		}
 		catch (IOException e) {
@@ -158,11 +188,12 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 	 * When a socket is ready for reading, unregisters the read interest and
 	 * schedules a call to doRead which reads all available data. When the read
 	 * is complete, the socket is again registered for read interest.
-	 * @param server the ServerSocketChannel to select
-	 * @param selector the Selector multiplexor
+	 * @param server the ServerSocketChannel to select, or null for an I/O selector
+	 * @param reactor the reactor owning the Selector multiplexor
 	 * @throws IOException
 	 */
-	private void doSelect(ServerSocketChannel server, final Selector selector) throws IOException {
+	private void doSelect(ServerSocketChannel server, Reactor reactor) throws IOException {
+		final Selector selector = reactor.selector;
 		while (isActive()) {
 			int soTimeout = getSoTimeout();
 			int selectionCount = 0;
@@ -175,7 +206,10 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 					logger.trace("Delayed reads: " + getDelayedReads().size() + " timeout " + timeout);
 				}
 				selectionCount = selector.select(timeout);
-				processNioSelections(selectionCount, selector, server, this.channelMap);
+				reactor.registerNewChannels();
+				long start = System.nanoTime();
+				processNioSelections(selectionCount, selector, server, reactor.channels);
+				reactor.recordLoop(selectionCount, System.nanoTime() - start);
 			}
 			catch (CancelledKeyException cke) {
 				logger.debug("CancelledKeyException during Selector.select()");
@@ -221,9 +255,14 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 				if (getSslHandshakeTimeout() != null && connection instanceof TcpNioSSLConnection) {
 					((TcpNioSSLConnection) connection).setHandshakeTimeout(getSslHandshakeTimeout());
 				}
-				this.channelMap.put(channel, connection);
-				channel.register(selector, SelectionKey.OP_READ, connection);
-				connection.publishConnectionOpenEvent();
+				if (this.ioReactors.isEmpty()) {
+					this.channelMap.put(channel, connection);
+					channel.register(selector, SelectionKey.OP_READ, connection);
+					connection.publishConnectionOpenEvent();
+				}
+				else {
+					nextIoReactor().addChannel(channel, connection);
+				}
 			}
 			catch (Exception e) {
 				logger.error("Exception accepting new connection", e);
@@ -237,6 +276,15 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 			TcpNioConnection connection = this.tcpNioConnectionSupport.createNewConnection(socketChannel, true,
 							isLookupHost(), getApplicationEventPublisher(), getComponentName());
 			connection.setUsingDirectBuffers(this.usingDirectBuffers);
+			connection.setInPlaceFraming(this.inPlaceFraming);
+			connection.setBufferPool(this.bufferPool);
+			connection.setWriteCoalescingWindow(this.writeCoalescingWindow);
+			if (this.writeCoalescingBudget > 0) {
+				connection.setWriteCoalescingBudget(this.writeCoalescingBudget);
+			}
+			if (this.writeCoalescingWindow > 0) {
+				connection.setTaskScheduler(getTaskScheduler());
+			}
 			TcpConnectionSupport wrappedConnection = wrapConnection(connection);
 			initializeConnection(wrappedConnection, socketChannel.socket());
 			return connection;
@@ -247,6 +295,65 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 		}
 	}
 
+	private void startIoReactors() throws IOException {
+		List<Reactor> reactors = new ArrayList<Reactor>();
+		try {
+			for (int i = 0; i < this.ioSelectorCount; i++) {
+				Reactor reactor = new Reactor("io-" + i, new ConcurrentHashMap<SocketChannel, TcpNioConnection>());
+				reactor.selector = Selector.open();
+				reactors.add(reactor);
+				getTaskExecutor().execute(reactor);
+			}
+		}
+		catch (RuntimeException e) {
+			closeSelectors(reactors);
+			throw new IOException("Failed to start the I/O selectors", e);
+		}
+		this.ioReactors = reactors;
+		if (logger.isDebugEnabled() && reactors.size() > 0) {
+			logger.debug(this + " started " + reactors.size() + " I/O selectors");
+		}
+	}
+
+	/**
+	 * Select the I/O reactor for a new connection; only called on the acceptor thread.
+	 * @return the reactor.
+	 */
+	private Reactor nextIoReactor() {
+		List<Reactor> reactors = this.ioReactors;
+		if (this.ioSelectorLeastLoaded) {
+			Reactor leastLoaded = reactors.get(0);
+			for (Reactor reactor : reactors) {
+				if (reactor.channels.size() < leastLoaded.channels.size()) {
+					leastLoaded = reactor;
+				}
+			}
+			return leastLoaded;
+		}
+		else {
+			this.nextIoReactor = (this.nextIoReactor + 1) % reactors.size();
+			return reactors.get(this.nextIoReactor);
+		}
+	}
+
+	private void closeSelectors(List<Reactor> reactors) {
+		for (Reactor reactor : reactors) {
+			try {
+				reactor.selector.close();
+			}
+			catch (Exception e) {
+				logger.error("Error closing selector", e);
+			}
+		}
+	}
+
+	@Override
+	public void start() {
+		Assert.state(this.writeCoalescingWindow <= 0 || getTaskScheduler() != null,
+				"A write coalescing window requires a task scheduler");
+		super.start();
+	}
+
 	@Override
 	public void stop() {
 		setActive(false);
@@ -258,6 +365,8 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 				logger.error("Error closing selector", e);
 			}
 		}
+		closeSelectors(this.ioReactors);
+		this.ioReactors = Collections.emptyList();
 		if (this.serverChannel != null) {
 			try {
 				this.serverChannel.close();
@@ -276,6 +385,102 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * When set to true, and the deserializer is a
+	 * {@link org.springframework.integration.ip.tcp.serializer.ByteBufferFrameDecoder},
+	 * connections created by this factory decode frames in place from the buffer the data
+	 * is read into, and send them to the listener on the reading thread; there is no
+	 * copy through a pipe to a separate assembler thread. Downstream processing then
+	 * delays further reads from the same connection, so it should be fast, or hand off
+	 * to another thread.
+	 * @param inPlaceFraming true to decode frames in place.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setInPlaceFraming(boolean)
+	 */
+	public void setInPlaceFraming(boolean inPlaceFraming) {
+		this.inPlaceFraming = inPlaceFraming;
+	}
+
+	/**
+	 * Set a pool of direct buffers, which may be shared with other factories; the
+	 * connections created by this factory borrow their buffers from the pool (instead
+	 * of allocating them), and return them when closed.
+	 * @param bufferPool the pool.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setBufferPool(DirectByteBufferPool)
+	 */
+	public void setBufferPool(DirectByteBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * Set the time (in milliseconds) for which messages sent on connections created by
+	 * this factory are queued, so that they can be written together with a single
+	 * gathering write; useful when sending many small messages to the same peer.
+	 * Write failures are then not reported to the sender; the connection is closed.
+	 * The queued messages are written by a task scheduled on the task scheduler, which
+	 * is therefore required. Default 0 (disabled).
+	 * @param writeCoalescingWindow the window.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setWriteCoalescingWindow(long)
+	 */
+	public void setWriteCoalescingWindow(long writeCoalescingWindow) {
+		this.writeCoalescingWindow = writeCoalescingWindow;
+	}
+
+	/**
+	 * Set the number of queued bytes which causes coalesced messages to be written
+	 * before the window expires. Default 64k.
+	 * @param writeCoalescingBudget the budget.
+	 * @since 5.0.1
+	 * @see TcpNioConnection#setWriteCoalescingBudget(int)
+	 */
+	public void setWriteCoalescingBudget(int writeCoalescingBudget) {
+		this.writeCoalescingBudget = writeCoalescingBudget;
+	}
+
+	/**
+	 * Set the number of I/O selectors; when greater than zero, the selector that
+	 * accepts new connections hands each one off to one of this number of selectors,
+	 * each running on its own thread from the task executor, which then detect
+	 * incoming data on its connections. Use when a single selector thread cannot keep
+	 * up with the rate at which data arrives on many connections. When using a fixed
+	 * size task executor, it must have enough threads for the selectors as well as
+	 * for reading the data. Default 0 (one selector for all connections).
+	 * @param ioSelectorCount the number of I/O selectors.
+	 * @since 5.0.1
+	 */
+	public void setIoSelectorCount(int ioSelectorCount) {
+		Assert.isTrue(ioSelectorCount >= 0, "'ioSelectorCount' must not be negative");
+		this.ioSelectorCount = ioSelectorCount;
+	}
+
+	/**
+	 * When using I/O selectors, set to true to assign each new connection to the
+	 * selector with the fewest connections, instead of assigning them in turn.
+	 * @param ioSelectorLeastLoaded true to assign to the least loaded selector.
+	 * @since 5.0.1
+	 * @see #setIoSelectorCount(int)
+	 */
+	public void setIoSelectorLeastLoaded(boolean ioSelectorLeastLoaded) {
+		this.ioSelectorLeastLoaded = ioSelectorLeastLoaded;
+	}
+
+	/**
+	 * Return a snapshot of the activity of each selector loop; the acceptor first,
+	 * followed by the I/O selectors, if any.
+	 * @return the metrics.
+	 * @since 5.0.1
+	 */
+	public List<SelectorMetrics> getSelectorMetrics() {
+		List<SelectorMetrics> metrics = new ArrayList<SelectorMetrics>();
+		metrics.add(this.acceptor.metrics());
+		for (Reactor reactor : this.ioReactors) {
+			metrics.add(reactor.metrics());
+		}
+		return metrics;
+	}
+
 	public void setTcpNioConnectionSupport(TcpNioConnectionSupport tcpNioSupport) {
 		Assert.notNull(tcpNioSupport, "TcpNioSupport must not be null");
 		this.tcpNioConnectionSupport = tcpNioSupport;
@@ -299,7 +504,111 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 	 * @return the connections
 	 */
 	protected Map<SocketChannel, TcpNioConnection> getConnections() {
-		return this.channelMap;
+		List<Reactor> reactors = this.ioReactors;
+		if (reactors.isEmpty()) {
+			return this.channelMap;
+		}
+		Map<SocketChannel, TcpNioConnection> connections = new HashMap<SocketChannel, TcpNioConnection>();
+		for (Reactor reactor : reactors) {
+			connections.putAll(reactor.channels);
+		}
+		return connections;
+	}
+
+	/**
+	 * A selector loop and the connections registered with it.
+	 */
+	private final class Reactor implements Runnable {
+
+		private final String name;
+
+		private final Map<SocketChannel, TcpNioConnection> channels;
+
+		private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<SocketChannel>();
+
+		private volatile Selector selector;
+
+		private volatile long selectCount;
+
+		private volatile long selectedKeyCount;
+
+		private volatile long maxSelectedKeys;
+
+		private volatile long processingTime;
+
+		private volatile long maxProcessingTime;
+
+		Reactor(String name, Map<SocketChannel, TcpNioConnection> channels) {
+			this.name = name;
+			this.channels = channels;
+		}
+
+		/**
+		 * Called on the acceptor thread; the channel is registered by the selector
+		 * thread because registration blocks while the selector is selecting.
+		 */
+		void addChannel(SocketChannel channel, TcpNioConnection connection) {
+			this.channels.put(channel, connection);
+			this.newChannels.add(channel);
+			this.selector.wakeup();
+		}
+
+		void registerNewChannels() {
+			SocketChannel channel;
+			while ((channel = this.newChannels.poll()) != null) {
+				TcpNioConnection connection = this.channels.get(channel);
+				try {
+					channel.register(this.selector, SelectionKey.OP_READ, connection);
+					connection.publishConnectionOpenEvent();
+				}
+				catch (IOException e) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Channel closed before registering with selector for reading");
+					}
+				}
+			}
+		}
+
+		/*
+		 * The counters are only written by the selector thread.
+		 */
+		void recordLoop(int selectedKeys, long time) {
+			this.selectCount++;
+			this.selectedKeyCount += selectedKeys;
+			if (selectedKeys > this.maxSelectedKeys) {
+				this.maxSelectedKeys = selectedKeys;
+			}
+			this.processingTime += time;
+			if (time > this.maxProcessingTime) {
+				this.maxProcessingTime = time;
+			}
+		}
+
+		SelectorMetrics metrics() {
+			return new SelectorMetrics(this.name, this.channels.size(), this.selectCount, this.selectedKeyCount,
+					this.maxSelectedKeys, this.processingTime, this.maxProcessingTime);
+		}
+
+		@Override
+		public void run() {
+			if (logger.isDebugEnabled()) {
+				logger.debug(TcpNioServerConnectionFactory.this + " I/O selector " + this.name + " running");
+			}
+			try {
+				doSelect(null, this);
+			}
+			catch (IOException e) {
+				if (isActive()) {
+					logger.error("Error on I/O selector " + this.name + "; port = " + getPort(), e);
+					publishServerExceptionEvent(e);
+				}
+				stop();
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug(TcpNioServerConnectionFactory.this + " I/O selector " + this.name + " exiting");
+			}
+		}
+
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.ip.tcp.serializer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -75,6 +76,73 @@ public abstract class AbstractByteArraySerializer implements
 		}
 	}
 
+	/**
+	 * Publish a {@link TcpDeserializationExceptionEvent} for a failure to decode
+	 * a frame from the buffer, containing (up to the max message size of) the
+	 * undecoded data.
+	 * @param cause the cause.
+	 * @param buffer the buffer.
+	 * @since 5.0.1
+	 */
+	protected void publishEvent(Exception cause, ByteBuffer buffer) {
+		byte[] bytes = new byte[Math.min(buffer.remaining(), this.maxMessageSize)];
+		buffer.duplicate().get(bytes);
+		publishEvent(cause, bytes, bytes.length);
+	}
+
+	/**
+	 * Throw an {@link IOException} (and publish an event) if a frame of this many bytes
+	 * would reach the max message size.
+	 * @param buffer the buffer being decoded.
+	 * @param frameLength the (possibly partial) frame length.
+	 * @param delimiter the description of the delimiter, for the exception message.
+	 * @throws IOException if the frame is too long.
+	 * @since 5.0.1
+	 */
+	protected void checkFrameLength(ByteBuffer buffer, int frameLength, String delimiter) throws IOException {
+		if (frameLength >= this.maxMessageSize) {
+			IOException e = new IOException(delimiter + " not found before max message length: "
+					+ this.maxMessageSize);
+			publishEvent(e, buffer);
+			throw e;
+		}
+	}
+
+	/**
+	 * Find the first occurrence of the byte in the buffer, from the given index up
+	 * to the buffer's limit.
+	 * @param buffer the buffer.
+	 * @param from the index to start from.
+	 * @param bite the byte.
+	 * @return the index, or -1 if not found.
+	 * @since 5.0.1
+	 */
+	protected static int indexOf(ByteBuffer buffer, int from, byte bite) {
+		int limit = buffer.limit();
+		for (int i = from; i < limit; i++) {
+			if (buffer.get(i) == bite) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Copy the next {@code length} bytes of the buffer to a new array, and then skip
+	 * {@code trailerLength} bytes.
+	 * @param buffer the buffer.
+	 * @param length the frame length.
+	 * @param trailerLength the number of framing bytes following the frame.
+	 * @return the frame.
+	 * @since 5.0.1
+	 */
+	protected static byte[] extractFrame(ByteBuffer buffer, int length, int trailerLength) {
+		byte[] frame = new byte[length];
+		buffer.get(frame);
+		buffer.position(buffer.position() + trailerLength);
+		return frame;
+	}
+
 	protected void publishEvent(Exception cause, byte[] buffer, int offset) {
 		TcpDeserializationExceptionEvent event = new TcpDeserializationExceptionEvent(this, cause, buffer, offset);
 		if (this.applicationEventPublisher != null) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,16 +19,19 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by \r\n
  * (not included in resulting byte[]).
  * Writes a byte[] to an OutputStream and adds \r\n.
+ * Also decodes frames in place from a {@link ByteBuffer}.
  *
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayCrLfSerializer extends AbstractPooledBufferByteArraySerializer {
+public class ByteArrayCrLfSerializer extends AbstractPooledBufferByteArraySerializer
+		implements ByteBufferFrameDecoder {
 
 	/**
 	 * A single reusable instance.
@@ -85,6 +88,27 @@ public class ByteArrayCrLfSerializer extends AbstractPooledBufferByteArraySerial
 		}
 	}
 
+	@Override
+	public byte[] decode(ByteBuffer buffer) throws IOException {
+		return decode(buffer, 0);
+	}
+
+	@Override
+	public byte[] decode(ByteBuffer buffer, int scanned) throws IOException {
+		int start = buffer.position();
+		// the last byte scanned may be a '\r' whose '\n' has just arrived
+		int cr = indexOf(buffer, start + Math.max(scanned - 1, 0), (byte) '\r');
+		while (cr >= 0 && cr + 1 < buffer.limit() && buffer.get(cr + 1) != '\n') {
+			cr = indexOf(buffer, cr + 1, (byte) '\r');
+		}
+		if (cr < 0 || cr + 1 >= buffer.limit()) {
+			checkFrameLength(buffer, buffer.remaining() - 1, "CRLF");
+			return null;
+		}
+		checkFrameLength(buffer, cr - start + 1, "CRLF");
+		return extractFrame(buffer, cr - start, 2);
+	}
+
 	/**
 	 * Writes the byte[] to the stream and appends \r\n.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,12 +38,13 @@ import org.apache.commons.logging.LogFactory;
  * Other options are an unsigned byte, and unsigned short.
  *
  * For other header formats, override {@link #readHeader(InputStream)} and
- * {@link #writeHeader(OutputStream, int)}.
+ * {@link #writeHeader(OutputStream, int)} (and {@link #decode(ByteBuffer)}, if
+ * in-place framing is used).
  *
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer {
+public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer implements ByteBufferFrameDecoder {
 
 
 	/**
@@ -123,6 +124,54 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		}
 	}
 
+	/**
+	 * Decodes a frame in place: reads the header at the buffer's position and, if
+	 * the buffer contains the whole frame, returns its data. Throws an
+	 * IOException if the length field exceeds the maxMessageSize.
+	 * @param buffer The buffer.
+	 * @throws IOException Any IOException.
+	 * @since 5.0.1
+	 */
+	@Override
+	public byte[] decode(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < this.headerSize) {
+			return null;
+		}
+		int start = buffer.position();
+		int messageLength;
+		switch (this.headerSize) {
+			case HEADER_SIZE_INT:
+				messageLength = buffer.getInt(start);
+				if (messageLength < 0) {
+					IllegalArgumentException e = new IllegalArgumentException("Length header:"
+							+ messageLength
+							+ " is negative");
+					publishEvent(e, buffer);
+					throw e;
+				}
+				break;
+			case HEADER_SIZE_UNSIGNED_BYTE:
+				messageLength = buffer.get(start) & 0xff;
+				break;
+			case HEADER_SIZE_UNSIGNED_SHORT:
+				messageLength = buffer.getShort(start) & 0xffff;
+				break;
+			default:
+				throw new IllegalArgumentException("Bad header size:" + this.headerSize);
+		}
+		if (messageLength > this.maxMessageSize) {
+			IOException e = new IOException("Message length " + messageLength +
+					" exceeds max message length: " + this.maxMessageSize);
+			publishEvent(e, buffer);
+			throw e;
+		}
+		if (buffer.remaining() < this.headerSize + messageLength) {
+			return null;
+		}
+		buffer.position(start + this.headerSize);
+		return extractFrame(buffer, messageLength, 0);
+	}
+
 	/**
 	 * Writes the byte[] to the output stream, preceded by a 4 byte
 	 * length in network byte order (big endian).
@@ -136,6 +185,18 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		outputStream.write(bytes);
 	}
 
+	/**
+	 * Writes just the length header for data of the provided length, which the caller
+	 * then writes itself (for example, transferred directly from a file).
+	 * @param length The length of the data.
+	 * @param outputStream The output stream.
+	 * @throws IOException Any IOException.
+	 * @since 5.0.1
+	 */
+	public void serializeHeader(int length, OutputStream outputStream) throws IOException {
+		this.writeHeader(outputStream, length);
+	}
+
 	/**
 	 * Reads data from the socket and puts the data in buffer. Blocks until
 	 * buffer is full or a socket timeout occurs.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by a single
@@ -28,7 +29,8 @@ import java.io.OutputStream;
  * @author Gary Russell
  * @since 2.2
  */
-public class ByteArraySingleTerminatorSerializer extends AbstractPooledBufferByteArraySerializer {
+public class ByteArraySingleTerminatorSerializer extends AbstractPooledBufferByteArraySerializer
+		implements ByteBufferFrameDecoder {
 
 	private final byte terminator;
 
@@ -81,6 +83,24 @@ public class ByteArraySingleTerminatorSerializer extends AbstractPooledBufferByt
 		}
 	}
 
+	@Override
+	public byte[] decode(ByteBuffer buffer) throws IOException {
+		return decode(buffer, 0);
+	}
+
+	@Override
+	public byte[] decode(ByteBuffer buffer, int scanned) throws IOException {
+		int start = buffer.position();
+		int end = indexOf(buffer, start + scanned, this.terminator);
+		String delimiter = "Terminator '0x" + Integer.toHexString(this.terminator & 0xff) + "'";
+		if (end < 0) {
+			checkFrameLength(buffer, buffer.remaining(), delimiter);
+			return null;
+		}
+		checkFrameLength(buffer, end - start, delimiter);
+		return extractFrame(buffer, end - start, 1);
+	}
+
 	/**
 	 * Writes the byte[] to the stream and appends the terminator.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.springframework.integration.mapping.MessageMappingException;
 
@@ -30,7 +31,8 @@ import org.springframework.integration.mapping.MessageMappingException;
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayStxEtxSerializer extends AbstractPooledBufferByteArraySerializer {
+public class ByteArrayStxEtxSerializer extends AbstractPooledBufferByteArraySerializer
+		implements ByteBufferFrameDecoder {
 
 	/**
 	 * A single reusable instance.
@@ -80,6 +82,32 @@ public class ByteArrayStxEtxSerializer extends AbstractPooledBufferByteArraySeri
 		}
 	}
 
+	@Override
+	public byte[] decode(ByteBuffer buffer) throws IOException {
+		return decode(buffer, 0);
+	}
+
+	@Override
+	public byte[] decode(ByteBuffer buffer, int scanned) throws IOException {
+		if (!buffer.hasRemaining()) {
+			return null;
+		}
+		int start = buffer.position();
+		if (buffer.get(start) != STX) {
+			MessageMappingException e = new MessageMappingException("Expected STX to begin message");
+			publishEvent(e, buffer);
+			throw e;
+		}
+		int end = indexOf(buffer, start + Math.max(scanned, 1), (byte) ETX);
+		if (end < 0) {
+			checkFrameLength(buffer, buffer.remaining() - 1, "ETX");
+			return null;
+		}
+		checkFrameLength(buffer, end - start - 1, "ETX");
+		buffer.position(start + 1);
+		return extractFrame(buffer, end - start - 1, 1);
+	}
+
 	/**
 	 * Writes the byte[] to the stream, prefixed by an ASCII STX character and
 	 * terminated with an ASCII ETX character.
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Strategy for finding frames directly in a {@link ByteBuffer} of received data,
+ * as an alternative to a {@link org.springframework.core.serializer.Deserializer}
+ * reading from a stream. Used by NIO connections configured for in-place framing,
+ * avoiding the copy into, and the hand-off through, the connection's input stream.
+ * <p>
+ * Implementations must be stateless (the same instance is used for all connections);
+ * any state is held in the buffer itself, which accumulates the data of a partial
+ * frame until it is complete.
+ *
+ * @since 5.0.1
+ *
+ * @see org.springframework.integration.ip.tcp.connection.TcpNioServerConnectionFactory#setInPlaceFraming(boolean)
+ * @see org.springframework.integration.ip.tcp.connection.TcpNioClientConnectionFactory#setInPlaceFraming(boolean)
+ */
+@FunctionalInterface
+public interface ByteBufferFrameDecoder {
+
+	/**
+	 * Decode the next frame from the data between the buffer's position and limit.
+	 * If a complete frame is present, its payload is returned and the position is
+	 * advanced past the frame, including any framing bytes. Otherwise, the
+	 * position is left unchanged and null is returned.
+	 * @param buffer the buffer.
+	 * @return the payload of the frame, or null if the buffer does not yet contain a complete frame.
+	 * @throws IOException if the data cannot be a valid frame; for example, the frame
+	 * exceeds the maximum message size.
+	 */
+	byte[] decode(ByteBuffer buffer) throws IOException;
+
+	/**
+	 * Decode the next frame, as {@link #decode(ByteBuffer)}, when a previous call
+	 * returned null after examining the first {@code scanned} bytes from the buffer's
+	 * position; those bytes are still there, followed by the data received since, so a
+	 * decoder searching for a delimiter only needs to search the new data. The default
+	 * implementation ignores the hint.
+	 * @param buffer the buffer.
+	 * @param scanned the number of bytes already examined without finding a complete frame.
+	 * @return the payload of the frame, or null if the buffer does not yet contain a complete frame.
+	 * @throws IOException if the data cannot be a valid frame.
+	 */
+	default byte[] decode(ByteBuffer buffer, int scanned) throws IOException {
+		return decode(buffer);
+	}
+
+}
@@ -21,6 +21,7 @@ import java.net.DatagramPacket;
 import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.IntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -149,13 +150,47 @@ public class DatagramPacketMessageMapper implements InboundMessageMapper<Datagra
 		return new DatagramPacket(bytes, bytes.length);
 	}
 
+	/**
+	 * Raw byte[] from message, possibly with a length field and/or acknowledgment
+	 * "headers" up front, written to a buffer (such as a reused direct buffer) obtained
+	 * from the provided function, which is passed the required capacity.
+	 * @param message the message.
+	 * @param bufferFactory the function providing a cleared buffer.
+	 * @return the buffer, flipped and ready to be written.
+	 * @throws Exception any exception.
+	 * @since 5.0.1
+	 */
+	public ByteBuffer fromMessage(Message<?> message, IntFunction<ByteBuffer> bufferFactory) throws Exception {
+		byte[] bytes = getPayloadAsBytes(message);
+		ByteBuffer buffer;
+		if (this.acknowledge) {
+			buffer = bufferFactory.apply(100 + bytes.length);
+			writeWithAck(message, bytes, buffer);
+		}
+		else {
+			buffer = bufferFactory.apply(bytes.length + (this.lengthCheck ? 4 : 0));
+			if (this.lengthCheck) {
+				buffer.putInt(bytes.length);
+			}
+			buffer.put(bytes);
+		}
+		buffer.flip();
+		return buffer;
+	}
+
 	/**
 	 * Prefix raw byte[] from message with 'acknowledge to' and 'message id' "headers".
 	 */
 	private DatagramPacket fromMessageWithAck(Message<?> message) throws Exception {
-		Assert.state(StringUtils.hasText(this.ackAddress), "'ackAddress' must not be empty");
 		byte[] bytes = getPayloadAsBytes(message);
 		ByteBuffer buffer = ByteBuffer.allocate(100 + bytes.length);
+		writeWithAck(message, bytes, buffer);
+		return new DatagramPacket(buffer.array(), buffer.position());
+	}
+
+	private void writeWithAck(Message<?> message, byte[] bytes, ByteBuffer buffer) throws Exception {
+		Assert.state(StringUtils.hasText(this.ackAddress), "'ackAddress' must not be empty");
+		int start = buffer.position();
 		if (this.lengthCheck) {
 			buffer.putInt(0); // placeholder for length
 		}
@@ -167,14 +202,13 @@ public class DatagramPacketMessageMapper implements InboundMessageMapper<Datagra
 		buffer.put((byte) '=');
 		buffer.put(message.getHeaders().getId().toString().getBytes(this.charset));
 		buffer.put((byte) ';');
-		int headersLength = buffer.position() - 4;
+		int headersLength = buffer.position() - start - 4;
 		buffer.put(bytes);
 		if (this.lengthCheck) {
 			// insert the length (not including the length bytes)
 			// default ByteOrder is	ByteOrder.BIG_ENDIAN (network byte order)
-			buffer.putInt(0, bytes.length + headersLength);
+			buffer.putInt(start, bytes.length + headersLength);
 		}
-		return new DatagramPacket(buffer.array(), buffer.position());
 	}
 
 	private byte[] getPayloadAsBytes(Message<?> message) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,20 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.net.SocketException;
+import java.net.SocketOption;
 import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
@@ -30,14 +42,20 @@ import java.util.regex.Pattern;
 
 import org.springframework.integration.ip.AbstractInternetProtocolReceivingChannelAdapter;
 import org.springframework.integration.ip.IpHeaders;
+import org.springframework.integration.ip.tcp.connection.DirectByteBufferPool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
+import org.springframework.util.Assert;
 
 /**
  * A channel adapter to receive incoming UDP packets. Packets can optionally be preceded by a
  * 4 byte length field, used to validate that all data was received. Packets may also contain
  * information indicating an acknowledgment needs to be sent.
+ * <p>
+ * When {@link #setUsingNio(boolean) usingNio} is true, packets are received with a
+ * {@link DatagramChannel} into reusable direct buffers, by one or more receiver threads,
+ * and handed off to the task executor in batches.
  *
  * @author Gary Russell
  * @since 2.0
@@ -50,8 +68,24 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 
 	private volatile int soSendBufferSize = -1;
 
+	private volatile boolean usingNio;
+
+	private volatile int receiverCount = 1;
+
+	private volatile int batchSize = 32;
+
+	private volatile DirectByteBufferPool bufferPool;
+
+	private volatile boolean reusePort;
+
+	private final List<DatagramChannel> additionalChannels = new CopyOnWriteArrayList<>();
+
+	private final Set<Selector> selectors = ConcurrentHashMap.newKeySet();
+
 	private static Pattern addressPattern = Pattern.compile("([^:]*):([0-9]*)");
 
+	private static final SocketOption<Boolean> REUSE_PORT = reusePortOption();
+
 
 	/**
 	 * Constructs a UnicastReceivingChannelAdapter that listens on the specified port.
@@ -83,6 +117,72 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 		this.mapper.setLengthCheck(lengthCheck);
 	}
 
+	/**
+	 * When true, receive packets using a {@link DatagramChannel}, into reusable direct
+	 * buffers, rather than with a {@link DatagramSocket} and a new byte array for each
+	 * packet. Does not apply to multicast adapters, or when an external socket that
+	 * has no channel is provided. Default false.
+	 * @param usingNio true to use NIO.
+	 * @since 5.0.1
+	 */
+	public void setUsingNio(boolean usingNio) {
+		this.usingNio = usingNio;
+	}
+
+	/**
+	 * Set the number of threads receiving packets when {@link #setUsingNio(boolean)
+	 * usingNio} is true; each thread is taken from the task executor for the life of
+	 * the adapter. The default executor's {@link #setPoolSize(int) pool size} is
+	 * increased accordingly; a supplied executor must have additional threads to
+	 * process the received packets. Where the JDK supports {@code SO_REUSEPORT}, each
+	 * additional receiver has its own socket bound to the port, and the operating
+	 * system distributes the packets; otherwise the receivers share the socket.
+	 * Default 1.
+	 * @param receiverCount the number of receiver threads.
+	 * @since 5.0.1
+	 */
+	public void setReceiverCount(int receiverCount) {
+		Assert.isTrue(receiverCount > 0, "'receiverCount' must be > 0");
+		this.receiverCount = receiverCount;
+	}
+
+	/**
+	 * Set the maximum number of packets a receiver reads, when they are available
+	 * without waiting, before handing them off to the task executor together, when
+	 * {@link #setUsingNio(boolean) usingNio} is true. Only applies to the receivers
+	 * with their own socket (see {@link #setReceiverCount(int)}); the adapter's own
+	 * socket, which can also be used to send packets (for example by a
+	 * {@link UnicastSendingMessageHandler} with a socket expression), remains in
+	 * blocking mode, and its packets are handed off one at a time. Default 32.
+	 * @param batchSize the batch size.
+	 * @since 5.0.1
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set a pool from which the receive buffers are obtained when
+	 * {@link #setUsingNio(boolean) usingNio} is true; by default, each receiver
+	 * allocates its own buffer.
+	 * @param bufferPool the pool.
+	 * @since 5.0.1
+	 */
+	public void setBufferPool(DirectByteBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>When {@link #setUsingNio(boolean) usingNio} is true, the default executor
+	 * has a thread for each additional {@link #setReceiverCount(int) receiver} too.
+	 */
+	@Override
+	protected int getPoolSize() {
+		return this.usingNio ? super.getPoolSize() + this.receiverCount - 1 : super.getPoolSize();
+	}
+
 	@Override
 	public boolean isLongLived() {
 		return true;
@@ -106,12 +206,20 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 
 	@Override
 	public void run() {
-		getSocket();
+		DatagramChannel channel = getSocket().getChannel();
 
 		if (logger.isDebugEnabled()) {
 			logger.debug("UDP Receiver running on port:" + this.getPort());
 		}
 
+		if (this.usingNio && channel != null) {
+			setListening(true);
+			startAdditionalReceivers(channel);
+			receiveBatches(channel);
+			setListening(false);
+			return;
+		}
+
 		setListening(true);
 
 		// Do as little as possible here so we can loop around and catch the next packet.
@@ -182,6 +290,21 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 		return true;
 	}
 
+	protected void asyncSendMessages(final List<DatagramPacket> packets) {
+		Executor taskExecutor = getTaskExecutor();
+		if (taskExecutor != null) {
+			try {
+				taskExecutor.execute(() -> packets.forEach(this::doSend));
+			}
+			catch (RejectedExecutionException e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Adapter stopped, sending on main thread");
+				}
+				packets.forEach(this::doSend);
+			}
+		}
+	}
+
 	protected void doSend(final DatagramPacket packet) {
 		Message<byte[]> message = null;
 		try {
@@ -209,6 +332,110 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 		return packet;
 	}
 
+	private void startAdditionalReceivers(DatagramChannel channel) {
+		for (int i = 1; i < this.receiverCount; i++) {
+			try {
+				DatagramChannel receiverChannel = channel;
+				if (this.reusePort) {
+					receiverChannel = DatagramChannel.open();
+					this.additionalChannels.add(receiverChannel);
+					bind(receiverChannel, channel.getLocalAddress(), true);
+					// this channel is private to the receiver, so it can be selected
+					receiverChannel.configureBlocking(false);
+				}
+				final DatagramChannel theChannel = receiverChannel;
+				getTaskExecutor().execute(() -> receiveBatches(theChannel));
+			}
+			catch (IOException | RejectedExecutionException e) {
+				logger.error("Failed to start UDP receiver " + i + " on port:" + getPort(), e);
+			}
+		}
+	}
+
+	/**
+	 * Receive packets into a reused buffer, copying each to a right-sized array. A
+	 * non-blocking channel is selected, and whatever is available (up to the batch
+	 * size) is handed off each time it is readable; the adapter's own channel is left in
+	 * blocking mode, since it might be used to send packets too, and each of its
+	 * packets is handed off as it arrives.
+	 */
+	private void receiveBatches(DatagramChannel channel) {
+		int receiveBufferSize = getReceiveBufferSize();
+		DirectByteBufferPool bufferPool = this.bufferPool;
+		ByteBuffer buffer = bufferPool != null
+				? bufferPool.acquire(receiveBufferSize)
+				: ByteBuffer.allocateDirect(receiveBufferSize);
+		Selector selector = null;
+		try {
+			if (channel.isBlocking()) {
+				while (isActive()) {
+					buffer.clear().limit(receiveBufferSize);
+					SocketAddress address = channel.receive(buffer);
+					buffer.flip();
+					byte[] data = new byte[buffer.remaining()];
+					buffer.get(data);
+					asyncSendMessage(new DatagramPacket(data, data.length, address));
+				}
+				return;
+			}
+			selector = Selector.open();
+			this.selectors.add(selector);
+			channel.register(selector, SelectionKey.OP_READ);
+			List<DatagramPacket> batch = new ArrayList<>(this.batchSize);
+			while (isActive()) {
+				selector.select(getSoTimeout());
+				selector.selectedKeys().clear();
+				SocketAddress address;
+				buffer.clear().limit(receiveBufferSize);
+				while (batch.size() < this.batchSize && (address = channel.receive(buffer)) != null) {
+					buffer.flip();
+					byte[] data = new byte[buffer.remaining()];
+					buffer.get(data);
+					batch.add(new DatagramPacket(data, data.length, address));
+					buffer.clear().limit(receiveBufferSize);
+				}
+				if (batch.size() > 0) {
+					asyncSendMessages(batch);
+					batch = new ArrayList<>(this.batchSize);
+				}
+			}
+		}
+		catch (IOException e) {
+			if (isActive()) {
+				logger.error("Error on UDP receiver; stopping", e);
+				stop();
+			}
+		}
+		finally {
+			if (selector != null) {
+				this.selectors.remove(selector);
+				try {
+					selector.close();
+				}
+				catch (IOException e) {
+					// ignore
+				}
+			}
+			if (bufferPool != null) {
+				bufferPool.release(buffer);
+			}
+		}
+	}
+
+	private DatagramChannel bind(DatagramChannel channel, SocketAddress address, boolean reusePort)
+			throws IOException {
+
+		if (reusePort) {
+			channel.setOption(REUSE_PORT, true);
+		}
+		int soReceiveBufferSize = getSoReceiveBufferSize();
+		if (soReceiveBufferSize > 0) {
+			channel.setOption(StandardSocketOptions.SO_RCVBUF, soReceiveBufferSize);
+		}
+		channel.bind(address);
+		return channel;
+	}
+
 	/**
 	 * @param socket the socket to set
 	 */
@@ -226,7 +453,16 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 				DatagramSocket socket = null;
 				String localAddress = this.getLocalAddress();
 				int port = super.getPort();
-				if (localAddress == null) {
+				if (this.usingNio) {
+					InetSocketAddress address = localAddress == null
+							? new InetSocketAddress(port)
+							: new InetSocketAddress(InetAddress.getByName(localAddress), port);
+					DatagramChannel channel = DatagramChannel.open();
+					this.reusePort = this.receiverCount > 1 && REUSE_PORT != null
+							&& channel.supportedOptions().contains(REUSE_PORT);
+					socket = bind(channel, address, this.reusePort).socket();
+				}
+				else if (localAddress == null) {
 					socket = port == 0 ? new DatagramSocket() : new DatagramSocket(port);
 				}
 				else {
@@ -269,6 +505,18 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 		catch (Exception e) {
 			// ignore
 		}
+		for (DatagramChannel channel : this.additionalChannels) {
+			try {
+				channel.close();
+			}
+			catch (IOException e) {
+				// ignore
+			}
+		}
+		this.additionalChannels.clear();
+		for (Selector selector : this.selectors) {
+			selector.wakeup();
+		}
 	}
 
 	@Override
@@ -285,4 +533,17 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 		return "ip:udp-inbound-channel-adapter";
 	}
 
+	/**
+	 * {@code SO_REUSEPORT} is only available on Java 9 and later.
+	 */
+	@SuppressWarnings("unchecked")
+	private static SocketOption<Boolean> reusePortOption() {
+		try {
+			return (SocketOption<Boolean>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+		}
+		catch (Exception e) {
+			return null;
+		}
+	}
+
 }
@@ -24,6 +24,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -37,6 +39,7 @@ import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.ip.AbstractInternetProtocolSendingMessageHandler;
+import org.springframework.integration.ip.tcp.connection.DirectByteBufferPool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.MessageHandlingException;
@@ -52,6 +55,9 @@ import org.springframework.util.StringUtils;
  * Messages can be basic, with no support for reliability, can be prefixed
  * by a length so the receiving end can detect truncation, and can require
  * a UDP acknowledgment to confirm delivery.
+ * <p>
+ * When {@link #setUsingNio(boolean) usingNio} is true, packets are sent with a
+ * {@link DatagramChannel}, from pooled direct buffers.
  *
  * @author Gary Russell
  * @author Marcin Pilaczynski
@@ -102,6 +108,10 @@ public class UnicastSendingMessageHandler extends
 
 	private EvaluationContext evaluationContext;
 
+	private volatile boolean usingNio;
+
+	private volatile DirectByteBufferPool bufferPool;
+
 	/**
 	 * Basic constructor; no reliability; no acknowledgment.
 	 * @param host Destination host.
@@ -227,6 +237,29 @@ public class UnicastSendingMessageHandler extends
 		this.mapper.setLengthCheck(lengthCheck);
 	}
 
+	/**
+	 * When true, send packets using a {@link DatagramChannel}, writing each message
+	 * to a pooled direct buffer rather than to a new byte array. Does not apply to
+	 * sockets provided by the socket expression, unless they have a channel.
+	 * Default false.
+	 * @param usingNio true to use NIO.
+	 * @since 5.0.1
+	 */
+	public void setUsingNio(boolean usingNio) {
+		this.usingNio = usingNio;
+	}
+
+	/**
+	 * Set the pool of direct buffers used when {@link #setUsingNio(boolean) usingNio}
+	 * is true, which may be shared with other components; by default, each handler
+	 * has its own pool.
+	 * @param bufferPool the pool.
+	 * @since 5.0.1
+	 */
+	public void setBufferPool(DirectByteBufferPool bufferPool) {
+		this.bufferPool = bufferPool;
+	}
+
 	@Override
 	public void doStart() {
 		if (this.acknowledge) {
@@ -349,6 +382,31 @@ public class UnicastSendingMessageHandler extends
 		else {
 			destinationAddress = getDestinationAddress();
 		}
+		DatagramChannel channel = socket.getChannel();
+		if (this.usingNio && channel != null) {
+			DirectByteBufferPool bufferPool = this.bufferPool;
+			// the mapper can fail after acquiring the buffer
+			ByteBuffer[] acquired = new ByteBuffer[1];
+			try {
+				ByteBuffer buffer = this.mapper.fromMessage(message, size -> {
+					acquired[0] = bufferPool.acquire(size);
+					return acquired[0];
+				});
+				if (buffer.hasRemaining() && channel.send(buffer, destinationAddress) == 0) {
+					throw new IOException("The packet for message " + message + " was not sent to "
+							+ destinationAddress + "; the channel is non-blocking and has no room in its buffer");
+				}
+			}
+			finally {
+				if (acquired[0] != null) {
+					bufferPool.release(acquired[0]);
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Sent packet for message " + message + " to " + destinationAddress);
+			}
+			return;
+		}
 		DatagramPacket packet = this.mapper.fromMessage(message);
 		packet.setSocketAddress(destinationAddress);
 		socket.send(packet);
@@ -368,13 +426,8 @@ public class UnicastSendingMessageHandler extends
 	protected synchronized DatagramSocket getSocket() throws IOException {
 		if (this.socket == null) {
 			if (this.acknowledge) {
-				if (this.localAddress == null) {
-					this.socket = this.ackPort == 0 ? new DatagramSocket() : new DatagramSocket(this.ackPort);
-				}
-				else {
-					InetAddress whichNic = InetAddress.getByName(this.localAddress);
-					this.socket = new DatagramSocket(new InetSocketAddress(whichNic, this.ackPort));
-				}
+				InetAddress whichNic = this.localAddress == null ? null : InetAddress.getByName(this.localAddress);
+				this.socket = createSocket(new InetSocketAddress(whichNic, this.ackPort));
 				if (this.soReceiveBufferSize > 0) {
 					this.socket.setReceiveBufferSize(this.soReceiveBufferSize);
 				}
@@ -384,13 +437,32 @@ public class UnicastSendingMessageHandler extends
 				updateAckAddress();
 			}
 			else {
-				this.socket = new DatagramSocket();
+				this.socket = createSocket(null);
 			}
 			setSocketAttributes(this.socket);
 		}
 		return this.socket;
 	}
 
+	private DatagramSocket createSocket(InetSocketAddress address) throws IOException {
+		if (this.usingNio) {
+			DatagramChannel channel = DatagramChannel.open();
+			try {
+				if (address != null) {
+					channel.bind(address);
+				}
+				return channel.socket();
+			}
+			catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		}
+		else {
+			return address == null ? new DatagramSocket() : new DatagramSocket(address);
+		}
+	}
+
 	protected void updateAckAddress() {
 		this.mapper.setAckAddress(this.ackHost + ":" + getAckPort());
 	}
@@ -478,6 +550,9 @@ public class UnicastSendingMessageHandler extends
 		if (this.socketExpression != null) {
 			Assert.state(!this.acknowledge, "'acknowledge' must be false when using a socket expression");
 		}
+		if (this.usingNio && this.bufferPool == null) {
+			this.bufferPool = new DirectByteBufferPool();
+		}
 	}
 
 	protected void setSocketAttributes(DatagramSocket socket) throws SocketException {
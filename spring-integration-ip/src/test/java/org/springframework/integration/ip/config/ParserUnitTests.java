@@ -481,6 +481,12 @@ public class ParserUnitTests {
 		assertEquals(24, dfa.getPropertyValue("order"));
 
 		assertEquals("4000", TestUtils.getPropertyValue(outAdviceGateway, "remoteTimeoutExpression.expression"));
+		assertFalse(TestUtils.getPropertyValue(tcpOutboundGateway, "pipelined", Boolean.class));
+		assertTrue(TestUtils.getPropertyValue(outAdviceGateway, "pipelined", Boolean.class));
+		assertEquals(42, TestUtils.getPropertyValue(outAdviceGateway, "maxPipelinedRequests"));
+		assertEquals("headers['myId']",
+				TestUtils.getPropertyValue(outAdviceGateway, "replyCorrelationExpression.expression"));
+		assertTrue(TestUtils.getPropertyValue(outAdviceGateway, "async", Boolean.class));
 	}
 
 	@Test
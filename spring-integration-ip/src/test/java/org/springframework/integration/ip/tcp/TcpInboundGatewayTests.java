@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,9 @@
 package org.springframework.integration.ip.tcp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -32,6 +34,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.net.ServerSocketFactory;
 import javax.net.SocketFactory;
@@ -41,13 +44,18 @@ import org.junit.Test;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.codec.CodecMessageMapper;
 import org.springframework.integration.handler.ServiceActivatingHandler;
+import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.AbstractServerConnectionFactory;
+import org.springframework.integration.ip.tcp.connection.TcpMessageMapper;
 import org.springframework.integration.ip.tcp.connection.TcpNetClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.TcpNetServerConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.TcpNioServerConnectionFactory;
+import org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer;
 import org.springframework.integration.ip.util.TestingUtilities;
+import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.SubscribableChannel;
@@ -260,6 +268,110 @@ public class TcpInboundGatewayTests {
 	}
 
 
+	@Test
+	public void testCodecMessageMapper() throws Exception {
+		TcpMessageMapper mapper = new TcpMessageMapper();
+		mapper.setBytesMessageMapper(new CodecMessageMapper("foo*"));
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		AbstractServerConnectionFactory scf = new TcpNioServerConnectionFactory(0);
+		scf.setSerializer(serializer);
+		scf.setDeserializer(serializer);
+		scf.setMapper(mapper);
+		TcpInboundGateway inbound = new TcpInboundGateway();
+		inbound.setConnectionFactory(scf);
+		final AtomicReference<Message<?>> request = new AtomicReference<>();
+		SubscribableChannel requestChannel = new DirectChannel();
+		requestChannel.subscribe(message -> {
+			request.set(message);
+			MessageChannel replyChannel = (MessageChannel) message.getHeaders().getReplyChannel();
+			replyChannel.send(MessageBuilder.withPayload("Echo:" + message.getPayload())
+					.setHeader("fooReply", message.getHeaders().get("fooRequest"))
+					.setHeader("barReply", "bar")
+					.build());
+		});
+		inbound.setRequestChannel(requestChannel);
+		inbound.setBeanFactory(mock(BeanFactory.class));
+		scf.start();
+		TestingUtilities.waitListening(scf, 20000L);
+		AbstractClientConnectionFactory ccf = new TcpNetClientConnectionFactory("localhost", scf.getPort());
+		ccf.setSerializer(serializer);
+		ccf.setDeserializer(serializer);
+		ccf.setMapper(mapper);
+		ccf.start();
+		TcpOutboundGateway outbound = new TcpOutboundGateway();
+		outbound.setConnectionFactory(ccf);
+		QueueChannel replyChannel = new QueueChannel();
+		outbound.setOutputChannel(replyChannel);
+		outbound.setBeanFactory(mock(BeanFactory.class));
+		outbound.afterPropertiesSet();
+		outbound.handleMessage(MessageBuilder.withPayload("Test1")
+				.setHeader("fooRequest", "foo")
+				.setHeader("barRequest", "bar")
+				.build());
+		Message<?> reply = replyChannel.receive(10000);
+		assertNotNull(reply);
+		assertEquals("Echo:Test1", reply.getPayload());
+		assertEquals("foo", reply.getHeaders().get("fooReply"));
+		assertNull(reply.getHeaders().get("barReply"));
+		assertEquals("foo", request.get().getHeaders().get("fooRequest"));
+		assertNull(request.get().getHeaders().get("barRequest"));
+		assertNotNull(request.get().getHeaders().get(IpHeaders.CONNECTION_ID));
+		ccf.stop();
+		scf.stop();
+	}
+
+	@Test
+	public void testDefaultCodecMessageMapper() throws Exception {
+		TcpMessageMapper mapper = new TcpMessageMapper();
+		mapper.setBytesMessageMapper(new CodecMessageMapper());
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		AbstractServerConnectionFactory scf = new TcpNioServerConnectionFactory(0);
+		scf.setSerializer(serializer);
+		scf.setDeserializer(serializer);
+		scf.setMapper(mapper);
+		TcpInboundGateway inbound = new TcpInboundGateway();
+		inbound.setConnectionFactory(scf);
+		final AtomicReference<Message<?>> request = new AtomicReference<>();
+		SubscribableChannel requestChannel = new DirectChannel();
+		requestChannel.subscribe(message -> {
+			request.set(message);
+			MessageChannel replyChannel = (MessageChannel) message.getHeaders().getReplyChannel();
+			replyChannel.send(MessageBuilder.withPayload("Echo:" + message.getPayload())
+					.setHeader("fooReply", message.getHeaders().get("fooRequest"))
+					.build());
+		});
+		inbound.setRequestChannel(requestChannel);
+		inbound.setBeanFactory(mock(BeanFactory.class));
+		scf.start();
+		TestingUtilities.waitListening(scf, 20000L);
+		AbstractClientConnectionFactory ccf = new TcpNetClientConnectionFactory("localhost", scf.getPort());
+		ccf.setSerializer(serializer);
+		ccf.setDeserializer(serializer);
+		ccf.setMapper(mapper);
+		ccf.start();
+		TcpOutboundGateway outbound = new TcpOutboundGateway();
+		outbound.setConnectionFactory(ccf);
+		QueueChannel replyChannel = new QueueChannel();
+		outbound.setOutputChannel(replyChannel);
+		outbound.setBeanFactory(mock(BeanFactory.class));
+		outbound.afterPropertiesSet();
+		outbound.handleMessage(MessageBuilder.withPayload("Test1")
+				.setHeader("fooRequest", "foo")
+				.setReplyChannelName("clientReplies")
+				.setErrorChannelName("clientErrors")
+				.build());
+		Message<?> reply = replyChannel.receive(10000);
+		assertNotNull(reply);
+		assertEquals("Echo:Test1", reply.getPayload());
+		assertEquals("foo", reply.getHeaders().get("fooReply"));
+		assertEquals("foo", request.get().getHeaders().get("fooRequest"));
+		assertNull(request.get().getHeaders().getErrorChannel());
+		assertNotEquals("clientReplies", request.get().getHeaders().getReplyChannel());
+		assertNotNull(request.get().getHeaders().get(IpHeaders.CONNECTION_ID));
+		ccf.stop();
+		scf.stop();
+	}
+
 	private void readFully(InputStream is, byte[] buff) throws IOException {
 		for (int i = 0; i < buff.length; i++) {
 			buff[i] = (byte) is.read();
@@ -16,6 +16,7 @@
 
 package org.springframework.integration.ip.tcp;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -28,19 +29,24 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
@@ -76,9 +82,12 @@ import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.rule.Log4j2LevelAdjuster;
 import org.springframework.integration.test.support.LongRunningIntegrationTest;
 import org.springframework.integration.test.util.TestUtils;
+import org.springframework.integration.util.HashedTimerWheel;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * @author Gary Russell
@@ -788,6 +797,181 @@ public class TcpOutboundGatewayTests {
 		serverSocket.close();
 	}
 
+	@Test
+	public void testPipelinedInOrder() throws Exception {
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		CountDownLatch requestsReceived = new CountDownLatch(100);
+		Executors.newSingleThreadExecutor().execute(() -> {
+			try {
+				Socket socket = server.accept();
+				BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+				List<String> requests = new ArrayList<String>();
+				// read all the requests before replying, to prove they were pipelined
+				while (requests.size() < 100) {
+					requests.add(reader.readLine());
+					requestsReceived.countDown();
+				}
+				for (String request : requests) {
+					socket.getOutputStream().write(("echo:" + request + "\r\n").getBytes());
+				}
+			}
+			catch (IOException e) {
+				logger.debug("Server failed", e);
+			}
+		});
+		TcpNioClientConnectionFactory ccf = new TcpNioClientConnectionFactory("localhost", server.getLocalPort());
+		ccf.setSingleUse(false);
+		ccf.start();
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setPipelined(true);
+		gateway.setAsync(true);
+		QueueChannel replyChannel = new QueueChannel();
+		gateway.setOutputChannel(replyChannel);
+		gateway.setTaskScheduler(scheduler);
+		gateway.setBeanFactory(mock(BeanFactory.class));
+		gateway.afterPropertiesSet();
+		gateway.start();
+		for (int i = 0; i < 100; i++) {
+			gateway.handleMessage(MessageBuilder.withPayload("foo" + i).setHeader("index", i).build());
+		}
+		assertTrue(requestsReceived.await(10, TimeUnit.SECONDS));
+		for (int i = 0; i < 100; i++) {
+			Message<?> reply = replyChannel.receive(10000);
+			assertNotNull(reply);
+			assertEquals("echo:foo" + reply.getHeaders().get("index"), new String((byte[]) reply.getPayload()));
+		}
+		assertEquals(0, TestUtils.getPropertyValue(gateway, "pipelineTimeouts", HashedTimerWheel.class).size());
+		gateway.stop();
+		scheduler.destroy();
+		server.close();
+	}
+
+	@Test
+	public void testPipelinedCorrelated() throws Exception {
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		Executors.newSingleThreadExecutor().execute(() -> {
+			try {
+				Socket socket = server.accept();
+				BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+				Deque<String> requests = new ConcurrentLinkedDeque<String>();
+				while (requests.size() < 10) {
+					requests.push(reader.readLine());
+				}
+				// reply in reverse order
+				for (String request : requests) {
+					socket.getOutputStream().write((request.substring(0, 3) + ":reply\r\n").getBytes());
+				}
+			}
+			catch (IOException e) {
+				logger.debug("Server failed", e);
+			}
+		});
+		TcpNioClientConnectionFactory ccf = new TcpNioClientConnectionFactory("localhost", server.getLocalPort());
+		ccf.setSingleUse(false);
+		ccf.start();
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setPipelined(true);
+		gateway.setAsync(true);
+		gateway.setReplyCorrelationExpression(new SpelExpressionParser()
+				.parseExpression("new String(payload).substring(0, 3)"));
+		QueueChannel replyChannel = new QueueChannel();
+		gateway.setOutputChannel(replyChannel);
+		gateway.setTaskScheduler(scheduler);
+		gateway.setBeanFactory(mock(BeanFactory.class));
+		gateway.afterPropertiesSet();
+		gateway.start();
+		for (int i = 0; i < 10; i++) {
+			gateway.handleMessage(MessageBuilder.withPayload(String.format("%03d:foo", i).getBytes())
+					.setHeader("index", i)
+					.build());
+		}
+		for (int i = 9; i >= 0; i--) {
+			Message<?> reply = replyChannel.receive(10000);
+			assertNotNull(reply);
+			String payload = new String((byte[]) reply.getPayload(), StandardCharsets.UTF_8);
+			assertEquals(String.format("%03d:reply", i), payload);
+			assertEquals(i, reply.getHeaders().get("index"));
+		}
+		gateway.stop();
+		scheduler.destroy();
+		server.close();
+	}
+
+	@Test
+	public void testPipelinedTimeouts() throws Exception {
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+		Executors.newSingleThreadExecutor().execute(() -> {
+			try {
+				while (true) {
+					sockets.add(server.accept());
+				}
+			}
+			catch (IOException e) {
+				logger.debug("Server closed", e);
+			}
+		});
+		TcpNioClientConnectionFactory ccf = new TcpNioClientConnectionFactory("localhost", server.getLocalPort());
+		ccf.setSingleUse(false);
+		ccf.start();
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setPipelined(true);
+		gateway.setMaxPipelinedRequests(2);
+		gateway.setRequestTimeout(100);
+		gateway.setRemoteTimeout(1000);
+		gateway.setAsync(true);
+		QueueChannel replyChannel = new QueueChannel();
+		gateway.setOutputChannel(replyChannel);
+		gateway.setTaskScheduler(scheduler);
+		gateway.setBeanFactory(mock(BeanFactory.class));
+		gateway.afterPropertiesSet();
+		gateway.start();
+		QueueChannel errorChannel = new QueueChannel();
+		gateway.handleMessage(MessageBuilder.withPayload("foo").setErrorChannel(errorChannel).build());
+		gateway.handleMessage(MessageBuilder.withPayload("bar").setErrorChannel(errorChannel).build());
+		try {
+			gateway.handleMessage(new GenericMessage<>("baz"));
+			fail("expected backpressure");
+		}
+		catch (MessageTimeoutException e) {
+			assertThat(e.getMessage(), containsString("Timed out waiting for a pending reply"));
+		}
+		// the first request times out, and the connection is closed, failing the second
+		Message<?> error = errorChannel.receive(10000);
+		assertNotNull(error);
+		assertThat(error.getPayload(), instanceOf(MessageTimeoutException.class));
+		error = errorChannel.receive(10000);
+		assertNotNull(error);
+		assertThat(error.getPayload(), instanceOf(MessagingException.class));
+		assertThat(((Exception) error.getPayload()).getMessage(), containsString("the connection has been closed"));
+
+		gateway.setAsync(false);
+		gateway.setRequestTimeout(10000);
+		gateway.setRemoteTimeout(200);
+		try {
+			gateway.handleMessage(new GenericMessage<>("qux"));
+			fail("expected timeout");
+		}
+		catch (MessageTimeoutException e) {
+			assertThat(e.getMessage(), containsString("Timed out waiting for response"));
+		}
+		assertEquals(0, TestUtils.getPropertyValue(gateway, "pipelineTimeouts", HashedTimerWheel.class).size());
+		assertNull(replyChannel.receive(0));
+		gateway.stop();
+		scheduler.destroy();
+		server.close();
+	}
+
+
 	private void testGWPropagatesSocketTimeoutGuts(final int port, AbstractClientConnectionFactory ccf,
 			final ServerSocket server) throws Exception {
 		final CountDownLatch latch = new CountDownLatch(1);
@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -57,8 +58,10 @@ import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.ip.config.TcpConnectionFactoryFactoryBean;
 import org.springframework.integration.ip.event.IpIntegrationEvent;
 import org.springframework.integration.ip.tcp.TcpReceivingChannelAdapter;
+import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.test.rule.Log4j2LevelAdjuster;
 import org.springframework.integration.test.util.TestUtils;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
@@ -249,6 +252,57 @@ public class ConnectionFactoryTests {
 		factory.stop();
 	}
 
+	@Test
+	public void testIdleTimeoutAndMetricsNet() throws Exception {
+		testIdleTimeoutAndMetrics(new TcpNetServerConnectionFactory(0));
+	}
+
+	@Test
+	public void testIdleTimeoutAndMetricsNio() throws Exception {
+		testIdleTimeoutAndMetrics(new TcpNioServerConnectionFactory(0));
+	}
+
+	private void testIdleTimeoutAndMetrics(AbstractServerConnectionFactory serverFactory) throws Exception {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		serverFactory.setApplicationEventPublisher(mock(ApplicationEventPublisher.class));
+		serverFactory.setTaskScheduler(scheduler);
+		serverFactory.setIdleTimeout(500);
+		CountDownLatch latch = new CountDownLatch(1);
+		serverFactory.registerListener(message -> {
+			latch.countDown();
+			return false;
+		});
+		serverFactory.start();
+		TestingUtilities.waitListening(serverFactory, null);
+		TcpNetClientConnectionFactory clientFactory =
+				new TcpNetClientConnectionFactory("localhost", serverFactory.getPort());
+		clientFactory.setApplicationEventPublisher(mock(ApplicationEventPublisher.class));
+		clientFactory.registerListener(message -> false);
+		clientFactory.start();
+		TcpConnectionSupport client = clientFactory.getConnection();
+		client.send(new GenericMessage<>("foo"));
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		ConnectionMetrics clientMetrics = client.getMetrics();
+		assertEquals(1, clientMetrics.getMessagesSent());
+		assertEquals(5, clientMetrics.getBytesWritten());
+		List<ConnectionMetrics> serverMetrics = serverFactory.getConnectionMetrics();
+		assertEquals(1, serverMetrics.size());
+		assertEquals(1, serverMetrics.get(0).getMessagesReceived());
+		assertEquals(5, serverMetrics.get(0).getBytesRead());
+		assertEquals(1, serverFactory.busiestConnections(10).size());
+		assertEquals(1, serverFactory.getOpenConnectionCount());
+		int n = 0;
+		while (n++ < 100 && (serverFactory.getOpenConnectionCount() > 0 || client.isOpen())) {
+			Thread.sleep(100);
+		}
+		assertEquals(0, serverFactory.getOpenConnectionCount());
+		assertFalse(client.isOpen());
+		clientFactory.stop();
+		serverFactory.stop();
+		scheduler.destroy();
+	}
+
 	@SuppressWarnings("serial")
 	private class FooEvent extends TcpConnectionOpenEvent {
 
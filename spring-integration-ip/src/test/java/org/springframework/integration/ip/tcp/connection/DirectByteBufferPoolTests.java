@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.ip.tcp.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.SocketFactory;
+
+import org.junit.Test;
+
+import org.springframework.integration.ip.util.TestingUtilities;
+
+/**
+ * @since 5.0.1
+ */
+public class DirectByteBufferPoolTests {
+
+	@Test
+	public void testSizeClasses() {
+		DirectByteBufferPool pool = new DirectByteBufferPool(1024, 8192, 2);
+		ByteBuffer buffer = pool.acquire(10);
+		assertTrue(buffer.isDirect());
+		assertEquals(1024, buffer.capacity());
+		assertEquals(2048, pool.acquire(1025).capacity());
+		assertEquals(8192, pool.acquire(8192).capacity());
+		assertEquals(10000, pool.acquire(10000).capacity());
+		assertEquals(4, pool.getBorrowedCount());
+		assertEquals(4, pool.getAllocationCount());
+	}
+
+	@Test
+	public void testReuse() {
+		DirectByteBufferPool pool = new DirectByteBufferPool(1024, 8192, 1);
+		ByteBuffer buffer1 = pool.acquire(100);
+		ByteBuffer buffer2 = pool.acquire(100);
+		assertNotSame(buffer1, buffer2);
+		buffer1.put((byte) 1).flip();
+		pool.release(buffer1);
+		pool.release(buffer2);
+		assertEquals(0, pool.getBorrowedCount());
+		assertEquals(1, pool.getIdleCount());
+		assertEquals(1024, pool.getIdleBytes());
+		assertEquals(1, pool.getDiscardCount());
+		assertEquals(Integer.valueOf(1), pool.getIdleCountBySize().get(1024));
+		ByteBuffer buffer3 = pool.acquire(1000);
+		assertSame(buffer1, buffer3);
+		assertEquals(0, buffer3.position());
+		assertEquals(1024, buffer3.limit());
+		assertEquals(1, pool.getHitCount());
+		assertEquals(0, pool.getIdleCount());
+		pool.release(pool.acquire(10000));
+		pool.release(ByteBuffer.allocate(1024));
+		assertEquals(1, pool.getBorrowedCount());
+		assertEquals(2, pool.getDiscardCount());
+		pool.release(buffer3);
+		pool.clear();
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	@Test
+	public void testBuffersReturnedOnClose() throws Exception {
+		DirectByteBufferPool pool = new DirectByteBufferPool();
+		CountDownLatch latch = new CountDownLatch(1);
+		TcpNioServerConnectionFactory scf = new TcpNioServerConnectionFactory(0);
+		scf.setApplicationEventPublisher(e -> { });
+		scf.setBufferPool(pool);
+		scf.registerListener(message -> {
+			latch.countDown();
+			return false;
+		});
+		scf.start();
+		TestingUtilities.waitListening(scf, null);
+		Socket socket = SocketFactory.getDefault().createSocket("localhost", scf.getPort());
+		socket.getOutputStream().write("foo\r\n".getBytes());
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertEquals(1, pool.getBorrowedCount());
+		socket.close();
+		int n = 0;
+		while (n++ < 200 && pool.getBorrowedCount() > 0) {
+			Thread.sleep(50);
+		}
+		assertEquals(0, pool.getBorrowedCount());
+		assertEquals(1, pool.getIdleCount());
+		scf.stop();
+	}
+
+}
@@ -18,27 +18,41 @@ package org.springframework.integration.ip.tcp.connection;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.Log;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.integration.ip.tcp.connection.TcpNioConnection.ChannelInputStream;
+import org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayStxEtxSerializer;
 import org.springframework.integration.ip.tcp.serializer.MapJsonSerializer;
+import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.support.converter.MapMessageConverter;
 import org.springframework.integration.test.util.TestUtils;
@@ -54,6 +68,9 @@ import org.springframework.messaging.support.ErrorMessage;
  */
 public class TcpNetConnectionTests {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void testErrorLog() throws Exception {
 		Socket socket = mock(Socket.class);
@@ -137,4 +154,74 @@ public class TcpNetConnectionTests {
 		assertEquals("baz", inboundMessage.get().getHeaders().get("bar"));
 	}
 
+	@Test
+	public void testFileStreaming() throws Exception {
+		fileStreaming(false);
+	}
+
+	@Test
+	public void testFileStreamingToSocketChannel() throws Exception {
+		fileStreaming(true);
+	}
+
+	private void fileStreaming(boolean socketChannel) throws Exception {
+		byte[] content = new byte[1024 * 1024];
+		new Random().nextBytes(content);
+		File file = this.temporaryFolder.newFile();
+		Files.write(file.toPath(), content);
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		serializer.setMaxMessageSize(content.length);
+		TcpNetServerConnectionFactory server = new TcpNetServerConnectionFactory(0);
+		server.setApplicationEventPublisher(e -> { });
+		server.setDeserializer(serializer);
+		final LinkedBlockingQueue<Message<?>> received = new LinkedBlockingQueue<>();
+		server.registerListener(message -> {
+			received.add(message);
+			return false;
+		});
+		server.start();
+		TestingUtilities.waitListening(server, null);
+		TcpNetClientConnectionFactory client = new TcpNetClientConnectionFactory("localhost", server.getPort()) {
+
+			@Override
+			protected Socket createSocket(String host, int port) throws IOException {
+				// a socket with a channel is written with FileChannel.transferTo()
+				return socketChannel
+						? SocketChannel.open(new InetSocketAddress(host, port)).socket()
+						: super.createSocket(host, port);
+			}
+
+		};
+		client.setApplicationEventPublisher(e -> { });
+		client.setSerializer(serializer);
+		client.setFileStreaming(true);
+		client.registerListener(message -> false);
+		client.start();
+		TcpConnectionSupport connection = client.getConnection();
+		assertEquals(socketChannel,
+				TestUtils.getPropertyValue(connection, "socket", Socket.class).getChannel() != null);
+		connection.send(MessageBuilder.withPayload(file).build());
+		connection.send(MessageBuilder.withPayload("foo").build());
+		connection.send(MessageBuilder.withPayload(file.toPath()).build());
+		FileChannel fileChannel = FileChannel.open(file.toPath());
+		fileChannel.position(1000);
+		connection.send(MessageBuilder.withPayload(fileChannel).build());
+		assertEquals(content.length, fileChannel.position());
+		fileChannel.close();
+		Message<?> message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertTrue(Arrays.equals(content, (byte[]) message.getPayload()));
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertEquals("foo", new String((byte[]) message.getPayload()));
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertTrue(Arrays.equals(content, (byte[]) message.getPayload()));
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertTrue(Arrays.equals(Arrays.copyOfRange(content, 1000, content.length), (byte[]) message.getPayload()));
+		client.stop();
+		server.stop();
+	}
+
 }
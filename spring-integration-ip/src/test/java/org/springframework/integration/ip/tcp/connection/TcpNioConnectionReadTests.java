@@ -26,6 +26,7 @@ import static org.junit.Assert.fail;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -36,10 +37,12 @@ import javax.net.SocketFactory;
 import org.junit.Rule;
 import org.junit.Test;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.integration.ip.tcp.serializer.AbstractByteArraySerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayStxEtxSerializer;
+import org.springframework.integration.ip.tcp.serializer.TcpDeserializationExceptionEvent;
 import org.springframework.integration.ip.util.SocketTestUtils;
 import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.test.support.LongRunningIntegrationTest;
@@ -66,8 +69,14 @@ public class TcpNioConnectionReadTests {
 
 	private AbstractServerConnectionFactory getConnectionFactory(
 			AbstractByteArraySerializer serializer, TcpListener listener, TcpSender sender) throws Exception {
+		return getConnectionFactory(serializer, listener, sender, false);
+	}
+
+	private AbstractServerConnectionFactory getConnectionFactory(AbstractByteArraySerializer serializer,
+			TcpListener listener, TcpSender sender, boolean inPlaceFraming) throws Exception {
 		TcpNioServerConnectionFactory scf = new TcpNioServerConnectionFactory(0);
 		scf.setUsingDirectBuffers(true);
+		scf.setInPlaceFraming(inPlaceFraming);
 		scf.setApplicationEventPublisher(e -> { });
 		scf.setSerializer(serializer);
 		scf.setDeserializer(serializer);
@@ -107,6 +116,59 @@ public class TcpNioConnectionReadTests {
 	}
 
 
+	@Test
+	public void testReadLengthInPlaceFraming() throws Exception {
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		final List<Message<?>> responses = new ArrayList<Message<?>>();
+		final Semaphore semaphore = new Semaphore(0);
+		AbstractServerConnectionFactory scf = getConnectionFactory(serializer, message -> {
+			responses.add(message);
+			semaphore.release();
+			return false;
+		}, null, true);
+
+		// Fire up the sender.
+
+		CountDownLatch done = SocketTestUtils.testSendLength(scf.getPort(), latch);
+		latch.countDown();
+		assertTrue(semaphore.tryAcquire(1, 10000, TimeUnit.MILLISECONDS));
+		assertTrue(semaphore.tryAcquire(1, 10000, TimeUnit.MILLISECONDS));
+		assertEquals("Did not receive data", 2, responses.size());
+		assertEquals("Data", SocketTestUtils.TEST_STRING + SocketTestUtils.TEST_STRING,
+				new String((byte[]) responses.get(0).getPayload()));
+		assertEquals("Data", SocketTestUtils.TEST_STRING + SocketTestUtils.TEST_STRING,
+				new String((byte[]) responses.get(1).getPayload()));
+		scf.stop();
+		done.countDown();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testReadCrLfInPlaceFraming() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		final List<Message<?>> responses = new ArrayList<Message<?>>();
+		final Semaphore semaphore = new Semaphore(0);
+		AbstractServerConnectionFactory scf = getConnectionFactory(serializer, message -> {
+			responses.add(message);
+			semaphore.release();
+			return false;
+		}, null, true);
+
+		// Fire up the sender.
+
+		CountDownLatch done = SocketTestUtils.testSendCrLf(scf.getPort(), latch);
+		latch.countDown();
+		assertTrue(semaphore.tryAcquire(1, 10000, TimeUnit.MILLISECONDS));
+		assertTrue(semaphore.tryAcquire(1, 10000, TimeUnit.MILLISECONDS));
+		assertEquals("Did not receive data", 2, responses.size());
+		assertEquals("Data", SocketTestUtils.TEST_STRING + SocketTestUtils.TEST_STRING,
+				new String(((Message<byte[]>) responses.get(0)).getPayload()));
+		assertEquals("Data", SocketTestUtils.TEST_STRING + SocketTestUtils.TEST_STRING,
+				new String(((Message<byte[]>) responses.get(1)).getPayload()));
+		scf.stop();
+		done.countDown();
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testFragmented() throws Exception {
@@ -345,6 +407,51 @@ public class TcpNioConnectionReadTests {
 		done.countDown();
 	}
 
+	@Test
+	public void testReadCrLfOverflowInPlaceFraming() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		serializer.setMaxMessageSize(1024);
+		final List<Message<?>> errors = new CopyOnWriteArrayList<>();
+		final CountDownLatch errorMessageLatch = new CountDownLatch(1);
+		final List<Object> events = new CopyOnWriteArrayList<>();
+		final CountDownLatch closed = new CountDownLatch(1);
+		ApplicationEventPublisher publisher = e -> {
+			events.add(e);
+			if (e instanceof TcpConnectionCloseEvent) {
+				closed.countDown();
+			}
+		};
+		serializer.setApplicationEventPublisher(publisher);
+		TcpNioServerConnectionFactory scf = new TcpNioServerConnectionFactory(0);
+		scf.setInPlaceFraming(true);
+		scf.setSerializer(serializer);
+		scf.setDeserializer(serializer);
+		scf.setApplicationEventPublisher(publisher);
+		scf.registerListener(message -> {
+			if (message instanceof ErrorMessage) {
+				errors.add(message);
+				errorMessageLatch.countDown();
+			}
+			return false;
+		});
+		scf.start();
+		TestingUtilities.waitListening(scf, null);
+
+		// the data arrives a byte at a time; the decoder resumes its search on each read
+		CountDownLatch done = SocketTestUtils.testSendCrLfOverflow(scf.getPort());
+
+		assertTrue(errorMessageLatch.await(10, TimeUnit.SECONDS));
+		assertTrue(closed.await(10, TimeUnit.SECONDS));
+		assertEquals(1, errors.size());
+		assertThat(((ErrorMessage) errors.get(0)).getPayload().getMessage(),
+				containsString("CRLF not found before max message length: 1024"));
+		// the decoder reports the failure; no connection exception event is published for it
+		assertEquals(1, events.stream().filter(e -> e instanceof TcpDeserializationExceptionEvent).count());
+		assertEquals(0, events.stream().filter(e -> e instanceof TcpConnectionExceptionEvent).count());
+		scf.stop();
+		done.countDown();
+	}
+
 	/**
 	 * Tests socket closure when no data received.
 	 * @throws Exception
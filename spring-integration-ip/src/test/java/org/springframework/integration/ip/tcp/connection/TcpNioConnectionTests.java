@@ -32,6 +32,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
@@ -41,20 +42,24 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -66,6 +71,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.rules.TestName;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
@@ -76,6 +82,7 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.integration.ip.tcp.connection.TcpNioConnection.ChannelInputStream;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
+import org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer;
 import org.springframework.integration.ip.tcp.serializer.MapJsonSerializer;
 import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.support.MessageBuilder;
@@ -109,6 +116,9 @@ public class TcpNioConnectionTests {
 	@Rule
 	public TestName testName = new TestName();
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private final ApplicationEventPublisher nullPublisher = mock(ApplicationEventPublisher.class);
 
 	@Test
@@ -674,6 +684,113 @@ public class TcpNioConnectionTests {
 		factory.stop();
 	}
 
+	@Test
+	public void testIoSelectors() throws Exception {
+		TcpNioServerConnectionFactory factory = new TcpNioServerConnectionFactory(0);
+		factory.setApplicationEventPublisher(nullPublisher);
+		factory.setIoSelectorCount(2);
+		final CountDownLatch latch = new CountDownLatch(8);
+		factory.registerListener(message -> {
+			if (!(message instanceof ErrorMessage)) {
+				latch.countDown();
+			}
+			return false;
+		});
+		factory.start();
+		TestingUtilities.waitListening(factory, null);
+		int port = factory.getPort();
+		Socket[] sockets = new Socket[4];
+		for (int i = 0; i < 4; i++) {
+			sockets[i] = SocketFactory.getDefault().createSocket("localhost", port);
+			sockets[i].getOutputStream().write("foo\r\nbar\r\n".getBytes());
+		}
+		assertTrue("latch is still " + latch.getCount(), latch.await(10, TimeUnit.SECONDS));
+		List<SelectorMetrics> metrics = factory.getSelectorMetrics();
+		assertEquals(3, metrics.size());
+		assertEquals("acceptor", metrics.get(0).getName());
+		assertEquals(0, metrics.get(0).getConnectionCount());
+		assertTrue(metrics.get(0).getSelectedKeyCount() >= 4);
+		assertEquals(4, factory.getConnections().size());
+		for (SelectorMetrics selectorMetrics : metrics.subList(1, 3)) {
+			// round robin
+			assertEquals(2, selectorMetrics.getConnectionCount());
+			assertTrue(selectorMetrics.getSelectedKeyCount() > 0);
+			assertTrue(selectorMetrics.getMeanProcessingTime() > 0);
+		}
+		for (Socket socket : sockets) {
+			socket.close();
+		}
+		factory.stop();
+		assertEquals(1, factory.getSelectorMetrics().size());
+	}
+
+	@Test
+	public void testFileStreaming() throws Exception {
+		fileStreaming(null);
+	}
+
+	@Test
+	public void testFileStreamingSSL() throws Exception {
+		DefaultTcpSSLContextSupport sslContextSupport = new DefaultTcpSSLContextSupport("test.ks",
+				"test.truststore.ks", "secret", "secret");
+		// the file is much larger than an SSL packet and is encrypted in several chunks
+		fileStreaming(new DefaultTcpNioSSLConnectionSupport(sslContextSupport));
+	}
+
+	private void fileStreaming(TcpNioConnectionSupport connectionSupport) throws Exception {
+		byte[] content = new byte[1024 * 1024];
+		new Random().nextBytes(content);
+		File file = this.temporaryFolder.newFile();
+		Files.write(file.toPath(), content);
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		serializer.setMaxMessageSize(content.length);
+		TcpNioServerConnectionFactory server = new TcpNioServerConnectionFactory(0);
+		server.setApplicationEventPublisher(nullPublisher);
+		server.setDeserializer(serializer);
+		if (connectionSupport != null) {
+			server.setTcpNioConnectionSupport(connectionSupport);
+		}
+		final LinkedBlockingQueue<Message<?>> received = new LinkedBlockingQueue<>();
+		server.registerListener(message -> {
+			received.add(message);
+			return false;
+		});
+		server.start();
+		TestingUtilities.waitListening(server, null);
+		TcpNioClientConnectionFactory client = new TcpNioClientConnectionFactory("localhost", server.getPort());
+		client.setApplicationEventPublisher(nullPublisher);
+		client.setSerializer(serializer);
+		client.setFileStreaming(true);
+		if (connectionSupport != null) {
+			client.setTcpNioConnectionSupport(connectionSupport);
+		}
+		client.registerListener(message -> false);
+		client.start();
+		TcpConnectionSupport connection = client.getConnection();
+		connection.send(MessageBuilder.withPayload(file).build());
+		connection.send(MessageBuilder.withPayload("foo").build());
+		connection.send(MessageBuilder.withPayload(file.toPath()).build());
+		FileChannel fileChannel = FileChannel.open(file.toPath());
+		fileChannel.position(1000);
+		connection.send(MessageBuilder.withPayload(fileChannel).build());
+		assertEquals(content.length, fileChannel.position());
+		fileChannel.close();
+		Message<?> message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertTrue(Arrays.equals(content, (byte[]) message.getPayload()));
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertEquals("foo", new String((byte[]) message.getPayload()));
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertTrue(Arrays.equals(content, (byte[]) message.getPayload()));
+		message = received.poll(10, TimeUnit.SECONDS);
+		assertNotNull(message);
+		assertTrue(Arrays.equals(Arrays.copyOfRange(content, 1000, content.length), (byte[]) message.getPayload()));
+		client.stop();
+		server.stop();
+	}
+
 	private CompositeExecutor compositeExecutor() {
 		ThreadPoolTaskExecutor ioExec = new ThreadPoolTaskExecutor();
 		ioExec.setCorePoolSize(2);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,10 @@ package org.springframework.integration.ip.tcp.connection;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.ByteBuffer;
@@ -30,11 +32,13 @@ import javax.net.ServerSocketFactory;
 
 import org.junit.Test;
 
+import org.springframework.integration.ip.tcp.TcpSendingMessageHandler;
 import org.springframework.integration.ip.tcp.serializer.AbstractByteArraySerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayCrLfSerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayLengthHeaderSerializer;
 import org.springframework.integration.ip.tcp.serializer.ByteArrayStxEtxSerializer;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * @author Gary Russell
@@ -251,6 +255,61 @@ public class TcpNioConnectionWriteTests {
 		latch.countDown();
 	}
 
+	@Test
+	public void testWriteCoalesced() throws Exception {
+		testWriteCoalesced(100000, null, false);
+	}
+
+	@Test
+	public void testWriteCoalescedBudget() throws Exception {
+		testWriteCoalesced(64, new DirectByteBufferPool(), false);
+	}
+
+	@Test
+	public void testWriteCoalescedFlushRejected() throws Exception {
+		testWriteCoalesced(100000, null, true);
+	}
+
+	private void testWriteCoalesced(int budget, DirectByteBufferPool pool, boolean rejectFlush) throws Exception {
+		int count = 1000;
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		if (rejectFlush) {
+			scheduler.shutdown();
+		}
+		ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(0);
+		server.setSoTimeout(10000);
+		TcpNioClientConnectionFactory ccf = new TcpNioClientConnectionFactory("localhost", server.getLocalPort());
+		ccf.setSoTimeout(10000);
+		ccf.setWriteCoalescingWindow(10);
+		ccf.setWriteCoalescingBudget(budget);
+		ccf.setBufferPool(pool);
+		ccf.setTaskScheduler(scheduler);
+		ccf.start();
+		TcpSendingMessageHandler handler = new TcpSendingMessageHandler();
+		handler.setConnectionFactory(ccf);
+		Thread t = new Thread(() -> {
+			for (int i = 0; i < count; i++) {
+				handler.handleMessage(MessageBuilder.withPayload("foo" + i).build());
+			}
+		});
+		t.setDaemon(true);
+		t.start();
+		Socket socket = server.accept();
+		socket.setSoTimeout(5000);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+		for (int i = 0; i < count; i++) {
+			assertEquals("foo" + i, reader.readLine());
+		}
+		t.join(10000);
+		ccf.stop();
+		if (pool != null) {
+			assertEquals(0, pool.getBorrowedCount());
+		}
+		scheduler.shutdown();
+		server.close();
+	}
+
 	/**
 	 * @param is
 	 * @param buff
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import org.springframework.integration.mapping.MessageMappingException;
+
+/**
+ * @since 5.0.1
+ */
+public class ByteBufferFrameDecoderTests {
+
+	@Test
+	public void testCrLf() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		testDecode(serializer, serializer);
+	}
+
+	@Test
+	public void testLf() throws Exception {
+		ByteArrayLfSerializer serializer = new ByteArrayLfSerializer();
+		testDecode(serializer, serializer);
+	}
+
+	@Test
+	public void testSingleTerminator() throws Exception {
+		ByteArraySingleTerminatorSerializer serializer = new ByteArraySingleTerminatorSerializer((byte) 0);
+		testDecode(serializer, serializer);
+	}
+
+	@Test
+	public void testStxEtx() throws Exception {
+		ByteArrayStxEtxSerializer serializer = new ByteArrayStxEtxSerializer();
+		testDecode(serializer, serializer);
+	}
+
+	@Test
+	public void testLengthHeaders() throws Exception {
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		testDecode(serializer, serializer);
+		serializer = new ByteArrayLengthHeaderSerializer(ByteArrayLengthHeaderSerializer.HEADER_SIZE_UNSIGNED_SHORT);
+		testDecode(serializer, serializer);
+		serializer = new ByteArrayLengthHeaderSerializer(ByteArrayLengthHeaderSerializer.HEADER_SIZE_UNSIGNED_BYTE);
+		testDecode(serializer, serializer);
+	}
+
+	@Test
+	public void testCrLfCarriageReturnInData() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		ByteBuffer buffer = ByteBuffer.wrap("a\rb\r".getBytes());
+		assertNull(serializer.decode(buffer));
+		assertEquals(0, buffer.position());
+		buffer = ByteBuffer.wrap("a\rb\r\nc".getBytes());
+		assertEquals("a\rb", new String(serializer.decode(buffer)));
+		assertEquals(5, buffer.position());
+	}
+
+	@Test
+	public void testCrLfResumedAfterCarriageReturn() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		ByteBuffer buffer = ByteBuffer.allocate(16);
+		buffer.put("abc\r".getBytes());
+		buffer.flip();
+		assertNull(serializer.decode(buffer, 0));
+		buffer.compact();
+		buffer.put("\nd".getBytes());
+		buffer.flip();
+		assertEquals("abc", new String(serializer.decode(buffer, 4)));
+		assertEquals(5, buffer.position());
+	}
+
+	@Test
+	public void testCrLfTooLong() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		serializer.setMaxMessageSize(4);
+		try {
+			serializer.decode(ByteBuffer.wrap("abcdef".getBytes()));
+			fail("Expected IOException");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("CRLF not found before max message length: 4"));
+		}
+	}
+
+	@Test
+	public void testLengthHeaderTooLong() throws Exception {
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		serializer.setMaxMessageSize(4);
+		ByteBuffer buffer = ByteBuffer.allocate(4);
+		buffer.putInt(0, 5);
+		try {
+			serializer.decode(buffer);
+			fail("Expected IOException");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("Message length 5 exceeds max message length: 4"));
+		}
+	}
+
+	@Test(expected = MessageMappingException.class)
+	public void testStxEtxMissingStx() throws Exception {
+		new ByteArrayStxEtxSerializer().decode(ByteBuffer.wrap("abc".getBytes()));
+	}
+
+	private void testDecode(AbstractByteArraySerializer serializer, ByteBufferFrameDecoder decoder)
+			throws Exception {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		serializer.serialize("foo".getBytes(), bos);
+		serializer.serialize("".getBytes(), bos);
+		serializer.serialize("barbaz".getBytes(), bos);
+		byte[] bytes = bos.toByteArray();
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		assertEquals("foo", new String(decoder.decode(buffer)));
+		assertEquals("", new String(decoder.decode(buffer)));
+		assertEquals("barbaz", new String(decoder.decode(buffer)));
+		assertFalse(buffer.hasRemaining());
+		assertNull(decoder.decode(buffer));
+
+		// deliver the same data one byte at a time
+		buffer = ByteBuffer.allocate(bytes.length);
+		StringBuilder decoded = new StringBuilder();
+		int frames = 0;
+		for (byte bite : bytes) {
+			buffer.put(bite);
+			buffer.flip();
+			int position = buffer.position();
+			byte[] frame = decoder.decode(buffer);
+			if (frame == null) {
+				assertEquals(position, buffer.position());
+			}
+			else {
+				decoded.append(new String(frame)).append('|');
+				frames++;
+			}
+			buffer.compact();
+		}
+		assertEquals(3, frames);
+		assertEquals("foo||barbaz|", decoded.toString());
+
+		// again, resuming the search after the bytes already scanned, as the connection does
+		buffer = ByteBuffer.allocate(bytes.length);
+		decoded.setLength(0);
+		int scanned = 0;
+		for (byte bite : bytes) {
+			buffer.put(bite);
+			buffer.flip();
+			byte[] frame = decoder.decode(buffer, scanned);
+			if (frame == null) {
+				scanned = buffer.remaining();
+			}
+			else {
+				decoded.append(new String(frame)).append('|');
+				scanned = 0;
+			}
+			buffer.compact();
+		}
+		assertEquals("foo||barbaz|", decoded.toString());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,8 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
@@ -44,6 +46,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.expression.ValueExpression;
 import org.springframework.integration.handler.ServiceActivatingHandler;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.util.SocketTestUtils;
@@ -243,6 +246,48 @@ public class UdpChannelAdapterTests {
 		handler.stop();
 	}
 
+	@Test
+	public void testUnicastNio() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		UnicastReceivingChannelAdapter adapter = new UnicastReceivingChannelAdapter(0, true);
+		adapter.setUsingNio(true);
+		adapter.setReceiverCount(2);
+		adapter.setBatchSize(4);
+		adapter.setPoolSize(4);
+		adapter.setBeanName("test");
+		adapter.setOutputChannel(channel);
+		adapter.start();
+		SocketTestUtils.waitListening(adapter);
+		int port = adapter.getPort();
+		assertNotNull(adapter.getSocket().getChannel());
+
+		UnicastSendingMessageHandler handler = new UnicastSendingMessageHandler(
+				"localhost", port, true, true,
+				"localhost",
+				0, 5000);
+		handler.setUsingNio(true);
+		handler.setBeanFactory(mock(BeanFactory.class));
+		handler.afterPropertiesSet();
+		handler.start();
+		Set<String> sent = new HashSet<>();
+		for (int i = 0; i < 20; i++) {
+			String payload = "ABCD" + i;
+			sent.add(payload);
+			handler.handleMessage(MessageBuilder.withPayload(payload.getBytes()).build());
+		}
+		assertNotNull(handler.getSocket().getChannel());
+		Set<String> received = new HashSet<>();
+		for (int i = 0; i < 20; i++) {
+			Message<?> receivedMessage = channel.receive(10000);
+			assertNotNull(receivedMessage);
+			received.add(new String((byte[]) receivedMessage.getPayload()));
+		}
+		assertEquals(sent, received);
+		adapter.stop();
+		handler.stop();
+		assertNull(adapter.getTheSocket());
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testMulticastReceiver() throws Exception {
@@ -338,6 +383,43 @@ public class UdpChannelAdapterTests {
 		context.close();
 	}
 
+	@Test
+	public void testSocketExpressionNio() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		UnicastReceivingChannelAdapter adapter = new UnicastReceivingChannelAdapter(0);
+		adapter.setUsingNio(true);
+		adapter.setReceiverCount(2);
+		adapter.setBeanName("test");
+		adapter.setOutputChannel(channel);
+		adapter.start();
+		SocketTestUtils.waitListening(adapter);
+		DatagramSocket socket = new DatagramSocket();
+		socket.setSoTimeout(10000);
+		DatagramPacket packet = new DatagramPacket("foo".getBytes(), 3);
+		packet.setSocketAddress(new InetSocketAddress("localhost", adapter.getPort()));
+		socket.send(packet);
+		Message<?> received = channel.receive(10000);
+		assertNotNull(received);
+		assertEquals("foo", new String((byte[]) received.getPayload()));
+
+		// reply from the adapter's socket, with and without NIO
+		for (boolean usingNio : new boolean[] { false, true }) {
+			UnicastSendingMessageHandler handler = new UnicastSendingMessageHandler("localhost",
+					socket.getLocalPort());
+			handler.setSocketExpression(new ValueExpression<>(adapter.getSocket()));
+			handler.setUsingNio(usingNio);
+			handler.setBeanFactory(mock(BeanFactory.class));
+			handler.afterPropertiesSet();
+			handler.handleMessage(MessageBuilder.withPayload("bar".getBytes()).build());
+			packet = new DatagramPacket(new byte[3], 3);
+			socket.receive(packet);
+			assertEquals("bar", new String(packet.getData()));
+			assertEquals(adapter.getPort(), packet.getPort());
+		}
+		socket.close();
+		adapter.stop();
+	}
+
 	private class FailingService {
 
 		@SuppressWarnings("unused")
@@ -16,12 +16,25 @@
 
 package org.springframework.integration.jdbc.metadata;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import javax.sql.DataSource;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.integration.metadata.ConcurrentMetadataStore;
 import org.springframework.integration.metadata.MetadataStore;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +47,12 @@ import org.springframework.util.Assert;
  * where <code>*</code> is the target database type.
  * <p>
  * The transaction management is required to use this {@link MetadataStore}.
+ * <p>
+ * The bulk {@link #putIfAbsent(Map)} and {@link #replace(Map, Map)} operations use JDBC
+ * batches, and read the values of the keys already present with {@code IN} queries.
+ * Since the outcome of each entry must be known, they fall back to the single-key
+ * operations when the JDBC driver reports {@link Statement#SUCCESS_NO_INFO} instead of
+ * update counts for batches (as determined with a no-op batch on first use).
  *
  * @author Bojan Vukasovic
  * @author Artem Bilan
@@ -47,6 +66,8 @@ public class JdbcMetadataStore implements ConcurrentMetadataStore, InitializingB
 	 */
 	public static final String DEFAULT_TABLE_PREFIX = "INT_";
 
+	private static final int IN_CLAUSE_SIZE = 500;
+
 	private final JdbcOperations jdbcTemplate;
 
 	private volatile String tablePrefix = DEFAULT_TABLE_PREFIX;
@@ -66,6 +87,11 @@ public class JdbcMetadataStore implements ConcurrentMetadataStore, InitializingB
 	private String putIfAbsentValueQuery = "INSERT INTO %SMETADATA_STORE(METADATA_KEY, METADATA_VALUE, REGION) "
 			+ "SELECT ?, ?, ? FROM %SMETADATA_STORE WHERE METADATA_KEY=? AND REGION=? HAVING COUNT(*)=0";
 
+	private String getValuesQuery = "SELECT METADATA_KEY, METADATA_VALUE FROM %SMETADATA_STORE "
+			+ "WHERE REGION=? AND METADATA_KEY IN (%s)";
+
+	private volatile Boolean batchUpdateCountsReported;
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		this.getValueQuery = String.format(this.getValueQuery, this.tablePrefix);
@@ -74,6 +100,7 @@ public class JdbcMetadataStore implements ConcurrentMetadataStore, InitializingB
 		this.replaceValueByKeyQuery = String.format(this.replaceValueByKeyQuery, this.tablePrefix);
 		this.removeValueQuery = String.format(this.removeValueQuery, this.tablePrefix);
 		this.putIfAbsentValueQuery = String.format(this.putIfAbsentValueQuery, this.tablePrefix, this.tablePrefix);
+		this.getValuesQuery = String.format(this.getValuesQuery, this.tablePrefix, "%s");
 	}
 
 	/**
@@ -167,6 +194,157 @@ public class JdbcMetadataStore implements ConcurrentMetadataStore, InitializingB
 		return affectedRows > 0;
 	}
 
+	@Override
+	@Transactional
+	public Map<String, String> putIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' cannot be null");
+		if (entries.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		if (!isBatchUpdateCountsReported()) {
+			Map<String, String> existing = new HashMap<>();
+			for (Map.Entry<String, String> entry : entries.entrySet()) {
+				String oldValue = putIfAbsent(entry.getKey(), entry.getValue());
+				if (oldValue != null) {
+					existing.put(entry.getKey(), oldValue);
+				}
+			}
+			return existing;
+		}
+		List<String> keys = new ArrayList<>(entries.keySet());
+		int[] affectedRows = this.jdbcTemplate.batchUpdate(this.putIfAbsentValueQuery,
+				new BatchPreparedStatementSetter() {
+
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						String key = keys.get(i);
+						ps.setString(1, key);
+						ps.setString(2, entries.get(key));
+						ps.setString(3, JdbcMetadataStore.this.region);
+						ps.setString(4, key);
+						ps.setString(5, JdbcMetadataStore.this.region);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return keys.size();
+					}
+
+				});
+		List<String> present = new ArrayList<>();
+		for (int i = 0; i < affectedRows.length; i++) {
+			if (affectedRows[i] == 0) {
+				present.add(keys.get(i));
+			}
+		}
+		Map<String, String> existing = getValues(present);
+		for (String key : present) {
+			if (!existing.containsKey(key)) {
+				//somebody deleted it between calls
+				String oldValue = putIfAbsent(key, entries.get(key));
+				if (oldValue != null) {
+					existing.put(key, oldValue);
+				}
+			}
+		}
+		return existing;
+	}
+
+	private Map<String, String> getValues(List<String> keys) {
+		Map<String, String> values = new HashMap<>();
+		for (int from = 0; from < keys.size(); from += IN_CLAUSE_SIZE) {
+			List<String> chunk = keys.subList(from, Math.min(from + IN_CLAUSE_SIZE, keys.size()));
+			String query = String.format(this.getValuesQuery,
+					String.join(", ", Collections.nCopies(chunk.size(), "?")));
+			List<Object> args = new ArrayList<>(chunk.size() + 1);
+			args.add(this.region);
+			args.addAll(chunk);
+			this.jdbcTemplate.query(query, args.toArray(),
+					rs -> {
+						values.put(rs.getString(1), rs.getString(2));
+					});
+		}
+		return values;
+	}
+
+	@Override
+	@Transactional
+	public Set<String> replace(Map<String, String> oldValues, Map<String, String> newValues) {
+		Assert.notNull(oldValues, "'oldValues' cannot be null");
+		Assert.notNull(newValues, "'newValues' cannot be null");
+		if (oldValues.isEmpty()) {
+			return Collections.emptySet();
+		}
+		List<String> keys = new ArrayList<>(oldValues.keySet());
+		for (String key : keys) {
+			Assert.notNull(newValues.get(key), "'newValues' must contain a value for each key in 'oldValues'");
+		}
+		if (!isBatchUpdateCountsReported()) {
+			Set<String> replaced = new HashSet<>();
+			for (String key : keys) {
+				if (replace(key, oldValues.get(key), newValues.get(key))) {
+					replaced.add(key);
+				}
+			}
+			return replaced;
+		}
+		int[] affectedRows = this.jdbcTemplate.batchUpdate(this.replaceValueQuery,
+				new BatchPreparedStatementSetter() {
+
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						String key = keys.get(i);
+						ps.setString(1, newValues.get(key));
+						ps.setString(2, key);
+						ps.setString(3, oldValues.get(key));
+						ps.setString(4, JdbcMetadataStore.this.region);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return keys.size();
+					}
+
+				});
+		Set<String> replaced = new HashSet<>();
+		for (int i = 0; i < affectedRows.length; i++) {
+			if (affectedRows[i] > 0) {
+				replaced.add(keys.get(i));
+			}
+		}
+		return replaced;
+	}
+
+	/**
+	 * Determine whether the driver reports update counts for batch entries, by
+	 * executing a batch with an update that can't match any row; drivers which don't
+	 * report them return {@link Statement#SUCCESS_NO_INFO} instead of 0.
+	 * @return true if update counts are reported.
+	 */
+	private boolean isBatchUpdateCountsReported() {
+		if (this.batchUpdateCountsReported == null) {
+			int[] affectedRows = this.jdbcTemplate.batchUpdate(this.replaceValueQuery,
+					new BatchPreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							ps.setString(1, "");
+							ps.setNull(2, Types.VARCHAR);
+							ps.setString(3, "");
+							ps.setString(4, JdbcMetadataStore.this.region);
+						}
+
+						@Override
+						public int getBatchSize() {
+							return 1;
+						}
+
+					});
+			this.batchUpdateCountsReported = affectedRows.length == 1 && affectedRows[0] >= 0;
+		}
+		return this.batchUpdateCountsReported;
+	}
+
 	@Override
 	@Transactional
 	public void put(String key, String value) {
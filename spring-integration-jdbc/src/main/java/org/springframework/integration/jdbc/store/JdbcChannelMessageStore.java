@@ -16,15 +16,22 @@
 
 package org.springframework.integration.jdbc.store;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.sql.DataSource;
@@ -36,6 +43,7 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStorePreparedStatementSetter;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
@@ -50,8 +58,10 @@ import org.springframework.integration.store.SimpleMessageGroupFactory;
 import org.springframework.integration.support.converter.WhiteListDeserializingConverter;
 import org.springframework.integration.transaction.TransactionSynchronizationFactory;
 import org.springframework.integration.util.UUIDConverter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.support.lob.DefaultLobHandler;
@@ -60,6 +70,7 @@ import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedMetric;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.messaging.Message;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -128,6 +139,10 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 	private final Lock idCacheWriteLock = this.idCacheLock.writeLock();
 
+	private final Queue<PendingInsert> pendingInserts = new ConcurrentLinkedQueue<>();
+
+	private final Lock insertBatchLock = new ReentrantLock();
+
 	private ChannelMessageStoreQueryProvider channelMessageStoreQueryProvider;
 
 	private String region = DEFAULT_REGION;
@@ -136,6 +151,8 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 	private JdbcTemplate jdbcTemplate;
 
+	private JdbcTemplate pollBatchJdbcTemplate;
+
 	private WhiteListDeserializingConverter deserializer;
 
 	private SerializingConverter serializer;
@@ -154,6 +171,10 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 	private boolean priorityEnabled;
 
+	private int insertBatchSize = 1;
+
+	private volatile Boolean batchUpdateCountsReported;
+
 	/**
 	 * Convenient constructor for configuration use.
 	 */
@@ -307,8 +328,11 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 	 * oldest entry for a giving channel (groupKey) and region ({@link #setRegion(String)}).
 	 * If you do that with multiple threads and you are using transactions, other
 	 * threads may be waiting for that same locked row.</p>
-	 * <p>If using the provided {@link OracleChannelMessageStoreQueryProvider}, don't set {@link #usingIdCache}
-	 * to true, as the Oracle query will ignore locked rows.</p>
+	 * <p>If using the provided {@link OracleChannelMessageStoreQueryProvider}, or any
+	 * {@link ChannelMessageStoreQueryProvider} that {@link ChannelMessageStoreQueryProvider#isSkipLocked()
+	 * skips locked rows} (such as the Postgres and MySQL providers with {@code skipLocked}
+	 * set to true), don't set {@link #usingIdCache} to true; it is ignored, since locked rows
+	 * are skipped by the database itself.</p>
 	 * <p>Using the id cache, the {@link JdbcChannelMessageStore} will store each
 	 * message id in an in-memory collection for the duration of processing. With
 	 * that, any polling threads will explicitly exclude those messages from
@@ -344,6 +368,24 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		this.priorityEnabled = priorityEnabled;
 	}
 
+	/**
+	 * Set the maximum number of messages from concurrent senders that are inserted with
+	 * a single {@link JdbcTemplate#batchUpdate(String, BatchPreparedStatementSetter)}.
+	 * While one sender executes a batch, other senders queue their messages; the next
+	 * sender to acquire the batch lock inserts all the queued messages at once.
+	 * Messages sent within an active transaction are always inserted immediately, on
+	 * the sender's own connection, so they remain part of that transaction.
+	 * If a batch fails, its messages are inserted one by one so that an error is only
+	 * reported to the sender of the offending message.
+	 * Default 1 - no batching.
+	 * @param insertBatchSize the maximum insert batch size.
+	 * @since 5.0.1
+	 */
+	public void setInsertBatchSize(int insertBatchSize) {
+		Assert.isTrue(insertBatchSize > 0, "'insertBatchSize' must be greater than 0");
+		this.insertBatchSize = insertBatchSize;
+	}
+
 	@Override
 	public boolean isPriorityEnabled() {
 		return this.priorityEnabled;
@@ -392,11 +434,25 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 			logger.warn("The jdbcTemplate's fetch size is not 1. This may cause FIFO issues with Oracle databases.");
 		}
 
+		if (this.usingIdCache && this.channelMessageStoreQueryProvider.isSkipLocked()) {
+			if (logger.isWarnEnabled()) {
+				logger.warn("The 'usingIdCache' option is ignored because the "
+						+ this.channelMessageStoreQueryProvider.getClass().getSimpleName()
+						+ " skips locked rows.");
+			}
+			this.usingIdCache = false;
+		}
+
 		if (this.preparedStatementSetter == null) {
 			this.preparedStatementSetter = new ChannelMessageStorePreparedStatementSetter(this.serializer,
 					this.lobHandler);
 		}
 		this.jdbcTemplate.afterPropertiesSet();
+
+		this.pollBatchJdbcTemplate = new JdbcTemplate(this.jdbcTemplate.getDataSource());
+		this.pollBatchJdbcTemplate.setExceptionTranslator(this.jdbcTemplate.getExceptionTranslator());
+		this.pollBatchJdbcTemplate.setFetchSize(this.jdbcTemplate.getFetchSize());
+		this.pollBatchJdbcTemplate.setQueryTimeout(this.jdbcTemplate.getQueryTimeout());
 	}
 
 	/**
@@ -408,6 +464,43 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 	 */
 	@Override
 	public MessageGroup addMessageToGroup(Object groupId, final Message<?> message) {
+		if (this.insertBatchSize > 1 && !TransactionSynchronizationManager.isActualTransactionActive()) {
+			PendingInsert pendingInsert = new PendingInsert(groupId, message);
+			this.pendingInserts.add(pendingInsert);
+			this.insertBatchLock.lock();
+			try {
+				while (!pendingInsert.done) {
+					flushPendingInserts();
+				}
+			}
+			finally {
+				this.insertBatchLock.unlock();
+			}
+			if (pendingInsert.failure != null) {
+				throw pendingInsert.failure;
+			}
+		}
+		else {
+			doAddMessageToGroup(groupId, message);
+		}
+		return getMessageGroup(groupId);
+	}
+
+	/**
+	 * Messages are inserted by the database, so {@link #addMessageToGroup(Object, Message)}
+	 * is safe to call concurrently; this allows concurrent senders to be batched together.
+	 * Only reported when batching is enabled; otherwise there is nothing to gain from
+	 * concurrent adds and callers keep their own serialization.
+	 * @return true if the {@link #setInsertBatchSize(int) insert batch size} is greater than 1.
+	 * @since 5.0.1
+	 * @see #setInsertBatchSize(int)
+	 */
+	@Override
+	public boolean isConcurrentAddSupported() {
+		return this.insertBatchSize > 1;
+	}
+
+	private void doAddMessageToGroup(Object groupId, Message<?> message) {
 		try {
 			this.jdbcTemplate.update(getQuery(this.channelMessageStoreQueryProvider.getCreateMessageQuery()),
 					ps -> this.preparedStatementSetter.setValues(ps, message, groupId, this.region,
@@ -419,7 +512,58 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 				logger.debug("The Message with id [" + messageId + "] already exists.\nIgnoring INSERT...");
 			}
 		}
-		return getMessageGroup(groupId);
+	}
+
+	/**
+	 * Insert up to {@link #insertBatchSize} queued messages with a single batch.
+	 * It is assumed that the 'insertBatchLock' is being held by the caller.
+	 */
+	private void flushPendingInserts() {
+		final List<PendingInsert> batch = new ArrayList<>();
+		while (batch.size() < this.insertBatchSize) {
+			PendingInsert pendingInsert = this.pendingInserts.poll();
+			if (pendingInsert == null) {
+				break;
+			}
+			batch.add(pendingInsert);
+		}
+		try {
+			this.jdbcTemplate.batchUpdate(getQuery(this.channelMessageStoreQueryProvider.getCreateMessageQuery()),
+					new BatchPreparedStatementSetter() {
+
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							PendingInsert pendingInsert = batch.get(i);
+							JdbcChannelMessageStore.this.preparedStatementSetter.setValues(ps,
+									pendingInsert.message, pendingInsert.groupId,
+									JdbcChannelMessageStore.this.region, JdbcChannelMessageStore.this.priorityEnabled);
+						}
+
+						@Override
+						public int getBatchSize() {
+							return batch.size();
+						}
+
+					});
+		}
+		catch (DataAccessException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Batch insert of " + batch.size() + " messages failed; inserting them one by one", e);
+			}
+			for (PendingInsert pendingInsert : batch) {
+				try {
+					doAddMessageToGroup(pendingInsert.groupId, pendingInsert.message);
+				}
+				catch (RuntimeException ex) {
+					pendingInsert.failure = ex;
+				}
+			}
+		}
+		finally {
+			for (PendingInsert pendingInsert : batch) {
+				pendingInsert.done = true;
+			}
+		}
 	}
 
 	/**
@@ -508,6 +652,48 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return polledMessage;
 	}
 
+	/**
+	 * Polls the database for up to {@code maxMessages} messages persisted for the given
+	 * group id with a single query, and removes them with a single batch of deletes.
+	 * Falls back to polling one message at a time if the
+	 * {@link ChannelMessageStoreQueryProvider} doesn't provide a batch query, or if
+	 * {@link #setUsingIdCache(boolean) usingIdCache} is true.
+	 * Only messages actually deleted by this call are returned, so a message that has
+	 * meanwhile been removed by another poller is never returned twice.
+	 * @since 5.0.1
+	 */
+	@Override
+	public List<Message<?>> pollMessagesFromGroup(Object groupId, int maxMessages) {
+		String pollBatchQuery = this.priorityEnabled
+				? this.channelMessageStoreQueryProvider.getPriorityPollBatchFromGroupQuery()
+				: this.channelMessageStoreQueryProvider.getPollBatchFromGroupQuery();
+
+		if (maxMessages < 2 || pollBatchQuery == null || this.usingIdCache) {
+			return PriorityCapableChannelMessageStore.super.pollMessagesFromGroup(groupId, maxMessages);
+		}
+
+		MapSqlParameterSource parameters = new MapSqlParameterSource();
+		parameters.addValue("region", this.region);
+		parameters.addValue("group_key", getKey(groupId));
+		parameters.addValue("max_messages", maxMessages);
+
+		ResultSetExtractor<List<Message<?>>> extractor = rs -> {
+			List<Message<?>> messages = new ArrayList<>();
+			while (messages.size() < maxMessages && rs.next()) {
+				messages.add(this.messageRowMapper.mapRow(rs, messages.size()));
+			}
+			return messages;
+		};
+
+		List<Message<?>> messages = new NamedParameterJdbcTemplate(this.pollBatchJdbcTemplate)
+				.query(getQuery(pollBatchQuery), parameters, extractor);
+
+		if (messages.isEmpty()) {
+			return messages;
+		}
+		return doRemoveMessagesFromGroup(groupId, messages);
+	}
+
 	/**
 	 * This method executes a call to the DB to get the oldest Message in the
 	 * MessageGroup which in the context of the {@link JdbcChannelMessageStore}
@@ -527,29 +713,29 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 
 		final List<Message<?>> messages;
 
-		this.idCacheReadLock.lock();
-		try {
-			if (this.usingIdCache && !this.idCache.isEmpty()) {
-				if (this.priorityEnabled) {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupExcludeIdsQuery());
+		if (this.usingIdCache) {
+			this.idCacheReadLock.lock();
+			try {
+				if (!this.idCache.isEmpty()) {
+					if (this.priorityEnabled) {
+						query = getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupExcludeIdsQuery());
+					}
+					else {
+						query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
+					}
+					parameters.addValue("message_ids", this.idCache);
 				}
 				else {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
+					query = getPollFromGroupQuery();
 				}
-				parameters.addValue("message_ids", this.idCache);
+				messages = namedParameterJdbcTemplate.query(query, parameters, this.messageRowMapper);
 			}
-			else {
-				if (this.priorityEnabled) {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupQuery());
-				}
-				else {
-					query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
-				}
+			finally {
+				this.idCacheReadLock.unlock();
 			}
-			messages = namedParameterJdbcTemplate.query(query, parameters, this.messageRowMapper);
 		}
-		finally {
-			this.idCacheReadLock.unlock();
+		else {
+			messages = namedParameterJdbcTemplate.query(getPollFromGroupQuery(), parameters, this.messageRowMapper);
 		}
 
 
@@ -579,6 +765,15 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return null;
 	}
 
+	private String getPollFromGroupQuery() {
+		if (this.priorityEnabled) {
+			return getQuery(this.channelMessageStoreQueryProvider.getPriorityPollFromGroupQuery());
+		}
+		else {
+			return getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
+		}
+	}
+
 	private boolean doRemoveMessageFromGroup(Object groupId, Message<?> messageToRemove) {
 		final UUID id = messageToRemove.getHeaders().getId();
 
@@ -597,6 +792,65 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return result;
 	}
 
+	private List<Message<?>> doRemoveMessagesFromGroup(Object groupId, List<Message<?>> messagesToRemove) {
+		if (!isBatchUpdateCountsReported()) {
+			// without per-row counts a row deleted by another poller can't be told apart
+			List<Message<?>> removed = new ArrayList<>(messagesToRemove.size());
+			for (Message<?> message : messagesToRemove) {
+				if (doRemoveMessageFromGroup(groupId, message)) {
+					removed.add(message);
+				}
+			}
+			return removed;
+		}
+
+		String groupKey = getKey(groupId);
+		List<Object[]> batchArgs = new ArrayList<>(messagesToRemove.size());
+		for (Message<?> message : messagesToRemove) {
+			batchArgs.add(new Object[] { getKey(message.getHeaders().getId()), groupKey, this.region });
+		}
+
+		int[] updated = this.jdbcTemplate.batchUpdate(
+				getQuery(this.channelMessageStoreQueryProvider.getDeleteMessageQuery()), batchArgs,
+				new int[] { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR });
+
+		List<Message<?>> removed = new ArrayList<>(messagesToRemove.size());
+		for (int i = 0; i < messagesToRemove.size(); i++) {
+			Message<?> message = messagesToRemove.get(i);
+			if (updated[i] > 0) {
+				removed.add(message);
+			}
+			else {
+				logger.warn(String.format("Message with id '%s' was not deleted.", message.getHeaders().getId()));
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("%d of %d polled messages were deleted.", removed.size(),
+					messagesToRemove.size()));
+		}
+		return removed;
+	}
+
+	/**
+	 * Determine whether the driver reports an update count for each batch entry, rather than
+	 * {@link java.sql.Statement#SUCCESS_NO_INFO}, by deleting a non-existent message in a one-row batch.
+	 * @return true if batch update counts are reported.
+	 */
+	private boolean isBatchUpdateCountsReported() {
+		if (this.batchUpdateCountsReported == null) {
+			int[] updated = this.jdbcTemplate.batchUpdate(
+					getQuery(this.channelMessageStoreQueryProvider.getDeleteMessageQuery()),
+					Collections.singletonList(new Object[] { "", "", this.region }),
+					new int[] { Types.VARCHAR, Types.VARCHAR, Types.VARCHAR });
+			this.batchUpdateCountsReported = updated.length == 1 && updated[0] >= 0;
+			if (!this.batchUpdateCountsReported) {
+				logger.info("The JDBC driver does not report batch update counts; "
+						+ "polled messages are deleted one at a time.");
+			}
+		}
+		return this.batchUpdateCountsReported;
+	}
+
 	/**
 	 * <p>Remove a Message Id from the idCache. Should be used in conjunction
 	 * with the Spring Integration Transaction Synchronization feature to remove
@@ -629,4 +883,21 @@ public class JdbcChannelMessageStore implements PriorityCapableChannelMessageSto
 		return this.idCache.size();
 	}
 
+	private static final class PendingInsert {
+
+		private final Object groupId;
+
+		private final Message<?> message;
+
+		private boolean done;
+
+		private RuntimeException failure;
+
+		PendingInsert(Object groupId, Message<?> message) {
+			this.groupId = groupId;
+			this.message = message;
+		}
+
+	}
+
 }
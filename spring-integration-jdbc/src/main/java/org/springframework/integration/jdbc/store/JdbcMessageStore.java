@@ -19,15 +19,22 @@ package org.springframework.integration.jdbc.store;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.sql.DataSource;
 
@@ -37,6 +44,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
@@ -54,6 +62,8 @@ import org.springframework.jdbc.support.lob.LobHandler;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -195,6 +205,14 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 	private volatile Map<Query, String> queryCache = new HashMap<Query, String>();
 
+	private final Queue<PendingGroupInsert> pendingGroupInserts = new ConcurrentLinkedQueue<>();
+
+	private final Lock insertBatchLock = new ReentrantLock();
+
+	private volatile int insertBatchSize = 1;
+
+	private volatile Map<String, CachedMessageGroup> messageGroupCache;
+
 	/**
 	 * Create a {@link MessageStore} with all mandatory properties.
 	 * @param dataSource a {@link DataSource}
@@ -266,6 +284,55 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		this.deserializer = new WhiteListDeserializingConverter((Deserializer) deserializer);
 	}
 
+	/**
+	 * Set the maximum number of concurrent {@link #addMessagesToGroup(Object, Message...)}
+	 * calls, for the same or different groups, whose inserts are coalesced into a single
+	 * set of JDBC batches. While one caller executes a batch, other callers queue their
+	 * messages; the next caller to acquire the batch lock inserts all the queued messages,
+	 * their group relationships and the group updates with one batch each.
+	 * Callers within an active transaction always insert on their own connection, so
+	 * their messages remain part of that transaction.
+	 * Default 1 - no batching.
+	 * @param insertBatchSize the maximum number of coalesced calls.
+	 * @since 5.0.1
+	 */
+	public void setInsertBatchSize(int insertBatchSize) {
+		Assert.isTrue(insertBatchSize > 0, "'insertBatchSize' must be greater than 0");
+		this.insertBatchSize = insertBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of message groups to keep in an in-memory, write-through
+	 * cache. A cached group's metadata and, once loaded, its messages are maintained
+	 * incrementally as messages are added and removed, so that repeated
+	 * {@link #getMessageGroup(Object)} calls and release checks (e.g. from an aggregator)
+	 * don't read the whole group from the database again. Groups are evicted in least
+	 * recently used order, on removal, and when a transaction that changed them rolls back.
+	 * <p>The cache must only be used when this store instance is the only writer for the
+	 * groups it handles (e.g. messages are routed to aggregator instances by correlation
+	 * key); changes made by other stores sharing the tables are not visible to it.
+	 * Default 0 - no cache.
+	 * @param messageGroupCacheSize the maximum number of cached groups.
+	 * @since 5.0.1
+	 */
+	@SuppressWarnings("serial")
+	public void setMessageGroupCacheSize(final int messageGroupCacheSize) {
+		if (messageGroupCacheSize > 0) {
+			this.messageGroupCache = Collections.synchronizedMap(
+					new LinkedHashMap<String, CachedMessageGroup>(16, 0.75f, true) {
+
+						@Override
+						protected boolean removeEldestEntry(Map.Entry<String, CachedMessageGroup> eldest) {
+							return this.size() > messageGroupCacheSize;
+						}
+
+					});
+		}
+		else {
+			this.messageGroupCache = null;
+		}
+	}
+
 	/**
 	 * Add patterns for packages/classes that are allowed to be deserialized. A class can
 	 * be fully qualified or a wildcard '*' is allowed at the beginning or end of the
@@ -355,29 +422,72 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 	@Override
 	public void addMessagesToGroup(Object groupId, Message<?>... messages) {
 		final String groupKey = getKey(groupId);
-		boolean groupNotExist = this.jdbcTemplate.queryForObject(this.getQuery(Query.GROUP_EXISTS),
-				Integer.class, groupKey, this.region) < 1;
-
 		final Timestamp updatedDate = new Timestamp(System.currentTimeMillis());
+		CachedMessageGroup cachedGroup = getCachedGroup(groupKey);
+		boolean groupCreated = false;
 
-		final Timestamp createdDate = groupNotExist ?
-				updatedDate :
-				this.jdbcTemplate.queryForObject(getQuery(Query.GET_GROUP_CREATED_DATE), Timestamp.class, groupKey,
-						this.region);
+		final Timestamp createdDate;
+		if (cachedGroup != null) {
+			createdDate = new Timestamp(cachedGroup.createdDate);
+		}
+		else {
+			boolean groupNotExist = this.jdbcTemplate.queryForObject(this.getQuery(Query.GROUP_EXISTS),
+					Integer.class, groupKey, this.region) < 1;
+
+			createdDate = groupNotExist ?
+					updatedDate :
+					this.jdbcTemplate.queryForObject(getQuery(Query.GET_GROUP_CREATED_DATE), Timestamp.class,
+							groupKey, this.region);
+
+			if (groupNotExist) {
+				try {
+					doCreateMessageGroup(groupKey, createdDate);
+					groupCreated = true;
+				}
+				catch (DuplicateKeyException e) {
+					logger.warn("Lost race to create group; attempting update instead", e);
+				}
+			}
+		}
 
-		if (groupNotExist) {
+		if (this.insertBatchSize > 1 && !TransactionSynchronizationManager.isActualTransactionActive()) {
+			PendingGroupInsert pendingInsert =
+					new PendingGroupInsert(groupKey, messages, groupCreated ? null : updatedDate);
+			this.pendingGroupInserts.add(pendingInsert);
+			this.insertBatchLock.lock();
 			try {
-				doCreateMessageGroup(groupKey, createdDate);
+				while (!pendingInsert.done) {
+					flushPendingGroupInserts();
+				}
 			}
-			catch (DuplicateKeyException e) {
-				logger.warn("Lost race to create group; attempting update instead", e);
-				doUpdateMessageGroup(groupKey, updatedDate);
+			finally {
+				this.insertBatchLock.unlock();
+			}
+			if (pendingInsert.failure != null) {
+				throw pendingInsert.failure;
 			}
 		}
 		else {
-			doUpdateMessageGroup(groupKey, updatedDate);
+			if (!groupCreated) {
+				doUpdateMessageGroup(groupKey, updatedDate);
+			}
+			doAddMessagesToGroup(groupKey, createdDate, messages);
+		}
+
+		if (this.messageGroupCache != null) {
+			if (groupCreated) {
+				cachedGroup = new CachedMessageGroup(createdDate.getTime());
+				cachedGroup.setMessages(Collections.emptyList());
+				this.messageGroupCache.put(groupKey, cachedGroup);
+			}
+			if (cachedGroup != null) {
+				cachedGroup.addMessages(messages, updatedDate.getTime());
+				evictOnRollback(groupKey);
+			}
 		}
+	}
 
+	private void doAddMessagesToGroup(final String groupKey, final Timestamp createdDate, Message<?>... messages) {
 		for (Message<?> message : messages) {
 			addMessage(message);
 		}
@@ -396,6 +506,104 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 				});
 	}
 
+	/**
+	 * Insert the messages, group relationships and group updates of up to
+	 * {@link #insertBatchSize} queued calls with one batch each.
+	 * It is assumed that the 'insertBatchLock' is being held by the caller.
+	 */
+	private void flushPendingGroupInserts() {
+		final List<PendingGroupInsert> batch = new ArrayList<>();
+		while (batch.size() < this.insertBatchSize) {
+			PendingGroupInsert pendingInsert = this.pendingGroupInserts.poll();
+			if (pendingInsert == null) {
+				break;
+			}
+			batch.add(pendingInsert);
+		}
+		final List<String[]> groupToMessage = new ArrayList<>();
+		final List<Message<?>> messages = new ArrayList<>();
+		final List<PendingGroupInsert> groupUpdates = new ArrayList<>();
+		for (PendingGroupInsert pendingInsert : batch) {
+			for (Message<?> message : pendingInsert.messages) {
+				messages.add(message);
+				groupToMessage.add(new String[] { pendingInsert.groupKey, getKey(message.getHeaders().getId()) });
+			}
+			if (pendingInsert.updatedDate != null) {
+				groupUpdates.add(pendingInsert);
+			}
+		}
+		try {
+			if (!messages.isEmpty()) {
+				final Timestamp createdDate = new Timestamp(System.currentTimeMillis());
+				this.jdbcTemplate.batchUpdate(getQuery(Query.CREATE_MESSAGE), messages, messages.size(),
+						(ps, message) -> {
+							ps.setString(1, getKey(message.getHeaders().getId()));
+							ps.setString(2, JdbcMessageStore.this.region);
+							ps.setTimestamp(3, createdDate);
+							JdbcMessageStore.this.lobHandler.getLobCreator()
+									.setBlobAsBytes(ps, 4, JdbcMessageStore.this.serializer.convert(message));
+						});
+				this.jdbcTemplate.batchUpdate(getQuery(Query.CREATE_GROUP_TO_MESSAGE), groupToMessage,
+						groupToMessage.size(),
+						(ps, keys) -> {
+							ps.setString(1, keys[0]);
+							ps.setString(2, keys[1]);
+							ps.setString(3, JdbcMessageStore.this.region);
+						});
+			}
+			if (!groupUpdates.isEmpty()) {
+				this.jdbcTemplate.batchUpdate(getQuery(Query.UPDATE_MESSAGE_GROUP), groupUpdates,
+						groupUpdates.size(),
+						(ps, pendingInsert) -> {
+							ps.setTimestamp(1, pendingInsert.updatedDate);
+							ps.setString(2, pendingInsert.groupKey);
+							ps.setString(3, JdbcMessageStore.this.region);
+						});
+			}
+		}
+		catch (DataAccessException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Batch insert for " + batch.size() + " message groups failed; " +
+						"inserting them one by one", e);
+			}
+			for (PendingGroupInsert pendingInsert : batch) {
+				try {
+					if (pendingInsert.updatedDate != null) {
+						doUpdateMessageGroup(pendingInsert.groupKey, pendingInsert.updatedDate);
+					}
+					doAddMessagesToGroupIgnoringExisting(pendingInsert.groupKey, pendingInsert.messages);
+				}
+				catch (RuntimeException ex) {
+					pendingInsert.failure = ex;
+				}
+			}
+		}
+		finally {
+			for (PendingGroupInsert pendingInsert : batch) {
+				pendingInsert.done = true;
+			}
+		}
+	}
+
+	/**
+	 * Used after a failed batch which may have been partially applied.
+	 */
+	private void doAddMessagesToGroupIgnoringExisting(String groupKey, Message<?>... messages) {
+		for (Message<?> message : messages) {
+			addMessage(message);
+			try {
+				this.jdbcTemplate.update(getQuery(Query.CREATE_GROUP_TO_MESSAGE), groupKey,
+						getKey(message.getHeaders().getId()), this.region);
+			}
+			catch (DuplicateKeyException e) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("The Message with id [" + message.getHeaders().getId() +
+							"] is already in the group with key=" + groupKey);
+				}
+			}
+		}
+	}
+
 	@Override
 	@ManagedAttribute
 	public int getMessageGroupCount() {
@@ -413,6 +621,13 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 	@ManagedAttribute
 	public int messageGroupSize(Object groupId) {
 		String key = getKey(groupId);
+		CachedMessageGroup cachedGroup = getCachedGroup(key);
+		if (cachedGroup != null) {
+			int size = cachedGroup.size();
+			if (size >= 0) {
+				return size;
+			}
+		}
 		return this.jdbcTemplate.queryForObject(getQuery(Query.COUNT_ALL_MESSAGES_IN_GROUP),
 				Integer.class, key, this.region);
 	}
@@ -420,6 +635,15 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 	@Override
 	public MessageGroup getMessageGroup(Object groupId) {
 		String key = getKey(groupId);
+		CachedMessageGroup cachedGroup = getCachedGroup(key);
+		if (cachedGroup != null) {
+			MessageGroup messageGroup = getMessageGroupFactory()
+					.create(this, groupId, cachedGroup.createdDate, cachedGroup.complete);
+			messageGroup.setLastModified(cachedGroup.lastModified);
+			messageGroup.setLastReleasedMessageSequenceNumber(cachedGroup.lastReleasedSequence);
+			return messageGroup;
+		}
+
 		final AtomicReference<Date> createDate = new AtomicReference<Date>();
 		final AtomicReference<Date> updateDate = new AtomicReference<Date>();
 		final AtomicReference<Boolean> completeFlag = new AtomicReference<Boolean>();
@@ -439,6 +663,14 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 			return new SimpleMessageGroup(groupId);
 		}
 
+		if (this.messageGroupCache != null) {
+			cachedGroup = new CachedMessageGroup(createDate.get().getTime());
+			cachedGroup.lastModified = updateDate.get().getTime();
+			cachedGroup.complete = completeFlag.get();
+			cachedGroup.lastReleasedSequence = lastReleasedSequenceRef.get();
+			this.messageGroupCache.put(key, cachedGroup);
+		}
+
 		MessageGroup messageGroup = getMessageGroupFactory()
 				.create(this, groupId, createDate.get().getTime(), completeFlag.get());
 		messageGroup.setLastModified(updateDate.get().getTime());
@@ -472,12 +704,22 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 					ps.setString(2, JdbcMessageStore.this.region);
 				});
 		this.updateMessageGroup(groupKey);
+
+		CachedMessageGroup cachedGroup = getCachedGroup(groupKey);
+		if (cachedGroup != null) {
+			cachedGroup.removeMessages(messages, System.currentTimeMillis());
+			evictOnRollback(groupKey);
+		}
 	}
 
 	@Override
 	public void removeMessageGroup(Object groupId) {
 		String groupKey = getKey(groupId);
 
+		if (this.messageGroupCache != null) {
+			this.messageGroupCache.remove(groupKey);
+		}
+
 		this.jdbcTemplate.update(getQuery(Query.DELETE_MESSAGES_FROM_GROUP), ps -> {
 			ps.setString(1, groupKey);
 			ps.setString(2, JdbcMessageStore.this.region);
@@ -514,6 +756,13 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 			ps.setString(2, groupKey);
 			ps.setString(3, JdbcMessageStore.this.region);
 		});
+
+		CachedMessageGroup cachedGroup = getCachedGroup(groupKey);
+		if (cachedGroup != null) {
+			cachedGroup.complete = true;
+			cachedGroup.lastModified = updatedDate;
+			evictOnRollback(groupKey);
+		}
 	}
 
 	@Override
@@ -533,6 +782,13 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 			ps.setString(4, JdbcMessageStore.this.region);
 		});
 		this.updateMessageGroup(groupKey);
+
+		CachedMessageGroup cachedGroup = getCachedGroup(groupKey);
+		if (cachedGroup != null) {
+			cachedGroup.lastReleasedSequence = sequenceNumber;
+			cachedGroup.lastModified = System.currentTimeMillis();
+			evictOnRollback(groupKey);
+		}
 	}
 
 	@Override
@@ -548,12 +804,31 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 	@Override
 	public Message<?> getOneMessageFromGroup(Object groupId) {
-		return doPollForMessage(getKey(groupId));
+		String groupKey = getKey(groupId);
+		CachedMessageGroup cachedGroup = getCachedGroup(groupKey);
+		if (cachedGroup != null) {
+			Collection<Message<?>> messages = cachedGroup.getMessages();
+			if (messages != null) {
+				return messages.isEmpty() ? null : messages.iterator().next();
+			}
+		}
+		return doPollForMessage(groupKey);
 	}
 
 	@Override
 	public Collection<Message<?>> getMessagesForGroup(Object groupId) {
-		return this.jdbcTemplate.query(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY), this.mapper, getKey(groupId),
+		String groupKey = getKey(groupId);
+		CachedMessageGroup cachedGroup = getCachedGroup(groupKey);
+		if (cachedGroup != null) {
+			Collection<Message<?>> messages = cachedGroup.getMessages();
+			if (messages == null) {
+				messages = this.jdbcTemplate.query(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY), this.mapper,
+						groupKey, this.region, this.region);
+				cachedGroup.setMessages(messages);
+			}
+			return messages;
+		}
+		return this.jdbcTemplate.query(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY), this.mapper, groupKey,
 				this.region, this.region);
 	}
 
@@ -667,6 +942,31 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		return input == null ? null : UUIDConverter.getUUID(input).toString();
 	}
 
+	private CachedMessageGroup getCachedGroup(String groupKey) {
+		Map<String, CachedMessageGroup> cache = this.messageGroupCache;
+		return cache != null ? cache.get(groupKey) : null;
+	}
+
+	/**
+	 * The cache is only updated after the database has been; if that happened within a
+	 * transaction that is later rolled back, the cached group is no longer valid.
+	 */
+	private void evictOnRollback(final String groupKey) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCompletion(int status) {
+					Map<String, CachedMessageGroup> cache = JdbcMessageStore.this.messageGroupCache;
+					if (status != STATUS_COMMITTED && cache != null) {
+						cache.remove(groupKey);
+					}
+				}
+
+			});
+		}
+	}
+
 	/**
 	 * Convenience class to be used to unpack a message from a result set row. Uses column named in the result set to
 	 * extract the required data, so that select clause ordering is unimportant.
@@ -683,4 +983,80 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 	}
 
+	private static final class PendingGroupInsert {
+
+		private final String groupKey;
+
+		private final Message<?>[] messages;
+
+		private final Timestamp updatedDate;
+
+		private boolean done;
+
+		private RuntimeException failure;
+
+		PendingGroupInsert(String groupKey, Message<?>[] messages, Timestamp updatedDate) {
+			this.groupKey = groupKey;
+			this.messages = messages;
+			this.updatedDate = updatedDate;
+		}
+
+	}
+
+	/**
+	 * The cached state of a message group; the messages are only known once they have
+	 * been loaded, or if the group was created by this store.
+	 */
+	private static final class CachedMessageGroup {
+
+		private final long createdDate;
+
+		private volatile long lastModified;
+
+		private volatile boolean complete;
+
+		private volatile int lastReleasedSequence;
+
+		private LinkedHashMap<UUID, Message<?>> messages;
+
+		CachedMessageGroup(long createdDate) {
+			this.createdDate = createdDate;
+			this.lastModified = createdDate;
+		}
+
+		synchronized Collection<Message<?>> getMessages() {
+			return this.messages != null ? new ArrayList<>(this.messages.values()) : null;
+		}
+
+		synchronized void setMessages(Collection<Message<?>> messages) {
+			this.messages = new LinkedHashMap<>();
+			for (Message<?> message : messages) {
+				this.messages.put(message.getHeaders().getId(), message);
+			}
+		}
+
+		synchronized int size() {
+			return this.messages != null ? this.messages.size() : -1;
+		}
+
+		synchronized void addMessages(Message<?>[] messagesToAdd, long lastModified) {
+			if (this.messages != null) {
+				for (Message<?> message : messagesToAdd) {
+					this.messages.put(message.getHeaders().getId(), message);
+				}
+			}
+			this.lastModified = lastModified;
+		}
+
+		synchronized void removeMessages(Collection<Message<?>> messagesToRemove, long lastModified) {
+			if (this.messages != null) {
+				for (Message<?> message : messagesToRemove) {
+					this.messages.remove(message.getHeaders().getId());
+				}
+			}
+			this.lastModified = lastModified;
+		}
+
+	}
+
 }
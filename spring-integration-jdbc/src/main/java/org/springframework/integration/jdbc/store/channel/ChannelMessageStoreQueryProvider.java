@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,45 @@ public interface ChannelMessageStoreQueryProvider {
 	 */
 	String getPriorityPollFromGroupQuery();
 
+	/**
+	 * Get the query used to retrieve up to {@code :max_messages} of the oldest messages
+	 * for a channel with a single round trip. The {@link JdbcChannelMessageStore} never
+	 * reads more than that many rows from the result, so a provider for a database
+	 * that cannot combine row limiting with row locking may omit the limit.
+	 * Returns {@code null} by default, meaning batch polling is not supported and
+	 * messages are polled one at a time.
+	 * @return Sql Query
+	 * @since 5.0.1
+	 */
+	default String getPollBatchFromGroupQuery() {
+		return null;
+	}
+
+	/**
+	 * Get the query used to retrieve up to {@code :max_messages} of the oldest messages
+	 * by priority for a channel with a single round trip.
+	 * Returns {@code null} by default, meaning batch polling is not supported and
+	 * messages are polled one at a time.
+	 * @return Sql Query
+	 * @since 5.0.1
+	 * @see #getPollBatchFromGroupQuery()
+	 */
+	default String getPriorityPollBatchFromGroupQuery() {
+		return null;
+	}
+
+	/**
+	 * Return true if the poll queries lock the selected rows with
+	 * {@code FOR UPDATE SKIP LOCKED} (or equivalent), so that concurrent pollers skip
+	 * rows locked by other transactions. In that case the {@link JdbcChannelMessageStore}
+	 * doesn't use its id cache, and the exclude ids queries are not used.
+	 * @return true if locked rows are skipped; false by default.
+	 * @since 5.0.1
+	 */
+	default boolean isSkipLocked() {
+		return false;
+	}
+
 	/**
 	 * Query that retrieves a message for the provided message id, channel and
 	 * region.
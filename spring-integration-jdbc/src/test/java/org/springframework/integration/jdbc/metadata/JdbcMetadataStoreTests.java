@@ -18,6 +18,18 @@ package org.springframework.integration.jdbc.metadata;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
@@ -25,6 +37,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.PreparedStatementSetter;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -106,4 +121,51 @@ public class JdbcMetadataStoreTests {
 		assertEquals("bar", bar);
 	}
 
+	@Test
+	public void onlyAbsentKeysAreInsertedOnBulkPutIfAbsent() {
+		metadataStore.put("foo", "bar");
+		Map<String, String> entries = new HashMap<>();
+		entries.put("foo", "baz");
+		entries.put("foo2", "bar2");
+		Map<String, String> existing = metadataStore.putIfAbsent(entries);
+		assertEquals(1, existing.size());
+		assertEquals("bar", existing.get("foo"));
+		assertEquals("bar", metadataStore.get("foo"));
+		assertEquals("bar2", metadataStore.get("foo2"));
+	}
+
+	@Test
+	public void onlyMatchingKeysAreReplacedOnBulkReplace() {
+		metadataStore.put("foo", "bar");
+		metadataStore.put("foo2", "bar2");
+		Map<String, String> oldValues = new HashMap<>();
+		oldValues.put("foo", "bar");
+		oldValues.put("foo2", "baz");
+		Map<String, String> newValues = new HashMap<>();
+		newValues.put("foo", "bar1");
+		newValues.put("foo2", "bar3");
+		Set<String> replaced = metadataStore.replace(oldValues, newValues);
+		assertEquals(1, replaced.size());
+		assertTrue(replaced.contains("foo"));
+		assertEquals("bar1", metadataStore.get("foo"));
+		assertEquals("bar2", metadataStore.get("foo2"));
+	}
+
+	@Test
+	public void singleKeyOperationsAreUsedWhenBatchUpdateCountsAreNotReported() throws Exception {
+		JdbcOperations jdbcOperations = mock(JdbcOperations.class);
+		given(jdbcOperations.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+				.willReturn(new int[] { Statement.SUCCESS_NO_INFO });
+		given(jdbcOperations.update(anyString(), any(PreparedStatementSetter.class))).willReturn(1);
+		JdbcMetadataStore store = new JdbcMetadataStore(jdbcOperations);
+		store.afterPropertiesSet();
+		Map<String, String> entries = new HashMap<>();
+		entries.put("foo", "bar");
+		entries.put("foo2", "bar2");
+		assertTrue(store.putIfAbsent(entries).isEmpty());
+		assertEquals(2, store.replace(entries, entries).size());
+		verify(jdbcOperations, times(1)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+		verify(jdbcOperations, times(4)).update(anyString(), any(PreparedStatementSetter.class));
+	}
+
 }
@@ -32,6 +32,8 @@ import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
@@ -54,6 +56,7 @@ import org.springframework.messaging.support.GenericMessage;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -524,4 +527,67 @@ public class JdbcMessageStoreTests {
 		assertTrue(messageGroup.isComplete());
 	}
 
+	@Test
+	public void testMessageGroupCache() throws Exception {
+		messageStore.setMessageGroupCacheSize(10);
+		String groupId = "X";
+		Message<String> message1 = MessageBuilder.withPayload("foo").build();
+		Message<String> message2 = MessageBuilder.withPayload("bar").build();
+		messageStore.addMessagesToGroup(groupId, message1);
+		messageStore.addMessagesToGroup(groupId, message2);
+		messageStore.setLastReleasedSequenceNumberForGroup(groupId, 1);
+
+		MessageGroup group = messageStore.getMessageGroup(groupId);
+		assertEquals(2, group.size());
+		assertEquals(1, group.getLastReleasedMessageSequenceNumber());
+		assertEquals(message1.getHeaders().getId(), group.getOne().getHeaders().getId());
+
+		// The cache serves the group without reading it again
+		new JdbcTemplate(this.dataSource).update("DELETE FROM INT_GROUP_TO_MESSAGE");
+		assertEquals(2, messageStore.messageGroupSize(groupId));
+		assertEquals(2, messageStore.getMessageGroup(groupId).getMessages().size());
+
+		messageStore.removeMessagesFromGroup(groupId, message1);
+		group = messageStore.getMessageGroup(groupId);
+		assertEquals(1, group.size());
+		assertEquals(message2.getHeaders().getId(), group.getMessages().iterator().next().getHeaders().getId());
+
+		messageStore.completeGroup(groupId);
+		assertTrue(messageStore.getMessageGroup(groupId).isComplete());
+
+		messageStore.removeMessageGroup(groupId);
+		assertEquals(0, messageStore.getMessageGroup(groupId).size());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testBatchInsertsFromConcurrentGroups() throws Exception {
+		messageStore.setInsertBatchSize(10);
+		messageStore.setMessageGroupCacheSize(10);
+		ExecutorService exec = Executors.newFixedThreadPool(8);
+		try {
+			for (int i = 0; i < 8; i++) {
+				final String groupId = "batch" + i;
+				exec.execute(() -> {
+					for (int j = 0; j < 10; j++) {
+						messageStore.addMessagesToGroup(groupId, MessageBuilder.withPayload(j).build());
+					}
+				});
+			}
+			exec.shutdown();
+			assertTrue(exec.awaitTermination(30, TimeUnit.SECONDS));
+			JdbcMessageStore uncachedStore = new JdbcMessageStore(this.dataSource);
+			for (int i = 0; i < 8; i++) {
+				assertEquals(10, messageStore.getMessageGroup("batch" + i).size());
+				assertEquals(10, uncachedStore.messageGroupSize("batch" + i));
+				assertEquals(10, uncachedStore.getMessageGroup("batch" + i).getMessages().size());
+			}
+		}
+		finally {
+			for (int i = 0; i < 8; i++) {
+				messageStore.removeMessageGroup("batch" + i);
+			}
+		}
+	}
+
 }
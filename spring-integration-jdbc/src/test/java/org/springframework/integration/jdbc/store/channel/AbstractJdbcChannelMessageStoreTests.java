@@ -17,11 +17,20 @@
 package org.springframework.integration.jdbc.store.channel;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import javax.sql.DataSource;
 
@@ -133,6 +142,75 @@ public abstract class AbstractJdbcChannelMessageStoreTests {
 		assertEquals(message.getHeaders().getId(), messageFromDb.getHeaders().getId());
 	}
 
+	@Test
+	public void testBatchPoll() {
+		for (int i = 0; i < 5; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload(i).build());
+		}
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 3);
+		assertEquals(3, messages.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(i, messages.get(i).getPayload());
+		}
+		assertEquals(2, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+		messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10);
+		assertEquals(2, messages.size());
+		assertEquals(3, messages.get(0).getPayload());
+		assertEquals(4, messages.get(1).getPayload());
+		assertTrue(messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10).isEmpty());
+	}
+
+	@Test
+	public void testPriorityBatchPoll() {
+		messageStore.setPriorityEnabled(true);
+		for (int i = 0; i < 5; i++) {
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP,
+					MessageBuilder.withPayload(i).setPriority(i).build());
+		}
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, MessageBuilder.withPayload(-1).build());
+		List<Message<?>> messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 3);
+		assertEquals(3, messages.size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(4 - i, messages.get(i).getPayload());
+		}
+		messages = messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 10);
+		assertEquals(3, messages.size());
+		assertEquals(1, messages.get(0).getPayload());
+		assertEquals(0, messages.get(1).getPayload());
+		assertEquals(-1, messages.get(2).getPayload());
+	}
+
+	@Test
+	public void testBatchInsertFromConcurrentSenders() throws Exception {
+		assertFalse(messageStore.isConcurrentAddSupported());
+		messageStore.setInsertBatchSize(10);
+		assertTrue(messageStore.isConcurrentAddSupported());
+		ExecutorService exec = Executors.newFixedThreadPool(8);
+		Set<UUID> sent = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			Message<Integer> message = MessageBuilder.withPayload(i).build();
+			sent.add(message.getHeaders().getId());
+			exec.execute(() -> messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, message));
+		}
+		exec.shutdown();
+		assertTrue(exec.awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(100, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+		Set<UUID> received = new HashSet<>();
+		for (Message<?> message : messageStore.pollMessagesFromGroup(TEST_MESSAGE_GROUP, 200)) {
+			received.add(message.getHeaders().getId());
+		}
+		assertEquals(sent, received);
+	}
+
+	@Test
+	public void testBatchInsertDuplicateIgnored() {
+		messageStore.setInsertBatchSize(10);
+		Message<String> message = MessageBuilder.withPayload("foo").build();
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, message);
+		messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, message);
+		assertEquals(1, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+	}
+
 	private ChannelMessageStorePreparedStatementSetter getMessageGroupPreparedStatementSetter() {
 		return new ChannelMessageStorePreparedStatementSetter() {
 
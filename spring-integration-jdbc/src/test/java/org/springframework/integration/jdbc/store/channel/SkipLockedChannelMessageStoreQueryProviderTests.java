@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.jdbc.store.channel;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @since 5.0.1
+ */
+public class SkipLockedChannelMessageStoreQueryProviderTests {
+
+	@Test
+	public void testPostgres() {
+		PostgresChannelMessageStoreQueryProvider queryProvider = new PostgresChannelMessageStoreQueryProvider();
+		assertFalse(queryProvider.isSkipLocked());
+		assertThat(queryProvider.getPollFromGroupQuery(), endsWith("LIMIT 1 FOR UPDATE"));
+		queryProvider.setSkipLocked(true);
+		assertSkipLocked(queryProvider);
+	}
+
+	@Test
+	public void testMySql() {
+		MySqlChannelMessageStoreQueryProvider queryProvider = new MySqlChannelMessageStoreQueryProvider();
+		assertFalse(queryProvider.isSkipLocked());
+		assertThat(queryProvider.getPollFromGroupQuery(), not(containsString("FOR UPDATE")));
+		queryProvider.setSkipLocked(true);
+		assertSkipLocked(queryProvider);
+	}
+
+	@Test
+	public void testH2() {
+		H2ChannelMessageStoreQueryProvider queryProvider = new H2ChannelMessageStoreQueryProvider();
+		assertFalse(queryProvider.isSkipLocked());
+		assertThat(queryProvider.getPollFromGroupQuery(), not(containsString("FOR UPDATE")));
+	}
+
+	@Test
+	public void testOracle() {
+		assertSkipLocked(new OracleChannelMessageStoreQueryProvider());
+	}
+
+	private void assertSkipLocked(ChannelMessageStoreQueryProvider queryProvider) {
+		assertTrue(queryProvider.isSkipLocked());
+		assertThat(queryProvider.getPollFromGroupQuery(), endsWith("FOR UPDATE SKIP LOCKED"));
+		assertThat(queryProvider.getPriorityPollFromGroupQuery(), endsWith("FOR UPDATE SKIP LOCKED"));
+		assertThat(queryProvider.getPollFromGroupExcludeIdsQuery(), endsWith("FOR UPDATE SKIP LOCKED"));
+		assertThat(queryProvider.getPriorityPollFromGroupExcludeIdsQuery(), endsWith("FOR UPDATE SKIP LOCKED"));
+		assertThat(queryProvider.getPollBatchFromGroupQuery(), endsWith("FOR UPDATE SKIP LOCKED"));
+		assertThat(queryProvider.getPriorityPollBatchFromGroupQuery(), endsWith("FOR UPDATE SKIP LOCKED"));
+	}
+
+}
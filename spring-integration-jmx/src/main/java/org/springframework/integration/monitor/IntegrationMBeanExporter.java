@@ -54,6 +54,7 @@ import org.springframework.integration.handler.AbstractMessageProducingHandler;
 import org.springframework.integration.history.MessageHistoryConfigurer;
 import org.springframework.integration.support.context.NamedComponent;
 import org.springframework.integration.support.management.IntegrationManagementConfigurer;
+import org.springframework.integration.support.management.LatencyPercentiles;
 import org.springframework.integration.support.management.LifecycleMessageHandlerMetrics;
 import org.springframework.integration.support.management.LifecycleMessageSourceManagement;
 import org.springframework.integration.support.management.LifecycleMessageSourceMetrics;
@@ -563,6 +564,25 @@ public class IntegrationMBeanExporter extends MBeanExporter implements Applicati
 		return handlerMetrics != null ? handlerMetrics.getDuration() : null;
 	}
 
+	public LatencyPercentiles getHandlerDurationPercentiles(String name) {
+		MessageHandlerMetrics handlerMetrics = getHandlerMetrics(name);
+		return handlerMetrics != null ? handlerMetrics.getDurationPercentiles() : null;
+	}
+
+	/**
+	 * Return a duration percentile (milliseconds) for the named handler, over the
+	 * rolling window of its percentiles histogram.
+	 * @param name the handler name.
+	 * @param percentile the percentile (0-100), e.g. 99.
+	 * @return the duration, or -1 if the handler is unknown or percentiles are not enabled.
+	 * @since 5.0.1
+	 */
+	@ManagedOperation
+	public double getHandlerDurationPercentile(String name, double percentile) {
+		LatencyPercentiles percentiles = getHandlerDurationPercentiles(name);
+		return percentiles != null ? percentiles.getValueAtPercentile(percentile) : -1;
+	}
+
 	@ManagedAttribute
 	public String[] getSourceNames() {
 		return this.managementConfigurer.getSourceNames();
@@ -626,6 +646,25 @@ public class IntegrationMBeanExporter extends MBeanExporter implements Applicati
 		return channelMetrics != null ? channelMetrics.getErrorRate() : null;
 	}
 
+	public LatencyPercentiles getChannelSendDurationPercentiles(String name) {
+		MessageChannelMetrics channelMetrics = getChannelMetrics(name);
+		return channelMetrics != null ? channelMetrics.getSendDurationPercentiles() : null;
+	}
+
+	/**
+	 * Return a send duration percentile (milliseconds) for the named channel, over the
+	 * rolling window of its percentiles histogram.
+	 * @param name the channel name.
+	 * @param percentile the percentile (0-100), e.g. 99.
+	 * @return the duration, or -1 if the channel is unknown or percentiles are not enabled.
+	 * @since 5.0.1
+	 */
+	@ManagedOperation
+	public double getChannelSendDurationPercentile(String name, double percentile) {
+		LatencyPercentiles percentiles = getChannelSendDurationPercentiles(name);
+		return percentiles != null ? percentiles.getValueAtPercentile(percentile) : -1;
+	}
+
 	private void registerChannels() {
 		for (MessageChannelMetrics monitor : this.channels) {
 			String name = ((NamedComponent) monitor).getComponentName();
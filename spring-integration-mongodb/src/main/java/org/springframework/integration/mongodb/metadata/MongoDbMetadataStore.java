@@ -16,12 +16,20 @@
 
 package org.springframework.integration.mongodb.metadata;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.bson.Document;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -31,6 +39,10 @@ import org.springframework.integration.metadata.ConcurrentMetadataStore;
 import org.springframework.util.Assert;
 
 import com.mongodb.DBCollection;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
 
 /**
  * MongoDbMetadataStore implementation of {@link ConcurrentMetadataStore}.
@@ -179,6 +191,100 @@ public class MongoDbMetadataStore implements ConcurrentMetadataStore {
 		return result == null ? null : result.get(VALUE);
 	}
 
+	/**
+	 * Put the entries whose keys are absent; the values of the keys already present are
+	 * read with a single query, and the others are inserted with a single unordered
+	 * bulk of upserts. Keys whose upsert fails (typically because of a concurrent upsert
+	 * of the same key) are retried one at a time.
+	 * @param entries the metadata entries to put
+	 * @return the values of the keys already present
+	 * @since 5.0.1
+	 */
+	@Override
+	public Map<String, String> putIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' must not be null.");
+		Map<String, String> existing = findValues(entries.keySet());
+		List<String> absent = new ArrayList<>();
+		for (String key : entries.keySet()) {
+			if (!existing.containsKey(key)) {
+				absent.add(key);
+			}
+		}
+		if (absent.isEmpty()) {
+			return existing;
+		}
+		BulkOperations bulkOperations = this.template.bulkOps(BulkOperations.BulkMode.UNORDERED, this.collectionName);
+		for (String key : absent) {
+			String value = entries.get(key);
+			Assert.hasText(value, "'value' must not be empty.");
+			bulkOperations.upsert(new Query(Criteria.where(ID_FIELD).is(key)), new Update().setOnInsert(VALUE, value));
+		}
+		Set<Integer> inserted = new HashSet<>();
+		Set<Integer> failed = new HashSet<>();
+		try {
+			BulkWriteResult result = bulkOperations.execute();
+			for (BulkWriteUpsert upsert : result.getUpserts()) {
+				inserted.add(upsert.getIndex());
+			}
+		}
+		catch (BulkOperationException e) {
+			for (com.mongodb.BulkWriteUpsert upsert : e.getResult().getUpserts()) {
+				inserted.add(upsert.getIndex());
+			}
+			for (com.mongodb.BulkWriteError error : e.getErrors()) {
+				failed.add(error.getIndex());
+			}
+		}
+		catch (DataAccessException e) {
+			MongoBulkWriteException bulkWriteException = findBulkWriteException(e);
+			if (bulkWriteException == null) {
+				throw e;
+			}
+			for (BulkWriteUpsert upsert : bulkWriteException.getWriteResult().getUpserts()) {
+				inserted.add(upsert.getIndex());
+			}
+			for (BulkWriteError error : bulkWriteException.getWriteErrors()) {
+				failed.add(error.getIndex());
+			}
+		}
+		List<String> present = new ArrayList<>();
+		for (int i = 0; i < absent.size(); i++) {
+			String key = absent.get(i);
+			if (failed.contains(i)) {
+				// typically a duplicate key from a concurrent upsert; retry this key alone
+				String oldValue = putIfAbsent(key, entries.get(key));
+				if (oldValue != null) {
+					existing.put(key, oldValue);
+				}
+			}
+			else if (!inserted.contains(i)) {
+				// inserted concurrently since the query
+				present.add(key);
+			}
+		}
+		if (!present.isEmpty()) {
+			existing.putAll(findValues(present));
+		}
+		return existing;
+	}
+
+	private static MongoBulkWriteException findBulkWriteException(Throwable throwable) {
+		Throwable cause = throwable;
+		while (cause != null && !(cause instanceof MongoBulkWriteException)) {
+			cause = cause.getCause();
+		}
+		return (MongoBulkWriteException) cause;
+	}
+
+	private Map<String, String> findValues(Collection<String> keys) {
+		Query query = new Query(Criteria.where(ID_FIELD).in(keys));
+		Map<String, String> values = new HashMap<>();
+		for (Document document : this.template.find(query, Document.class, this.collectionName)) {
+			values.put(document.getString(ID_FIELD), document.getString(VALUE));
+		}
+		return values;
+	}
+
 	/**
 	 * Replace an existing metadata entry {@code value} with a new one. Otherwise does nothing.
 	 * Performs {@code updateFirst} if a document for the provided {@code key} and {@code oldValue}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2016 the original author or authors.
+ * Copyright 2015-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,10 +22,15 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bson.Document;
 import org.junit.Before;
 import org.junit.Test;
 
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.integration.mongodb.rules.MongoDbAvailable;
 import org.springframework.integration.mongodb.rules.MongoDbAvailableTests;
@@ -150,4 +155,39 @@ public class MongoDbMetadataStoreTests extends MongoDbAvailableTests {
 
 	}
 
+	@Test
+	@MongoDbAvailable
+	public void testBulkPutIfAbsent() throws Exception {
+		final MongoDbFactory mongoDbFactory = this.prepareMongoFactory(DEFAULT_COLLECTION_NAME);
+		MongoTemplate template = new MongoTemplate(mongoDbFactory) {
+
+			@Override
+			public BulkOperations bulkOps(BulkOperations.BulkMode mode, String collectionName) {
+				// another store inserts a key between the query and the upserts
+				insert(new Document("_id", "concurrent").append("value", "other"), collectionName);
+				return super.bulkOps(mode, collectionName);
+			}
+
+		};
+		store = new MongoDbMetadataStore(template);
+		store.put("existing", "old");
+		Map<String, String> entries = new HashMap<>();
+		entries.put("existing", "new");
+		entries.put("concurrent", "new");
+		entries.put("absent1", "value1");
+		entries.put("absent2", "value2");
+		Map<String, String> existing = store.putIfAbsent(entries);
+		assertEquals(2, existing.size());
+		assertEquals("old", existing.get("existing"));
+		assertEquals("other", existing.get("concurrent"));
+		assertEquals("old", store.get("existing"));
+		assertEquals("other", store.get("concurrent"));
+		assertEquals("value1", store.get("absent1"));
+		assertEquals("value2", store.get("absent2"));
+
+		existing = store.putIfAbsent(entries);
+		assertEquals(4, existing.size());
+		assertEquals("value1", existing.get("absent1"));
+	}
+
 }
@@ -16,10 +16,26 @@
 
 package org.springframework.integration.redis.metadata;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.core.BoundHashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.support.collections.RedisProperties;
 import org.springframework.integration.metadata.ConcurrentMetadataStore;
 import org.springframework.integration.metadata.MetadataStore;
@@ -32,6 +48,9 @@ import org.springframework.util.Assert;
  * This implementation is based on the {@link RedisProperties} and its
  * {@link #replace(String, String, String)}; it can't currently be used with a Redis
  * cluster because the {@code WATCH} command is not supported.
+ * <p>
+ * The bulk {@link #putIfAbsent(Map)} pipelines its commands, and the bulk
+ * {@link #replace(Map, Map)} runs a Lua script, so each needs a single round trip.
  *
  * @author Gunnar Hillert
  * @author Artem Bilan
@@ -42,6 +61,16 @@ public class RedisMetadataStore implements ConcurrentMetadataStore {
 
 	public static final String KEY = "MetaData";
 
+	private static final String REPLACE_SCRIPT =
+			"local replaced = {}\n" +
+					"for i = 1, #ARGV, 3 do\n" +
+					"  if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[i + 1] then\n" +
+					"    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 2])\n" +
+					"    table.insert(replaced, ARGV[i])\n" +
+					"  end\n" +
+					"end\n" +
+					"return replaced";
+
 	private final RedisProperties properties;
 
 	/**
@@ -159,4 +188,95 @@ public class RedisMetadataStore implements ConcurrentMetadataStore {
 		return this.properties.replace(key, oldValue, newValue);
 	}
 
+	@Override
+	public Map<String, String> putIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' must not be null.");
+		if (entries.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		RedisOperations<String, ?> operations = this.properties.getOperations();
+		if (!(operations instanceof RedisTemplate)) {
+			return ConcurrentMetadataStore.super.putIfAbsent(entries);
+		}
+		final String hashKey = this.properties.getKey();
+		final List<String> keys = new ArrayList<>(entries.keySet());
+		RedisTemplate<String, ?> template = (RedisTemplate<String, ?>) operations;
+		List<Object> results = template.executePipelined(new SessionCallback<Object>() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public <K, V> Object execute(RedisOperations<K, V> redisOperations) throws DataAccessException {
+				BoundHashOperations<K, String, String> hashOperations = redisOperations.boundHashOps((K) hashKey);
+				for (String key : keys) {
+					hashOperations.putIfAbsent(key, entries.get(key));
+					hashOperations.get(key);
+				}
+				return null;
+			}
+
+		}, template.getHashValueSerializer());
+		Map<String, String> existing = new HashMap<>();
+		for (int i = 0; i < keys.size(); i++) {
+			if (!Boolean.TRUE.equals(results.get(2 * i))) {
+				String key = keys.get(i);
+				Object value = results.get(2 * i + 1);
+				if (value == null) {
+					// removed between the commands
+					value = putIfAbsent(key, entries.get(key));
+				}
+				if (value != null) {
+					Assert.isInstanceOf(String.class, value, "Invalid type in the store");
+					existing.put(key, (String) value);
+				}
+			}
+		}
+		return existing;
+	}
+
+	@Override
+	public Set<String> replace(Map<String, String> oldValues, Map<String, String> newValues) {
+		Assert.notNull(oldValues, "'oldValues' must not be null.");
+		Assert.notNull(newValues, "'newValues' must not be null.");
+		if (oldValues.isEmpty()) {
+			return Collections.emptySet();
+		}
+		RedisOperations<String, ?> operations = this.properties.getOperations();
+		if (!(operations instanceof RedisTemplate)) {
+			return ConcurrentMetadataStore.super.replace(oldValues, newValues);
+		}
+		RedisTemplate<String, ?> template = (RedisTemplate<String, ?>) operations;
+		RedisSerializer<?> hashKeySerializer = template.getHashKeySerializer();
+		RedisSerializer<?> hashValueSerializer = template.getHashValueSerializer();
+		byte[][] keysAndArgs = new byte[1 + oldValues.size() * 3][];
+		keysAndArgs[0] = serialize(template.getKeySerializer(), this.properties.getKey());
+		int i = 1;
+		for (Entry<String, String> entry : oldValues.entrySet()) {
+			String newValue = newValues.get(entry.getKey());
+			Assert.notNull(newValue, "'newValues' must contain a value for each key in 'oldValues'");
+			keysAndArgs[i++] = serialize(hashKeySerializer, entry.getKey());
+			keysAndArgs[i++] = serialize(hashValueSerializer, entry.getValue());
+			keysAndArgs[i++] = serialize(hashValueSerializer, newValue);
+		}
+		List<byte[]> replaced = template.execute((RedisCallback<List<byte[]>>) connection ->
+				connection.eval(REPLACE_SCRIPT.getBytes(StandardCharsets.UTF_8), ReturnType.MULTI, 1, keysAndArgs));
+		Set<String> replacedKeys = new HashSet<>();
+		if (replaced != null) {
+			for (byte[] key : replaced) {
+				Object deserialized = hashKeySerializer == null
+						? new String(key, StandardCharsets.UTF_8)
+						: hashKeySerializer.deserialize(key);
+				Assert.isInstanceOf(String.class, deserialized, "Invalid type in the store");
+				replacedKeys.add((String) deserialized);
+			}
+		}
+		return replacedKeys;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static byte[] serialize(RedisSerializer<?> serializer, String value) {
+		return serializer == null
+				? value.getBytes(StandardCharsets.UTF_8)
+				: ((RedisSerializer<Object>) serializer).serialize(value);
+	}
+
 }
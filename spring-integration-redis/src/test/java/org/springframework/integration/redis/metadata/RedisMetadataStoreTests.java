@@ -1,5 +1,5 @@
 /*
- * Copyright 2013-2016 the original author or authors.
+ * Copyright 2013-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,8 +18,13 @@ package org.springframework.integration.redis.metadata;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -170,4 +175,33 @@ public class RedisMetadataStoreTests extends RedisAvailableTests {
 		assertNull(metadataStore.remove(testKey));
 	}
 
+	@Test
+	@RedisAvailable
+	public void testBulkPutIfAbsentAndReplace() {
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		RedisMetadataStore metadataStore = new RedisMetadataStore(jcf, "testMetadata");
+		metadataStore.put("foo", "bar");
+
+		Map<String, String> entries = new HashMap<>();
+		entries.put("foo", "baz");
+		entries.put("qux", "quux");
+		Map<String, String> existing = metadataStore.putIfAbsent(entries);
+		assertEquals(1, existing.size());
+		assertEquals("bar", existing.get("foo"));
+		assertEquals("bar", metadataStore.get("foo"));
+		assertEquals("quux", metadataStore.get("qux"));
+
+		Map<String, String> oldValues = new HashMap<>();
+		oldValues.put("foo", "bar");
+		oldValues.put("qux", "notQuux");
+		Map<String, String> newValues = new HashMap<>();
+		newValues.put("foo", "bar2");
+		newValues.put("qux", "quux2");
+		Set<String> replaced = metadataStore.replace(oldValues, newValues);
+		assertEquals(1, replaced.size());
+		assertTrue(replaced.contains("foo"));
+		assertEquals("bar2", metadataStore.get("foo"));
+		assertEquals("quux", metadataStore.get("qux"));
+	}
+
 }
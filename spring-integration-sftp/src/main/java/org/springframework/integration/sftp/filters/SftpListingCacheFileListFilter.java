@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.sftp.filters;
+
+import org.springframework.integration.file.filters.AbstractListingCacheFileListFilter;
+import org.springframework.integration.file.filters.FileListFilter;
+
+import com.jcraft.jsch.ChannelSftp.LsEntry;
+
+/**
+ * Caches the previous SFTP listing so that only new or changed files are passed to
+ * the delegate filter.
+ *
+ * @since 5.0.1
+ *
+ */
+public class SftpListingCacheFileListFilter extends AbstractListingCacheFileListFilter<LsEntry> {
+
+	public SftpListingCacheFileListFilter(FileListFilter<LsEntry> delegate) {
+		super(delegate);
+	}
+
+	@Override
+	protected String fileName(LsEntry file) {
+		return file.getFilename();
+	}
+
+	@Override
+	protected long modified(LsEntry file) {
+		return ((long) file.getAttrs().getMTime()) * 1000;
+	}
+
+	@Override
+	protected long size(LsEntry file) {
+		return file.getAttrs().getSize();
+	}
+
+}
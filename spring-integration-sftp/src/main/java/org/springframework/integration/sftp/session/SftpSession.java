@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -257,6 +257,16 @@ public class SftpSession implements Session<LsEntry> {
 		return false;
 	}
 
+	@Override
+	public long lastModified(String path) throws IOException {
+		try {
+			return this.channel.stat(path).getMTime() * 1000L;
+		}
+		catch (SftpException e) {
+			throw new NestedIOException("Failed to stat " + path, e);
+		}
+	}
+
 	void connect() {
 		try {
 			if (!this.jschSession.isConnected()) {
@@ -21,12 +21,16 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.isOneOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 
 import org.hamcrest.Matchers;
@@ -55,6 +59,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.FileCopyUtils;
 
 import com.jcraft.jsch.ChannelSftp;
 
@@ -102,6 +107,39 @@ public class SftpTests extends SftpTestSupport {
 		registration.destroy();
 	}
 
+	@Test
+	public void testSftpInboundConcurrentFlow() throws IOException {
+		for (int i = 0; i < 10; i++) {
+			FileCopyUtils.copy(("concurrent" + i).getBytes(),
+					new File(this.sourceRemoteDirectory, "concurrent" + i + ".txt"));
+		}
+		QueueChannel out = new QueueChannel();
+		IntegrationFlow flow = IntegrationFlows.from(Sftp.inboundAdapter(sessionFactory())
+						.remoteDirectory("sftpSource")
+						.regexFilter(".*\\.txt$")
+						.concurrency(4)
+						.localDirectory(getTargetLocalDirectory()),
+				e -> e.poller(Pollers.fixedDelay(100).maxMessagesPerPoll(-1)))
+				.channel(out)
+				.get();
+		IntegrationFlowRegistration registration = this.flowContext.registration(flow).register();
+		Set<String> received = new HashSet<>();
+		for (int i = 0; i < 12; i++) {
+			Message<?> message = out.receive(10_000);
+			assertNotNull(message);
+			File file = (File) message.getPayload();
+			assertThat(file.getAbsolutePath(), containsString("localTarget"));
+			assertTrue(received.add(file.getName()));
+		}
+		for (int i = 0; i < 10; i++) {
+			assertTrue(received.contains("concurrent" + i + ".txt"));
+		}
+		assertTrue(received.contains(" sftpSource1.txt"));
+		assertTrue(received.contains("sftpSource2.txt"));
+		assertNull(out.receive(10));
+		registration.destroy();
+	}
+
 	@Test
 	public void testSftpInboundStreamFlow() throws Exception {
 		QueueChannel out = new QueueChannel();
@@ -200,6 +238,36 @@ public class SftpTests extends SftpTestSupport {
 		registration.destroy();
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSftpConcurrentMgetFlow() {
+		QueueChannel out = new QueueChannel();
+		IntegrationFlow flow = f -> f
+				.handle(Sftp.outboundGateway(sessionFactory(), AbstractRemoteFileOutboundGateway.Command.MGET,
+						"payload")
+						.options(AbstractRemoteFileOutboundGateway.Option.RECURSIVE)
+						.concurrency(3)
+						.localDirectoryExpression("'" + getTargetLocalDirectoryName() + "' + #remoteDirectory"))
+				.channel(out);
+		String dir = "sftpSource/";
+		IntegrationFlowRegistration registration = this.flowContext.registration(flow).register();
+		registration.getInputChannel().send(new GenericMessage<>(dir + "*"));
+		Message<?> result = out.receive(10_000);
+		assertNotNull(result);
+		List<File> localFiles = (List<File>) result.getPayload();
+		assertEquals(3, localFiles.size());
+		Set<String> names = new HashSet<>();
+		for (File file : localFiles) {
+			assertTrue(file.exists());
+			names.add(file.getName());
+		}
+		assertTrue(names.contains(" sftpSource1.txt"));
+		assertTrue(names.contains("sftpSource2.txt"));
+		assertTrue(names.contains("subSftpSource1.txt"));
+
+		registration.destroy();
+	}
+
 	@Configuration
 	@EnableIntegration
 	public static class ContextConfiguration {
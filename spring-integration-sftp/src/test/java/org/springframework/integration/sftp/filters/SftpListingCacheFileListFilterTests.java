@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.sftp.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.integration.file.filters.FileListFilter;
+import org.springframework.integration.metadata.SimpleMetadataStore;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.ChannelSftp.LsEntry;
+import com.jcraft.jsch.SftpATTRS;
+
+/**
+ * @since 5.0.1
+ *
+ */
+public class SftpListingCacheFileListFilterTests {
+
+	@Test
+	public void testFilesAcceptedBeforeRestartReachDelegateOnce() throws Exception {
+		SimpleMetadataStore store = new SimpleMetadataStore();
+		// 'foo' was accepted before a restart
+		store.put("sftp:foo", "1000000");
+		Map<String, Integer> presented = new HashMap<>();
+		SftpListingCacheFileListFilter filter = new SftpListingCacheFileListFilter(
+				countingFilter(new SftpPersistentAcceptOnceFileListFilter(store, "sftp:"), presented));
+		LsEntry[] files = new LsEntry[] { lsEntry("foo", 1000, 10), lsEntry("bar", 1000, 10) };
+		List<LsEntry> passed = filter.filterFiles(files);
+		assertEquals(1, passed.size());
+		assertEquals("bar", passed.get(0).getFilename());
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, filter.filterFiles(files).size());
+		}
+		assertEquals(Integer.valueOf(1), presented.get("foo"));
+		assertEquals(Integer.valueOf(1), presented.get("bar"));
+
+		LsEntry changedFoo = lsEntry("foo", 2000, 20);
+		passed = filter.filterFiles(new LsEntry[] { changedFoo, files[1] });
+		assertEquals(1, passed.size());
+		assertEquals("foo", passed.get(0).getFilename());
+		assertEquals(Integer.valueOf(2), presented.get("foo"));
+		assertEquals(Integer.valueOf(1), presented.get("bar"));
+		filter.close();
+	}
+
+	@Test
+	public void testRejectedFilesNotCached() throws Exception {
+		SimpleMetadataStore store = new SimpleMetadataStore();
+		store.put("sftp:foo", "1000000");
+		Map<String, Integer> presented = new HashMap<>();
+		SftpListingCacheFileListFilter filter = new SftpListingCacheFileListFilter(
+				countingFilter(new SftpPersistentAcceptOnceFileListFilter(store, "sftp:"), presented));
+		filter.setCacheRejected(false);
+		LsEntry[] files = new LsEntry[] { lsEntry("foo", 1000, 10), lsEntry("bar", 1000, 10) };
+		assertEquals(1, filter.filterFiles(files).size());
+		assertEquals(0, filter.filterFiles(files).size());
+		assertEquals(0, filter.filterFiles(files).size());
+		assertEquals(Integer.valueOf(3), presented.get("foo"));
+		assertEquals(Integer.valueOf(1), presented.get("bar"));
+		filter.close();
+	}
+
+	private static FileListFilter<LsEntry> countingFilter(FileListFilter<LsEntry> delegate,
+			Map<String, Integer> presented) {
+
+		return files -> {
+			for (LsEntry file : files) {
+				presented.merge(file.getFilename(), 1, Integer::sum);
+			}
+			return delegate.filterFiles(files);
+		};
+	}
+
+	private static LsEntry lsEntry(String name, int mtime, long size) throws Exception {
+		SftpATTRS attrs = mock(SftpATTRS.class);
+		when(attrs.getMTime()).thenReturn(mtime);
+		when(attrs.getSize()).thenReturn(size);
+		@SuppressWarnings("unchecked")
+		Constructor<LsEntry> ctor = (Constructor<LsEntry>) LsEntry.class.getDeclaredConstructors()[0];
+		ctor.setAccessible(true);
+		return ctor.newInstance(new ChannelSftp(), name, name, attrs);
+	}
+
+}
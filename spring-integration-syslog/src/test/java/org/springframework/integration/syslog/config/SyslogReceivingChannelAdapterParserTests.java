@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -131,6 +131,9 @@ public class SyslogReceivingChannelAdapterParserTests {
 		assertSame(converter, TestUtils.getPropertyValue(fullBoatUdp, "converter"));
 		assertSame(errors, TestUtils.getPropertyValue(fullBoatUdp, "errorChannel"));
 		assertFalse(TestUtils.getPropertyValue(fullBoatUdp, "udpAdapter.mapper.lookupHost", Boolean.class));
+		assertTrue(TestUtils.getPropertyValue(fullBoatUdp, "udpAdapter.usingNio", Boolean.class));
+		assertEquals(2, TestUtils.getPropertyValue(fullBoatUdp, "udpAdapter.receiverCount"));
+		assertEquals(16, TestUtils.getPropertyValue(fullBoatUdp, "udpAdapter.batchSize"));
 	}
 
 	@Test
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015-2016 the original author or authors.
+ * Copyright 2015-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,12 +16,17 @@
 
 package org.springframework.integration.zookeeper.metadata;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.PathChildrenCache;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
@@ -48,6 +53,8 @@ import org.springframework.util.Assert;
  */
 public class ZookeeperMetadataStore implements ListenableMetadataStore, SmartLifecycle {
 
+	private static final int TRANSACTION_SIZE = 500;
+
 	private final Object lifecycleMonitor = new Object();
 
 	private final CuratorFramework client;
@@ -136,6 +143,75 @@ public class ZookeeperMetadataStore implements ListenableMetadataStore, SmartLif
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>The keys present are determined from the local cache, and the absent keys are
+	 * created with multi-operation transactions of up to 500 nodes each, so that a
+	 * transaction doesn't exceed the server's {@code jute.maxbuffer}; if another client
+	 * created one of the nodes meanwhile, the whole transaction fails and its keys are
+	 * created one at a time.
+	 */
+	@Override
+	public Map<String, String> putIfAbsent(Map<String, String> entries) {
+		Assert.notNull(entries, "'entries' must not be null.");
+		Map<String, String> existing = new HashMap<>();
+		synchronized (this.updateMap) {
+			List<String> absent = new ArrayList<>();
+			for (Map.Entry<String, String> entry : entries.entrySet()) {
+				Assert.notNull(entry.getValue(), "'value' must not be null.");
+				String value = get(entry.getKey());
+				if (value != null) {
+					existing.put(entry.getKey(), value);
+				}
+				else {
+					absent.add(entry.getKey());
+				}
+			}
+			List<String> remaining = new ArrayList<>();
+			for (int from = 0; from < absent.size(); from += TRANSACTION_SIZE) {
+				List<String> chunk = absent.subList(from, Math.min(from + TRANSACTION_SIZE, absent.size()));
+				if (chunk.size() == 1 || !createNodes(chunk, entries)) {
+					remaining.addAll(chunk);
+				}
+			}
+			for (String key : remaining) {
+				String oldValue = putIfAbsent(key, entries.get(key));
+				if (oldValue != null) {
+					existing.put(key, oldValue);
+				}
+			}
+		}
+		return existing;
+	}
+
+	/**
+	 * Create the nodes in a single transaction.
+	 * @return false if one of them already exists.
+	 */
+	private boolean createNodes(List<String> keys, Map<String, String> entries) {
+		try {
+			CuratorTransactionFinal transaction = null;
+			for (String key : keys) {
+				CuratorTransaction next = transaction == null ? this.client.inTransaction() : transaction;
+				transaction = next.create()
+						.forPath(getPath(key), IntegrationUtils.stringToBytes(entries.get(key), this.encoding))
+						.and();
+			}
+			transaction.commit();
+			for (String key : keys) {
+				this.updateMap.put(key, new LocalChildData(entries.get(key), 0));
+			}
+			return true;
+		}
+		catch (KeeperException.NodeExistsException e) {
+			// created by another client; fall back to one key at a time
+			return false;
+		}
+		catch (Exception e) {
+			throw new ZookeeperMetadataStoreException("Error while trying to set keys " + keys + ":", e);
+		}
+	}
+
 	@Override
 	public boolean replace(String key, String oldValue, String newValue) {
 		Assert.notNull(key, "'key' must not be null.");
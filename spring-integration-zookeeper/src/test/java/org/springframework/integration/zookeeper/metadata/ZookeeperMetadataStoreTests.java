@@ -282,6 +282,37 @@ public class ZookeeperMetadataStoreTests extends ZookeeperTestSupport {
 		assertThat(notifiedChanges, hasSize(4));
 	}
 
+	@Test
+	public void testBulkPutIfAbsent() throws Exception {
+		metadataStore.put("existing", "old");
+		// created behind the store's back, so its cache may not have seen it yet
+		client.create().forPath(metadataStore.getPath("concurrent"),
+				IntegrationUtils.stringToBytes("other", "UTF-8"));
+		Map<String, String> entries = new HashMap<>();
+		entries.put("existing", "new");
+		entries.put("concurrent", "new");
+		// more than one transaction's worth of absent keys
+		for (int i = 0; i < 1200; i++) {
+			entries.put("key" + i, "value" + i);
+		}
+		Map<String, String> existing = metadataStore.putIfAbsent(entries);
+		assertEquals(2, existing.size());
+		assertEquals("old", existing.get("existing"));
+		assertEquals("other", existing.get("concurrent"));
+
+		assertEquals(1202, client.getChildren().forPath(metadataStore.getRoot()).size());
+		assertEquals("old",
+				IntegrationUtils.bytesToString(client.getData().forPath(metadataStore.getPath("existing")), "UTF-8"));
+		assertEquals("other",
+				IntegrationUtils.bytesToString(client.getData().forPath(metadataStore.getPath("concurrent")), "UTF-8"));
+		for (int i = 0; i < 1200; i++) {
+			assertEquals("value" + i, IntegrationUtils.bytesToString(
+					client.getData().forPath(metadataStore.getPath("key" + i)), "UTF-8"));
+		}
+
+		assertEquals(0, metadataStore.putIfAbsent(new HashMap<>()).size());
+	}
+
 	@Test
 	public void testListenerInvokedOnRemoteChanges() throws Exception {
 		String testKey = "ZookeeperMetadataStoreTests";